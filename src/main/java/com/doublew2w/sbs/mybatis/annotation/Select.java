@@ -24,4 +24,22 @@ import java.lang.annotation.*;
 public @interface Select {
   /** 查询SQL语句. */
   String[] value();
+
+  /** 每次批量获取的行数，-1 表示使用默认值；MySQL 流式读取配置为 Integer.MIN_VALUE */
+  int fetchSize() default -1;
+
+  /** 超时秒数，-1 表示使用全局 defaultStatementTimeout */
+  int timeout() default -1;
+
+  /** 驱动最多返回的行数，-1 表示不限制 */
+  int maxRows() default -1;
+
+  /** 键集分页的排序列，配合 Page 参数使用 */
+  String keysetColumn() default "";
+
+  /** 键集分页时从结果对象上读取下一页起点的属性，默认与 keysetColumn 同名 */
+  String keysetProperty() default "";
+
+  /** 借用连接时使用的连接池通道，见 PooledDataSource#addLane */
+  String lane() default "";
 }
@@ -13,4 +13,7 @@ import java.lang.annotation.*;
 public @interface Update {
   /** 查询SQL语句. */
   String[] value();
+
+  /** 超时秒数，-1 表示使用全局 defaultStatementTimeout */
+  int timeout() default -1;
 }
@@ -1,11 +1,19 @@
 package com.doublew2w.sbs.mybatis.binding;
 
+import com.doublew2w.sbs.mybatis.cursor.Cursor;
 import com.doublew2w.sbs.mybatis.mapping.MappedStatement;
 import com.doublew2w.sbs.mybatis.mapping.SqlCommandType;
 import com.doublew2w.sbs.mybatis.session.Configuration;
+import com.doublew2w.sbs.mybatis.session.ResultHandler;
+import com.doublew2w.sbs.mybatis.session.RowBounds;
 import com.doublew2w.sbs.mybatis.session.SqlSession;
+import com.doublew2w.sbs.mybatis.session.SqlSessionFactory;
+import com.doublew2w.sbs.mybatis.session.defaults.DefaultSqlSessionFactory;
 import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import lombok.Getter;
 
 /**
@@ -26,6 +34,36 @@ public class MapperMethod {
   }
 
   public Object execute(SqlSession sqlSession, Object[] args) {
+    if (method.returnsFuture) {
+      return executeAsync(sqlSession.getConfiguration(), args);
+    }
+    return executeSync(sqlSession, args);
+  }
+
+  /**
+   * 异步执行：在配置的异步执行器上运行，每次调用从环境数据源打开独立的会话和连接，结束后提交并关闭
+   *
+   * <p>调用方的会话不跨线程共享，因此异步方法不参与调用方的事务
+   */
+  private CompletableFuture<Object> executeAsync(Configuration configuration, Object[] args) {
+    SqlSessionFactory sqlSessionFactory = new DefaultSqlSessionFactory(configuration);
+    return CompletableFuture.supplyAsync(
+        () -> {
+          SqlSession sqlSession = sqlSessionFactory.openSession();
+          try {
+            Object result = executeSync(sqlSession, args);
+            if (command.getType() != SqlCommandType.SELECT) {
+              sqlSession.commit();
+            }
+            return result;
+          } finally {
+            sqlSession.close();
+          }
+        },
+        configuration.getAsyncExecutor());
+  }
+
+  private Object executeSync(SqlSession sqlSession, Object[] args) {
     Object result = null;
     switch (command.getType()) {
       case INSERT:
@@ -49,8 +87,13 @@ public class MapperMethod {
       case SELECT:
         {
           Object param = method.convertArgsToSqlCommandParam(args);
-          if (method.returnsMany) {
-            result = sqlSession.selectList(command.getName(), param);
+          if (method.returnsVoid && method.hasResultHandler()) {
+            executeWithResultHandler(sqlSession, args);
+            result = null;
+          } else if (method.returnsCursor) {
+            result = executeForCursor(sqlSession, args, param);
+          } else if (method.returnsMany) {
+            result = executeForMany(sqlSession, args, param);
           } else {
             result = sqlSession.selectOne(command.getName(), param);
           }
@@ -62,6 +105,39 @@ public class MapperMethod {
     return result;
   }
 
+  /** 查询多条记录，参数中带 RowBounds 时分页 */
+  private Object executeForMany(SqlSession sqlSession, Object[] args, Object param) {
+    if (method.hasRowBounds()) {
+      return sqlSession.selectList(command.getName(), param, method.extractRowBounds(args));
+    }
+    return sqlSession.selectList(command.getName(), param);
+  }
+
+  /** 推模式查询：结果逐行交给参数中的 ResultHandler */
+  private void executeWithResultHandler(SqlSession sqlSession, Object[] args) {
+    Object param = method.convertArgsToSqlCommandParam(args);
+    if (method.hasRowBounds()) {
+      RowBounds rowBounds = method.extractRowBounds(args);
+      sqlSession.select(command.getName(), param, rowBounds, method.extractResultHandler(args));
+    } else {
+      sqlSession.select(command.getName(), param, method.extractResultHandler(args));
+    }
+  }
+
+  /** 游标查询，返回 Iterator 时直接交出游标的迭代器，读完即释放语句 */
+  private Object executeForCursor(SqlSession sqlSession, Object[] args, Object param) {
+    Cursor<Object> cursor;
+    if (method.hasRowBounds()) {
+      cursor = sqlSession.selectCursor(command.getName(), param, method.extractRowBounds(args));
+    } else {
+      cursor = sqlSession.selectCursor(command.getName(), param);
+    }
+    if (Iterator.class.equals(method.returnType)) {
+      return cursor.iterator();
+    }
+    return cursor;
+  }
+
   /** SQL 指令 */
   @Getter
   public static class SqlCommand {
@@ -82,14 +158,34 @@ public class MapperMethod {
   /** 方法签名 */
   public static class MethodSignature {
     private final boolean returnsMany;
+    private final boolean returnsCursor;
+    private final boolean returnsVoid;
+    /** 返回 CompletableFuture，异步执行 */
+    private final boolean returnsFuture;
+    /** ResultHandler 参数的下标，没有则为 null */
+    private final Integer resultHandlerIndex;
+    /** RowBounds 参数的下标，没有则为 null */
+    private final Integer rowBoundsIndex;
     private final Class<?> returnType;
     private final SortedMap<Integer, String> params;
 
     public MethodSignature(Configuration configuration, Method method) {
-      this.returnType = method.getReturnType();
+      this.returnsFuture = CompletableFuture.class.equals(method.getReturnType());
+      // 异步方法按 CompletableFuture 的泛型参数判断结果形式
+      this.returnType = returnsFuture ? resolveFutureResultType(method) : method.getReturnType();
       this.returnsMany =
           (configuration.getObjectFactory().isCollection(this.returnType)
               || this.returnType.isArray());
+      this.returnsCursor =
+          Cursor.class.equals(this.returnType) || Iterator.class.equals(this.returnType);
+      this.returnsVoid = void.class.equals(this.returnType) || Void.class.equals(this.returnType);
+      if (returnsFuture && returnsCursor) {
+        // 游标依赖打开的会话，异步执行结束时会话已经关闭
+        throw new RuntimeException(
+            method.getName() + " cannot return a Cursor or Iterator asynchronously");
+      }
+      this.resultHandlerIndex = getUniqueParamIndex(method, ResultHandler.class);
+      this.rowBoundsIndex = getUniqueParamIndex(method, RowBounds.class);
       this.params = Collections.unmodifiableSortedMap(getParams(method));
     }
 
@@ -99,7 +195,7 @@ public class MapperMethod {
         // 五参数
         return null;
       } else if (paramCount == 1) {
-        return args[0];
+        return args[params.firstKey()];
       } else {
         // 否则，返回一个ParamMap，修改参数名，参数名就是其位置
         final Map<String, Object> param = new ParamMap<>();
@@ -124,19 +220,84 @@ public class MapperMethod {
       }
     }
 
+    private static Class<?> resolveFutureResultType(Method method) {
+      Type genericReturnType = method.getGenericReturnType();
+      if (genericReturnType instanceof ParameterizedType) {
+        Type resultType = ((ParameterizedType) genericReturnType).getActualTypeArguments()[0];
+        if (resultType instanceof Class) {
+          return (Class<?>) resultType;
+        } else if (resultType instanceof ParameterizedType) {
+          return (Class<?>) ((ParameterizedType) resultType).getRawType();
+        }
+      }
+      return Object.class;
+    }
+
     private SortedMap<Integer, String> getParams(Method method) {
       final SortedMap<Integer, String> params = new TreeMap<>();
       final Class<?>[] argTypes = method.getParameterTypes();
       for (int i = 0; i < argTypes.length; i++) {
+        // RowBounds、ResultHandler 是特殊参数，不作为SQL参数
+        if (isSpecialParameter(argTypes[i])) {
+          continue;
+        }
         String paramName = String.valueOf(params.size());
         params.put(i, paramName);
       }
       return params;
     }
 
+    private static boolean isSpecialParameter(Class<?> argType) {
+      return RowBounds.class.isAssignableFrom(argType)
+          || ResultHandler.class.isAssignableFrom(argType);
+    }
+
+    private Integer getUniqueParamIndex(Method method, Class<?> paramType) {
+      Integer index = null;
+      final Class<?>[] argTypes = method.getParameterTypes();
+      for (int i = 0; i < argTypes.length; i++) {
+        if (paramType.isAssignableFrom(argTypes[i])) {
+          if (index == null) {
+            index = i;
+          } else {
+            throw new RuntimeException(
+                method.getName()
+                    + " cannot have multiple "
+                    + paramType.getSimpleName()
+                    + " parameters");
+          }
+        }
+      }
+      return index;
+    }
+
+    public boolean hasResultHandler() {
+      return resultHandlerIndex != null;
+    }
+
+    public boolean hasRowBounds() {
+      return rowBoundsIndex != null;
+    }
+
+    public ResultHandler extractResultHandler(Object[] args) {
+      return hasResultHandler() ? (ResultHandler) args[resultHandlerIndex] : null;
+    }
+
+    public RowBounds extractRowBounds(Object[] args) {
+      return hasRowBounds() ? (RowBounds) args[rowBoundsIndex] : null;
+    }
+
     public boolean returnsMany() {
       return returnsMany;
     }
+
+    public boolean returnsCursor() {
+      return returnsCursor;
+    }
+
+    public boolean returnsFuture() {
+      return returnsFuture;
+    }
   }
 
   /** 参数map，静态内部类,更严格的get方法，如果没有相应的key，报错 */
@@ -64,4 +64,8 @@ public abstract class BaseBuilder {
   protected Boolean booleanValueOf(String value, Boolean defaultValue) {
     return value == null ? defaultValue : Boolean.valueOf(value);
   }
+
+  protected Integer integerValueOf(String value, Integer defaultValue) {
+    return value == null ? defaultValue : Integer.valueOf(value);
+  }
 }
@@ -82,6 +82,12 @@ public class MapperBuilderAssistant extends BaseBuilder {
       Class<?> resultType,
       boolean flushCache,
       boolean useCache,
+      Integer fetchSize,
+      Integer timeout,
+      Integer maxRows,
+      String keysetColumn,
+      String keysetProperty,
+      String lane,
       KeyGenerator keyGenerator,
       String keyProperty,
       LanguageDriver lang) {
@@ -93,7 +99,12 @@ public class MapperBuilderAssistant extends BaseBuilder {
         new MappedStatement.Builder(configuration, id, sqlCommandType, sqlSource, resultType)
             .resource(resource)
             .keyGenerator(keyGenerator)
-            .keyProperty(keyProperty);
+            .keyProperty(keyProperty)
+            .fetchSize(fetchSize)
+            .timeout(timeout)
+            .maxRows(maxRows)
+            .keyset(keysetColumn, keysetProperty)
+            .lane(lane);
 
     // 结果映射，给 MappedStatement#resultMaps
     setStatementResultMap(resultMap, resultType, statementBuilder);
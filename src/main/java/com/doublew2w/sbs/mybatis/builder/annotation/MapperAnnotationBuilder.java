@@ -6,6 +6,7 @@ import com.doublew2w.sbs.mybatis.annotation.Select;
 import com.doublew2w.sbs.mybatis.annotation.Update;
 import com.doublew2w.sbs.mybatis.binding.MapperMethod;
 import com.doublew2w.sbs.mybatis.builder.MapperBuilderAssistant;
+import com.doublew2w.sbs.mybatis.cursor.Cursor;
 import com.doublew2w.sbs.mybatis.executor.keygen.Jdbc3KeyGenerator;
 import com.doublew2w.sbs.mybatis.executor.keygen.KeyGenerator;
 import com.doublew2w.sbs.mybatis.executor.keygen.NoKeyGenerator;
@@ -19,8 +20,10 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.*;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.Locale;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -97,12 +100,78 @@ public class MapperAnnotationBuilder {
           getReturnType(method),
           false,
           false,
+          getFetchSize(method),
+          getTimeout(method),
+          getMaxRows(method),
+          getKeysetColumn(method),
+          getKeysetProperty(method),
+          getLane(method),
           keyGenerator,
           keyProperty,
           languageDriver);
     }
   }
 
+  /** 获取 &#064;Select 上配置的 fetchSize，未配置返回 null */
+  private Integer getFetchSize(Method method) {
+    Select select = method.getAnnotation(Select.class);
+    if (select == null || select.fetchSize() == -1) {
+      return null;
+    }
+    return select.fetchSize();
+  }
+
+  /** 获取语句注解上配置的超时秒数，未配置返回 null */
+  private Integer getTimeout(Method method) {
+    int timeout = -1;
+    if (method.isAnnotationPresent(Select.class)) {
+      timeout = method.getAnnotation(Select.class).timeout();
+    } else if (method.isAnnotationPresent(Update.class)) {
+      timeout = method.getAnnotation(Update.class).timeout();
+    } else if (method.isAnnotationPresent(Insert.class)) {
+      timeout = method.getAnnotation(Insert.class).timeout();
+    } else if (method.isAnnotationPresent(Delete.class)) {
+      timeout = method.getAnnotation(Delete.class).timeout();
+    }
+    return timeout == -1 ? null : timeout;
+  }
+
+  /** 获取 &#064;Select 上配置的 maxRows，未配置返回 null */
+  private Integer getMaxRows(Method method) {
+    Select select = method.getAnnotation(Select.class);
+    if (select == null || select.maxRows() == -1) {
+      return null;
+    }
+    return select.maxRows();
+  }
+
+  /** 获取 &#064;Select 上配置的键集分页列，未配置返回 null */
+  private String getKeysetColumn(Method method) {
+    Select select = method.getAnnotation(Select.class);
+    if (select == null || select.keysetColumn().isEmpty()) {
+      return null;
+    }
+    return select.keysetColumn();
+  }
+
+  /** 获取 &#064;Select 上配置的键集分页属性，未配置返回 null */
+  private String getKeysetProperty(Method method) {
+    Select select = method.getAnnotation(Select.class);
+    if (select == null || select.keysetProperty().isEmpty()) {
+      return null;
+    }
+    return select.keysetProperty();
+  }
+
+  /** 获取 &#064;Select 上配置的连接池通道，未配置返回 null */
+  private String getLane(Method method) {
+    Select select = method.getAnnotation(Select.class);
+    if (select == null || select.lane().isEmpty()) {
+      return null;
+    }
+    return select.lane();
+  }
+
   /**
    * 获取方法的参数类型
    *
@@ -198,9 +267,22 @@ public class MapperAnnotationBuilder {
   private Class<?> getReturnType(Method method) {
     // 获取方法的返回类型
     Class<?> returnType = method.getReturnType();
-    if (Collection.class.isAssignableFrom(returnType)) {
+    Type genericReturnType = method.getGenericReturnType();
+    if (CompletableFuture.class.equals(returnType)
+        && genericReturnType instanceof ParameterizedType) {
+      // 异步方法取 CompletableFuture 的泛型参数
+      genericReturnType = ((ParameterizedType) genericReturnType).getActualTypeArguments()[0];
+      if (genericReturnType instanceof Class) {
+        returnType = (Class<?>) genericReturnType;
+      } else if (genericReturnType instanceof ParameterizedType) {
+        returnType = (Class<?>) ((ParameterizedType) genericReturnType).getRawType();
+      }
+    }
+    if (Collection.class.isAssignableFrom(returnType)
+        || Cursor.class.isAssignableFrom(returnType)
+        || Iterator.class.equals(returnType)) {
       // 如果是list，尝试获取其泛型参数类型
-      Type returnTypeParameter = method.getGenericReturnType();
+      Type returnTypeParameter = genericReturnType;
       // 检查返回类型是否为泛型
       if (returnTypeParameter instanceof ParameterizedType) {
         // 获取泛型参数的实际类型
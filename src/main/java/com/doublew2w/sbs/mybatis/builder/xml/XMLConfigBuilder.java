@@ -2,10 +2,15 @@ package com.doublew2w.sbs.mybatis.builder.xml;
 
 import com.doublew2w.sbs.mybatis.builder.BaseBuilder;
 import com.doublew2w.sbs.mybatis.datasource.DataSourceFactory;
+import com.doublew2w.sbs.mybatis.datasource.routing.LoadBalanceStrategy;
+import com.doublew2w.sbs.mybatis.datasource.routing.ReplicaSet;
+import com.doublew2w.sbs.mybatis.datasource.routing.RoutingDataSource;
+import com.doublew2w.sbs.mybatis.datasource.sharding.ShardingDataSource;
 import com.doublew2w.sbs.mybatis.io.Resources;
 import com.doublew2w.sbs.mybatis.mapping.Environment;
 import com.doublew2w.sbs.mybatis.plugin.Interceptor;
 import com.doublew2w.sbs.mybatis.session.Configuration;
+import com.doublew2w.sbs.mybatis.session.ExecutorType;
 import com.doublew2w.sbs.mybatis.session.LocalCacheScope;
 import com.doublew2w.sbs.mybatis.transaction.TransactionFactory;
 import java.io.InputStream;
@@ -70,6 +75,23 @@ public class XMLConfigBuilder extends BaseBuilder {
    * &lt;settings&gt;
    *     &lt;!--缓存级别：SESSION/STATEMENT--&gt;
    *     &lt;setting name="localCacheScope" value="SESSION"/&gt;
+   *     &lt;!--执行器类型：SIMPLE/REUSE/BATCH--&gt;
+   *     &lt;setting name="defaultExecutorType" value="SIMPLE"/&gt;
+   *     &lt;!--二级缓存未命中时合并同一Key的并发查询，等待超时毫秒数--&gt;
+   *     &lt;setting name="singleFlightEnabled" value="true"/&gt;
+   *     &lt;setting name="singleFlightTimeout" value="5000"/&gt;
+   *     &lt;!--语句未配置时的超时秒数、fetchSize--&gt;
+   *     &lt;setting name="defaultStatementTimeout" value="30"/&gt;
+   *     &lt;setting name="defaultFetchSize" value="100"/&gt;
+   *     &lt;!--按历史返回行数自动调整 fetchSize 及其上限--&gt;
+   *     &lt;setting name="adaptiveFetchSize" value="true"/&gt;
+   *     &lt;setting name="adaptiveMaxFetchSize" value="1000"/&gt;
+   *     &lt;!--异步映射器方法：平台线程池大小、队列容量、是否使用虚拟线程--&gt;
+   *     &lt;setting name="asyncPoolSize" value="16"/&gt;
+   *     &lt;setting name="asyncQueueCapacity" value="1024"/&gt;
+   *     &lt;setting name="useVirtualThreads" value="true"/&gt;
+   *     &lt;!--并行查询单次调用的最大并发连接数--&gt;
+   *     &lt;setting name="parallelQueryMaxConcurrency" value="4"/&gt;
    * &lt;/settings&gt;
    * </pre>
    */
@@ -82,6 +104,33 @@ public class XMLConfigBuilder extends BaseBuilder {
     }
     configuration.setCacheEnabled(booleanValueOf(props.getProperty("cacheEnabled"), true));
     configuration.setLocalCacheScope(LocalCacheScope.valueOf(props.getProperty("localCacheScope")));
+    configuration.setDefaultExecutorType(
+        ExecutorType.valueOf(props.getProperty("defaultExecutorType", "SIMPLE")));
+    configuration.setSingleFlightEnabled(
+        booleanValueOf(props.getProperty("singleFlightEnabled"), false));
+    String singleFlightTimeout = props.getProperty("singleFlightTimeout");
+    if (singleFlightTimeout != null) {
+      configuration.setSingleFlightTimeout(Long.parseLong(singleFlightTimeout));
+    }
+    configuration.setDefaultStatementTimeout(
+        integerValueOf(props.getProperty("defaultStatementTimeout"), null));
+    configuration.setDefaultFetchSize(integerValueOf(props.getProperty("defaultFetchSize"), null));
+    configuration.setAdaptiveFetchSize(
+        booleanValueOf(props.getProperty("adaptiveFetchSize"), false));
+    configuration.setAdaptiveMaxFetchSize(
+        integerValueOf(
+            props.getProperty("adaptiveMaxFetchSize"), configuration.getAdaptiveMaxFetchSize()));
+    configuration.setAsyncPoolSize(
+        integerValueOf(props.getProperty("asyncPoolSize"), configuration.getAsyncPoolSize()));
+    configuration.setAsyncQueueCapacity(
+        integerValueOf(
+            props.getProperty("asyncQueueCapacity"), configuration.getAsyncQueueCapacity()));
+    configuration.setParallelQueryMaxConcurrency(
+        integerValueOf(
+            props.getProperty("parallelQueryMaxConcurrency"),
+            configuration.getParallelQueryMaxConcurrency()));
+    configuration.setUseVirtualThreads(
+        booleanValueOf(props.getProperty("useVirtualThreads"), true));
   }
 
   /**
@@ -139,19 +188,29 @@ public class XMLConfigBuilder extends BaseBuilder {
                     .newInstance();
         // 数据源
         Element dataSourceElement = e.element("dataSource");
-        DataSourceFactory dataSourceFactory =
-            (DataSourceFactory)
-                typeAliasRegistry
-                    .resolveAlias(dataSourceElement.attributeValue("type"))
-                    .newInstance();
         // 注入数据源配置属性
         List<Element> propertyList = dataSourceElement.elements("property");
         Properties props = new Properties();
         for (Element property : propertyList) {
           props.setProperty(property.attributeValue("name"), property.attributeValue("value"));
         }
-        dataSourceFactory.setProperties(props);
-        DataSource dataSource = dataSourceFactory.getDataSource();
+        DataSource dataSource;
+        List<Element> shardElements = dataSourceElement.elements("shard");
+        List<Element> replicaElements = dataSourceElement.elements("replica");
+        if (!shardElements.isEmpty()) {
+          // 分库：每个分片一个数据源
+          if (!replicaElements.isEmpty()) {
+            throw new RuntimeException(
+                "<shard> and <replica> cannot be combined in one dataSource");
+          }
+          dataSource = shardingDataSource(dataSourceElement, shardElements, props);
+        } else {
+          dataSource = childDataSource(dataSourceElement, dataSourceElement, new Properties());
+          // 读写分离：配置了从库时包装成路由数据源
+          if (!replicaElements.isEmpty()) {
+            dataSource = routingDataSource(dataSourceElement, replicaElements, props, dataSource);
+          }
+        }
 
         // 构建环境
         Environment.Builder environmentBuilder =
@@ -161,6 +220,87 @@ public class XMLConfigBuilder extends BaseBuilder {
     }
   }
 
+  /**
+   * 构建读写分离数据源，从库未声明 type 时与主库相同，属性在主库属性基础上覆盖
+   *
+   * <pre>
+   * &lt;dataSource type="POOLED" loadBalance="LEAST_OUTSTANDING" replicaRetryInterval="30000"&gt;
+   *     &lt;property name="url" value="jdbc:mysql://primary:3306/db"/&gt;
+   *     ...
+   *     &lt;replica&gt;
+   *         &lt;property name="url" value="jdbc:mysql://replica1:3306/db"/&gt;
+   *     &lt;/replica&gt;
+   * &lt;/dataSource&gt;
+   * </pre>
+   */
+  private DataSource routingDataSource(
+      Element dataSourceElement,
+      List<Element> replicaElements,
+      Properties primaryProps,
+      DataSource primary)
+      throws Exception {
+    List<DataSource> replicas = new ArrayList<>();
+    for (Element replicaElement : replicaElements) {
+      replicas.add(childDataSource(dataSourceElement, replicaElement, primaryProps));
+    }
+    ReplicaSet replicaSet =
+        new ReplicaSet(
+            replicas,
+            LoadBalanceStrategy.valueOf(
+                dataSourceElement.attributeValue("loadBalance", "ROUND_ROBIN")));
+    String retryInterval = dataSourceElement.attributeValue("replicaRetryInterval");
+    if (retryInterval != null) {
+      replicaSet.setRetryInterval(Long.parseLong(retryInterval));
+    }
+    String failureThreshold = dataSourceElement.attributeValue("replicaFailureThreshold");
+    if (failureThreshold != null) {
+      replicaSet.setFailureThreshold(Integer.parseInt(failureThreshold));
+    }
+    return new RoutingDataSource(primary, replicaSet);
+  }
+
+  /**
+   * 构建分库数据源，分片未声明 type 时与 dataSource 相同，属性在 dataSource 属性基础上覆盖
+   *
+   * <pre>
+   * &lt;dataSource type="POOLED"&gt;
+   *     &lt;property name="driver" value="com.mysql.cj.jdbc.Driver"/&gt;
+   *     ...
+   *     &lt;shard name="ds_0"&gt;
+   *         &lt;property name="url" value="jdbc:mysql://shard0:3306/db"/&gt;
+   *     &lt;/shard&gt;
+   * &lt;/dataSource&gt;
+   * </pre>
+   */
+  private DataSource shardingDataSource(
+      Element dataSourceElement, List<Element> shardElements, Properties commonProps)
+      throws Exception {
+    Map<String, DataSource> shards = new LinkedHashMap<>();
+    for (Element shardElement : shardElements) {
+      String name = shardElement.attributeValue("name");
+      if (name == null || shards.containsKey(name)) {
+        throw new RuntimeException("Each <shard> requires a unique name, found: " + name);
+      }
+      shards.put(name, childDataSource(dataSourceElement, shardElement, commonProps));
+    }
+    return new ShardingDataSource(shards);
+  }
+
+  /** 按子元素创建数据源：type 默认取 dataSource 的 type，属性覆盖在 parentProps 之上 */
+  private DataSource childDataSource(
+      Element dataSourceElement, Element element, Properties parentProps) throws Exception {
+    String type = element.attributeValue("type", dataSourceElement.attributeValue("type"));
+    DataSourceFactory dataSourceFactory =
+        (DataSourceFactory) typeAliasRegistry.resolveAlias(type).newInstance();
+    Properties props = new Properties();
+    props.putAll(parentProps);
+    for (Element property : element.elements("property")) {
+      props.setProperty(property.attributeValue("name"), property.attributeValue("value"));
+    }
+    dataSourceFactory.setProperties(props);
+    return dataSourceFactory.getDataSource();
+  }
+
   /**
    * 解析 mapper 资源
    *
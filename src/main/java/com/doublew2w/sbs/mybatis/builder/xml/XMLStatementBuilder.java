@@ -59,6 +59,12 @@ public class XMLStatementBuilder extends BaseBuilder {
    *
    * <p>fetchSize="256"
    *
+   * <p>maxRows="1000"
+   *
+   * <p>keysetColumn="id" keysetProperty="id"
+   *
+   * <p>lane="report"
+   *
    * <p>statementType="PREPARED"
    *
    * <p>resultSetType="FORWARD_ONLY"&gt;
@@ -86,6 +92,16 @@ public class XMLStatementBuilder extends BaseBuilder {
         Boolean.parseBoolean(element.attributeValue("flushCache", String.valueOf(!isSelect)));
     boolean useCache =
         Boolean.parseBoolean(element.attributeValue("useCache", String.valueOf(!isSelect)));
+    // 每次批量获取的行数
+    Integer fetchSize = integerValueOf(element.attributeValue("fetchSize"), null);
+    // 超时秒数、驱动最多返回的行数
+    Integer timeout = integerValueOf(element.attributeValue("timeout"), null);
+    Integer maxRows = integerValueOf(element.attributeValue("maxRows"), null);
+    // 键集分页：排序/定位的列，以及结果对象上对应的属性（默认与列同名）
+    String keysetColumn = element.attributeValue("keysetColumn");
+    String keysetProperty = element.attributeValue("keysetProperty");
+    // 借用连接时使用的连接池通道
+    String lane = element.attributeValue("lane");
 
     // 获取默认语言驱动器
     LanguageDriver langDriver = configuration.getLanguageRegistry().getDefaultDriver();
@@ -121,6 +137,12 @@ public class XMLStatementBuilder extends BaseBuilder {
         resultTypeClass,
         flushCache,
         useCache,
+        fetchSize,
+        timeout,
+        maxRows,
+        keysetColumn,
+        keysetProperty,
+        lane,
         keyGenerator,
         keyProperty,
         langDriver);
@@ -194,6 +216,12 @@ public class XMLStatementBuilder extends BaseBuilder {
         resultTypeClass,
         flushCache,
         useCache,
+        null,
+        null,
+        null,
+        null,
+        null,
+        null,
         keyGenerator,
         keyProperty,
         langDriver);
@@ -0,0 +1,99 @@
+package com.doublew2w.sbs.mybatis.cache;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单飞：合并同一缓存 Key 的并发查询
+ *
+ * <p>二级缓存未命中时，第一个到达的会话执行查询，同一 Key 的其他会话等待并共享它的结果，热点 Key 同一时刻最多一条查询打到数据库。
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/18 6:30
+ * @project: sbs-mybatis
+ */
+public class SingleFlight {
+
+  /** 进行中的查询 */
+  private final ConcurrentHashMap<CacheKey, CompletableFuture<List<?>>> inFlight =
+      new ConcurrentHashMap<>();
+
+  /** 合并掉的查询次数 */
+  private final LongAdder sharedCount = new LongAdder();
+
+  /** 查询 */
+  @FunctionalInterface
+  public interface Query<E> {
+    List<E> execute() throws SQLException;
+  }
+
+  /**
+   * 执行查询，同一 Key 已有查询在进行时等待其结果
+   *
+   * @param key 缓存 Key
+   * @param query 查询
+   * @param timeoutMillis 等待其他会话查询结果的超时毫秒数
+   * @return 查询结果的副本，各会话可以独立修改
+   */
+  @SuppressWarnings("unchecked")
+  public <E> List<E> execute(CacheKey key, Query<E> query, long timeoutMillis)
+      throws SQLException {
+    CompletableFuture<List<?>> call = new CompletableFuture<>();
+    CompletableFuture<List<?>> existing = inFlight.putIfAbsent(key, call);
+    if (existing != null) {
+      sharedCount.increment();
+      return new ArrayList<>((List<E>) await(key, existing, timeoutMillis));
+    }
+    try {
+      // 共享不可修改的快照，每个会话（包括执行查询的会话）各自拿到副本
+      List<E> snapshot = Collections.unmodifiableList(new ArrayList<>(query.execute()));
+      call.complete(snapshot);
+      return new ArrayList<>(snapshot);
+    } catch (SQLException | RuntimeException | Error e) {
+      call.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlight.remove(key, call);
+    }
+  }
+
+  private List<?> await(CacheKey key, CompletableFuture<List<?>> call, long timeoutMillis)
+      throws SQLException {
+    try {
+      return call.get(timeoutMillis, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      throw new CacheException(
+          "Timed out after " + timeoutMillis + "ms waiting for in-flight query " + key);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CacheException("Interrupted waiting for in-flight query " + key, e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof SQLException) {
+        throw (SQLException) cause;
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new CacheException("In-flight query failed for " + key, cause);
+    }
+  }
+
+  /** 当前进行中的查询数 */
+  public int getInFlightCount() {
+    return inFlight.size();
+  }
+
+  /** 被合并、共享了其他会话结果的查询次数 */
+  public long getSharedCount() {
+    return sharedCount.sum();
+  }
+}
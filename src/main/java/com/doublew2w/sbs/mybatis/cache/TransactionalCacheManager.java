@@ -27,6 +27,12 @@ public class TransactionalCacheManager {
     getTransactionalCache(cache).putObject(key, value);
   }
 
+  /** 本事务是否清空过该缓存，清空过说明有未提交的写，查询结果不能与其他会话共享 */
+  public boolean isClearOnCommit(Cache cache) {
+    TransactionalCache txCache = transactionalCaches.get(cache);
+    return txCache != null && txCache.isClearOnCommit();
+  }
+
   /** 提交时全部提交 */
   public void commit() {
     for (TransactionalCache txCache : transactionalCaches.values()) {
@@ -66,6 +66,11 @@ public class TransactionalCache implements Cache {
     entriesToAddOnCommit.clear();
   }
 
+  /** 本事务是否清空过缓存（有未提交的写） */
+  public boolean isClearOnCommit() {
+    return clearOnCommit;
+  }
+
   public void commit() {
     if (clearOnCommit) {
       delegate.clear();
@@ -0,0 +1,31 @@
+package com.doublew2w.sbs.mybatis.cursor;
+
+import java.io.Closeable;
+
+/**
+ * 游标：惰性地逐行获取结果
+ *
+ * <p>每次迭代只映射一行数据，适用于结果集很大、无法一次性加载到内存的场景。
+ *
+ * <p>游标打开期间语句和结果集保持打开，读取完毕或调用 {@link #close()} 后释放；游标只能迭代一次。
+ *
+ * @param <T> 结果类型
+ * @author: DoubleW2w
+ * @date: 2026/10/18 1:05
+ * @project: sbs-mybatis
+ */
+public interface Cursor<T> extends Closeable, Iterable<T> {
+
+  /** 游标是否已开始读取且尚未关闭 */
+  boolean isOpen();
+
+  /** 所有行是否都已读取 */
+  boolean isConsumed();
+
+  /**
+   * 获取当前行的下标（从0开始），尚未读取任何行时返回 -1
+   *
+   * @return 当前行的下标
+   */
+  int getCurrentIndex();
+}
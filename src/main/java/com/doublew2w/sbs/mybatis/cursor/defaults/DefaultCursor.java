@@ -0,0 +1,211 @@
+package com.doublew2w.sbs.mybatis.cursor.defaults;
+
+import com.doublew2w.sbs.mybatis.cursor.Cursor;
+import com.doublew2w.sbs.mybatis.executor.resultset.DefaultResultSetHandler;
+import com.doublew2w.sbs.mybatis.executor.resultset.ResultSetWrapper;
+import com.doublew2w.sbs.mybatis.mapping.ResultMap;
+import com.doublew2w.sbs.mybatis.session.ResultContext;
+import com.doublew2w.sbs.mybatis.session.ResultHandler;
+import com.doublew2w.sbs.mybatis.session.RowBounds;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 默认游标
+ *
+ * <p>借助 {@link DefaultResultSetHandler} 每次只映射一行：结果处理器拿到一行后立即停止结果上下文。
+ *
+ * @param <T> 结果类型
+ * @author: DoubleW2w
+ * @date: 2026/10/18 1:10
+ * @project: sbs-mybatis
+ */
+public class DefaultCursor<T> implements Cursor<T> {
+
+  private final DefaultResultSetHandler resultSetHandler;
+  private final ResultMap resultMap;
+  private final ResultSetWrapper rsw;
+  private final RowBounds rowBounds;
+
+  /** 暂存刚映射好的一行 */
+  private final ObjectWrapperResultHandler<T> objectWrapperResultHandler =
+      new ObjectWrapperResultHandler<>();
+
+  private final CursorIterator cursorIterator = new CursorIterator();
+  private boolean iteratorRetrieved;
+
+  private CursorStatus status = CursorStatus.CREATED;
+  private int indexWithRowBound = -1;
+
+  private enum CursorStatus {
+    /** 刚创建，尚未读取 */
+    CREATED,
+    /** 正在读取 */
+    OPEN,
+    /** 被主动关闭（未读完） */
+    CLOSED,
+    /** 全部读完并已关闭 */
+    CONSUMED
+  }
+
+  public DefaultCursor(
+      DefaultResultSetHandler resultSetHandler,
+      ResultMap resultMap,
+      ResultSetWrapper rsw,
+      RowBounds rowBounds) {
+    this.resultSetHandler = resultSetHandler;
+    this.resultMap = resultMap;
+    this.rsw = rsw;
+    this.rowBounds = rowBounds;
+  }
+
+  @Override
+  public boolean isOpen() {
+    return status == CursorStatus.OPEN;
+  }
+
+  @Override
+  public boolean isConsumed() {
+    return status == CursorStatus.CONSUMED;
+  }
+
+  @Override
+  public int getCurrentIndex() {
+    return rowBounds.getOffset() + cursorIterator.iteratorIndex;
+  }
+
+  @Override
+  public Iterator<T> iterator() {
+    if (iteratorRetrieved) {
+      throw new IllegalStateException("Cannot open more than one iterator on a Cursor");
+    }
+    if (isClosed()) {
+      throw new IllegalStateException("A Cursor is already closed.");
+    }
+    iteratorRetrieved = true;
+    return cursorIterator;
+  }
+
+  @Override
+  public void close() {
+    if (isClosed()) {
+      return;
+    }
+    ResultSet rs = rsw.getResultSet();
+    try {
+      if (rs != null) {
+        // 游标独占语句，随结果集一起关闭
+        Statement statement = rs.getStatement();
+        rs.close();
+        if (statement != null) {
+          statement.close();
+        }
+      }
+    } catch (SQLException e) {
+      // ignore
+    } finally {
+      status = CursorStatus.CLOSED;
+    }
+  }
+
+  protected T fetchNextUsingRowBound() {
+    T result = fetchNextObjectFromDatabase();
+    // 跳过 offset 之前的行
+    while (!isClosed() && indexWithRowBound < rowBounds.getOffset()) {
+      result = fetchNextObjectFromDatabase();
+    }
+    return result;
+  }
+
+  protected T fetchNextObjectFromDatabase() {
+    if (isClosed()) {
+      return null;
+    }
+    try {
+      status = CursorStatus.OPEN;
+      if (!rsw.getResultSet().isClosed()) {
+        resultSetHandler.handleRowValues(
+            rsw, resultMap, objectWrapperResultHandler, RowBounds.DEFAULT, null);
+      }
+    } catch (SQLException e) {
+      throw new RuntimeException("Error fetching next row from cursor.  Cause: " + e, e);
+    }
+
+    T next = objectWrapperResultHandler.result;
+    if (objectWrapperResultHandler.fetched) {
+      indexWithRowBound++;
+    }
+    // 没有更多行或已达到 limit：关闭游标释放语句
+    if (!objectWrapperResultHandler.fetched
+        || getReadItemsCount() == rowBounds.getOffset() + rowBounds.getLimit()) {
+      close();
+      status = CursorStatus.CONSUMED;
+    }
+    objectWrapperResultHandler.fetched = false;
+    objectWrapperResultHandler.result = null;
+    return next;
+  }
+
+  private boolean isClosed() {
+    return status == CursorStatus.CLOSED || status == CursorStatus.CONSUMED;
+  }
+
+  private int getReadItemsCount() {
+    return indexWithRowBound + 1;
+  }
+
+  /** 接收一行后即停止，保证每次只映射一行 */
+  protected static class ObjectWrapperResultHandler<T> implements ResultHandler {
+    protected T result;
+    protected boolean fetched;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void handleResult(ResultContext context) {
+      this.result = (T) context.getResultObject();
+      this.fetched = true;
+      context.stop();
+    }
+  }
+
+  protected class CursorIterator implements Iterator<T> {
+    /** 预先取出的下一行 */
+    T object;
+
+    /** 已返回给调用方的行下标 */
+    int iteratorIndex = -1;
+
+    /** 预取时是否拿到了行（行值本身可能为 null） */
+    boolean prefetched;
+
+    @Override
+    public boolean hasNext() {
+      if (!prefetched && !isClosed()) {
+        int before = indexWithRowBound;
+        object = fetchNextUsingRowBound();
+        prefetched = indexWithRowBound != before && indexWithRowBound >= rowBounds.getOffset();
+      }
+      return prefetched;
+    }
+
+    @Override
+    public T next() {
+      if (hasNext()) {
+        T next = object;
+        object = null;
+        prefetched = false;
+        iteratorIndex++;
+        return next;
+      }
+      throw new NoSuchElementException();
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException("Cannot remove element from Cursor");
+    }
+  }
+}
@@ -0,0 +1,163 @@
+package com.doublew2w.sbs.mybatis.cursor.defaults;
+
+import com.doublew2w.sbs.mybatis.cursor.Cursor;
+import com.doublew2w.sbs.mybatis.session.RowBounds;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 多路归并游标：把多个各自有序的游标按同一顺序合并成一个有序游标
+ *
+ * <p>只持有每个分路的当前行（堆中最多 k 行），按需从分路拉取下一行，不会物化任何一路的结果；达到 limit 或关闭时关闭所有分路。
+ *
+ * <p>不指定比较器时按分路顺序依次读取（拼接）。
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/18 9:15
+ * @project: sbs-mybatis
+ */
+@Slf4j
+public class MergingCursor<T> implements Cursor<T> {
+  private final List<Cursor<T>> sources;
+  private final Comparator<? super T> comparator;
+  private final int limit;
+
+  private final MergingIterator iterator = new MergingIterator();
+  private boolean iteratorRetrieved;
+  private boolean closed;
+  private boolean consumed;
+
+  /**
+   * @param sources 各自有序的分路游标
+   * @param comparator 排序比较器，null 表示按分路顺序拼接
+   * @param limit 最多返回的行数，{@link RowBounds#NO_ROW_LIMIT} 表示不限
+   */
+  public MergingCursor(List<Cursor<T>> sources, Comparator<? super T> comparator, int limit) {
+    this.sources = new ArrayList<>(sources);
+    this.comparator = comparator;
+    this.limit = limit;
+  }
+
+  @Override
+  public boolean isOpen() {
+    return iteratorRetrieved && !closed && !consumed;
+  }
+
+  @Override
+  public boolean isConsumed() {
+    return consumed;
+  }
+
+  @Override
+  public int getCurrentIndex() {
+    return iterator.index;
+  }
+
+  @Override
+  public Iterator<T> iterator() {
+    if (iteratorRetrieved) {
+      throw new IllegalStateException("Cannot open more than one iterator on a Cursor");
+    }
+    if (closed) {
+      throw new IllegalStateException("A Cursor is already closed.");
+    }
+    iteratorRetrieved = true;
+    return iterator;
+  }
+
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    closeSources();
+  }
+
+  private void closeSources() {
+    for (Cursor<T> source : sources) {
+      try {
+        source.close();
+      } catch (IOException | RuntimeException e) {
+        log.debug("Error closing merged cursor source.  Cause: " + e);
+      }
+    }
+  }
+
+  /** 分路的当前行 */
+  private class Head {
+    private final Iterator<T> rows;
+    private final int order;
+    private T row;
+
+    Head(Iterator<T> rows, int order) {
+      this.rows = rows;
+      this.order = order;
+    }
+
+    boolean advance() {
+      if (rows.hasNext()) {
+        row = rows.next();
+        return true;
+      }
+      return false;
+    }
+  }
+
+  private class MergingIterator implements Iterator<T> {
+    private PriorityQueue<Head> heads;
+    private int index = -1;
+
+    @Override
+    public boolean hasNext() {
+      if (closed || consumed) {
+        return false;
+      }
+      if (heads == null) {
+        init();
+      }
+      if (heads.isEmpty() || index + 1 >= limit) {
+        // 读完或达到 limit：提前释放各分路的连接
+        consumed = true;
+        closeSources();
+        return false;
+      }
+      return true;
+    }
+
+    @Override
+    public T next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      Head head = heads.poll();
+      T row = head.row;
+      if (head.advance()) {
+        heads.add(head);
+      }
+      index++;
+      return row;
+    }
+
+    private void init() {
+      // 相等的行按分路顺序输出，无比较器时即为拼接
+      Comparator<Head> order = Comparator.comparingInt(h -> h.order);
+      if (comparator != null) {
+        order = Comparator.<Head, T>comparing(h -> h.row, comparator).thenComparing(order);
+      }
+      heads = new PriorityQueue<>(Math.max(1, sources.size()), order);
+      for (int i = 0; i < sources.size(); i++) {
+        Head head = new Head(sources.get(i).iterator(), i);
+        if (head.advance()) {
+          heads.add(head);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,184 @@
+package com.doublew2w.sbs.mybatis.cursor.defaults;
+
+import com.doublew2w.sbs.mybatis.cursor.Cursor;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 预取游标：在后台线程中执行查询并逐行映射，放入有界缓冲区，读取方按需取出
+ *
+ * <p>缓冲区满时后台线程等待，内存占用不超过 bufferSize 行；游标关闭后后台线程在放入下一行时停止，并由 {@link Producer} 释放会话和语句。
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/18 9:15
+ * @project: sbs-mybatis
+ */
+@Slf4j
+public class PrefetchCursor<T> implements Cursor<T> {
+  /** 结束标记 */
+  private static final Object END = new Object();
+
+  /** 等待缓冲区空位时检查关闭状态的间隔 */
+  private static final long OFFER_INTERVAL_MILLIS = 50;
+
+  private final BlockingQueue<Object> buffer;
+  private final PrefetchIterator iterator = new PrefetchIterator();
+  private boolean iteratorRetrieved;
+
+  private volatile boolean closed;
+  private volatile Throwable failure;
+  private boolean consumed;
+
+  /** 后台生产行数据：执行查询并把每一行交给 sink，返回前释放自己持有的资源 */
+  @FunctionalInterface
+  public interface Producer<T> {
+    void produce(Consumer<? super T> sink) throws Exception;
+  }
+
+  /** 游标关闭后中止生产 */
+  private static class StopProducing extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    StopProducing() {
+      super(null, null, false, false);
+    }
+  }
+
+  private PrefetchCursor(int bufferSize) {
+    this.buffer = new ArrayBlockingQueue<>(Math.max(1, bufferSize));
+  }
+
+  /**
+   * 创建游标并立即提交到执行器开始生产
+   *
+   * <p>生产者在读取方取走行之前一直占用执行器的一个线程，执行器需要能同时运行所有需要并行读取的生产者。
+   *
+   * @param producer 行数据生产者
+   * @param bufferSize 缓冲行数
+   * @param executor 运行生产者的执行器
+   * @return 预取游标
+   */
+  public static <T> PrefetchCursor<T> start(
+      Producer<T> producer, int bufferSize, Executor executor) {
+    PrefetchCursor<T> cursor = new PrefetchCursor<>(bufferSize);
+    executor.execute(() -> cursor.run(producer));
+    return cursor;
+  }
+
+  private void run(Producer<T> producer) {
+    try {
+      producer.produce(this::put);
+    } catch (StopProducing ignore) {
+      // 游标已关闭
+    } catch (Throwable e) {
+      failure = e;
+    } finally {
+      put(END);
+    }
+  }
+
+  private void put(Object row) {
+    try {
+      while (!closed) {
+        if (buffer.offer(row, OFFER_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+          return;
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    if (row != END) {
+      throw new StopProducing();
+    }
+  }
+
+  @Override
+  public boolean isOpen() {
+    return iteratorRetrieved && !closed && !consumed;
+  }
+
+  @Override
+  public boolean isConsumed() {
+    return consumed;
+  }
+
+  @Override
+  public int getCurrentIndex() {
+    return iterator.index;
+  }
+
+  @Override
+  public Iterator<T> iterator() {
+    if (iteratorRetrieved) {
+      throw new IllegalStateException("Cannot open more than one iterator on a Cursor");
+    }
+    if (closed) {
+      throw new IllegalStateException("A Cursor is already closed.");
+    }
+    iteratorRetrieved = true;
+    return iterator;
+  }
+
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    // 腾出空位，让等待中的后台线程尽快发现关闭
+    buffer.clear();
+  }
+
+  private class PrefetchIterator implements Iterator<T> {
+    private Object next;
+    private boolean prefetched;
+    private int index = -1;
+
+    @Override
+    public boolean hasNext() {
+      if (!prefetched && !consumed && !closed) {
+        Object row = take();
+        if (row == END) {
+          consumed = true;
+          if (failure != null) {
+            throw new RuntimeException(
+                "Error fetching rows in background.  Cause: " + failure, failure);
+          }
+        } else {
+          next = row;
+          prefetched = true;
+        }
+      }
+      return prefetched;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T next() {
+      if (hasNext()) {
+        T row = (T) next;
+        next = null;
+        prefetched = false;
+        index++;
+        return row;
+      }
+      throw new NoSuchElementException();
+    }
+
+    private Object take() {
+      try {
+        return buffer.take();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        close();
+        throw new RuntimeException("Interrupted while waiting for prefetched rows", e);
+      }
+    }
+  }
+}
@@ -0,0 +1,719 @@
+package com.doublew2w.sbs.mybatis.datasource.pooled;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.*;
+import java.util.Calendar;
+import java.util.Map;
+
+/**
+ * 池化连接创建的存储过程语句
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/18 12:50
+ * @project: sbs-mybatis
+ */
+final class CallableStatementWrapper extends PreparedStatementWrapper implements CallableStatement {
+  private final CallableStatement delegate;
+
+  CallableStatementWrapper(PooledConnection owner, CallableStatement delegate) {
+    super(owner, delegate, null, null);
+    this.delegate = delegate;
+  }
+
+  @Override
+  public void registerOutParameter(int parameterIndex, int sqlType) throws SQLException {
+    checkOpen();
+    delegate.registerOutParameter(parameterIndex, sqlType);
+  }
+
+  @Override
+  public void registerOutParameter(int parameterIndex, int sqlType, int scale) throws SQLException {
+    checkOpen();
+    delegate.registerOutParameter(parameterIndex, sqlType, scale);
+  }
+
+  @Override
+  public boolean wasNull() throws SQLException {
+    checkOpen();
+    return delegate.wasNull();
+  }
+
+  @Override
+  public String getString(int parameterIndex) throws SQLException {
+    checkOpen();
+    return delegate.getString(parameterIndex);
+  }
+
+  @Override
+  public boolean getBoolean(int parameterIndex) throws SQLException {
+    checkOpen();
+    return delegate.getBoolean(parameterIndex);
+  }
+
+  @Override
+  public byte getByte(int parameterIndex) throws SQLException {
+    checkOpen();
+    return delegate.getByte(parameterIndex);
+  }
+
+  @Override
+  public short getShort(int parameterIndex) throws SQLException {
+    checkOpen();
+    return delegate.getShort(parameterIndex);
+  }
+
+  @Override
+  public int getInt(int parameterIndex) throws SQLException {
+    checkOpen();
+    return delegate.getInt(parameterIndex);
+  }
+
+  @Override
+  public long getLong(int parameterIndex) throws SQLException {
+    checkOpen();
+    return delegate.getLong(parameterIndex);
+  }
+
+  @Override
+  public float getFloat(int parameterIndex) throws SQLException {
+    checkOpen();
+    return delegate.getFloat(parameterIndex);
+  }
+
+  @Override
+  public double getDouble(int parameterIndex) throws SQLException {
+    checkOpen();
+    return delegate.getDouble(parameterIndex);
+  }
+
+  @Deprecated
+  @Override
+  public BigDecimal getBigDecimal(int parameterIndex, int scale) throws SQLException {
+    checkOpen();
+    return delegate.getBigDecimal(parameterIndex, scale);
+  }
+
+  @Override
+  public byte[] getBytes(int parameterIndex) throws SQLException {
+    checkOpen();
+    return delegate.getBytes(parameterIndex);
+  }
+
+  @Override
+  public java.sql.Date getDate(int parameterIndex) throws SQLException {
+    checkOpen();
+    return delegate.getDate(parameterIndex);
+  }
+
+  @Override
+  public java.sql.Time getTime(int parameterIndex) throws SQLException {
+    checkOpen();
+    return delegate.getTime(parameterIndex);
+  }
+
+  @Override
+  public java.sql.Timestamp getTimestamp(int parameterIndex) throws SQLException {
+    checkOpen();
+    return delegate.getTimestamp(parameterIndex);
+  }
+
+  @Override
+  public Object getObject(int parameterIndex) throws SQLException {
+    checkOpen();
+    return delegate.getObject(parameterIndex);
+  }
+
+  @Override
+  public BigDecimal getBigDecimal(int parameterIndex) throws SQLException {
+    checkOpen();
+    return delegate.getBigDecimal(parameterIndex);
+  }
+
+  @Override
+  public Object getObject(int parameterIndex, java.util.Map<String, Class<?>> map)
+      throws SQLException {
+    checkOpen();
+    return delegate.getObject(parameterIndex, map);
+  }
+
+  @Override
+  public Ref getRef(int parameterIndex) throws SQLException {
+    checkOpen();
+    return delegate.getRef(parameterIndex);
+  }
+
+  @Override
+  public Blob getBlob(int parameterIndex) throws SQLException {
+    checkOpen();
+    return delegate.getBlob(parameterIndex);
+  }
+
+  @Override
+  public Clob getClob(int parameterIndex) throws SQLException {
+    checkOpen();
+    return delegate.getClob(parameterIndex);
+  }
+
+  @Override
+  public Array getArray(int parameterIndex) throws SQLException {
+    checkOpen();
+    return delegate.getArray(parameterIndex);
+  }
+
+  @Override
+  public java.sql.Date getDate(int parameterIndex, Calendar cal) throws SQLException {
+    checkOpen();
+    return delegate.getDate(parameterIndex, cal);
+  }
+
+  @Override
+  public java.sql.Time getTime(int parameterIndex, Calendar cal) throws SQLException {
+    checkOpen();
+    return delegate.getTime(parameterIndex, cal);
+  }
+
+  @Override
+  public java.sql.Timestamp getTimestamp(int parameterIndex, Calendar cal) throws SQLException {
+    checkOpen();
+    return delegate.getTimestamp(parameterIndex, cal);
+  }
+
+  @Override
+  public void registerOutParameter(int parameterIndex, int sqlType, String typeName)
+      throws SQLException {
+    checkOpen();
+    delegate.registerOutParameter(parameterIndex, sqlType, typeName);
+  }
+
+  @Override
+  public void registerOutParameter(String parameterName, int sqlType) throws SQLException {
+    checkOpen();
+    delegate.registerOutParameter(parameterName, sqlType);
+  }
+
+  @Override
+  public void registerOutParameter(String parameterName, int sqlType, int scale)
+      throws SQLException {
+    checkOpen();
+    delegate.registerOutParameter(parameterName, sqlType, scale);
+  }
+
+  @Override
+  public void registerOutParameter(String parameterName, int sqlType, String typeName)
+      throws SQLException {
+    checkOpen();
+    delegate.registerOutParameter(parameterName, sqlType, typeName);
+  }
+
+  @Override
+  public java.net.URL getURL(int parameterIndex) throws SQLException {
+    checkOpen();
+    return delegate.getURL(parameterIndex);
+  }
+
+  @Override
+  public void setURL(String parameterName, java.net.URL val) throws SQLException {
+    checkOpen();
+    delegate.setURL(parameterName, val);
+  }
+
+  @Override
+  public void setNull(String parameterName, int sqlType) throws SQLException {
+    checkOpen();
+    delegate.setNull(parameterName, sqlType);
+  }
+
+  @Override
+  public void setBoolean(String parameterName, boolean x) throws SQLException {
+    checkOpen();
+    delegate.setBoolean(parameterName, x);
+  }
+
+  @Override
+  public void setByte(String parameterName, byte x) throws SQLException {
+    checkOpen();
+    delegate.setByte(parameterName, x);
+  }
+
+  @Override
+  public void setShort(String parameterName, short x) throws SQLException {
+    checkOpen();
+    delegate.setShort(parameterName, x);
+  }
+
+  @Override
+  public void setInt(String parameterName, int x) throws SQLException {
+    checkOpen();
+    delegate.setInt(parameterName, x);
+  }
+
+  @Override
+  public void setLong(String parameterName, long x) throws SQLException {
+    checkOpen();
+    delegate.setLong(parameterName, x);
+  }
+
+  @Override
+  public void setFloat(String parameterName, float x) throws SQLException {
+    checkOpen();
+    delegate.setFloat(parameterName, x);
+  }
+
+  @Override
+  public void setDouble(String parameterName, double x) throws SQLException {
+    checkOpen();
+    delegate.setDouble(parameterName, x);
+  }
+
+  @Override
+  public void setBigDecimal(String parameterName, BigDecimal x) throws SQLException {
+    checkOpen();
+    delegate.setBigDecimal(parameterName, x);
+  }
+
+  @Override
+  public void setString(String parameterName, String x) throws SQLException {
+    checkOpen();
+    delegate.setString(parameterName, x);
+  }
+
+  @Override
+  public void setBytes(String parameterName, byte[] x) throws SQLException {
+    checkOpen();
+    delegate.setBytes(parameterName, x);
+  }
+
+  @Override
+  public void setDate(String parameterName, java.sql.Date x) throws SQLException {
+    checkOpen();
+    delegate.setDate(parameterName, x);
+  }
+
+  @Override
+  public void setTime(String parameterName, java.sql.Time x) throws SQLException {
+    checkOpen();
+    delegate.setTime(parameterName, x);
+  }
+
+  @Override
+  public void setTimestamp(String parameterName, java.sql.Timestamp x) throws SQLException {
+    checkOpen();
+    delegate.setTimestamp(parameterName, x);
+  }
+
+  @Override
+  public void setAsciiStream(String parameterName, java.io.InputStream x, int length)
+      throws SQLException {
+    checkOpen();
+    delegate.setAsciiStream(parameterName, x, length);
+  }
+
+  @Override
+  public void setBinaryStream(String parameterName, java.io.InputStream x, int length)
+      throws SQLException {
+    checkOpen();
+    delegate.setBinaryStream(parameterName, x, length);
+  }
+
+  @Override
+  public void setObject(String parameterName, Object x, int targetSqlType, int scale)
+      throws SQLException {
+    checkOpen();
+    delegate.setObject(parameterName, x, targetSqlType, scale);
+  }
+
+  @Override
+  public void setObject(String parameterName, Object x, int targetSqlType) throws SQLException {
+    checkOpen();
+    delegate.setObject(parameterName, x, targetSqlType);
+  }
+
+  @Override
+  public void setObject(String parameterName, Object x) throws SQLException {
+    checkOpen();
+    delegate.setObject(parameterName, x);
+  }
+
+  @Override
+  public void setCharacterStream(String parameterName, java.io.Reader reader, int length)
+      throws SQLException {
+    checkOpen();
+    delegate.setCharacterStream(parameterName, reader, length);
+  }
+
+  @Override
+  public void setDate(String parameterName, java.sql.Date x, Calendar cal) throws SQLException {
+    checkOpen();
+    delegate.setDate(parameterName, x, cal);
+  }
+
+  @Override
+  public void setTime(String parameterName, java.sql.Time x, Calendar cal) throws SQLException {
+    checkOpen();
+    delegate.setTime(parameterName, x, cal);
+  }
+
+  @Override
+  public void setTimestamp(String parameterName, java.sql.Timestamp x, Calendar cal)
+      throws SQLException {
+    checkOpen();
+    delegate.setTimestamp(parameterName, x, cal);
+  }
+
+  @Override
+  public void setNull(String parameterName, int sqlType, String typeName) throws SQLException {
+    checkOpen();
+    delegate.setNull(parameterName, sqlType, typeName);
+  }
+
+  @Override
+  public String getString(String parameterName) throws SQLException {
+    checkOpen();
+    return delegate.getString(parameterName);
+  }
+
+  @Override
+  public boolean getBoolean(String parameterName) throws SQLException {
+    checkOpen();
+    return delegate.getBoolean(parameterName);
+  }
+
+  @Override
+  public byte getByte(String parameterName) throws SQLException {
+    checkOpen();
+    return delegate.getByte(parameterName);
+  }
+
+  @Override
+  public short getShort(String parameterName) throws SQLException {
+    checkOpen();
+    return delegate.getShort(parameterName);
+  }
+
+  @Override
+  public int getInt(String parameterName) throws SQLException {
+    checkOpen();
+    return delegate.getInt(parameterName);
+  }
+
+  @Override
+  public long getLong(String parameterName) throws SQLException {
+    checkOpen();
+    return delegate.getLong(parameterName);
+  }
+
+  @Override
+  public float getFloat(String parameterName) throws SQLException {
+    checkOpen();
+    return delegate.getFloat(parameterName);
+  }
+
+  @Override
+  public double getDouble(String parameterName) throws SQLException {
+    checkOpen();
+    return delegate.getDouble(parameterName);
+  }
+
+  @Override
+  public byte[] getBytes(String parameterName) throws SQLException {
+    checkOpen();
+    return delegate.getBytes(parameterName);
+  }
+
+  @Override
+  public java.sql.Date getDate(String parameterName) throws SQLException {
+    checkOpen();
+    return delegate.getDate(parameterName);
+  }
+
+  @Override
+  public java.sql.Time getTime(String parameterName) throws SQLException {
+    checkOpen();
+    return delegate.getTime(parameterName);
+  }
+
+  @Override
+  public java.sql.Timestamp getTimestamp(String parameterName) throws SQLException {
+    checkOpen();
+    return delegate.getTimestamp(parameterName);
+  }
+
+  @Override
+  public Object getObject(String parameterName) throws SQLException {
+    checkOpen();
+    return delegate.getObject(parameterName);
+  }
+
+  @Override
+  public BigDecimal getBigDecimal(String parameterName) throws SQLException {
+    checkOpen();
+    return delegate.getBigDecimal(parameterName);
+  }
+
+  @Override
+  public Object getObject(String parameterName, java.util.Map<String, Class<?>> map)
+      throws SQLException {
+    checkOpen();
+    return delegate.getObject(parameterName, map);
+  }
+
+  @Override
+  public Ref getRef(String parameterName) throws SQLException {
+    checkOpen();
+    return delegate.getRef(parameterName);
+  }
+
+  @Override
+  public Blob getBlob(String parameterName) throws SQLException {
+    checkOpen();
+    return delegate.getBlob(parameterName);
+  }
+
+  @Override
+  public Clob getClob(String parameterName) throws SQLException {
+    checkOpen();
+    return delegate.getClob(parameterName);
+  }
+
+  @Override
+  public Array getArray(String parameterName) throws SQLException {
+    checkOpen();
+    return delegate.getArray(parameterName);
+  }
+
+  @Override
+  public java.sql.Date getDate(String parameterName, Calendar cal) throws SQLException {
+    checkOpen();
+    return delegate.getDate(parameterName, cal);
+  }
+
+  @Override
+  public java.sql.Time getTime(String parameterName, Calendar cal) throws SQLException {
+    checkOpen();
+    return delegate.getTime(parameterName, cal);
+  }
+
+  @Override
+  public java.sql.Timestamp getTimestamp(String parameterName, Calendar cal) throws SQLException {
+    checkOpen();
+    return delegate.getTimestamp(parameterName, cal);
+  }
+
+  @Override
+  public java.net.URL getURL(String parameterName) throws SQLException {
+    checkOpen();
+    return delegate.getURL(parameterName);
+  }
+
+  @Override
+  public RowId getRowId(int parameterIndex) throws SQLException {
+    checkOpen();
+    return delegate.getRowId(parameterIndex);
+  }
+
+  @Override
+  public RowId getRowId(String parameterName) throws SQLException {
+    checkOpen();
+    return delegate.getRowId(parameterName);
+  }
+
+  @Override
+  public void setRowId(String parameterName, RowId x) throws SQLException {
+    checkOpen();
+    delegate.setRowId(parameterName, x);
+  }
+
+  @Override
+  public void setNString(String parameterName, String value) throws SQLException {
+    checkOpen();
+    delegate.setNString(parameterName, value);
+  }
+
+  @Override
+  public void setNCharacterStream(String parameterName, Reader value, long length)
+      throws SQLException {
+    checkOpen();
+    delegate.setNCharacterStream(parameterName, value, length);
+  }
+
+  @Override
+  public void setNClob(String parameterName, NClob value) throws SQLException {
+    checkOpen();
+    delegate.setNClob(parameterName, value);
+  }
+
+  @Override
+  public void setClob(String parameterName, Reader reader, long length) throws SQLException {
+    checkOpen();
+    delegate.setClob(parameterName, reader, length);
+  }
+
+  @Override
+  public void setBlob(String parameterName, InputStream inputStream, long length)
+      throws SQLException {
+    checkOpen();
+    delegate.setBlob(parameterName, inputStream, length);
+  }
+
+  @Override
+  public void setNClob(String parameterName, Reader reader, long length) throws SQLException {
+    checkOpen();
+    delegate.setNClob(parameterName, reader, length);
+  }
+
+  @Override
+  public NClob getNClob(int parameterIndex) throws SQLException {
+    checkOpen();
+    return delegate.getNClob(parameterIndex);
+  }
+
+  @Override
+  public NClob getNClob(String parameterName) throws SQLException {
+    checkOpen();
+    return delegate.getNClob(parameterName);
+  }
+
+  @Override
+  public void setSQLXML(String parameterName, SQLXML xmlObject) throws SQLException {
+    checkOpen();
+    delegate.setSQLXML(parameterName, xmlObject);
+  }
+
+  @Override
+  public SQLXML getSQLXML(int parameterIndex) throws SQLException {
+    checkOpen();
+    return delegate.getSQLXML(parameterIndex);
+  }
+
+  @Override
+  public SQLXML getSQLXML(String parameterName) throws SQLException {
+    checkOpen();
+    return delegate.getSQLXML(parameterName);
+  }
+
+  @Override
+  public String getNString(int parameterIndex) throws SQLException {
+    checkOpen();
+    return delegate.getNString(parameterIndex);
+  }
+
+  @Override
+  public String getNString(String parameterName) throws SQLException {
+    checkOpen();
+    return delegate.getNString(parameterName);
+  }
+
+  @Override
+  public java.io.Reader getNCharacterStream(int parameterIndex) throws SQLException {
+    checkOpen();
+    return delegate.getNCharacterStream(parameterIndex);
+  }
+
+  @Override
+  public java.io.Reader getNCharacterStream(String parameterName) throws SQLException {
+    checkOpen();
+    return delegate.getNCharacterStream(parameterName);
+  }
+
+  @Override
+  public java.io.Reader getCharacterStream(int parameterIndex) throws SQLException {
+    checkOpen();
+    return delegate.getCharacterStream(parameterIndex);
+  }
+
+  @Override
+  public java.io.Reader getCharacterStream(String parameterName) throws SQLException {
+    checkOpen();
+    return delegate.getCharacterStream(parameterName);
+  }
+
+  @Override
+  public void setBlob(String parameterName, Blob x) throws SQLException {
+    checkOpen();
+    delegate.setBlob(parameterName, x);
+  }
+
+  @Override
+  public void setClob(String parameterName, Clob x) throws SQLException {
+    checkOpen();
+    delegate.setClob(parameterName, x);
+  }
+
+  @Override
+  public void setAsciiStream(String parameterName, java.io.InputStream x, long length)
+      throws SQLException {
+    checkOpen();
+    delegate.setAsciiStream(parameterName, x, length);
+  }
+
+  @Override
+  public void setBinaryStream(String parameterName, java.io.InputStream x, long length)
+      throws SQLException {
+    checkOpen();
+    delegate.setBinaryStream(parameterName, x, length);
+  }
+
+  @Override
+  public void setCharacterStream(String parameterName, java.io.Reader reader, long length)
+      throws SQLException {
+    checkOpen();
+    delegate.setCharacterStream(parameterName, reader, length);
+  }
+
+  @Override
+  public void setAsciiStream(String parameterName, java.io.InputStream x) throws SQLException {
+    checkOpen();
+    delegate.setAsciiStream(parameterName, x);
+  }
+
+  @Override
+  public void setBinaryStream(String parameterName, java.io.InputStream x) throws SQLException {
+    checkOpen();
+    delegate.setBinaryStream(parameterName, x);
+  }
+
+  @Override
+  public void setCharacterStream(String parameterName, java.io.Reader reader) throws SQLException {
+    checkOpen();
+    delegate.setCharacterStream(parameterName, reader);
+  }
+
+  @Override
+  public void setNCharacterStream(String parameterName, Reader value) throws SQLException {
+    checkOpen();
+    delegate.setNCharacterStream(parameterName, value);
+  }
+
+  @Override
+  public void setClob(String parameterName, Reader reader) throws SQLException {
+    checkOpen();
+    delegate.setClob(parameterName, reader);
+  }
+
+  @Override
+  public void setBlob(String parameterName, InputStream inputStream) throws SQLException {
+    checkOpen();
+    delegate.setBlob(parameterName, inputStream);
+  }
+
+  @Override
+  public void setNClob(String parameterName, Reader reader) throws SQLException {
+    checkOpen();
+    delegate.setNClob(parameterName, reader);
+  }
+
+  @Override
+  public <T> T getObject(int parameterIndex, Class<T> type) throws SQLException {
+    checkOpen();
+    return delegate.getObject(parameterIndex, type);
+  }
+
+  @Override
+  public <T> T getObject(String parameterName, Class<T> type) throws SQLException {
+    checkOpen();
+    return delegate.getObject(parameterName, type);
+  }
+}
@@ -0,0 +1,197 @@
+package com.doublew2w.sbs.mybatis.datasource.pooled;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 无锁的并发容器，用于连接池
+ *
+ * <p>借出时依次尝试：当前线程上次归还的元素（线程亲和，几乎没有竞争）、共享列表中的空闲元素（CAS 抢占）、等待其他线程归还（直接移交给等待者）。
+ *
+ * <p>元素的状态由元素自己通过 CAS 维护，容器本身不加锁。等待使用 {@link SynchronousQueue}，虚拟线程等待时会让出载体线程；虚拟线程生命周期短，不使用线程亲和。
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/18 10:20
+ * @project: sbs-mybatis
+ */
+public class ConcurrentBag<T extends ConcurrentBag.Entry> {
+  /** 每个线程最多记住的归还元素数 */
+  private static final int THREAD_LIST_SIZE = 16;
+
+  /** 所有元素 */
+  private final CopyOnWriteArrayList<T> sharedList = new CopyOnWriteArrayList<>();
+
+  /** 当前线程归还过的元素，借出时优先使用 */
+  private final ThreadLocal<List<T>> threadList =
+      ThreadLocal.withInitial(() -> new ArrayList<>(THREAD_LIST_SIZE));
+
+  /** 正在等待的线程数 */
+  private final AtomicInteger waiters = new AtomicInteger();
+
+  /** 归还时直接移交给等待者 */
+  private final SynchronousQueue<T> handoffQueue = new SynchronousQueue<>(true);
+
+  /** 容器元素 */
+  public interface Entry {
+    int STATE_NOT_IN_USE = 0;
+    int STATE_IN_USE = 1;
+    int STATE_REMOVED = -1;
+    int STATE_RESERVED = -2;
+
+    boolean compareAndSetState(int expect, int update);
+
+    void setState(int state);
+
+    int getState();
+  }
+
+  /**
+   * 借出一个空闲元素
+   *
+   * @param timeout 没有空闲元素时最多等待的时间，小于等于 0 表示不等待
+   * @param unit 时间单位
+   * @return 元素，超时返回 null
+   * @throws InterruptedException 等待时被中断
+   */
+  public T borrow(long timeout, TimeUnit unit) throws InterruptedException {
+    if (!VirtualThreads.isVirtual(Thread.currentThread())) {
+      List<T> list = threadList.get();
+      for (int i = list.size() - 1; i >= 0; i--) {
+        T entry = list.remove(i);
+        if (entry.compareAndSetState(Entry.STATE_NOT_IN_USE, Entry.STATE_IN_USE)) {
+          return entry;
+        }
+      }
+    }
+    if (timeout <= 0) {
+      return scanShared();
+    }
+    waiters.incrementAndGet();
+    try {
+      T entry = scanShared();
+      if (entry != null) {
+        return entry;
+      }
+      long remaining = unit.toNanos(timeout);
+      do {
+        long start = System.nanoTime();
+        entry = handoffQueue.poll(remaining, TimeUnit.NANOSECONDS);
+        if (entry == null
+            || entry.compareAndSetState(Entry.STATE_NOT_IN_USE, Entry.STATE_IN_USE)) {
+          return entry;
+        }
+        remaining -= System.nanoTime() - start;
+      } while (remaining > 0);
+      return null;
+    } finally {
+      waiters.decrementAndGet();
+    }
+  }
+
+  private T scanShared() {
+    for (T entry : sharedList) {
+      if (entry.compareAndSetState(Entry.STATE_NOT_IN_USE, Entry.STATE_IN_USE)) {
+        return entry;
+      }
+    }
+    return null;
+  }
+
+  /** 归还元素：有等待者时直接移交，否则记入当前线程（虚拟线程除外） */
+  public void requite(T entry) {
+    entry.setState(Entry.STATE_NOT_IN_USE);
+    handoff(entry);
+    if (entry.getState() != Entry.STATE_NOT_IN_USE
+        || VirtualThreads.isVirtual(Thread.currentThread())) {
+      return;
+    }
+    List<T> list = threadList.get();
+    if (list.size() < THREAD_LIST_SIZE) {
+      list.add(entry);
+    }
+  }
+
+  /** 加入新元素，状态为空闲时尝试移交给等待者 */
+  public void add(T entry) {
+    sharedList.add(entry);
+    handoff(entry);
+  }
+
+  private void handoff(T entry) {
+    for (int i = 0; waiters.get() > 0; i++) {
+      if (entry.getState() != Entry.STATE_NOT_IN_USE || handoffQueue.offer(entry)) {
+        return;
+      } else if ((i & 0xff) == 0xff) {
+        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(10));
+      } else {
+        Thread.yield();
+      }
+    }
+  }
+
+  /**
+   * 移除借出或预留中的元素
+   *
+   * @return 是否由本次调用移除
+   */
+  public boolean remove(T entry) {
+    if (!entry.compareAndSetState(Entry.STATE_IN_USE, Entry.STATE_REMOVED)
+        && !entry.compareAndSetState(Entry.STATE_RESERVED, Entry.STATE_REMOVED)) {
+      return false;
+    }
+    sharedList.remove(entry);
+    threadList.get().remove(entry);
+    return true;
+  }
+
+  /** 预留空闲元素，预留期间不会被借出，用于后台检查或移除 */
+  public boolean reserve(T entry) {
+    return entry.compareAndSetState(Entry.STATE_NOT_IN_USE, Entry.STATE_RESERVED);
+  }
+
+  /** 取消预留，元素重新可借 */
+  public void unreserve(T entry) {
+    if (entry.compareAndSetState(Entry.STATE_RESERVED, Entry.STATE_NOT_IN_USE)) {
+      handoff(entry);
+    }
+  }
+
+  /** 指定状态的元素快照 */
+  public List<T> values(int state) {
+    List<T> values = new ArrayList<>();
+    for (T entry : sharedList) {
+      if (entry.getState() == state) {
+        values.add(entry);
+      }
+    }
+    return values;
+  }
+
+  /** 所有元素快照 */
+  public List<T> values() {
+    return new ArrayList<>(sharedList);
+  }
+
+  public int getCount(int state) {
+    int count = 0;
+    for (T entry : sharedList) {
+      if (entry.getState() == state) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  public int size() {
+    return sharedList.size();
+  }
+
+  public int getWaitingThreadCount() {
+    return waiters.get();
+  }
+}
@@ -0,0 +1,403 @@
+package com.doublew2w.sbs.mybatis.datasource.pooled;
+
+import java.sql.*;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executor;
+
+/**
+ * 池化连接返回给调用方的连接
+ *
+ * <p>直接委托给真实连接，不经过反射；close() 归还连接，连接状态由池条目跟踪，创建的语句会被包装以跟踪执行和关闭
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/18 12:50
+ * @project: sbs-mybatis
+ */
+final class ConnectionWrapper implements Connection {
+  private final PooledConnection owner;
+
+  private final Connection delegate;
+
+  ConnectionWrapper(PooledConnection owner, Connection delegate) {
+    this.owner = owner;
+    this.delegate = delegate;
+  }
+
+  Connection unwrapRealConnection() {
+    return delegate;
+  }
+
+  @Override
+  public void close() throws SQLException {
+    owner.release();
+  }
+
+  @Override
+  public boolean isClosed() throws SQLException {
+    return !owner.isUsable() || delegate.isClosed();
+  }
+
+  // 连接状态由池条目跟踪，未改变的设置不访问数据库
+
+  @Override
+  public boolean getAutoCommit() throws SQLException {
+    owner.checkConnection();
+    return owner.getEntry().isAutoCommit();
+  }
+
+  @Override
+  public void setAutoCommit(boolean autoCommit) throws SQLException {
+    owner.checkConnection();
+    owner.getEntry().setAutoCommit(autoCommit);
+  }
+
+  @Override
+  public int getTransactionIsolation() throws SQLException {
+    owner.checkConnection();
+    return owner.getEntry().getTransactionIsolation();
+  }
+
+  @Override
+  public void setTransactionIsolation(int level) throws SQLException {
+    owner.checkConnection();
+    owner.getEntry().setTransactionIsolation(level);
+  }
+
+  @Override
+  public boolean isReadOnly() throws SQLException {
+    owner.checkConnection();
+    return owner.getEntry().isReadOnly();
+  }
+
+  @Override
+  public void setReadOnly(boolean readOnly) throws SQLException {
+    owner.checkConnection();
+    owner.getEntry().setReadOnly(readOnly);
+  }
+
+  @Override
+  public void commit() throws SQLException {
+    owner.checkConnection();
+    owner.getEntry().commit();
+  }
+
+  @Override
+  public void rollback() throws SQLException {
+    owner.checkConnection();
+    owner.getEntry().rollback();
+  }
+
+  @Override
+  public Statement createStatement() throws SQLException {
+    owner.checkConnection();
+    return owner.wrapStatement(delegate.createStatement());
+  }
+
+  @Override
+  public PreparedStatement prepareStatement(String sql) throws SQLException {
+    owner.checkConnection();
+    return owner.prepareStatement(() -> delegate.prepareStatement(sql), sql);
+  }
+
+  @Override
+  public CallableStatement prepareCall(String sql) throws SQLException {
+    owner.checkConnection();
+    return owner.wrapCallableStatement(delegate.prepareCall(sql));
+  }
+
+  @Override
+  public String nativeSQL(String sql) throws SQLException {
+    owner.checkConnection();
+    return delegate.nativeSQL(sql);
+  }
+
+  @Override
+  public DatabaseMetaData getMetaData() throws SQLException {
+    owner.checkConnection();
+    return delegate.getMetaData();
+  }
+
+  @Override
+  public void setCatalog(String catalog) throws SQLException {
+    owner.checkConnection();
+    delegate.setCatalog(catalog);
+  }
+
+  @Override
+  public String getCatalog() throws SQLException {
+    owner.checkConnection();
+    return delegate.getCatalog();
+  }
+
+  @Override
+  public SQLWarning getWarnings() throws SQLException {
+    owner.checkConnection();
+    return delegate.getWarnings();
+  }
+
+  @Override
+  public void clearWarnings() throws SQLException {
+    owner.checkConnection();
+    delegate.clearWarnings();
+  }
+
+  @Override
+  public Statement createStatement(int resultSetType, int resultSetConcurrency)
+      throws SQLException {
+    owner.checkConnection();
+    return owner.wrapStatement(delegate.createStatement(resultSetType, resultSetConcurrency));
+  }
+
+  @Override
+  public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency)
+      throws SQLException {
+    owner.checkConnection();
+    return owner.prepareStatement(
+        () -> delegate.prepareStatement(sql, resultSetType, resultSetConcurrency),
+        sql,
+        resultSetType,
+        resultSetConcurrency);
+  }
+
+  @Override
+  public CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency)
+      throws SQLException {
+    owner.checkConnection();
+    return owner.wrapCallableStatement(
+        delegate.prepareCall(sql, resultSetType, resultSetConcurrency));
+  }
+
+  @Override
+  public java.util.Map<String, Class<?>> getTypeMap() throws SQLException {
+    owner.checkConnection();
+    return delegate.getTypeMap();
+  }
+
+  @Override
+  public void setTypeMap(java.util.Map<String, Class<?>> map) throws SQLException {
+    owner.checkConnection();
+    delegate.setTypeMap(map);
+  }
+
+  @Override
+  public void setHoldability(int holdability) throws SQLException {
+    owner.checkConnection();
+    delegate.setHoldability(holdability);
+  }
+
+  @Override
+  public int getHoldability() throws SQLException {
+    owner.checkConnection();
+    return delegate.getHoldability();
+  }
+
+  @Override
+  public Savepoint setSavepoint() throws SQLException {
+    owner.checkConnection();
+    owner.getEntry().markDirty();
+    return delegate.setSavepoint();
+  }
+
+  @Override
+  public Savepoint setSavepoint(String name) throws SQLException {
+    owner.checkConnection();
+    owner.getEntry().markDirty();
+    return delegate.setSavepoint(name);
+  }
+
+  @Override
+  public void rollback(Savepoint savepoint) throws SQLException {
+    owner.checkConnection();
+    delegate.rollback(savepoint);
+  }
+
+  @Override
+  public void releaseSavepoint(Savepoint savepoint) throws SQLException {
+    owner.checkConnection();
+    delegate.releaseSavepoint(savepoint);
+  }
+
+  @Override
+  public Statement createStatement(
+      int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
+    owner.checkConnection();
+    return owner.wrapStatement(
+        delegate.createStatement(resultSetType, resultSetConcurrency, resultSetHoldability));
+  }
+
+  @Override
+  public PreparedStatement prepareStatement(
+      String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability)
+      throws SQLException {
+    owner.checkConnection();
+    return owner.prepareStatement(
+        () ->
+            delegate.prepareStatement(
+                sql, resultSetType, resultSetConcurrency, resultSetHoldability),
+        sql,
+        resultSetType,
+        resultSetConcurrency,
+        resultSetHoldability);
+  }
+
+  @Override
+  public CallableStatement prepareCall(
+      String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability)
+      throws SQLException {
+    owner.checkConnection();
+    return owner.wrapCallableStatement(
+        delegate.prepareCall(sql, resultSetType, resultSetConcurrency, resultSetHoldability));
+  }
+
+  @Override
+  public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException {
+    owner.checkConnection();
+    return owner.prepareStatement(
+        () -> delegate.prepareStatement(sql, autoGeneratedKeys), sql, autoGeneratedKeys);
+  }
+
+  @Override
+  public PreparedStatement prepareStatement(String sql, int[] columnIndexes) throws SQLException {
+    owner.checkConnection();
+    return owner.prepareStatement(
+        () -> delegate.prepareStatement(sql, columnIndexes), sql, columnIndexes);
+  }
+
+  @Override
+  public PreparedStatement prepareStatement(String sql, String[] columnNames) throws SQLException {
+    owner.checkConnection();
+    return owner.prepareStatement(
+        () -> delegate.prepareStatement(sql, columnNames), sql, columnNames);
+  }
+
+  @Override
+  public Clob createClob() throws SQLException {
+    owner.checkConnection();
+    return delegate.createClob();
+  }
+
+  @Override
+  public Blob createBlob() throws SQLException {
+    owner.checkConnection();
+    return delegate.createBlob();
+  }
+
+  @Override
+  public NClob createNClob() throws SQLException {
+    owner.checkConnection();
+    return delegate.createNClob();
+  }
+
+  @Override
+  public SQLXML createSQLXML() throws SQLException {
+    owner.checkConnection();
+    return delegate.createSQLXML();
+  }
+
+  @Override
+  public boolean isValid(int timeout) throws SQLException {
+    return owner.isUsable() && delegate.isValid(timeout);
+  }
+
+  @Override
+  public void setClientInfo(String name, String value) throws SQLClientInfoException {
+    checkClientInfo();
+    delegate.setClientInfo(name, value);
+  }
+
+  @Override
+  public void setClientInfo(Properties properties) throws SQLClientInfoException {
+    checkClientInfo();
+    delegate.setClientInfo(properties);
+  }
+
+  @Override
+  public String getClientInfo(String name) throws SQLException {
+    owner.checkConnection();
+    return delegate.getClientInfo(name);
+  }
+
+  @Override
+  public Properties getClientInfo() throws SQLException {
+    owner.checkConnection();
+    return delegate.getClientInfo();
+  }
+
+  @Override
+  public Array createArrayOf(String typeName, Object[] elements) throws SQLException {
+    owner.checkConnection();
+    return delegate.createArrayOf(typeName, elements);
+  }
+
+  @Override
+  public Struct createStruct(String typeName, Object[] attributes) throws SQLException {
+    owner.checkConnection();
+    return delegate.createStruct(typeName, attributes);
+  }
+
+  @Override
+  public void setSchema(String schema) throws SQLException {
+    owner.checkConnection();
+    delegate.setSchema(schema);
+  }
+
+  @Override
+  public String getSchema() throws SQLException {
+    owner.checkConnection();
+    return delegate.getSchema();
+  }
+
+  @Override
+  public void abort(Executor executor) throws SQLException {
+    owner.checkConnection();
+    delegate.abort(executor);
+  }
+
+  @Override
+  public void setNetworkTimeout(Executor executor, int milliseconds) throws SQLException {
+    owner.checkConnection();
+    delegate.setNetworkTimeout(executor, milliseconds);
+  }
+
+  @Override
+  public int getNetworkTimeout() throws SQLException {
+    owner.checkConnection();
+    return delegate.getNetworkTimeout();
+  }
+
+  private void checkClientInfo() throws SQLClientInfoException {
+    if (!owner.isUsable()) {
+      throw new SQLClientInfoException(
+          "Error accessing PooledConnection. Connection is invalid.", null);
+    }
+  }
+
+  @Override
+  public <T> T unwrap(Class<T> iface) throws SQLException {
+    if (iface.isInstance(delegate)) {
+      return iface.cast(delegate);
+    }
+    return delegate.unwrap(iface);
+  }
+
+  @Override
+  public boolean isWrapperFor(Class<?> iface) throws SQLException {
+    return iface.isInstance(delegate) || delegate.isWrapperFor(iface);
+  }
+
+  @Override
+  public int hashCode() {
+    return delegate.hashCode();
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    return obj instanceof ConnectionWrapper && ((ConnectionWrapper) obj).delegate == delegate;
+  }
+
+  @Override
+  public String toString() {
+    return delegate.toString();
+  }
+}
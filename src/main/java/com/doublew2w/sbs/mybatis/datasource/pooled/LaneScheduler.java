@@ -0,0 +1,219 @@
+package com.doublew2w.sbs.mybatis.datasource.pooled;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntSupplier;
+
+/**
+ * 通道调度：借用连接前先在所属通道上取得借用许可
+ *
+ * <p>许可总数等于连接池的活跃连接上限。通道借出数未达到 minimumConnections 时总能取得许可（只要连接池未满）；超过后不能占用其他通道尚未使用的保留容量，也不能超过
+ * maximumConnections。许可释放时按优先级从高到低、同优先级先到先得唤醒第一个可以取得许可的等待者。
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/18 14:10
+ * @project: sbs-mybatis
+ */
+final class LaneScheduler {
+  private static final Comparator<Waiter> ORDER =
+      Comparator.<Waiter>comparingInt(waiter -> -waiter.lane.getPriority())
+          .thenComparingLong(waiter -> waiter.ticket);
+
+  private final ReentrantLock lock = new ReentrantLock();
+
+  /** 等待者，按优先级和到达顺序排列 */
+  private final TreeSet<Waiter> waiters = new TreeSet<>(ORDER);
+
+  private final AtomicLong tickets = new AtomicLong();
+
+  /** 连接池的活跃连接上限 */
+  private final IntSupplier capacity;
+
+  /** 已配置的通道，写时复制 */
+  private volatile Map<String, PoolLane> lanes = new LinkedHashMap<>();
+
+  /** 所有通道借出的连接总数 */
+  private int borrowedCount;
+
+  LaneScheduler(IntSupplier capacity) {
+    this.capacity = capacity;
+  }
+
+  /** 添加或替换通道，第一次添加时自动补充默认通道 */
+  void addLane(PoolLane lane) {
+    lock.lock();
+    try {
+      Map<String, PoolLane> copy = new LinkedHashMap<>(lanes);
+      PoolLane previous = copy.get(lane.getName());
+      if (previous != null && (previous.borrowedCount > 0 || previous.waitingCount > 0)) {
+        throw new IllegalStateException("Pool lane '" + lane.getName() + "' is in use");
+      }
+      copy.put(lane.getName(), lane);
+      copy.putIfAbsent(PoolLane.DEFAULT, new PoolLane(PoolLane.DEFAULT, 0, 0, 0));
+      lanes = copy;
+      dispatch();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  boolean isEnabled() {
+    return !lanes.isEmpty();
+  }
+
+  Collection<PoolLane> getLanes() {
+    return lanes.values();
+  }
+
+  /** 按名称查找通道，未指定或不存在时返回默认通道 */
+  PoolLane resolve(String name) {
+    Map<String, PoolLane> current = lanes;
+    PoolLane lane = name == null ? null : current.get(name);
+    return lane == null ? current.get(PoolLane.DEFAULT) : lane;
+  }
+
+  long nextTicket() {
+    return tickets.incrementAndGet();
+  }
+
+  /** 不等待地取得许可 */
+  boolean tryAcquire(PoolLane lane) {
+    lock.lock();
+    try {
+      dispatch();
+      if (admissible(lane)) {
+        grant(lane);
+        return true;
+      }
+      return false;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * 排队等待许可
+   *
+   * @param ticket 到达顺序，同一次借用分段等待时保持不变
+   * @return 是否取得许可，超时返回 false
+   */
+  boolean acquire(PoolLane lane, long ticket, long timeout, TimeUnit unit)
+      throws InterruptedException {
+    lock.lock();
+    try {
+      dispatch();
+      if (admissible(lane)) {
+        grant(lane);
+        return true;
+      }
+      Waiter waiter = new Waiter(lane, ticket, lock.newCondition());
+      waiters.add(waiter);
+      lane.waitingCount++;
+      try {
+        long remaining = unit.toNanos(timeout);
+        while (!waiter.granted && remaining > 0) {
+          remaining = waiter.condition.awaitNanos(remaining);
+        }
+      } catch (InterruptedException e) {
+        if (waiter.granted) {
+          revoke(lane);
+        }
+        throw e;
+      } finally {
+        if (waiters.remove(waiter)) {
+          lane.waitingCount--;
+        }
+      }
+      return waiter.granted;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** 归还许可并唤醒可以取得许可的等待者 */
+  void release(PoolLane lane) {
+    lock.lock();
+    try {
+      revoke(lane);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** 连接池上限变化后重新检查等待者 */
+  void signalCapacityChanged() {
+    lock.lock();
+    try {
+      dispatch();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void revoke(PoolLane lane) {
+    borrowedCount--;
+    lane.borrowedCount--;
+    dispatch();
+  }
+
+  private void grant(PoolLane lane) {
+    borrowedCount++;
+    lane.borrowedCount++;
+  }
+
+  private void dispatch() {
+    Iterator<Waiter> iterator = waiters.iterator();
+    while (iterator.hasNext()) {
+      Waiter waiter = iterator.next();
+      if (admissible(waiter.lane)) {
+        iterator.remove();
+        waiter.lane.waitingCount--;
+        grant(waiter.lane);
+        waiter.granted = true;
+        waiter.condition.signal();
+      }
+    }
+  }
+
+  private boolean admissible(PoolLane lane) {
+    int limit = capacity.getAsInt();
+    if (borrowedCount >= limit) {
+      return false;
+    }
+    if (lane.getMaximumConnections() > 0 && lane.borrowedCount >= lane.getMaximumConnections()) {
+      return false;
+    }
+    if (lane.borrowedCount < lane.getMinimumConnections()) {
+      return true;
+    }
+    // 不能占用其他通道尚未使用的保留容量
+    int reserved = 0;
+    for (PoolLane other : lanes.values()) {
+      if (other != lane) {
+        reserved += Math.max(0, other.getMinimumConnections() - other.borrowedCount);
+      }
+    }
+    return borrowedCount + reserved < limit;
+  }
+
+  private static final class Waiter {
+    private final PoolLane lane;
+    private final long ticket;
+    private final Condition condition;
+    private boolean granted;
+
+    private Waiter(PoolLane lane, long ticket, Condition condition) {
+      this.lane = lane;
+      this.ticket = ticket;
+      this.condition = condition;
+    }
+  }
+}
@@ -0,0 +1,116 @@
+package com.doublew2w.sbs.mybatis.datasource.pooled;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 对数线性直方图，记录和读取都不加锁
+ *
+ * <p>按 2 的幂划分区间，每个区间再均分为 {@value #SUB_BUCKET_COUNT} 个桶，相对误差不超过 1/{@value #SUB_BUCKET_COUNT}。
+ * 记录只做一次数组元素的原子自增；读取时遍历所有桶，与并发的记录之间不保证快照一致，适合监控采集。
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/18 16:20
+ * @project: sbs-mybatis
+ */
+public class LatencyHistogram {
+  private static final int SUB_BUCKET_BITS = 4;
+
+  /** 每个 2 的幂区间内的桶数 */
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+  /** 覆盖 [0, Long.MAX_VALUE] 所需的桶数 */
+  private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+  private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+
+  private final LongAdder total = new LongAdder();
+
+  private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+  /** 记录一个值，负数按 0 记录 */
+  public void record(long value) {
+    long v = Math.max(0, value);
+    buckets.incrementAndGet(bucketIndex(v));
+    total.add(v);
+    max.accumulate(v);
+  }
+
+  /** 记录的值个数 */
+  public long getCount() {
+    long count = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      count += buckets.get(i);
+    }
+    return count;
+  }
+
+  public long getMax() {
+    return max.get();
+  }
+
+  public long getMean() {
+    long count = getCount();
+    return count == 0 ? 0 : total.sum() / count;
+  }
+
+  /**
+   * 获取百分位数，返回所在桶的上界（不超过最大值）
+   *
+   * @param percentile 百分位，取值 (0, 100]
+   * @return 没有记录时返回 0
+   */
+  public long getPercentile(double percentile) {
+    if (percentile <= 0 || percentile > 100) {
+      throw new IllegalArgumentException("Percentile must be in (0, 100]: " + percentile);
+    }
+    long[] counts = new long[BUCKET_COUNT];
+    long count = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      counts[i] = buckets.get(i);
+      count += counts[i];
+    }
+    if (count == 0) {
+      return 0;
+    }
+    long rank = (long) Math.ceil(percentile / 100 * count);
+    long seen = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      seen += counts[i];
+      if (seen >= rank) {
+        return Math.min(bucketUpperBound(i), max.get());
+      }
+    }
+    return max.get();
+  }
+
+  /** 清空所有记录 */
+  public void reset() {
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      buckets.set(i, 0);
+    }
+    total.reset();
+    max.reset();
+  }
+
+  static int bucketIndex(long value) {
+    if (value < SUB_BUCKET_COUNT) {
+      return (int) value;
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros(value);
+    int shift = exponent - SUB_BUCKET_BITS;
+    int subBucket = (int) (value >>> shift) & (SUB_BUCKET_COUNT - 1);
+    return (shift + 1) * SUB_BUCKET_COUNT + subBucket;
+  }
+
+  static long bucketUpperBound(int index) {
+    if (index < SUB_BUCKET_COUNT) {
+      return index;
+    }
+    int shift = index / SUB_BUCKET_COUNT - 1;
+    int subBucket = index % SUB_BUCKET_COUNT;
+    // 最后一个桶的上界溢出后减一恰好是 Long.MAX_VALUE
+    return ((long) (SUB_BUCKET_COUNT + subBucket + 1) << shift) - 1;
+  }
+}
@@ -0,0 +1,47 @@
+package com.doublew2w.sbs.mybatis.datasource.pooled;
+
+import lombok.Getter;
+
+/**
+ * 疑似泄漏的连接：借出时间超过 leakDetectionThreshold 仍未归还
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/18 11:40
+ * @project: sbs-mybatis
+ */
+@Getter
+public class LeakSuspect {
+  /** 真实连接的哈希码 */
+  private final int connectionHashCode;
+
+  /** 借用线程名称 */
+  private final String threadName;
+
+  /** 已借出时间（毫秒） */
+  private final long heldMillis;
+
+  /** 借用时的调用栈，未被采样时为 null */
+  private final StackTraceElement[] borrowStackTrace;
+
+  public LeakSuspect(
+      int connectionHashCode,
+      String threadName,
+      long heldMillis,
+      StackTraceElement[] borrowStackTrace) {
+    this.connectionHashCode = connectionHashCode;
+    this.threadName = threadName;
+    this.heldMillis = heldMillis;
+    this.borrowStackTrace = borrowStackTrace;
+  }
+
+  @Override
+  public String toString() {
+    return "connection "
+        + connectionHashCode
+        + " held by "
+        + threadName
+        + " for "
+        + heldMillis
+        + " ms";
+  }
+}
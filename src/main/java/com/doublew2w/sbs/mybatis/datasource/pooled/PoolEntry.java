@@ -0,0 +1,230 @@
+package com.doublew2w.sbs.mybatis.datasource.pooled;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 连接池中的一条真实连接
+ *
+ * <p>每次借出时创建新的 {@link PooledConnection} 代理，归还后旧代理失效；池条目本身在真实连接关闭前一直留在池中。
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/18 10:20
+ * @project: sbs-mybatis
+ */
+public class PoolEntry implements ConcurrentBag.Entry {
+  private static final AtomicIntegerFieldUpdater<PoolEntry> STATE =
+      AtomicIntegerFieldUpdater.newUpdater(PoolEntry.class, "state");
+
+  private volatile int state;
+
+  /** 真实连接 */
+  private final Connection realConnection;
+
+  /** 当前借用者，归还或被强制回收时清空 */
+  private final AtomicReference<PooledConnection> borrower = new AtomicReference<>();
+
+  /** 连接被创建的时间戳（毫秒） */
+  private volatile long createdTimestamp;
+
+  /** 最后被使用的时间戳（毫秒） */
+  private volatile long lastUsedTimestamp;
+
+  /** 连接类型代码 */
+  private volatile int connectionTypeCode;
+
+  /** 退役时间戳（毫秒），0 表示不限制存活时间 */
+  private volatile long retireTimestamp;
+
+  /** 是否已标记驱逐，借出中的连接在归还时关闭 */
+  private volatile boolean evicted;
+
+  /** 语句缓存，未开启时为 null */
+  private volatile StatementCache statementCache;
+
+  /** 已知的自动提交状态，null 表示尚未读取 */
+  private volatile Boolean autoCommit;
+
+  /** 已知的事务隔离级别，null 表示尚未读取 */
+  private volatile Integer transactionIsolation;
+
+  /** 已知的只读状态，null 表示尚未读取 */
+  private volatile Boolean readOnly;
+
+  /** 上次提交或回滚后是否执行过语句 */
+  private volatile boolean dirty;
+
+  public PoolEntry(Connection realConnection) {
+    this.realConnection = realConnection;
+    this.createdTimestamp = System.currentTimeMillis();
+    this.lastUsedTimestamp = createdTimestamp;
+  }
+
+  @Override
+  public boolean compareAndSetState(int expect, int update) {
+    return STATE.compareAndSet(this, expect, update);
+  }
+
+  @Override
+  public void setState(int state) {
+    this.state = state;
+  }
+
+  @Override
+  public int getState() {
+    return state;
+  }
+
+  public Connection getRealConnection() {
+    return realConnection;
+  }
+
+  public PooledConnection getBorrower() {
+    return borrower.get();
+  }
+
+  void setBorrower(PooledConnection connection) {
+    borrower.set(connection);
+  }
+
+  /** 解除借用关系，只有当前借用者匹配时成功，用于区分正常归还和强制回收 */
+  boolean releaseBorrower(PooledConnection connection) {
+    return borrower.compareAndSet(connection, null);
+  }
+
+  public long getCreatedTimestamp() {
+    return createdTimestamp;
+  }
+
+  public void setCreatedTimestamp(long createdTimestamp) {
+    this.createdTimestamp = createdTimestamp;
+  }
+
+  public long getLastUsedTimestamp() {
+    return lastUsedTimestamp;
+  }
+
+  public void setLastUsedTimestamp(long lastUsedTimestamp) {
+    this.lastUsedTimestamp = lastUsedTimestamp;
+  }
+
+  public int getConnectionTypeCode() {
+    return connectionTypeCode;
+  }
+
+  public void setConnectionTypeCode(int connectionTypeCode) {
+    this.connectionTypeCode = connectionTypeCode;
+  }
+
+  public void setRetireTimestamp(long retireTimestamp) {
+    this.retireTimestamp = retireTimestamp;
+  }
+
+  /** 是否应当退役：已标记驱逐，或超过存活时间 */
+  public boolean isRetired(long now) {
+    return evicted || (retireTimestamp > 0 && now >= retireTimestamp);
+  }
+
+  public void markEvicted() {
+    this.evicted = true;
+  }
+
+  StatementCache getStatementCache() {
+    return statementCache;
+  }
+
+  void setStatementCache(StatementCache statementCache) {
+    this.statementCache = statementCache;
+  }
+
+  boolean isAutoCommit() throws SQLException {
+    Boolean value = autoCommit;
+    if (value == null) {
+      value = realConnection.getAutoCommit();
+      autoCommit = value;
+    }
+    return value;
+  }
+
+  /** 设置自动提交，状态不变时不访问数据库 */
+  void setAutoCommit(boolean value) throws SQLException {
+    if (autoCommit != null && autoCommit == value) {
+      return;
+    }
+    autoCommit = null;
+    realConnection.setAutoCommit(value);
+    autoCommit = value;
+    // 切换自动提交会提交或开启新事务
+    dirty = false;
+  }
+
+  int getTransactionIsolation() throws SQLException {
+    Integer value = transactionIsolation;
+    if (value == null) {
+      value = realConnection.getTransactionIsolation();
+      transactionIsolation = value;
+    }
+    return value;
+  }
+
+  /** 设置事务隔离级别，状态不变时不访问数据库 */
+  void setTransactionIsolation(int level) throws SQLException {
+    if (transactionIsolation != null && transactionIsolation == level) {
+      return;
+    }
+    transactionIsolation = null;
+    realConnection.setTransactionIsolation(level);
+    transactionIsolation = level;
+  }
+
+  boolean isReadOnly() throws SQLException {
+    Boolean value = readOnly;
+    if (value == null) {
+      value = realConnection.isReadOnly();
+      readOnly = value;
+    }
+    return value;
+  }
+
+  /** 设置只读，状态不变时不访问数据库 */
+  void setReadOnly(boolean value) throws SQLException {
+    if (readOnly != null && readOnly == value) {
+      return;
+    }
+    readOnly = null;
+    realConnection.setReadOnly(value);
+    readOnly = value;
+  }
+
+  void markDirty() {
+    dirty = true;
+  }
+
+  /** 提交事务，未执行过语句时跳过 */
+  void commit() throws SQLException {
+    if (!dirty && autoCommit != null && !autoCommit) {
+      return;
+    }
+    realConnection.commit();
+    dirty = false;
+  }
+
+  /** 回滚事务，未执行过语句时跳过 */
+  void rollback() throws SQLException {
+    if (!dirty && autoCommit != null && !autoCommit) {
+      return;
+    }
+    realConnection.rollback();
+    dirty = false;
+  }
+
+  /** 非自动提交且执行过语句时回滚，保证连接以干净的状态借出 */
+  void rollbackIfDirty() throws SQLException {
+    if (dirty && !isAutoCommit()) {
+      realConnection.rollback();
+    }
+    dirty = false;
+  }
+}
@@ -0,0 +1,103 @@
+package com.doublew2w.sbs.mybatis.datasource.pooled;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+
+/**
+ * 连接池通道：按负载类型（如在线请求、报表）划分借用配额
+ *
+ * <p>每个通道保证至少能借到 minimumConnections 个连接，最多借出 maximumConnections 个；等待连接时按 priority 从高到低服务。
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/18 14:10
+ * @project: sbs-mybatis
+ */
+@Getter
+public final class PoolLane {
+  /** 未指定通道或通道不存在时使用的通道 */
+  public static final String DEFAULT = "default";
+
+  /** 通道名称 */
+  private final String name;
+
+  /** 优先级，越大越先被服务 */
+  private final int priority;
+
+  /** 保证的最少连接数，其他通道不能占用这部分容量 */
+  private final int minimumConnections;
+
+  /** 最多借出的连接数，0 表示只受连接池上限约束 */
+  private final int maximumConnections;
+
+  /** 当前借出的连接数，由 {@link LaneScheduler} 在锁内维护 */
+  volatile int borrowedCount;
+
+  /** 当前等待的线程数 */
+  volatile int waitingCount;
+
+  public PoolLane(String name, int priority, int minimumConnections, int maximumConnections) {
+    if (name == null || name.isEmpty()) {
+      throw new IllegalArgumentException("Pool lane name must not be empty");
+    }
+    if (minimumConnections < 0 || maximumConnections < 0) {
+      throw new IllegalArgumentException("Pool lane '" + name + "' has a negative capacity");
+    }
+    if (maximumConnections > 0 && minimumConnections > maximumConnections) {
+      throw new IllegalArgumentException(
+          "Pool lane '" + name + "' reserves more connections than its maximum");
+    }
+    this.name = name;
+    this.priority = priority;
+    this.minimumConnections = minimumConnections;
+    this.maximumConnections = maximumConnections;
+  }
+
+  /**
+   * 解析通道配置，多个通道以逗号分隔，每个通道为 name:priority[:minimum[:maximum]]
+   *
+   * <p>例如 api:10:4,report:1:0:3
+   */
+  public static List<PoolLane> parse(String value) {
+    List<PoolLane> lanes = new ArrayList<>();
+    if (value == null) {
+      return lanes;
+    }
+    for (String part : value.split(",")) {
+      if (part.trim().isEmpty()) {
+        continue;
+      }
+      String[] fields = part.trim().split(":");
+      if (fields.length < 2 || fields.length > 4) {
+        throw new IllegalArgumentException("Invalid pool lane '" + part.trim() + "'");
+      }
+      try {
+        lanes.add(
+            new PoolLane(
+                fields[0].trim(),
+                Integer.parseInt(fields[1].trim()),
+                fields.length > 2 ? Integer.parseInt(fields[2].trim()) : 0,
+                fields.length > 3 ? Integer.parseInt(fields[3].trim()) : 0));
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException("Invalid pool lane '" + part.trim() + "'", e);
+      }
+    }
+    return lanes;
+  }
+
+  @Override
+  public String toString() {
+    return name
+        + ":"
+        + priority
+        + ":"
+        + minimumConnections
+        + ":"
+        + maximumConnections
+        + " (borrowed "
+        + borrowedCount
+        + ", waiting "
+        + waitingCount
+        + ")";
+  }
+}
@@ -0,0 +1,49 @@
+package com.doublew2w.sbs.mybatis.datasource.pooled;
+
+/**
+ * 连接池通道提示：在当前线程上指定借用连接时使用的 {@link PoolLane}
+ *
+ * <pre>
+ *   String previous = PoolLaneContext.set("report");
+ *   try {
+ *     mapper.queryStatistics();
+ *   } finally {
+ *     PoolLaneContext.set(previous);
+ *   }
+ * </pre>
+ *
+ * <p>映射语句上配置的 lane 由执行器在执行期间设置；会话级别的通道见 SqlSessionFactory#openSession(String)
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/18 14:10
+ * @project: sbs-mybatis
+ */
+public final class PoolLaneContext {
+  private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+  private PoolLaneContext() {}
+
+  public static String current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * 设置当前线程的通道
+   *
+   * @param lane 通道名称，null 表示清除
+   * @return 之前的通道，用于恢复
+   */
+  public static String set(String lane) {
+    String previous = CURRENT.get();
+    if (lane == null) {
+      CURRENT.remove();
+    } else {
+      CURRENT.set(lane);
+    }
+    return previous;
+  }
+
+  public static void clear() {
+    CURRENT.remove();
+  }
+}
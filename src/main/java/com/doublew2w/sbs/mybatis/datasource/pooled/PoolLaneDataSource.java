@@ -0,0 +1,92 @@
+package com.doublew2w.sbs.mybatis.datasource.pooled;
+
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+import lombok.Getter;
+
+/**
+ * 指定通道的数据源视图：借用连接时把会话的通道设置到当前线程
+ *
+ * <p>语句或线程上已指定通道时以其为准
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/18 14:10
+ * @project: sbs-mybatis
+ */
+public class PoolLaneDataSource implements DataSource {
+  @Getter private final DataSource delegate;
+  @Getter private final String lane;
+
+  public PoolLaneDataSource(DataSource delegate, String lane) {
+    this.delegate = delegate;
+    this.lane = lane;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    if (PoolLaneContext.current() != null) {
+      return delegate.getConnection();
+    }
+    PoolLaneContext.set(lane);
+    try {
+      return delegate.getConnection();
+    } finally {
+      PoolLaneContext.clear();
+    }
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    if (PoolLaneContext.current() != null) {
+      return delegate.getConnection(username, password);
+    }
+    PoolLaneContext.set(lane);
+    try {
+      return delegate.getConnection(username, password);
+    } finally {
+      PoolLaneContext.clear();
+    }
+  }
+
+  @Override
+  public PrintWriter getLogWriter() throws SQLException {
+    return delegate.getLogWriter();
+  }
+
+  @Override
+  public void setLogWriter(PrintWriter out) throws SQLException {
+    delegate.setLogWriter(out);
+  }
+
+  @Override
+  public void setLoginTimeout(int seconds) throws SQLException {
+    delegate.setLoginTimeout(seconds);
+  }
+
+  @Override
+  public int getLoginTimeout() throws SQLException {
+    return delegate.getLoginTimeout();
+  }
+
+  @Override
+  public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+    return Logger.getLogger(Logger.GLOBAL_LOGGER_NAME);
+  }
+
+  @Override
+  public <T> T unwrap(Class<T> iface) throws SQLException {
+    if (iface.isInstance(this)) {
+      return iface.cast(this);
+    }
+    return delegate.unwrap(iface);
+  }
+
+  @Override
+  public boolean isWrapperFor(Class<?> iface) throws SQLException {
+    return iface.isInstance(this) || delegate.isWrapperFor(iface);
+  }
+}
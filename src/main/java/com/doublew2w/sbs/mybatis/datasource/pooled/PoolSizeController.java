@@ -0,0 +1,184 @@
+package com.doublew2w.sbs.mybatis.datasource.pooled;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 连接池容量控制器：根据等待和借出时长周期性调整活跃连接上限
+ *
+ * <p>借鉴 TCP Vegas 的梯度算法：把平均借出时长当作往返时间，历史最小值作为基线，梯度 = 基线 / 当前借出时长。
+ *
+ * <ul>
+ *   <li>梯度低于 {@link #SHRINK_GRADIENT}：借出时长明显变长，说明数据库已经饱和，上限乘以梯度收缩
+ *   <li>有线程等待且梯度不低于 {@link #GROW_GRADIENT}：数据库仍有余量，上限增加 √limit
+ *   <li>没有等待且平均占用不到上限的一半：上限减 1，逐步释放闲时多余的连接
+ * </ul>
+ *
+ * <p>上限始终在 [minimumLimit, maximumLimit] 之间。调整只由后台维护线程执行，各指标可以随时读取。
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/18 15:30
+ * @project: sbs-mybatis
+ */
+@Slf4j
+@Getter
+public class PoolSizeController {
+  /** 梯度不低于该值且有等待时扩容 */
+  static final double GROW_GRADIENT = 0.9;
+
+  /** 梯度低于该值时缩容 */
+  static final double SHRINK_GRADIENT = 0.7;
+
+  /** 单次最多缩容到一半 */
+  private static final double MIN_GRADIENT = 0.5;
+
+  /** 借出时长高于基线时，基线每个周期向其靠拢的比例，避免负载特征变化后基线一直停留在旧的最小值 */
+  private static final double BASELINE_DRIFT = 0.01;
+
+  /** 调整决策 */
+  public enum Decision {
+    /** 保持不变 */
+    HOLD,
+    /** 有等待且借出时长稳定，扩容 */
+    GROW,
+    /** 借出时长变长，缩容 */
+    SHRINK,
+    /** 利用率低，缩容 */
+    IDLE
+  }
+
+  @Getter(AccessLevel.NONE)
+  private final PooledDataSource dataSource;
+
+  /** 活跃连接上限的下界 */
+  private final int minimumLimit;
+
+  /** 活跃连接上限的上界 */
+  private final int maximumLimit;
+
+  /** 最近一次决策 */
+  private volatile Decision lastDecision = Decision.HOLD;
+
+  /** 最近一个周期的梯度 */
+  private volatile double lastGradient = 1.0;
+
+  /** 最近一个周期的平均借出时长（毫秒） */
+  private volatile double lastCheckoutTime;
+
+  /** 借出时长基线（毫秒） */
+  private volatile double baselineCheckoutTime;
+
+  /** 最近一个周期的平均占用连接数 */
+  private volatile double lastAverageInUse;
+
+  /** 扩容次数 */
+  private volatile long increaseCount;
+
+  /** 缩容次数 */
+  private volatile long decreaseCount;
+
+  @Getter(AccessLevel.NONE)
+  private long lastRequestCount;
+
+  @Getter(AccessLevel.NONE)
+  private long lastAccumulatedCheckoutTime;
+
+  @Getter(AccessLevel.NONE)
+  private long lastHadToWaitCount;
+
+  @Getter(AccessLevel.NONE)
+  private long lastTickNanos = System.nanoTime();
+
+  PoolSizeController(PooledDataSource dataSource, int minimumLimit, int maximumLimit) {
+    if (minimumLimit < 1 || maximumLimit < minimumLimit) {
+      throw new IllegalArgumentException(
+          "Invalid adaptive pool bounds [" + minimumLimit + ", " + maximumLimit + "]");
+    }
+    this.dataSource = dataSource;
+    this.minimumLimit = minimumLimit;
+    this.maximumLimit = maximumLimit;
+    PoolState state = dataSource.getState();
+    this.lastRequestCount = state.getRequestCount();
+    this.lastAccumulatedCheckoutTime = state.getAccumulatedCheckoutTime();
+    this.lastHadToWaitCount = state.getHadToWaitCount();
+  }
+
+  /** 当前活跃连接上限 */
+  public int getCurrentLimit() {
+    return dataSource.getPoolMaximumActiveConnections();
+  }
+
+  /** 读取上一周期以来的统计并调整上限 */
+  void adjust() {
+    PoolState state = dataSource.getState();
+    long now = System.nanoTime();
+    long requestCount = state.getRequestCount();
+    long accumulatedCheckoutTime = state.getAccumulatedCheckoutTime();
+    long hadToWaitCount = state.getHadToWaitCount();
+    long requests = requestCount - lastRequestCount;
+    long checkoutTime = accumulatedCheckoutTime - lastAccumulatedCheckoutTime;
+    long waits = hadToWaitCount - lastHadToWaitCount;
+    double elapsedMillis = (now - lastTickNanos) / 1_000_000.0;
+    lastRequestCount = requestCount;
+    lastAccumulatedCheckoutTime = accumulatedCheckoutTime;
+    lastHadToWaitCount = hadToWaitCount;
+    lastTickNanos = now;
+
+    int limit = dataSource.getPoolMaximumActiveConnections();
+    boolean queued = waits > 0 || state.getWaitingThreadCount() > 0;
+    // 利特尔法则：周期内的总借出时长 / 周期长度 = 平均占用连接数；长时间未归还的连接按当前借出数计
+    double averageInUse =
+        Math.max(
+            elapsedMillis > 0 ? checkoutTime / elapsedMillis : 0,
+            state.getActiveConnectionCount());
+    lastAverageInUse = averageInUse;
+
+    double gradient = 1.0;
+    if (requests > 0 && checkoutTime > 0) {
+      double average = (double) checkoutTime / requests;
+      lastCheckoutTime = average;
+      double baseline = baselineCheckoutTime;
+      if (baseline == 0 || average < baseline) {
+        baseline = average;
+      } else {
+        baseline += (average - baseline) * BASELINE_DRIFT;
+      }
+      baselineCheckoutTime = baseline;
+      gradient = Math.max(MIN_GRADIENT, Math.min(1.0, baseline / average));
+    }
+    lastGradient = gradient;
+
+    Decision decision = Decision.HOLD;
+    int target = limit;
+    if (gradient < SHRINK_GRADIENT) {
+      decision = Decision.SHRINK;
+      target = (int) Math.floor(limit * gradient);
+    } else if (queued && gradient >= GROW_GRADIENT) {
+      decision = Decision.GROW;
+      target = limit + (int) Math.ceil(Math.sqrt(limit));
+    } else if (!queued && averageInUse < limit / 2.0) {
+      decision = Decision.IDLE;
+      target = limit - 1;
+    }
+    target = Math.max(minimumLimit, Math.min(maximumLimit, target));
+    if (target == limit) {
+      lastDecision = Decision.HOLD;
+      return;
+    }
+    lastDecision = decision;
+    if (target > limit) {
+      increaseCount++;
+    } else {
+      decreaseCount++;
+    }
+    log.debug(
+        "Adjusting pool limit {} -> {} ({}, gradient {}, average in use {}).",
+        limit,
+        target,
+        decision,
+        String.format("%.2f", gradient),
+        String.format("%.1f", averageInUse));
+    dataSource.setPoolMaximumActiveConnections(target);
+  }
+}
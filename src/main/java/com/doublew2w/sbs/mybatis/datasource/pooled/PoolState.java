@@ -1,11 +1,15 @@
 package com.doublew2w.sbs.mybatis.datasource.pooled;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.Getter;
 
 /**
  * 池状态
  *
+ * <p>计数器使用 {@link LongAdder}，直方图使用 {@link LatencyHistogram}，记录和读取都不加锁，监控采集不会与借用路径竞争
+ *
  * @author: DoubleW2w
  * @date: 2024/9/3 17:17
  * @project: sbs-mybatis
@@ -13,39 +17,138 @@ import java.util.List;
 public class PoolState {
   protected PooledDataSource dataSource;
 
-  // 空闲链接
-  protected final List<PooledConnection> idleConnections = new ArrayList<>();
-  // 活跃链接
-  protected final List<PooledConnection> activeConnections = new ArrayList<>();
-
   // 请求次数
-  protected long requestCount = 0;
-  // 总请求时间
-  protected long accumulatedRequestTime = 0;
+  protected final LongAdder requestCount = new LongAdder();
+  // 总请求时间（纳秒）
+  protected final LongAdder accumulatedRequestNanos = new LongAdder();
   // 总连接时间
-  protected long accumulatedCheckoutTime = 0;
+  protected final LongAdder accumulatedCheckoutTime = new LongAdder();
   // 过期的连接数量
-  protected long claimedOverdueConnectionCount = 0;
+  protected final LongAdder claimedOverdueConnectionCount = new LongAdder();
   // 过期连接的总时间
-  protected long accumulatedCheckoutTimeOfOverdueConnections = 0;
+  protected final LongAdder accumulatedCheckoutTimeOfOverdueConnections = new LongAdder();
 
   // 总等待时间
-  protected long accumulatedWaitTime = 0;
+  protected final LongAdder accumulatedWaitTime = new LongAdder();
   // 要等待的次数
-  protected long hadToWaitCount = 0;
+  protected final LongAdder hadToWaitCount = new LongAdder();
   // 失败连接次数
-  protected long badConnectionCount = 0;
+  protected final LongAdder badConnectionCount = new LongAdder();
+
+  // 验证次数
+  protected final LongAdder validationCount = new LongAdder();
+  // 验证失败次数
+  protected final LongAdder failedValidationCount = new LongAdder();
+  // 验证总耗时（纳秒）
+  protected final LongAdder accumulatedValidationNanos = new LongAdder();
+  // 在验证窗口内跳过验证的次数
+  protected final LongAdder skippedValidationCount = new LongAdder();
+
+  // 检测到的泄漏次数
+  protected final LongAdder leakedConnectionCount = new LongAdder();
+
+  // 语句缓存命中次数
+  protected final LongAdder statementCacheHitCount = new LongAdder();
+  // 语句缓存未命中次数
+  protected final LongAdder statementCacheMissCount = new LongAdder();
+  // 语句缓存淘汰次数
+  protected final LongAdder statementCacheEvictionCount = new LongAdder();
+
+  /** 借用耗时（微秒），包括没有等待的借用 */
+  @Getter private final LatencyHistogram borrowHistogram = new LatencyHistogram();
+
+  /** 借出时长（微秒），从借出到归还或被强制回收 */
+  @Getter private final LatencyHistogram checkoutHistogram = new LatencyHistogram();
+
+  /** 创建真实连接的耗时（微秒） */
+  @Getter private final LatencyHistogram connectionCreationHistogram = new LatencyHistogram();
 
   public PoolState(PooledDataSource dataSource) {
     this.dataSource = dataSource;
   }
 
-  public synchronized long getRequestCount() {
-    return requestCount;
+  /** 记录一次成功借出 */
+  void recordCheckout(long requestNanos) {
+    requestCount.increment();
+    accumulatedRequestNanos.add(requestNanos);
+    borrowHistogram.record(TimeUnit.NANOSECONDS.toMicros(requestNanos));
+  }
+
+  /** 记录一次归还 */
+  void recordCheckin(long checkoutTime) {
+    accumulatedCheckoutTime.add(checkoutTime);
+    checkoutHistogram.record(TimeUnit.MILLISECONDS.toMicros(checkoutTime));
+  }
+
+  /** 记录一次需要等待的借用 */
+  void recordHadToWait() {
+    hadToWaitCount.increment();
+  }
+
+  /** 记录等待时间 */
+  void recordWait(long waitTime) {
+    accumulatedWaitTime.add(waitTime);
+  }
+
+  /** 记录一次失效连接 */
+  void recordBadConnection() {
+    badConnectionCount.increment();
+  }
+
+  /** 记录一次强制回收的超时连接 */
+  void recordClaimedOverdue(long checkoutTime) {
+    claimedOverdueConnectionCount.increment();
+    accumulatedCheckoutTimeOfOverdueConnections.add(checkoutTime);
+    accumulatedCheckoutTime.add(checkoutTime);
+    checkoutHistogram.record(TimeUnit.MILLISECONDS.toMicros(checkoutTime));
+  }
+
+  /** 记录一次真实连接的创建 */
+  void recordConnectionCreated(long nanos) {
+    connectionCreationHistogram.record(TimeUnit.NANOSECONDS.toMicros(nanos));
+  }
+
+  /** 记录一次连接验证 */
+  void recordValidation(boolean valid, long nanos) {
+    validationCount.increment();
+    accumulatedValidationNanos.add(nanos);
+    if (!valid) {
+      failedValidationCount.increment();
+    }
+  }
+
+  /** 记录一次跳过的验证 */
+  void recordValidationSkipped() {
+    skippedValidationCount.increment();
+  }
+
+  /** 记录一次检测到的泄漏 */
+  void recordLeak() {
+    leakedConnectionCount.increment();
+  }
+
+  void recordStatementCacheHit() {
+    statementCacheHitCount.increment();
+  }
+
+  void recordStatementCacheMiss() {
+    statementCacheMissCount.increment();
   }
 
-  public synchronized long getAverageRequestTime() {
-    return requestCount == 0 ? 0 : accumulatedRequestTime / requestCount;
+  void recordStatementCacheEviction() {
+    statementCacheEvictionCount.increment();
+  }
+
+  public long getRequestCount() {
+    return requestCount.sum();
+  }
+
+  /** 获取平均请求时间（毫秒） */
+  public long getAverageRequestTime() {
+    long requests = requestCount.sum();
+    return requests == 0
+        ? 0
+        : TimeUnit.NANOSECONDS.toMillis(accumulatedRequestNanos.sum() / requests);
   }
 
   /**
@@ -53,20 +156,21 @@ public class PoolState {
    *
    * @return 总的等待时间/要等待的次数
    */
-  public synchronized long getAverageWaitTime() {
-    return hadToWaitCount == 0 ? 0 : accumulatedWaitTime / hadToWaitCount;
+  public long getAverageWaitTime() {
+    long waits = hadToWaitCount.sum();
+    return waits == 0 ? 0 : accumulatedWaitTime.sum() / waits;
   }
 
-  public synchronized long getHadToWaitCount() {
-    return hadToWaitCount;
+  public long getHadToWaitCount() {
+    return hadToWaitCount.sum();
   }
 
-  public synchronized long getBadConnectionCount() {
-    return badConnectionCount;
+  public long getBadConnectionCount() {
+    return badConnectionCount.sum();
   }
 
-  public synchronized long getClaimedOverdueConnectionCount() {
-    return claimedOverdueConnectionCount;
+  public long getClaimedOverdueConnectionCount() {
+    return claimedOverdueConnectionCount.sum();
   }
 
   /**
@@ -74,22 +178,78 @@ public class PoolState {
    *
    * @return 所有过期连接的连接时间 / 过期连接数量
    */
-  public synchronized long getAverageOverdueCheckoutTime() {
-    return claimedOverdueConnectionCount == 0
-        ? 0
-        : accumulatedCheckoutTimeOfOverdueConnections / claimedOverdueConnectionCount;
+  public long getAverageOverdueCheckoutTime() {
+    long claimed = claimedOverdueConnectionCount.sum();
+    return claimed == 0 ? 0 : accumulatedCheckoutTimeOfOverdueConnections.sum() / claimed;
+  }
+
+  /** 获取总连接时间 */
+  public long getAccumulatedCheckoutTime() {
+    return accumulatedCheckoutTime.sum();
   }
 
   /** 获取平均连接时间 */
-  public synchronized long getAverageCheckoutTime() {
-    return requestCount == 0 ? 0 : accumulatedCheckoutTime / requestCount;
+  public long getAverageCheckoutTime() {
+    long requests = requestCount.sum();
+    return requests == 0 ? 0 : accumulatedCheckoutTime.sum() / requests;
+  }
+
+  public long getValidationCount() {
+    return validationCount.sum();
+  }
+
+  public long getFailedValidationCount() {
+    return failedValidationCount.sum();
+  }
+
+  public long getSkippedValidationCount() {
+    return skippedValidationCount.sum();
+  }
+
+  /** 获取平均验证耗时（纳秒） */
+  public long getAverageValidationNanos() {
+    long validations = validationCount.sum();
+    return validations == 0 ? 0 : accumulatedValidationNanos.sum() / validations;
+  }
+
+  public long getLeakedConnectionCount() {
+    return leakedConnectionCount.sum();
+  }
+
+  public long getStatementCacheHitCount() {
+    return statementCacheHitCount.sum();
+  }
+
+  public long getStatementCacheMissCount() {
+    return statementCacheMissCount.sum();
+  }
+
+  public long getStatementCacheEvictionCount() {
+    return statementCacheEvictionCount.sum();
+  }
+
+  /** 当前借出时间超过泄漏检测阈值的连接及其持有者 */
+  public List<LeakSuspect> getLeakSuspects() {
+    return dataSource.leakSuspects();
+  }
+
+  /** 空闲连接数，直接读取连接池，不加锁 */
+  public int getIdleConnectionCount() {
+    return dataSource.getBag().getCount(ConcurrentBag.Entry.STATE_NOT_IN_USE);
+  }
+
+  /** 活跃（借出中）连接数，直接读取连接池，不加锁 */
+  public int getActiveConnectionCount() {
+    return dataSource.getBag().getCount(ConcurrentBag.Entry.STATE_IN_USE);
   }
 
-  public synchronized int getIdleConnectionCount() {
-    return idleConnections.size();
+  /** 数据源配置变更后尚未替换的旧连接数 */
+  public int getStaleConnectionCount() {
+    return dataSource.staleConnectionCount();
   }
 
-  public synchronized int getActiveConnectionCount() {
-    return activeConnections.size();
+  /** 等待连接的线程数 */
+  public int getWaitingThreadCount() {
+    return dataSource.getBag().getWaitingThreadCount();
   }
 }
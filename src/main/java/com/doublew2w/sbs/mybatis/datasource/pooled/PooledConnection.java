@@ -1,32 +1,37 @@
 package com.doublew2w.sbs.mybatis.datasource.pooled;
 
-import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.Method;
-import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 import lombok.extern.slf4j.Slf4j;
 
 /**
- * 池化链接的代理
+ * 池化链接：一次借用
+ *
+ * <p>调用方拿到的是 {@link ConnectionWrapper}，归还后本次借用失效，同一真实连接的下次借用会创建新的实例
  *
  * @author: DoubleW2w
  * @date: 2024/9/3 17:17
  * @project: sbs-mybatis
  */
 @Slf4j
-public class PooledConnection implements InvocationHandler {
-  /** 关闭方法名称 */
-  private static final String CLOSE = "close";
-
-  private static final Class<?>[] IFACES = new Class<?>[] {Connection.class};
-
+public class PooledConnection {
   /** 池化链接的哈希码 */
   private int hashCode;
 
   /** 池化数据源 */
   private PooledDataSource dataSource;
 
+  /** 所属的池条目 */
+  private final PoolEntry entry;
+
   // 真实的连接
   private Connection realConnection;
   // 代理的连接
@@ -35,51 +40,113 @@ public class PooledConnection implements InvocationHandler {
   /** 连接被借用的时间戳（毫秒） */
   private long checkoutTimestamp;
 
-  /** 连接被创建的时间戳（毫秒） */
-  private long createdTimestamp;
+  /** 连接是否有效 */
+  private volatile boolean valid;
 
-  /** 最后被使用的时间戳（毫秒） */
-  private long lastUsedTimestamp;
+  /** 借用线程名称 */
+  private String borrowThreadName;
 
-  /** 连接类型代码 */
-  private int connectionTypeCode;
+  /** 借用位置，仅在泄漏检测采样命中时记录 */
+  private Throwable borrowSite;
 
-  /** 连接是否有效 */
-  private boolean valid;
+  /** 是否已报告过泄漏 */
+  private volatile boolean leakReported;
+
+  /** 本次借用占用的通道许可，未启用通道时为 null */
+  private final AtomicReference<PoolLane> lane = new AtomicReference<>();
+
+  /** 本次借用中尚未关闭的语句 */
+  private final Set<StatementWrapper> openStatements = ConcurrentHashMap.newKeySet();
 
   public PooledConnection(Connection connection, PooledDataSource dataSource) {
-    this.hashCode = connection.hashCode();
-    this.realConnection = connection;
+    this(new PoolEntry(connection), dataSource);
+  }
+
+  public PooledConnection(PoolEntry entry, PooledDataSource dataSource) {
+    this.entry = entry;
+    this.realConnection = entry.getRealConnection();
+    this.hashCode = realConnection.hashCode();
     this.dataSource = dataSource;
-    this.createdTimestamp = System.currentTimeMillis();
-    this.lastUsedTimestamp = System.currentTimeMillis();
     this.valid = true;
-    this.proxyConnection =
-        (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), IFACES, this);
+    this.proxyConnection = new ConnectionWrapper(this, realConnection);
   }
 
-  private void checkConnection() throws SQLException {
+  void checkConnection() throws SQLException {
     if (!valid) {
       throw new SQLException("Error accessing PooledConnection. Connection is invalid.");
     }
   }
 
-  @Override
-  public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-    String methodName = method.getName();
-    if (CLOSE.equals(methodName)) {
-      dataSource.pushConnection(this);
-      return null;
-    } else {
-      if (!Object.class.equals(method.getDeclaringClass())) {
-        // issue #579 toString() should never fail
-        // throw an SQLException instead of a Runtime
-        checkConnection();
+  /** 归还连接 */
+  void release() throws SQLException {
+    dataSource.pushConnection(this);
+  }
+
+  /** 本次借用是否仍然有效，不做数据库检测 */
+  boolean isUsable() {
+    return valid;
+  }
+
+  Statement wrapStatement(Statement statement) {
+    return track(new StatementWrapper(this, statement));
+  }
+
+  CallableStatement wrapCallableStatement(CallableStatement statement) {
+    return track(new CallableStatementWrapper(this, statement));
+  }
+
+  /**
+   * 开启语句缓存时优先从缓存中取出语句，未命中时创建
+   *
+   * @param factory 创建语句
+   * @param args prepareStatement 的参数，作为缓存键
+   */
+  PreparedStatement prepareStatement(StatementFactory factory, Object... args)
+      throws SQLException {
+    StatementCache cache = entry.getStatementCache();
+    if (cache == null) {
+      return track(new PreparedStatementWrapper(this, factory.create(), null, null));
+    }
+    StatementCache.Key key = new StatementCache.Key(args);
+    PreparedStatement statement = cache.take(key);
+    if (statement == null) {
+      statement = factory.create();
+    }
+    return track(new PreparedStatementWrapper(this, statement, cache, key));
+  }
+
+  private <T extends StatementWrapper> T track(T statement) {
+    openStatements.add(statement);
+    return statement;
+  }
+
+  void forgetStatement(StatementWrapper statement) {
+    openStatements.remove(statement);
+  }
+
+  /**
+   * 关闭本次借用中未关闭的语句
+   *
+   * @param recycle 缓存的语句是否放回语句缓存
+   */
+  void closeOpenStatements(boolean recycle) {
+    if (openStatements.isEmpty()) {
+      return;
+    }
+    List<StatementWrapper> statements = new ArrayList<>(openStatements);
+    for (StatementWrapper statement : statements) {
+      try {
+        statement.close(recycle);
+      } catch (SQLException ignore) {
       }
-      return method.invoke(realConnection, args);
     }
   }
 
+  /** 是否仍是所属连接的当前借用者，被强制回收后返回 false */
+  boolean isCurrentBorrower() {
+    return entry.getBorrower() == this;
+  }
+
   @Override
   public int hashCode() {
     return hashCode;
@@ -117,37 +184,41 @@ public class PooledConnection implements InvocationHandler {
     return realConnection == null ? 0 : realConnection.hashCode();
   }
 
+  public PoolEntry getEntry() {
+    return entry;
+  }
+
   public int getConnectionTypeCode() {
-    return connectionTypeCode;
+    return entry.getConnectionTypeCode();
   }
 
   public void setConnectionTypeCode(int connectionTypeCode) {
-    this.connectionTypeCode = connectionTypeCode;
+    entry.setConnectionTypeCode(connectionTypeCode);
   }
 
   public long getCreatedTimestamp() {
-    return createdTimestamp;
+    return entry.getCreatedTimestamp();
   }
 
   public void setCreatedTimestamp(long createdTimestamp) {
-    this.createdTimestamp = createdTimestamp;
+    entry.setCreatedTimestamp(createdTimestamp);
   }
 
   public long getLastUsedTimestamp() {
-    return lastUsedTimestamp;
+    return entry.getLastUsedTimestamp();
   }
 
   public void setLastUsedTimestamp(long lastUsedTimestamp) {
-    this.lastUsedTimestamp = lastUsedTimestamp;
+    entry.setLastUsedTimestamp(lastUsedTimestamp);
   }
 
   /** 获取上次使用以来经过的时间 ms */
   public long getTimeElapsedSinceLastUse() {
-    return System.currentTimeMillis() - lastUsedTimestamp;
+    return System.currentTimeMillis() - entry.getLastUsedTimestamp();
   }
 
   public long getAge() {
-    return System.currentTimeMillis() - createdTimestamp;
+    return System.currentTimeMillis() - entry.getCreatedTimestamp();
   }
 
   public long getCheckoutTimestamp() {
@@ -161,4 +232,40 @@ public class PooledConnection implements InvocationHandler {
   public long getCheckoutTime() {
     return System.currentTimeMillis() - checkoutTimestamp;
   }
+
+  /** 记录借用线程和借用位置，泄漏时用于定位持有者 */
+  void recordBorrower(Thread thread, Throwable borrowSite) {
+    this.borrowThreadName = thread.getName();
+    this.borrowSite = borrowSite;
+  }
+
+  public String getBorrowThreadName() {
+    return borrowThreadName;
+  }
+
+  public Throwable getBorrowSite() {
+    return borrowSite;
+  }
+
+  public boolean isLeakReported() {
+    return leakReported;
+  }
+
+  void markLeakReported() {
+    this.leakReported = true;
+  }
+
+  void assignLane(PoolLane lane) {
+    this.lane.set(lane);
+  }
+
+  /** 取走通道许可，每次借用只有一个调用方能取到 */
+  PoolLane takeLane() {
+    return lane.getAndSet(null);
+  }
+
+  /** 创建预编译语句 */
+  interface StatementFactory {
+    PreparedStatement create() throws SQLException;
+  }
 }
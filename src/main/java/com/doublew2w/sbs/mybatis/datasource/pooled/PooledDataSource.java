@@ -2,11 +2,23 @@ package com.doublew2w.sbs.mybatis.datasource.pooled;
 
 import com.doublew2w.sbs.mybatis.datasource.unpooled.UnpooledDataSource;
 import java.io.PrintWriter;
-import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.Proxy;
+import java.lang.ref.WeakReference;
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 import javax.sql.DataSource;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import org.slf4j.LoggerFactory;
@@ -21,14 +33,32 @@ import org.slf4j.LoggerFactory;
 public class PooledDataSource implements DataSource {
   private org.slf4j.Logger logger = LoggerFactory.getLogger(PooledDataSource.class);
 
+  /** 等待连接时单次等待的上限（毫秒） */
+  private static final long MAX_WAIT_SLICE = 250;
+
+  /** 存活时间超过该值（毫秒）时才加入随机提前量 */
+  private static final long LIFETIME_VARIANCE_THRESHOLD = 10000;
+
+  /** 泄漏检测的最短扫描间隔（毫秒） */
+  private static final long MIN_LEAK_DETECTION_PERIOD = 10;
+
+  private static final AtomicInteger HOUSEKEEPER_THREAD_COUNT = new AtomicInteger();
+
   /** 池状态 */
   @Getter private final PoolState state = new PoolState(this);
 
+  /** 连接池中的连接 */
+  @Getter(AccessLevel.PACKAGE)
+  private final ConcurrentBag<PoolEntry> bag = new ConcurrentBag<>();
+
+  /** 连接总数（含创建中的连接） */
+  private final AtomicInteger totalConnections = new AtomicInteger();
+
   /** 数据源 */
   @Getter private final UnpooledDataSource dataSource;
 
-  /** 活跃连接数 */
-  @Setter @Getter protected int poolMaximumActiveConnections = 10;
+  /** 活跃连接数，开启自适应容量时由 {@link PoolSizeController} 调整 */
+  @Getter protected volatile int poolMaximumActiveConnections = 10;
 
   /** 空闲连接数 */
   @Setter @Getter protected int poolMaximumIdleConnections = 5;
@@ -52,7 +82,71 @@ public class PooledDataSource implements DataSource {
   /** 用来配置 poolPingQuery 多次时间被用一次 */
   @Setter @Getter protected int poolPingConnectionsNotUsedFor = 0;
 
-  @Setter @Getter private int expectedConnectionTypeCode;
+  /** 验证窗口（毫秒），距上次使用不超过该时间的连接跳过验证；0 表示每次都验证 */
+  @Setter @Getter protected long validationWindow = 500;
+
+  /** Connection.isValid 的超时时间（毫秒），按秒向上取整 */
+  @Setter @Getter protected int validationTimeout = 5000;
+
+  /** 驱动是否支持 Connection.isValid */
+  private volatile boolean isValidSupported = true;
+
+  /** 最少空闲连接数，由后台线程异步补足，不超过 poolMaximumIdleConnections；0 表示不预热 */
+  @Setter @Getter protected int minimumIdle = 0;
+
+  /** 空闲超时（毫秒），多于 minimumIdle 的空闲连接超过该时间未使用会被关闭；0 表示不回收 */
+  @Setter @Getter protected long idleTimeout = 600000;
+
+  /** 连接最大存活时间（毫秒），每个连接随机提前最多 2.5% 退役，避免同时重建；0 表示不限制 */
+  @Setter @Getter protected long maxLifetime = 1800000;
+
+  /** 后台维护周期（毫秒），小于等于 0 时不启动后台线程 */
+  @Setter @Getter protected long housekeepingPeriod = 30000;
+
+  /** 泄漏检测阈值（毫秒），连接借出超过该时间未归还时报告；0 表示关闭 */
+  @Setter @Getter protected long leakDetectionThreshold = 0;
+
+  /** 泄漏检测采样率，每 N 次借用记录一次借用位置的调用栈；1 表示每次都记录 */
+  @Setter @Getter protected int leakDetectionSampleRate = 10;
+
+  /** 每个连接缓存的 PreparedStatement 数量上限；0 表示不缓存 */
+  @Setter @Getter protected int statementCacheSize = 0;
+
+  /** 自适应容量的调整周期（毫秒），小于等于 0 时上限固定为 poolMaximumActiveConnections */
+  @Setter @Getter protected long adaptiveSizingPeriod = 0;
+
+  /** 自适应容量时活跃连接上限的下界 */
+  @Setter @Getter protected int adaptiveMinimumActiveConnections = 1;
+
+  /** 自适应容量时活跃连接上限的上界，0 表示以启动时的 poolMaximumActiveConnections 为上界 */
+  @Setter @Getter protected int adaptiveMaximumActiveConnections = 0;
+
+  /** 修改 url、账号或密码后平滑替换连接：旧连接继续服务，借出中的归还后关闭，空闲的由后台线程逐个替换；false 表示立即关闭所有连接 */
+  @Setter @Getter protected boolean softEviction = true;
+
+  /** 当前 url、账号和密码对应的连接类型代码，不一致的连接会被替换 */
+  @Setter @Getter private volatile int expectedConnectionTypeCode;
+
+  /** 后台维护线程，首次获取连接时启动；周期任务只弱引用连接池，未关闭的连接池仍可被回收 */
+  private volatile ScheduledThreadPoolExecutor houseKeeper;
+
+  /** 保护后台维护线程的启动和关闭，不使用对象监视器以免虚拟线程固定在载体线程上 */
+  private final ReentrantLock housekeeperLock = new ReentrantLock();
+
+  /** 是否已有待执行的补充连接任务 */
+  private final AtomicBoolean fillPending = new AtomicBoolean();
+
+  /** 是否已有待执行的替换连接任务 */
+  private final AtomicBoolean replacePending = new AtomicBoolean();
+
+  /** 归还时关闭的旧连接数，由后台线程补充新连接 */
+  private final AtomicInteger pendingReplacements = new AtomicInteger();
+
+  /** 容量控制器，未开启自适应容量时为 null */
+  @Getter private volatile PoolSizeController poolSizeController;
+
+  /** 通道调度，未配置通道时借用不经过调度 */
+  private final LaneScheduler lanes = new LaneScheduler(() -> poolMaximumActiveConnections);
 
   public PooledDataSource() {
     this.dataSource = new UnpooledDataSource();
@@ -69,65 +163,92 @@ public class PooledDataSource implements DataSource {
   }
 
   /**
-   * 移除活跃连接
-   *
-   * <p>若当前空闲链接数量少于设定值，就实例化新的DB连接放入空闲列表中，并将原连接标记为无效
+   * 归还连接
    *
-   * <p>通知等待线程，有新链接可以使用
+   * <p>有线程在等待，或空闲连接少于设定值时，把连接放回连接池（优先直接移交给等待者），并使旧的代理失效
    *
-   * <p>若空闲连接数量充足，则关闭当前接连，并标记为无效
+   * <p>若空闲连接数量充足，则关闭当前接连
    *
    * @param connection 连接
    */
   protected void pushConnection(PooledConnection connection) throws SQLException {
-    synchronized (state) {
-      state.activeConnections.remove(connection);
-      // 判断链接是否有效
-      if (connection.isValid()) {
-        // 如果空闲链接小于设定数量，也就是太少时
-        if (state.idleConnections.size() < poolMaximumIdleConnections
-            && connection.getConnectionTypeCode() == expectedConnectionTypeCode) {
-          state.accumulatedCheckoutTime += connection.getCheckoutTime();
-          // 它首先检查数据库连接是否处于自动提交模式，如果不是，则调用rollback()方法执行回滚操作。
-          // 在MyBatis中，如果没有开启自动提交模式，则需要手动提交或回滚事务。因此，这段代码可能是在确保操作完成后，如果没有开启自动提交模式，则执行回滚操作。
-          // 总的来说，这段代码用于保证数据库的一致性，确保操作完成后，如果未开启自动提交模式，则执行回滚操作。
-          if (!connection.getRealConnection().getAutoCommit()) {
-            connection.getRealConnection().rollback();
-          }
-          // 实例化一个新的DB连接，加入到idle列表
-          PooledConnection newConnection =
-              new PooledConnection(connection.getRealConnection(), this);
-          state.idleConnections.add(newConnection);
-          newConnection.setCreatedTimestamp(connection.getCreatedTimestamp());
-          newConnection.setLastUsedTimestamp(connection.getLastUsedTimestamp());
-          connection.invalidate();
-          logger.info("Returned connection " + newConnection.getRealHashCode() + " to pool.");
-          // 通知其他线程可以来抢DB连接了
-          state.notifyAll();
-        } else { // 否则，空闲链接还比较充足
-          state.accumulatedCheckoutTime += connection.getCheckoutTime();
-          if (!connection.getRealConnection().getAutoCommit()) {
-            connection.getRealConnection().rollback();
-          }
-          // 将connection关闭
-          connection.getRealConnection().close();
-          logger.info("Closed connection " + connection.getRealHashCode() + ".");
-          connection.invalidate();
-        }
-      } else {
-        logger.info(
-            "A bad connection ("
-                + connection.getRealHashCode()
-                + ") attempted to return to the pool, discarding connection.");
-        state.badConnectionCount++;
-      }
+    PoolEntry entry = connection.getEntry();
+    if (!entry.releaseBorrower(connection)) {
+      // 已被强制回收或重复关闭
+      connection.invalidate();
+      logger.debug(
+          "A bad connection ("
+              + connection.getRealHashCode()
+              + ") attempted to return to the pool, discarding connection.");
+      state.recordBadConnection();
+      return;
+    }
+    try {
+      checkin(connection, entry);
+    } finally {
+      // 连接放回连接池或关闭后再归还许可，被唤醒的等待者可以直接取到连接
+      releaseLane(connection);
+    }
+  }
+
+  private void checkin(PooledConnection connection, PoolEntry entry) throws SQLException {
+    state.recordCheckin(connection.getCheckoutTime());
+    // 借用者未关闭的语句放回缓存，连接被关闭时一并清除
+    connection.closeOpenStatements(true);
+    if (connection.isLeakReported()) {
+      logger.info(
+          "Previously reported leaked connection {} on thread {} was returned after {} ms.",
+          connection.getRealHashCode(),
+          connection.getBorrowThreadName(),
+          connection.getCheckoutTime());
+    }
+    // 判断链接是否有效
+    if (!connection.isValid()) {
+      connection.invalidate();
+      logger.debug(
+          "A bad connection ("
+              + connection.getRealHashCode()
+              + ") attempted to return to the pool, discarding connection.");
+      state.recordBadConnection();
+      closeEntry(entry);
+      return;
+    }
+    connection.invalidate();
+    try {
+      // 回滚未提交的事务，保证下一个借用者拿到干净的连接；未执行过语句时不访问数据库
+      entry.rollbackIfDirty();
+    } catch (SQLException e) {
+      closeEntry(entry);
+      throw e;
+    }
+    entry.setLastUsedTimestamp(System.currentTimeMillis());
+    if (entry.getConnectionTypeCode() == expectedConnectionTypeCode
+        && !entry.isRetired(System.currentTimeMillis())
+        // 上限调低后，多出的连接在归还时关闭
+        && totalConnections.get() <= poolMaximumActiveConnections
+        && (bag.getWaitingThreadCount() > 0
+            || bag.getCount(ConcurrentBag.Entry.STATE_NOT_IN_USE) < poolMaximumIdleConnections)) {
+      bag.requite(entry);
+      logger.debug("Returned connection {} to pool.", connection.getRealHashCode());
+    } else if (entry.getConnectionTypeCode() != expectedConnectionTypeCode) {
+      // 数据源配置已变更，旧连接在借用结束后关闭，由后台线程补充新连接
+      closeEntry(entry);
+      pendingReplacements.incrementAndGet();
+      replaceStaleConnections();
+      logger.debug("Closed stale connection {}.", connection.getRealHashCode());
+    } else {
+      // 空闲链接充足，关闭连接
+      closeEntry(entry);
+      logger.debug("Closed connection {}.", connection.getRealHashCode());
     }
   }
 
   /**
    * 从连接池中获取一个可用的数据库连接。
    *
-   * <p>优先从空闲连接队列中获取，如果没有空闲连接，则根据当前活跃连接数决定是否创建新连接或等待。 如
+   * <p>配置了通道时先在当前线程的通道上取得借用许可，见 {@link #addLane(PoolLane)}。
+   *
+   * <p>依次尝试：空闲连接（当前线程上次归还的优先）、在活跃连接数上限内创建新连接、强制回收借出超时的连接、等待其他线程归还。
    *
    * <p>果获取到的连接无效，则尝试重新获取，超过一定次数后抛出异常。
    *
@@ -137,193 +258,698 @@ public class PooledDataSource implements DataSource {
    * @throws SQLException 如果无法获取有效连接或发生其他数据库错误
    */
   private PooledConnection popConnection(String username, String password) throws SQLException {
+    startHousekeeper();
     boolean countedWait = false;
-    PooledConnection conn = null;
-    long t = System.currentTimeMillis();
+    long t = System.nanoTime();
     int localBadConnectionCount = 0;
-
-    while (conn == null) {
-      synchronized (state) {
-        // 如果有空闲链接：返回第一个
-        if (!state.idleConnections.isEmpty()) {
-          conn = state.idleConnections.remove(0);
-          logger.info("Checked out connection " + conn.getRealHashCode() + " from pool.");
-        } else { // 如果无空闲链接
-          // 创建新的链接，判断活跃连接数的请苦情
-          if (state.activeConnections.size() < poolMaximumActiveConnections) {
-            // 活跃连接数不足，就创建一个
-            conn = new PooledConnection(dataSource.getConnection(), this);
-            logger.info("Created connection " + conn.getRealHashCode() + ".");
-          } else {
-            // 活跃连接数已满，判断最老的一个数据库链接情况，如果存在过期的情况就进行重新实例化
-            PooledConnection oldestActiveConnection = state.activeConnections.get(0);
-            long longestCheckoutTime = oldestActiveConnection.getCheckoutTime();
-            // 如果 checkout 时间过长，则这个链接标记为过期
-            if (longestCheckoutTime > poolMaximumCheckoutTime) {
-              state.claimedOverdueConnectionCount++;
-              state.accumulatedCheckoutTimeOfOverdueConnections += longestCheckoutTime;
-              state.accumulatedCheckoutTime += longestCheckoutTime;
-              state.activeConnections.remove(oldestActiveConnection);
-              if (!oldestActiveConnection.getRealConnection().getAutoCommit()) {
-                oldestActiveConnection.getRealConnection().rollback();
-              }
-              // 删掉最老的链接，然后重新实例化一个新的链接
-              conn = new PooledConnection(oldestActiveConnection.getRealConnection(), this);
-              oldestActiveConnection.invalidate();
-              logger.info("Claimed overdue connection " + conn.getRealHashCode() + ".");
-            } else {
-              // 如果checkout超时时间不够长，则等待
-              try {
-                if (!countedWait) {
-                  state.hadToWaitCount++;
-                  countedWait = true;
-                }
-                logger.info(
-                    "Waiting as long as " + poolTimeToWait + " milliseconds for connection.");
-                long wt = System.currentTimeMillis();
-                // 等待连接池中连接中过期
-                state.wait(poolTimeToWait);
-                state.accumulatedWaitTime += System.currentTimeMillis() - wt;
-              } catch (InterruptedException e) {
-                break;
-              }
+    PoolLane lane = lanes.isEnabled() ? lanes.resolve(PoolLaneContext.current()) : null;
+    // 当前线程持有的通道许可，借用成功后交给连接
+    boolean permitted = false;
+    try {
+      while (true) {
+        if (lane != null && !permitted) {
+          countedWait |= acquireLane(lane, countedWait);
+          permitted = true;
+        }
+        PoolEntry entry;
+        try {
+          entry = bag.borrow(0, TimeUnit.MILLISECONDS);
+          if (entry == null) {
+            entry = createEntry(ConcurrentBag.Entry.STATE_IN_USE);
+          }
+          if (entry == null) {
+            entry = claimOverdueEntry();
+          }
+          if (entry == null) {
+            if (!countedWait) {
+              state.recordHadToWait();
+              countedWait = true;
+            }
+            logger.debug("Waiting as long as {} milliseconds for connection.", poolTimeToWait);
+            long wt = System.currentTimeMillis();
+            // 分段等待，期间有连接被移除时可以重新创建
+            entry = bag.borrow(Math.min(poolTimeToWait, MAX_WAIT_SLICE), TimeUnit.MILLISECONDS);
+            state.recordWait(System.currentTimeMillis() - wt);
+            if (entry == null) {
+              continue;
             }
           }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new SQLException(
+              "PooledDataSource: Interrupted while waiting for a connection.", e);
         }
+        // 到期的连接不再借出
+        if (entry.isRetired(System.currentTimeMillis())) {
+          closeEntry(entry);
+          continue;
+        }
+
         // 获得到链接
-        if (conn != null) {
-          if (conn.isValid()) {
-            if (!conn.getRealConnection().getAutoCommit()) {
-              conn.getRealConnection().rollback();
-            }
-            conn.setConnectionTypeCode(
-                assembleConnectionTypeCode(dataSource.getUrl(), username, password));
-            // 记录checkout时间
-            conn.setCheckoutTimestamp(System.currentTimeMillis());
-            conn.setLastUsedTimestamp(System.currentTimeMillis());
-            state.activeConnections.add(conn);
-            state.requestCount++;
-            state.accumulatedRequestTime += System.currentTimeMillis() - t;
-          } else {
-            logger.info(
-                "A bad connection ("
-                    + conn.getRealHashCode()
-                    + ") was returned from the pool, getting another connection.");
-            // 如果没拿到，统计信息：失败链接 +1
-            state.badConnectionCount++;
-            localBadConnectionCount++;
-            conn = null;
-            // 失败次数较多，抛异常
-            if (localBadConnectionCount > (poolMaximumIdleConnections + 3)) {
-              logger.debug("PooledDataSource: Could not get a good connection to the database.");
-              throw new SQLException(
-                  "PooledDataSource: Could not get a good connection to the database.");
-            }
+        PooledConnection conn = new PooledConnection(entry, this);
+        // 先记录借出时间再登记借用者，避免未初始化的借出时间被判定为超时
+        conn.setCheckoutTimestamp(System.currentTimeMillis());
+        // 许可随借用交给连接，由解除借用关系的一方归还
+        conn.assignLane(lane);
+        permitted = false;
+        entry.setBorrower(conn);
+        if (conn.isValid()) {
+          try {
+            entry.rollbackIfDirty();
+          } catch (SQLException e) {
+            entry.releaseBorrower(conn);
+            releaseLane(conn);
+            closeEntry(entry);
+            throw e;
           }
+          int typeCode = assembleConnectionTypeCode(dataSource.getUrl(), username, password);
+          if (typeCode != expectedConnectionTypeCode) {
+            // 使用其他账号借用的连接归还时关闭
+            conn.setConnectionTypeCode(typeCode);
+          }
+          // 记录checkout时间
+          conn.setCheckoutTimestamp(System.currentTimeMillis());
+          conn.setLastUsedTimestamp(System.currentTimeMillis());
+          if (leakDetectionThreshold > 0) {
+            conn.recordBorrower(Thread.currentThread(), sampleBorrowSite());
+          }
+          state.recordCheckout(System.nanoTime() - t);
+          if (bag.getCount(ConcurrentBag.Entry.STATE_NOT_IN_USE) < effectiveMinimumIdle()) {
+            fillPool();
+          }
+          return conn;
+        }
+        logger.debug(
+            "A bad connection ("
+                + conn.getRealHashCode()
+                + ") was returned from the pool, getting another connection.");
+        // 如果没拿到，统计信息：失败链接 +1
+        entry.releaseBorrower(conn);
+        // 许可留给下一次尝试；已被 forceCloseAll 归还时重新取得
+        permitted = conn.takeLane() != null;
+        conn.invalidate();
+        closeEntry(entry);
+        state.recordBadConnection();
+        localBadConnectionCount++;
+        // 失败次数较多，抛异常
+        if (localBadConnectionCount > (poolMaximumIdleConnections + 3)) {
+          logger.debug("PooledDataSource: Could not get a good connection to the database.");
+          throw new SQLException(
+              "PooledDataSource: Could not get a good connection to the database.");
         }
       }
+    } finally {
+      if (permitted) {
+        lanes.release(lane);
+      }
     }
+  }
 
-    if (conn == null) {
-      logger.debug(
-          "PooledDataSource: Unknown severe error condition.  The connection pool returned a null connection.");
-      throw new SQLException(
-          "PooledDataSource: Unknown severe error condition.  The connection pool returned a null connection.");
+  /**
+   * 活跃连接数未满时创建新连接并加入连接池
+   *
+   * @param initialState 借用路径上创建时为借出状态，后台补充时为空闲状态
+   * @return 新连接，已满返回 null
+   */
+  private PoolEntry createEntry(int initialState) throws SQLException {
+    int total;
+    do {
+      total = totalConnections.get();
+      if (total >= poolMaximumActiveConnections) {
+        return null;
+      }
+    } while (!totalConnections.compareAndSet(total, total + 1));
+    try {
+      // 先计算类型代码，创建期间配置变更时新连接会被识别为旧连接
+      int typeCode =
+          assembleConnectionTypeCode(
+              dataSource.getUrl(), dataSource.getUsername(), dataSource.getPassword());
+      long start = System.nanoTime();
+      PoolEntry entry = new PoolEntry(dataSource.getConnection());
+      state.recordConnectionCreated(System.nanoTime() - start);
+      entry.setConnectionTypeCode(typeCode);
+      if (statementCacheSize > 0) {
+        entry.setStatementCache(new StatementCache(statementCacheSize, state));
+      }
+      if (maxLifetime > 0) {
+        long variance =
+            maxLifetime > LIFETIME_VARIANCE_THRESHOLD
+                ? ThreadLocalRandom.current().nextLong(maxLifetime / 40)
+                : 0;
+        entry.setRetireTimestamp(entry.getCreatedTimestamp() + maxLifetime - variance);
+      }
+      entry.setState(initialState);
+      bag.add(entry);
+      logger.debug("Created connection {}.", entry.getRealConnection().hashCode());
+      return entry;
+    } catch (SQLException | RuntimeException e) {
+      totalConnections.decrementAndGet();
+      throw e;
     }
-    return conn;
+  }
+
+  /** 活跃连接数已满时，强制回收一个借出时间超过 poolMaximumCheckoutTime 的连接 */
+  private PoolEntry claimOverdueEntry() {
+    for (PoolEntry entry : bag.values(ConcurrentBag.Entry.STATE_IN_USE)) {
+      PooledConnection borrower = entry.getBorrower();
+      if (borrower == null || borrower.getCheckoutTime() <= poolMaximumCheckoutTime) {
+        continue;
+      }
+      long checkoutTime = borrower.getCheckoutTime();
+      if (!entry.releaseBorrower(borrower)) {
+        continue;
+      }
+      borrower.invalidate();
+      releaseLane(borrower);
+      state.recordClaimedOverdue(checkoutTime);
+      if (borrower.getBorrowThreadName() != null) {
+        logger.warn(
+            "Reclaimed overdue connection {} held by {} for {} ms.",
+            borrower.getRealHashCode(),
+            borrower.getBorrowThreadName(),
+            checkoutTime,
+            borrower.getBorrowSite());
+      }
+      try {
+        entry.rollbackIfDirty();
+      } catch (SQLException e) {
+        logger.debug(
+            "Bad overdue connection {}. Cause: {}", borrower.getRealHashCode(), e.toString());
+        closeEntry(entry);
+        continue;
+      }
+      logger.debug("Claimed overdue connection {}.", borrower.getRealHashCode());
+      return entry;
+    }
+    return null;
   }
 
   /**
-   * 强制当前数据源关闭所有连接
+   * 在通道上取得借用许可，许可不足时按优先级排队
    *
-   * <p>1. 关闭活跃连接
+   * <p>分段等待，期间强制回收借出超时的连接，释放其占用的许可
    *
-   * <p>2.关闭空闲连接
+   * @param countedWait 本次借用是否已记为等待
+   * @return 是否需要等待
+   */
+  private boolean acquireLane(PoolLane lane, boolean countedWait) throws SQLException {
+    if (lanes.tryAcquire(lane)) {
+      return false;
+    }
+    if (!countedWait) {
+      state.recordHadToWait();
+    }
+    logger.debug("Waiting for a connection permit on lane {}.", lane.getName());
+    long ticket = lanes.nextTicket();
+    long wt = System.currentTimeMillis();
+    try {
+      while (!lanes.acquire(
+          lane, ticket, Math.min(poolTimeToWait, MAX_WAIT_SLICE), TimeUnit.MILLISECONDS)) {
+        PoolEntry overdue = claimOverdueEntry();
+        if (overdue != null) {
+          bag.requite(overdue);
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SQLException("PooledDataSource: Interrupted while waiting for a connection.", e);
+    } finally {
+      state.recordWait(System.currentTimeMillis() - wt);
+    }
+    return true;
+  }
+
+  /** 归还借用占用的通道许可 */
+  private void releaseLane(PooledConnection connection) {
+    PoolLane lane = connection.takeLane();
+    if (lane != null) {
+      lanes.release(lane);
+    }
+  }
+
+  /**
+   * 添加连接池通道，同名通道会被替换
    *
-   * <p>如果连接的autocommit 为false，则回滚事务，最后关闭连接
+   * <p>配置通道后，每次借用先在当前线程的通道上取得许可：未指定或不存在的通道使用 {@link PoolLane#DEFAULT}；通道借出数不超过
+   * maximumConnections，未达到 minimumConnections 时不受其他通道影响；等待时高优先级通道先被服务
    */
-  public void forceCloseAll() {
-    synchronized (state) {
-      expectedConnectionTypeCode =
-          assembleConnectionTypeCode(
-              dataSource.getUrl(), dataSource.getUsername(), dataSource.getPassword());
-      // 关闭活跃链接
-      for (int i = state.activeConnections.size(); i > 0; i--) {
-        try {
-          PooledConnection conn = state.activeConnections.remove(i - 1);
-          conn.invalidate();
+  public void addLane(PoolLane lane) {
+    lanes.addLane(lane);
+  }
+
+  /** 以 name:priority[:minimum[:maximum]] 的格式配置通道，多个通道以逗号分隔，见 {@link PoolLane#parse} */
+  public void setPoolLanes(String poolLanes) {
+    for (PoolLane lane : PoolLane.parse(poolLanes)) {
+      addLane(lane);
+    }
+  }
+
+  /** 已配置的通道及其借出、等待数 */
+  public Collection<PoolLane> getLanes() {
+    return lanes.getLanes();
+  }
+
+  public void setPoolMaximumActiveConnections(int poolMaximumActiveConnections) {
+    this.poolMaximumActiveConnections = poolMaximumActiveConnections;
+    lanes.signalCapacityChanged();
+  }
 
-          Connection realConn = conn.getRealConnection();
-          if (!realConn.getAutoCommit()) {
-            realConn.rollback();
+  /** 从连接池移除并关闭真实连接 */
+  private void closeEntry(PoolEntry entry) {
+    if (!bag.remove(entry)) {
+      return;
+    }
+    totalConnections.decrementAndGet();
+    StatementCache statementCache = entry.getStatementCache();
+    if (statementCache != null) {
+      statementCache.clear();
+    }
+    try {
+      entry.getRealConnection().close();
+    } catch (SQLException | RuntimeException e) {
+      logger.debug("Error closing connection. Cause: {}", e.toString());
+    }
+    fillPool();
+  }
+
+  private int effectiveMinimumIdle() {
+    return Math.min(
+        minimumIdle, Math.min(poolMaximumIdleConnections, poolMaximumActiveConnections));
+  }
+
+  /** 启动后台维护线程：定期回收空闲超时和到期的连接，并补足最少空闲连接 */
+  private void startHousekeeper() {
+    if (houseKeeper != null
+        || (housekeepingPeriod <= 0 && leakDetectionThreshold <= 0 && adaptiveSizingPeriod <= 0)) {
+      return;
+    }
+    housekeeperLock.lock();
+    try {
+      if (houseKeeper != null) {
+        return;
+      }
+      ScheduledThreadPoolExecutor executor =
+          new ScheduledThreadPoolExecutor(
+              1,
+              r -> {
+                Thread thread =
+                    new Thread(
+                        r,
+                        "sbs-mybatis-pool-housekeeper-"
+                            + HOUSEKEEPER_THREAD_COUNT.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+              });
+      if (housekeepingPeriod > 0) {
+        scheduleWeakly(executor, this, PooledDataSource::housekeep, housekeepingPeriod);
+      }
+      if (leakDetectionThreshold > 0) {
+        long period = Math.max(leakDetectionThreshold / 2, MIN_LEAK_DETECTION_PERIOD);
+        scheduleWeakly(executor, this, PooledDataSource::detectLeaks, period);
+      }
+      if (adaptiveSizingPeriod > 0) {
+        PoolSizeController controller =
+            new PoolSizeController(
+                this,
+                Math.min(adaptiveMinimumActiveConnections, poolMaximumActiveConnections),
+                adaptiveMaximumActiveConnections > 0
+                    ? adaptiveMaximumActiveConnections
+                    : poolMaximumActiveConnections);
+        poolSizeController = controller;
+        scheduleWeakly(
+            executor,
+            this,
+            pool -> pool.adjustPoolSize(pool.poolSizeController),
+            adaptiveSizingPeriod);
+      }
+      houseKeeper = executor;
+    } finally {
+      housekeeperLock.unlock();
+    }
+    fillPool();
+  }
+
+  /**
+   * 周期任务只弱引用连接池，后台线程不会阻止未关闭的连接池被回收；连接池被回收后任务停止后台线程
+   *
+   * <p>静态方法，task 必须是不捕获连接池的方法引用或 lambda
+   */
+  private static void scheduleWeakly(
+      ScheduledThreadPoolExecutor executor,
+      PooledDataSource pool,
+      Consumer<PooledDataSource> task,
+      long period) {
+    WeakReference<PooledDataSource> reference = new WeakReference<>(pool);
+    executor.scheduleWithFixedDelay(
+        () -> {
+          PooledDataSource current = reference.get();
+          if (current == null) {
+            executor.shutdownNow();
+            return;
           }
-          realConn.close();
-        } catch (Exception ignore) {
+          task.accept(current);
+        },
+        period,
+        period,
+        TimeUnit.MILLISECONDS);
+  }
 
+  private void adjustPoolSize(PoolSizeController controller) {
+    try {
+      controller.adjust();
+    } catch (RuntimeException e) {
+      logger.warn("Adaptive pool sizing failed. Cause: {}", e.toString());
+    }
+  }
+
+  /** 按采样率记录借用位置 */
+  private Throwable sampleBorrowSite() {
+    if (leakDetectionSampleRate <= 1
+        || ThreadLocalRandom.current().nextInt(leakDetectionSampleRate) == 0) {
+      return new Exception("Connection was borrowed here");
+    }
+    return null;
+  }
+
+  /** 报告借出时间超过 leakDetectionThreshold 的连接，每个借用只报告一次 */
+  private void detectLeaks() {
+    try {
+      for (PoolEntry entry : bag.values(ConcurrentBag.Entry.STATE_IN_USE)) {
+        PooledConnection borrower = entry.getBorrower();
+        if (borrower == null
+            || borrower.isLeakReported()
+            || borrower.getBorrowThreadName() == null
+            || borrower.getCheckoutTime() <= leakDetectionThreshold) {
+          continue;
         }
+        borrower.markLeakReported();
+        state.recordLeak();
+        logger.warn(
+            "Connection leak detection triggered for connection {} on thread {}, held for {} ms.",
+            borrower.getRealHashCode(),
+            borrower.getBorrowThreadName(),
+            borrower.getCheckoutTime(),
+            borrower.getBorrowSite());
       }
-      // 关闭空闲链接
-      for (int i = state.idleConnections.size(); i > 0; i--) {
-        try {
-          PooledConnection conn = state.idleConnections.remove(i - 1);
-          conn.invalidate();
+    } catch (RuntimeException e) {
+      logger.warn("Connection leak detection failed. Cause: {}", e.toString());
+    }
+  }
 
-          Connection realConn = conn.getRealConnection();
-          if (!realConn.getAutoCommit()) {
-            realConn.rollback();
-          }
-        } catch (Exception ignore) {
+  /** 当前借出时间超过 leakDetectionThreshold 的连接 */
+  List<LeakSuspect> leakSuspects() {
+    List<LeakSuspect> suspects = new ArrayList<>();
+    if (leakDetectionThreshold <= 0) {
+      return suspects;
+    }
+    for (PoolEntry entry : bag.values(ConcurrentBag.Entry.STATE_IN_USE)) {
+      PooledConnection borrower = entry.getBorrower();
+      if (borrower == null
+          || borrower.getBorrowThreadName() == null
+          || borrower.getCheckoutTime() <= leakDetectionThreshold) {
+        continue;
+      }
+      Throwable site = borrower.getBorrowSite();
+      suspects.add(
+          new LeakSuspect(
+              borrower.getRealHashCode(),
+              borrower.getBorrowThreadName(),
+              borrower.getCheckoutTime(),
+              site == null ? null : site.getStackTrace()));
+    }
+    return suspects;
+  }
+
+  /** 后台维护：关闭到期的空闲连接和多于 minimumIdle 的空闲超时连接，再补足空闲连接 */
+  private void housekeep() {
+    try {
+      long now = System.currentTimeMillis();
+      List<PoolEntry> idle = bag.values(ConcurrentBag.Entry.STATE_NOT_IN_USE);
+      idle.sort(Comparator.comparingLong(PoolEntry::getLastUsedTimestamp));
+      int removable = idle.size() - effectiveMinimumIdle();
+      boolean stale = false;
+      for (PoolEntry entry : idle) {
+        stale |= entry.getConnectionTypeCode() != expectedConnectionTypeCode;
+        boolean idleTimedOut =
+            idleTimeout > 0 && removable > 0 && now - entry.getLastUsedTimestamp() > idleTimeout;
+        // 预留成功说明连接仍然空闲，借出中的到期连接在归还时关闭
+        if ((idleTimedOut || entry.isRetired(now)) && bag.reserve(entry)) {
+          logger.debug("Evicting connection {}.", entry.getRealConnection().hashCode());
+          closeEntry(entry);
+          removable--;
         }
       }
-      logger.info("PooledDataSource forcefully closed/removed all connections.");
+      if (stale) {
+        replaceStaleConnections();
+      }
+      fillPool();
+    } catch (RuntimeException e) {
+      logger.warn("Pool housekeeping failed. Cause: {}", e.toString());
+    }
+  }
+
+  /** 在后台线程中补足空闲连接，不占用借用路径 */
+  private void fillPool() {
+    ScheduledThreadPoolExecutor executor = houseKeeper;
+    if (executor == null
+        || effectiveMinimumIdle() <= 0
+        || !fillPending.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      executor.execute(
+          () -> {
+            fillPending.set(false);
+            while (bag.getCount(ConcurrentBag.Entry.STATE_NOT_IN_USE) < effectiveMinimumIdle()) {
+              try {
+                if (createEntry(ConcurrentBag.Entry.STATE_NOT_IN_USE) == null) {
+                  return;
+                }
+              } catch (SQLException | RuntimeException e) {
+                logger.debug("Error filling pool. Cause: {}", e.toString());
+                return;
+              }
+            }
+          });
+    } catch (RejectedExecutionException e) {
+      fillPending.set(false);
+    }
+  }
+
+  /**
+   * 在后台线程中逐个替换旧连接：空闲的旧连接先创建新连接再关闭，新连接创建失败时旧连接继续服务；再补充归还时关闭的旧连接
+   */
+  private void replaceStaleConnections() {
+    ScheduledThreadPoolExecutor executor = houseKeeper;
+    if (executor == null || !replacePending.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      executor.execute(
+          () -> {
+            replacePending.set(false);
+            for (PoolEntry entry : bag.values(ConcurrentBag.Entry.STATE_NOT_IN_USE)) {
+              if (entry.getConnectionTypeCode() != expectedConnectionTypeCode
+                  && bag.reserve(entry)
+                  && !replaceEntry(entry)) {
+                return;
+              }
+            }
+            while (pendingReplacements.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+              int idle = bag.getCount(ConcurrentBag.Entry.STATE_NOT_IN_USE);
+              if (idle >= poolMaximumIdleConnections) {
+                pendingReplacements.set(0);
+                return;
+              }
+              try {
+                if (createEntry(ConcurrentBag.Entry.STATE_NOT_IN_USE) == null) {
+                  pendingReplacements.set(0);
+                  return;
+                }
+              } catch (SQLException | RuntimeException e) {
+                logger.warn("Error replacing stale connection. Cause: {}", e.toString());
+                pendingReplacements.set(0);
+                return;
+              }
+            }
+          });
+    } catch (RejectedExecutionException e) {
+      replacePending.set(false);
+    }
+  }
+
+  /**
+   * 替换一个已预留的空闲旧连接
+   *
+   * @return 是否替换成功，失败时旧连接取消预留继续服务
+   */
+  private boolean replaceEntry(PoolEntry stale) {
+    PoolEntry fresh;
+    try {
+      fresh = createEntry(ConcurrentBag.Entry.STATE_NOT_IN_USE);
+    } catch (SQLException | RuntimeException e) {
+      logger.warn("Error replacing stale connection. Cause: {}", e.toString());
+      bag.unreserve(stale);
+      return false;
+    }
+    logger.debug("Replacing stale connection {}.", stale.getRealConnection().hashCode());
+    closeEntry(stale);
+    if (fresh == null) {
+      // 连接池已满，关闭旧连接后再创建
+      try {
+        createEntry(ConcurrentBag.Entry.STATE_NOT_IN_USE);
+      } catch (SQLException | RuntimeException e) {
+        logger.warn("Error replacing stale connection. Cause: {}", e.toString());
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** 类型代码与当前配置不一致、等待替换的连接数 */
+  int staleConnectionCount() {
+    int count = 0;
+    for (PoolEntry entry : bag.values()) {
+      if (entry.getConnectionTypeCode() != expectedConnectionTypeCode) {
+        count++;
+      }
     }
+    return count;
+  }
+
+  /**
+   * 平滑驱逐所有连接：按当前 url、账号和密码更新期望的连接类型代码，旧连接继续服务直到被替换
+   *
+   * <p>借出中的旧连接在归还时关闭，已开始的事务不受影响；空闲的旧连接由后台线程逐个替换，避免同时重连
+   */
+  public void softEvictAll() {
+    expectedConnectionTypeCode =
+        assembleConnectionTypeCode(
+            dataSource.getUrl(), dataSource.getUsername(), dataSource.getPassword());
+    int stale = staleConnectionCount();
+    if (stale > 0) {
+      logger.info("Soft-evicting {} connections after data source reconfiguration.", stale);
+      replaceStaleConnections();
+    }
+  }
+
+  /** 停止后台维护线程并关闭所有连接 */
+  public void close() {
+    ScheduledThreadPoolExecutor executor;
+    housekeeperLock.lock();
+    try {
+      executor = houseKeeper;
+      houseKeeper = null;
+    } finally {
+      housekeeperLock.unlock();
+    }
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+    forceCloseAll();
+  }
+
+  /**
+   * 强制当前数据源关闭所有连接
+   *
+   * <p>1. 关闭活跃连接
+   *
+   * <p>2.关闭空闲连接
+   *
+   * <p>如果连接的autocommit 为false，则回滚事务，最后关闭连接
+   */
+  public void forceCloseAll() {
+    expectedConnectionTypeCode =
+        assembleConnectionTypeCode(
+            dataSource.getUrl(), dataSource.getUsername(), dataSource.getPassword());
+    for (PoolEntry entry : bag.values()) {
+      PooledConnection borrower = entry.getBorrower();
+      if (borrower != null && entry.releaseBorrower(borrower)) {
+        borrower.invalidate();
+        releaseLane(borrower);
+      }
+      // 空闲连接先预留，避免关闭过程中被借出
+      if (!bag.reserve(entry) && entry.getState() != ConcurrentBag.Entry.STATE_IN_USE) {
+        continue;
+      }
+      try {
+        entry.rollbackIfDirty();
+      } catch (Exception ignore) {
+      }
+      closeEntry(entry);
+    }
+    logger.info("PooledDataSource forcefully closed/removed all connections.");
   }
 
   /**
    * 检测数据库连接是否有效
    *
+   * <p>验证窗口内使用过的连接直接视为有效；否则优先使用 JDBC4 的 {@link Connection#isValid(int)}，开启侦测查询且连接空闲超过
+   * poolPingConnectionsNotUsedFor 时执行 poolPingQuery
+   *
    * @param conn 数据库连接
    * @return true-有效，false-无效
    */
   protected boolean pingConnection(PooledConnection conn) {
+    long elapsed = conn.getTimeElapsedSinceLastUse();
+    if (validationWindow > 0 && elapsed < validationWindow) {
+      state.recordValidationSkipped();
+      return true;
+    }
+    long start = System.nanoTime();
     boolean result;
-    // 尝试判断连接是否关闭，若未关闭则认为连接有效
+    if (poolPingEnabled
+        && poolPingConnectionsNotUsedFor >= 0
+        && elapsed > poolPingConnectionsNotUsedFor) {
+      result = pingByQuery(conn);
+    } else {
+      result = validate(conn);
+    }
+    state.recordValidation(result, System.nanoTime() - start);
+    return result;
+  }
+
+  /** 使用 Connection.isValid 验证，驱动不支持时退回 isClosed 判断 */
+  private boolean validate(PooledConnection conn) {
+    Connection realConn = conn.getRealConnection();
     try {
-      result = !conn.getRealConnection().isClosed();
+      if (isValidSupported) {
+        try {
+          return realConn.isValid(Math.max(1, (int) Math.ceil(validationTimeout / 1000.0)));
+        } catch (SQLFeatureNotSupportedException | AbstractMethodError e) {
+          isValidSupported = false;
+          logger.debug("Driver does not support Connection.isValid, falling back to isClosed.");
+        }
+      }
+      return !realConn.isClosed();
     } catch (SQLException e) {
-      logger.info("Connection " + conn.getRealHashCode() + " is BAD: " + e.getMessage());
-      result = false;
+      logger.debug("Connection {} is BAD: {}", conn.getRealHashCode(), e.getMessage());
+      return false;
     }
+  }
 
-    if (result) {
-      if (poolPingEnabled) {
-        if (poolPingConnectionsNotUsedFor >= 0
-            && conn.getTimeElapsedSinceLastUse() > poolPingConnectionsNotUsedFor) {
-          try {
-            logger.info("Testing connection " + conn.getRealHashCode() + " ...");
-            Connection realConn = conn.getRealConnection();
-            Statement statement = realConn.createStatement();
-            ResultSet resultSet = statement.executeQuery(poolPingQuery);
-            resultSet.close();
-            if (!realConn.getAutoCommit()) {
-              realConn.rollback();
-            }
-            logger.info("Connection " + conn.getRealHashCode() + " is GOOD!");
-          } catch (Exception e) {
-            logger.info(
-                "Execution of ping query '" + poolPingQuery + "' failed: " + e.getMessage());
-            try {
-              conn.getRealConnection().close();
-            } catch (SQLException ignore) {
-              logger.info("Connection " + conn.getRealHashCode() + " close failed");
-            }
-            result = false;
-            logger.info("Connection " + conn.getRealHashCode() + " is BAD: " + e.getMessage());
-          }
+  /** 执行侦测查询 */
+  private boolean pingByQuery(PooledConnection conn) {
+    Connection realConn = conn.getRealConnection();
+    try {
+      logger.debug("Testing connection {} ...", conn.getRealHashCode());
+      try (Statement statement = realConn.createStatement()) {
+        statement.executeQuery(poolPingQuery).close();
+        if (!conn.getEntry().isAutoCommit()) {
+          realConn.rollback();
         }
       }
+      return true;
+    } catch (Exception e) {
+      logger.debug("Execution of ping query '{}' failed: {}", poolPingQuery, e.getMessage());
+      try {
+        realConn.close();
+      } catch (SQLException ignore) {
+        logger.debug("Connection {} close failed", conn.getRealHashCode());
+      }
+      logger.debug("Connection {} is BAD: {}", conn.getRealHashCode(), e.getMessage());
+      return false;
     }
-    return result;
   }
 
   /**
@@ -333,16 +959,12 @@ public class PooledDataSource implements DataSource {
    * @return 真正的数据库连接
    */
   public static Connection unwrapConnection(Connection conn) {
-    // conn 是否代理类
-    if (Proxy.isProxyClass(conn.getClass())) {
-      // 获取代理类的调用处理器
-      InvocationHandler handler = Proxy.getInvocationHandler(conn);
-      if (handler instanceof PooledConnection) {
-        // 返回真正数据库连接
-        return ((PooledConnection) handler).getRealConnection();
-      }
+    // conn 是否池化连接
+    if (conn instanceof ConnectionWrapper) {
+      // 返回真正数据库连接
+      return ((ConnectionWrapper) conn).unwrapRealConnection();
     }
-    // 如果不是代理类，直接返回
+    // 如果不是池化连接，直接返回
     return conn;
   }
 
@@ -351,7 +973,7 @@ public class PooledDataSource implements DataSource {
   }
 
   protected void finalize() throws Throwable {
-    forceCloseAll();
+    close();
     super.finalize();
   }
 
@@ -397,16 +1019,25 @@ public class PooledDataSource implements DataSource {
 
   public void setUrl(String url) {
     dataSource.setUrl(url);
-    forceCloseAll();
+    reconfigure();
   }
 
   public void setUsername(String username) {
     dataSource.setUsername(username);
-    forceCloseAll();
+    reconfigure();
   }
 
   public void setPassword(String password) {
     dataSource.setPassword(password);
-    forceCloseAll();
+    reconfigure();
+  }
+
+  /** url、账号或密码变更后替换连接 */
+  private void reconfigure() {
+    if (softEviction) {
+      softEvictAll();
+    } else {
+      forceCloseAll();
+    }
   }
 }
@@ -0,0 +1,134 @@
+package com.doublew2w.sbs.mybatis.datasource.pooled;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 单个真实连接上的 PreparedStatement LRU 缓存
+ *
+ * <p>语句被借出时从缓存中移除，逻辑关闭后放回；超出容量时物理关闭最久未使用的语句。物理关闭在锁外执行，锁只保护缓存结构。
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/18 12:10
+ * @project: sbs-mybatis
+ */
+class StatementCache {
+  private final int maxSize;
+
+  private final PoolState state;
+
+  private final ReentrantLock lock = new ReentrantLock();
+
+  private final LinkedHashMap<Key, PreparedStatement> statements =
+      new LinkedHashMap<>(16, 0.75f, true);
+
+  /** 连接关闭后不再接收语句 */
+  private boolean closed;
+
+  StatementCache(int maxSize, PoolState state) {
+    this.maxSize = maxSize;
+    this.state = state;
+  }
+
+  /** 取出缓存的语句，未命中返回 null */
+  PreparedStatement take(Key key) {
+    PreparedStatement statement;
+    lock.lock();
+    try {
+      statement = statements.remove(key);
+    } finally {
+      lock.unlock();
+    }
+    if (statement != null) {
+      state.recordStatementCacheHit();
+    } else {
+      state.recordStatementCacheMiss();
+    }
+    return statement;
+  }
+
+  /** 放回语句，缓存已有同名语句或已关闭时物理关闭 */
+  void put(Key key, PreparedStatement statement) {
+    PreparedStatement evicted = null;
+    lock.lock();
+    try {
+      if (closed || statements.containsKey(key)) {
+        evicted = statement;
+      } else {
+        statements.put(key, statement);
+        if (statements.size() > maxSize) {
+          Iterator<Map.Entry<Key, PreparedStatement>> eldest = statements.entrySet().iterator();
+          evicted = eldest.next().getValue();
+          eldest.remove();
+          state.recordStatementCacheEviction();
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+    if (evicted != null) {
+      closeQuietly(evicted);
+    }
+  }
+
+  /** 关闭所有缓存的语句 */
+  void clear() {
+    List<PreparedStatement> closing;
+    lock.lock();
+    try {
+      closed = true;
+      closing = new ArrayList<>(statements.values());
+      statements.clear();
+    } finally {
+      lock.unlock();
+    }
+    for (PreparedStatement statement : closing) {
+      closeQuietly(statement);
+    }
+  }
+
+  int size() {
+    lock.lock();
+    try {
+      return statements.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  static void closeQuietly(PreparedStatement statement) {
+    try {
+      statement.close();
+    } catch (SQLException | RuntimeException ignore) {
+    }
+  }
+
+  /** 缓存键：prepareStatement 的全部参数 */
+  static final class Key {
+    private final Object[] args;
+
+    private final int hashCode;
+
+    Key(Object[] args) {
+      this.args = args;
+      this.hashCode = Arrays.deepHashCode(args);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Key && Arrays.deepEquals(args, ((Key) o).args);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+}
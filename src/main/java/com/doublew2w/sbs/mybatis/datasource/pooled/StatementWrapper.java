@@ -0,0 +1,395 @@
+package com.doublew2w.sbs.mybatis.datasource.pooled;
+
+import java.sql.*;
+
+/**
+ * 池化连接创建的语句
+ *
+ * <p>执行语句时标记连接的事务为脏；缓存的语句在 close() 时重置状态并放回所属连接的语句缓存
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/18 12:50
+ * @project: sbs-mybatis
+ */
+class StatementWrapper implements Statement {
+  protected final PooledConnection owner;
+
+  private final Statement delegate;
+
+  /** 所属的语句缓存，未缓存的语句为 null */
+  private final StatementCache cache;
+
+  private final StatementCache.Key key;
+
+  private boolean closed;
+
+  /** 是否修改过超时、抓取行数或最大行数 */
+  protected boolean optionsChanged;
+
+  /** 是否添加过批处理 */
+  protected boolean batched;
+
+  /** 最近返回的结果集，语句放回缓存前关闭 */
+  private ResultSet resultSet;
+
+  StatementWrapper(PooledConnection owner, Statement delegate) {
+    this(owner, delegate, null, null);
+  }
+
+  StatementWrapper(
+      PooledConnection owner, Statement delegate, StatementCache cache, StatementCache.Key key) {
+    this.owner = owner;
+    this.delegate = delegate;
+    this.cache = cache;
+    this.key = key;
+  }
+
+  protected void checkOpen() throws SQLException {
+    if (closed) {
+      throw new SQLException("Error accessing statement. Statement is closed.");
+    }
+  }
+
+  @Override
+  public void close() throws SQLException {
+    close(owner.isCurrentBorrower());
+  }
+
+  /**
+   * 关闭语句
+   *
+   * @param recycle 缓存的语句是否放回缓存，否则物理关闭
+   */
+  void close(boolean recycle) throws SQLException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    owner.forgetStatement(this);
+    if (cache == null) {
+      delegate.close();
+      return;
+    }
+    PreparedStatement statement = (PreparedStatement) delegate;
+    if (recycle) {
+      closeResultSet();
+      try {
+        reset(statement);
+        cache.put(key, statement);
+        return;
+      } catch (SQLException e) {
+        // 无法重置的语句不再复用
+      }
+    }
+    StatementCache.closeQuietly(statement);
+  }
+
+  /** 包装驱动返回的结果集，getStatement() 返回本语句 */
+  protected ResultSet wrap(ResultSet rs) {
+    if (rs == null) {
+      return null;
+    }
+    resultSet = new ResultSetWrapper(this, rs);
+    return resultSet;
+  }
+
+  private void closeResultSet() {
+    if (resultSet != null) {
+      try {
+        resultSet.close();
+      } catch (SQLException ignore) {
+      }
+      resultSet = null;
+    }
+  }
+
+  /** 清除参数和本次借用对语句的修改 */
+  private void reset(PreparedStatement statement) throws SQLException {
+    statement.clearParameters();
+    if (batched) {
+      statement.clearBatch();
+    }
+    if (optionsChanged) {
+      statement.setQueryTimeout(0);
+      statement.setFetchSize(0);
+      statement.setMaxRows(0);
+    }
+  }
+
+  @Override
+  public boolean isClosed() throws SQLException {
+    return closed || delegate.isClosed();
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    checkOpen();
+    return owner.getProxyConnection();
+  }
+
+  @Override
+  public ResultSet executeQuery(String sql) throws SQLException {
+    checkOpen();
+    owner.getEntry().markDirty();
+    return wrap(delegate.executeQuery(sql));
+  }
+
+  @Override
+  public int executeUpdate(String sql) throws SQLException {
+    checkOpen();
+    owner.getEntry().markDirty();
+    return delegate.executeUpdate(sql);
+  }
+
+  @Override
+  public int getMaxFieldSize() throws SQLException {
+    checkOpen();
+    return delegate.getMaxFieldSize();
+  }
+
+  @Override
+  public void setMaxFieldSize(int max) throws SQLException {
+    checkOpen();
+    delegate.setMaxFieldSize(max);
+  }
+
+  @Override
+  public int getMaxRows() throws SQLException {
+    checkOpen();
+    return delegate.getMaxRows();
+  }
+
+  @Override
+  public void setMaxRows(int max) throws SQLException {
+    checkOpen();
+    optionsChanged = true;
+    delegate.setMaxRows(max);
+  }
+
+  @Override
+  public void setEscapeProcessing(boolean enable) throws SQLException {
+    checkOpen();
+    delegate.setEscapeProcessing(enable);
+  }
+
+  @Override
+  public int getQueryTimeout() throws SQLException {
+    checkOpen();
+    return delegate.getQueryTimeout();
+  }
+
+  @Override
+  public void setQueryTimeout(int seconds) throws SQLException {
+    checkOpen();
+    optionsChanged = true;
+    delegate.setQueryTimeout(seconds);
+  }
+
+  @Override
+  public void cancel() throws SQLException {
+    checkOpen();
+    delegate.cancel();
+  }
+
+  @Override
+  public SQLWarning getWarnings() throws SQLException {
+    checkOpen();
+    return delegate.getWarnings();
+  }
+
+  @Override
+  public void clearWarnings() throws SQLException {
+    checkOpen();
+    delegate.clearWarnings();
+  }
+
+  @Override
+  public void setCursorName(String name) throws SQLException {
+    checkOpen();
+    delegate.setCursorName(name);
+  }
+
+  @Override
+  public boolean execute(String sql) throws SQLException {
+    checkOpen();
+    owner.getEntry().markDirty();
+    return delegate.execute(sql);
+  }
+
+  @Override
+  public ResultSet getResultSet() throws SQLException {
+    checkOpen();
+    return wrap(delegate.getResultSet());
+  }
+
+  @Override
+  public int getUpdateCount() throws SQLException {
+    checkOpen();
+    return delegate.getUpdateCount();
+  }
+
+  @Override
+  public boolean getMoreResults() throws SQLException {
+    checkOpen();
+    return delegate.getMoreResults();
+  }
+
+  @Override
+  public void setFetchDirection(int direction) throws SQLException {
+    checkOpen();
+    delegate.setFetchDirection(direction);
+  }
+
+  @Override
+  public int getFetchDirection() throws SQLException {
+    checkOpen();
+    return delegate.getFetchDirection();
+  }
+
+  @Override
+  public void setFetchSize(int rows) throws SQLException {
+    checkOpen();
+    optionsChanged = true;
+    delegate.setFetchSize(rows);
+  }
+
+  @Override
+  public int getFetchSize() throws SQLException {
+    checkOpen();
+    return delegate.getFetchSize();
+  }
+
+  @Override
+  public int getResultSetConcurrency() throws SQLException {
+    checkOpen();
+    return delegate.getResultSetConcurrency();
+  }
+
+  @Override
+  public int getResultSetType() throws SQLException {
+    checkOpen();
+    return delegate.getResultSetType();
+  }
+
+  @Override
+  public void addBatch(String sql) throws SQLException {
+    checkOpen();
+    batched = true;
+    delegate.addBatch(sql);
+  }
+
+  @Override
+  public void clearBatch() throws SQLException {
+    checkOpen();
+    delegate.clearBatch();
+  }
+
+  @Override
+  public int[] executeBatch() throws SQLException {
+    checkOpen();
+    owner.getEntry().markDirty();
+    return delegate.executeBatch();
+  }
+
+  @Override
+  public boolean getMoreResults(int current) throws SQLException {
+    checkOpen();
+    return delegate.getMoreResults(current);
+  }
+
+  @Override
+  public ResultSet getGeneratedKeys() throws SQLException {
+    checkOpen();
+    return wrap(delegate.getGeneratedKeys());
+  }
+
+  @Override
+  public int executeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+    checkOpen();
+    owner.getEntry().markDirty();
+    return delegate.executeUpdate(sql, autoGeneratedKeys);
+  }
+
+  @Override
+  public int executeUpdate(String sql, int[] columnIndexes) throws SQLException {
+    checkOpen();
+    owner.getEntry().markDirty();
+    return delegate.executeUpdate(sql, columnIndexes);
+  }
+
+  @Override
+  public int executeUpdate(String sql, String[] columnNames) throws SQLException {
+    checkOpen();
+    owner.getEntry().markDirty();
+    return delegate.executeUpdate(sql, columnNames);
+  }
+
+  @Override
+  public boolean execute(String sql, int autoGeneratedKeys) throws SQLException {
+    checkOpen();
+    owner.getEntry().markDirty();
+    return delegate.execute(sql, autoGeneratedKeys);
+  }
+
+  @Override
+  public boolean execute(String sql, int[] columnIndexes) throws SQLException {
+    checkOpen();
+    owner.getEntry().markDirty();
+    return delegate.execute(sql, columnIndexes);
+  }
+
+  @Override
+  public boolean execute(String sql, String[] columnNames) throws SQLException {
+    checkOpen();
+    owner.getEntry().markDirty();
+    return delegate.execute(sql, columnNames);
+  }
+
+  @Override
+  public int getResultSetHoldability() throws SQLException {
+    checkOpen();
+    return delegate.getResultSetHoldability();
+  }
+
+  @Override
+  public void setPoolable(boolean poolable) throws SQLException {
+    checkOpen();
+    delegate.setPoolable(poolable);
+  }
+
+  @Override
+  public boolean isPoolable() throws SQLException {
+    checkOpen();
+    return delegate.isPoolable();
+  }
+
+  @Override
+  public void closeOnCompletion() throws SQLException {
+    checkOpen();
+    delegate.closeOnCompletion();
+  }
+
+  @Override
+  public boolean isCloseOnCompletion() throws SQLException {
+    checkOpen();
+    return delegate.isCloseOnCompletion();
+  }
+
+  @Override
+  public <T> T unwrap(Class<T> iface) throws SQLException {
+    if (iface.isInstance(delegate)) {
+      return iface.cast(delegate);
+    }
+    return delegate.unwrap(iface);
+  }
+
+  @Override
+  public boolean isWrapperFor(Class<?> iface) throws SQLException {
+    return iface.isInstance(delegate) || delegate.isWrapperFor(iface);
+  }
+
+  @Override
+  public String toString() {
+    return delegate.toString();
+  }
+}
@@ -0,0 +1,41 @@
+package com.doublew2w.sbs.mybatis.datasource.pooled;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * 虚拟线程判断
+ *
+ * <p>编译目标是 Java 11，运行时支持时通过方法句柄调用 Thread#isVirtual。多版本 jar 在 JDK 21+ 上使用
+ * src/main/java21 下的同名类直接调用。
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/18 17:10
+ * @project: sbs-mybatis
+ */
+final class VirtualThreads {
+  private static final MethodHandle IS_VIRTUAL = isVirtualHandle();
+
+  private VirtualThreads() {}
+
+  static boolean isVirtual(Thread thread) {
+    if (IS_VIRTUAL == null) {
+      return false;
+    }
+    try {
+      return (boolean) IS_VIRTUAL.invokeExact(thread);
+    } catch (Throwable e) {
+      return false;
+    }
+  }
+
+  private static MethodHandle isVirtualHandle() {
+    try {
+      return MethodHandles.publicLookup()
+          .findVirtual(Thread.class, "isVirtual", MethodType.methodType(boolean.class));
+    } catch (ReflectiveOperationException e) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,15 @@
+package com.doublew2w.sbs.mybatis.datasource.routing;
+
+/**
+ * 从库负载均衡策略
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/18 7:10
+ * @project: sbs-mybatis
+ */
+public enum LoadBalanceStrategy {
+  /** 轮询 */
+  ROUND_ROBIN,
+  /** 最少未完成请求：选当前借出连接最少的从库 */
+  LEAST_OUTSTANDING
+}
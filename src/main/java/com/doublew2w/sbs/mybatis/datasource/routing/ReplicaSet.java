@@ -0,0 +1,125 @@
+package com.doublew2w.sbs.mybatis.datasource.routing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 从库集合：负载均衡与健康状态
+ *
+ * <p>获取连接或执行语句时连接失败，连续达到 failureThreshold 次的从库被摘除 retryInterval 毫秒，到期后重新参与选择，成功一次即恢复。
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/18 7:10
+ * @project: sbs-mybatis
+ */
+public class ReplicaSet {
+  @Getter private final List<Replica> replicas;
+  @Getter private final LoadBalanceStrategy strategy;
+  private final AtomicInteger nextIndex = new AtomicInteger();
+
+  /** 连续失败多少次后摘除 */
+  @Getter @Setter private int failureThreshold = 1;
+
+  /** 摘除后多久重试，毫秒 */
+  @Getter @Setter private long retryInterval = 30_000L;
+
+  public ReplicaSet(List<DataSource> dataSources, LoadBalanceStrategy strategy) {
+    List<Replica> list = new ArrayList<>();
+    for (DataSource dataSource : dataSources) {
+      list.add(new Replica(dataSource));
+    }
+    this.replicas = Collections.unmodifiableList(list);
+    this.strategy = strategy == null ? LoadBalanceStrategy.ROUND_ROBIN : strategy;
+  }
+
+  /**
+   * 选择一个可用的从库
+   *
+   * @return 没有可用从库时返回 null
+   */
+  public Replica select() {
+    int size = replicas.size();
+    if (size == 0) {
+      return null;
+    }
+    long now = System.currentTimeMillis();
+    // 起点轮转，最少未完成请求策略下并列时也能分散
+    int start = Math.floorMod(nextIndex.getAndIncrement(), size);
+    Replica selected = null;
+    for (int i = 0; i < size; i++) {
+      Replica replica = replicas.get((start + i) % size);
+      if (!replica.isAvailable(now)) {
+        continue;
+      }
+      if (strategy == LoadBalanceStrategy.ROUND_ROBIN) {
+        return replica;
+      }
+      if (selected == null || replica.getOutstanding() < selected.getOutstanding()) {
+        selected = replica;
+      }
+    }
+    return selected;
+  }
+
+  /** 当前可用的从库数 */
+  public int getAvailableCount() {
+    long now = System.currentTimeMillis();
+    int count = 0;
+    for (Replica replica : replicas) {
+      if (replica.isAvailable(now)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  void markFailure(Replica replica) {
+    if (replica.consecutiveFailures.incrementAndGet() >= failureThreshold) {
+      replica.downUntil = System.currentTimeMillis() + retryInterval;
+    }
+  }
+
+  void markSuccess(Replica replica) {
+    replica.consecutiveFailures.set(0);
+    replica.downUntil = 0;
+  }
+
+  /** 从库节点 */
+  public static class Replica {
+    @Getter private final DataSource dataSource;
+
+    /** 借出未归还的连接数 */
+    private final AtomicInteger outstanding = new AtomicInteger();
+
+    /** 连续失败次数 */
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+    /** 摘除截止时间，0 表示健康 */
+    private volatile long downUntil;
+
+    Replica(DataSource dataSource) {
+      this.dataSource = dataSource;
+    }
+
+    public int getOutstanding() {
+      return outstanding.get();
+    }
+
+    public boolean isAvailable(long now) {
+      return downUntil <= now;
+    }
+
+    void acquired() {
+      outstanding.incrementAndGet();
+    }
+
+    void released() {
+      outstanding.decrementAndGet();
+    }
+  }
+}
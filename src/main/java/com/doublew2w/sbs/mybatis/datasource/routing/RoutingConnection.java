@@ -0,0 +1,300 @@
+package com.doublew2w.sbs.mybatis.datasource.routing;
+
+import com.doublew2w.sbs.mybatis.mapping.SqlCommandType;
+import com.doublew2w.sbs.mybatis.reflection.ExceptionUtil;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 读写分离连接的代理
+ *
+ * <p>持有懒加载的主库连接和从库连接，每次创建语句时按即将执行的语句类型选择真实连接；事务控制方法作用于所有已打开的真实连接。
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/18 7:10
+ * @project: sbs-mybatis
+ */
+@Slf4j
+public class RoutingConnection implements InvocationHandler {
+  private final DataSource primaryDataSource;
+  private final ReplicaSet replicaSet;
+
+  private Connection primary;
+  private Connection replica;
+  private ReplicaSet.Replica replicaNode;
+
+  /** 从库上创建的语句，切回主库时关闭，避免复用执行器继续使用从库语句 */
+  private final Set<Statement> replicaStatements =
+      Collections.newSetFromMap(new WeakHashMap<>());
+
+  /** 出现过写操作后，本连接的所有语句都走主库 */
+  private boolean writeMode;
+
+  /** 下一条语句的类型，由语句处理器在创建语句前设置 */
+  private SqlCommandType nextCommandType;
+
+  // 连接属性，真实连接懒加载时补设
+  private Boolean autoCommit;
+  private Integer transactionIsolation;
+  private boolean closed;
+
+  RoutingConnection(DataSource primaryDataSource, ReplicaSet replicaSet) {
+    this.primaryDataSource = primaryDataSource;
+    this.replicaSet = replicaSet;
+  }
+
+  /**
+   * 声明下一条语句的类型，非路由连接时忽略
+   *
+   * @param connection 连接
+   * @param sqlCommandType 语句类型
+   */
+  public static void route(Connection connection, SqlCommandType sqlCommandType) {
+    RoutingConnection routingConnection = of(connection);
+    if (routingConnection != null) {
+      routingConnection.nextCommandType = sqlCommandType;
+    }
+  }
+
+  /** 获取路由连接的处理器，非路由连接返回 null */
+  public static RoutingConnection of(Connection connection) {
+    if (connection != null && Proxy.isProxyClass(connection.getClass())) {
+      InvocationHandler handler = Proxy.getInvocationHandler(connection);
+      if (handler instanceof RoutingConnection) {
+        return (RoutingConnection) handler;
+      }
+    }
+    return null;
+  }
+
+  public boolean isWriteMode() {
+    return writeMode;
+  }
+
+  /** 当前是否持有从库连接 */
+  public boolean isUsingReplica() {
+    return replica != null;
+  }
+
+  @Override
+  public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+    if (Object.class.equals(method.getDeclaringClass())) {
+      return method.invoke(this, args);
+    }
+    String methodName = method.getName();
+    switch (methodName) {
+      case "createStatement":
+      case "prepareStatement":
+        return createStatement(method, args);
+      case "prepareCall":
+        // 存储过程可能写数据
+        switchToPrimary();
+        return invoke(primary(), method, args);
+      case "setAutoCommit":
+        autoCommit = (Boolean) args[0];
+        forEachOpened(method, args);
+        return null;
+      case "getAutoCommit":
+        return autoCommit != null ? autoCommit : invoke(primary(), method, args);
+      case "setTransactionIsolation":
+        transactionIsolation = (Integer) args[0];
+        forEachOpened(method, args);
+        return null;
+      case "getTransactionIsolation":
+        return transactionIsolation != null
+            ? transactionIsolation
+            : invoke(primary(), method, args);
+      case "commit":
+      case "rollback":
+        if (args == null || args.length == 0) {
+          forEachOpened(method, args);
+          return null;
+        }
+        return invoke(primary(), method, args);
+      case "close":
+        close();
+        return null;
+      case "isClosed":
+        return closed;
+      case "unwrap":
+        if (((Class<?>) args[0]).isInstance(this)) {
+          return this;
+        }
+        return invoke(primary(), method, args);
+      case "isWrapperFor":
+        return ((Class<?>) args[0]).isInstance(this) || (Boolean) invoke(primary(), method, args);
+      default:
+        return invoke(primary(), method, args);
+    }
+  }
+
+  private Object createStatement(Method method, Object[] args) throws Throwable {
+    SqlCommandType commandType = nextCommandType;
+    if (!writeMode && commandType == SqlCommandType.SELECT) {
+      Connection target = replica();
+      if (target != null) {
+        Statement statement = (Statement) invoke(target, method, args);
+        replicaStatements.add(statement);
+        return watchReplica(statement, method.getReturnType(), replicaNode);
+      }
+    } else if (commandType != null && commandType != SqlCommandType.SELECT) {
+      switchToPrimary();
+    }
+    return invoke(primary(), method, args);
+  }
+
+  /** 第一次写：之后都走主库，释放从库连接 */
+  private void switchToPrimary() {
+    if (writeMode) {
+      return;
+    }
+    writeMode = true;
+    releaseReplica();
+  }
+
+  private Connection primary() throws SQLException {
+    if (closed) {
+      throw new SQLException("Connection is closed");
+    }
+    if (primary == null) {
+      primary = prepare(primaryDataSource.getConnection());
+    }
+    return primary;
+  }
+
+  /** 获取从库连接，没有可用从库或获取失败时返回 null 回落到主库 */
+  private Connection replica() throws SQLException {
+    if (closed) {
+      throw new SQLException("Connection is closed");
+    }
+    if (replica != null) {
+      return replica;
+    }
+    ReplicaSet.Replica node = replicaSet.select();
+    if (node == null) {
+      return null;
+    }
+    node.acquired();
+    try {
+      replica = prepare(node.getDataSource().getConnection());
+      replicaNode = node;
+      replicaSet.markSuccess(node);
+      return replica;
+    } catch (SQLException | RuntimeException e) {
+      node.released();
+      replicaSet.markFailure(node);
+      log.warn("Replica unavailable, falling back to primary. Cause: {}", e.toString());
+      return null;
+    }
+  }
+
+  /** 代理从库语句：执行时出现连接类异常，报告从库故障并释放从库连接，之后的读重新选择 */
+  private Statement watchReplica(Statement statement, Class<?> type, ReplicaSet.Replica node) {
+    return (Statement)
+        Proxy.newProxyInstance(
+            type.getClassLoader(),
+            new Class<?>[] {type},
+            (proxy, method, args) -> {
+              try {
+                return method.invoke(statement, args);
+              } catch (Exception e) {
+                Throwable cause = ExceptionUtil.unwrapThrowable(e);
+                if (isConnectionFailure(cause) && replicaNode == node) {
+                  replicaSet.markFailure(node);
+                  log.warn("Replica failed during execution. Cause: {}", cause.toString());
+                  releaseReplica();
+                }
+                throw cause;
+              }
+            });
+  }
+
+  /** 连接类异常（SQLState 08 或可恢复/连接相关的异常）说明从库不可用，SQL本身的错误不算 */
+  private static boolean isConnectionFailure(Throwable e) {
+    if (!(e instanceof SQLException)) {
+      return false;
+    }
+    String sqlState = ((SQLException) e).getSQLState();
+    return (sqlState != null && sqlState.startsWith("08"))
+        || e instanceof SQLRecoverableException
+        || e instanceof SQLTransientConnectionException
+        || e instanceof SQLNonTransientConnectionException;
+  }
+
+  private Connection prepare(Connection connection) throws SQLException {
+    if (transactionIsolation != null) {
+      connection.setTransactionIsolation(transactionIsolation);
+    }
+    if (autoCommit != null) {
+      connection.setAutoCommit(autoCommit);
+    }
+    return connection;
+  }
+
+  private void forEachOpened(Method method, Object[] args) throws Throwable {
+    if (primary != null) {
+      invoke(primary, method, args);
+    }
+    if (replica != null) {
+      invoke(replica, method, args);
+    }
+  }
+
+  private void releaseReplica() {
+    if (replica == null) {
+      return;
+    }
+    for (Statement statement : replicaStatements) {
+      try {
+        statement.close();
+      } catch (SQLException ignore) {
+        // 释放时忽略
+      }
+    }
+    replicaStatements.clear();
+    try {
+      replica.close();
+    } catch (SQLException e) {
+      log.debug("Error closing replica connection.  Cause: " + e);
+    } finally {
+      replica = null;
+      replicaNode.released();
+      replicaNode = null;
+    }
+  }
+
+  private void close() throws SQLException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      releaseReplica();
+    } finally {
+      if (primary != null) {
+        primary.close();
+        primary = null;
+      }
+    }
+  }
+
+  private static Object invoke(Connection target, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (Exception e) {
+      throw ExceptionUtil.unwrapThrowable(e);
+    }
+  }
+}
@@ -0,0 +1,82 @@
+package com.doublew2w.sbs.mybatis.datasource.routing;
+
+import java.io.PrintWriter;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+import lombok.Getter;
+
+/**
+ * 读写分离数据源
+ *
+ * <p>返回的连接按语句类型路由：写事务之外的 SELECT 发往从库，其余发往主库；会话中出现第一次写之后一直使用主库，保证读到自己的写。
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/18 7:10
+ * @project: sbs-mybatis
+ */
+public class RoutingDataSource implements DataSource {
+  @Getter private final DataSource primary;
+  @Getter private final ReplicaSet replicaSet;
+
+  public RoutingDataSource(DataSource primary, ReplicaSet replicaSet) {
+    this.primary = primary;
+    this.replicaSet = replicaSet;
+  }
+
+  /** 返回路由连接，真实连接在第一次创建语句时才获取 */
+  @Override
+  public Connection getConnection() throws SQLException {
+    RoutingConnection routingConnection = new RoutingConnection(primary, replicaSet);
+    return (Connection)
+        Proxy.newProxyInstance(
+            Connection.class.getClassLoader(), new Class<?>[] {Connection.class}, routingConnection);
+  }
+
+  /** 指定账号时不做路由，直接使用主库 */
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return primary.getConnection(username, password);
+  }
+
+  @Override
+  public PrintWriter getLogWriter() throws SQLException {
+    return primary.getLogWriter();
+  }
+
+  @Override
+  public void setLogWriter(PrintWriter out) throws SQLException {
+    primary.setLogWriter(out);
+  }
+
+  @Override
+  public void setLoginTimeout(int seconds) throws SQLException {
+    primary.setLoginTimeout(seconds);
+  }
+
+  @Override
+  public int getLoginTimeout() throws SQLException {
+    return primary.getLoginTimeout();
+  }
+
+  @Override
+  public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+    return Logger.getLogger(Logger.GLOBAL_LOGGER_NAME);
+  }
+
+  @Override
+  public <T> T unwrap(Class<T> iface) throws SQLException {
+    if (iface.isInstance(this)) {
+      return iface.cast(this);
+    }
+    return primary.unwrap(iface);
+  }
+
+  @Override
+  public boolean isWrapperFor(Class<?> iface) throws SQLException {
+    return iface.isInstance(this) || primary.isWrapperFor(iface);
+  }
+}
@@ -0,0 +1,179 @@
+package com.doublew2w.sbs.mybatis.datasource.sharding;
+
+import com.doublew2w.sbs.mybatis.reflection.ExceptionUtil;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 分库连接的代理
+ *
+ * <p>每个分片懒加载一个真实连接，分片插件通过 {@link #shard(Connection, String)} 取得目标分片的连接来创建语句；事务控制方法作用于所有已打开的分片连接。
+ *
+ * <p>多个分片的提交依次进行，不是分布式事务：某个分片提交失败时，之前已提交的分片不会回滚。
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/18 8:05
+ * @project: sbs-mybatis
+ */
+@Slf4j
+public class ShardingConnection implements InvocationHandler {
+  private final ShardingDataSource dataSource;
+
+  /** 已打开的分片连接 */
+  private final Map<String, Connection> connections = new LinkedHashMap<>();
+
+  // 连接属性，真实连接懒加载时补设
+  private Boolean autoCommit;
+  private Integer transactionIsolation;
+  private boolean closed;
+
+  ShardingConnection(ShardingDataSource dataSource) {
+    this.dataSource = dataSource;
+  }
+
+  /**
+   * 获取指定分片的真实连接
+   *
+   * @param connection 事务持有的连接
+   * @param name 分片名称
+   * @return 分片连接
+   * @throws SQLException 连接不是分库连接，或分片不存在
+   */
+  public static Connection shard(Connection connection, String name) throws SQLException {
+    ShardingConnection shardingConnection = of(connection);
+    if (shardingConnection == null) {
+      throw new SQLException(
+          "Cannot route to shard '" + name + "', the data source is not a ShardingDataSource");
+    }
+    return shardingConnection.connection(name);
+  }
+
+  /** 获取分库连接的处理器，非分库连接返回 null */
+  public static ShardingConnection of(Connection connection) {
+    if (connection != null && Proxy.isProxyClass(connection.getClass())) {
+      InvocationHandler handler = Proxy.getInvocationHandler(connection);
+      if (handler instanceof ShardingConnection) {
+        return (ShardingConnection) handler;
+      }
+    }
+    return null;
+  }
+
+  /** 已打开真实连接的分片数量 */
+  public int getOpenedCount() {
+    return connections.size();
+  }
+
+  @Override
+  public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+    if (Object.class.equals(method.getDeclaringClass())) {
+      return method.invoke(this, args);
+    }
+    String methodName = method.getName();
+    switch (methodName) {
+      case "setAutoCommit":
+        autoCommit = (Boolean) args[0];
+        forEachOpened(method, args);
+        return null;
+      case "getAutoCommit":
+        return autoCommit != null ? autoCommit : invoke(defaultConnection(), method, args);
+      case "setTransactionIsolation":
+        transactionIsolation = (Integer) args[0];
+        forEachOpened(method, args);
+        return null;
+      case "getTransactionIsolation":
+        return transactionIsolation != null
+            ? transactionIsolation
+            : invoke(defaultConnection(), method, args);
+      case "commit":
+      case "rollback":
+        if (args == null || args.length == 0) {
+          forEachOpened(method, args);
+          return null;
+        }
+        return invoke(defaultConnection(), method, args);
+      case "close":
+        close();
+        return null;
+      case "isClosed":
+        return closed;
+      case "unwrap":
+        if (((Class<?>) args[0]).isInstance(this)) {
+          return this;
+        }
+        return invoke(defaultConnection(), method, args);
+      case "isWrapperFor":
+        return ((Class<?>) args[0]).isInstance(this)
+            || (Boolean) invoke(defaultConnection(), method, args);
+      default:
+        return invoke(defaultConnection(), method, args);
+    }
+  }
+
+  private Connection defaultConnection() throws SQLException {
+    return connection(dataSource.getDefaultName());
+  }
+
+  private Connection connection(String name) throws SQLException {
+    if (closed) {
+      throw new SQLException("Connection is closed");
+    }
+    Connection connection = connections.get(name);
+    if (connection == null) {
+      DataSource target = dataSource.getDataSource(name);
+      if (target == null) {
+        throw new SQLException("Unknown shard data source '" + name + "'");
+      }
+      connection = target.getConnection();
+      if (transactionIsolation != null) {
+        connection.setTransactionIsolation(transactionIsolation);
+      }
+      if (autoCommit != null) {
+        connection.setAutoCommit(autoCommit);
+      }
+      connections.put(name, connection);
+    }
+    return connection;
+  }
+
+  private void forEachOpened(Method method, Object[] args) throws Throwable {
+    for (Connection connection : connections.values()) {
+      invoke(connection, method, args);
+    }
+  }
+
+  private void close() throws SQLException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    SQLException failure = null;
+    for (Connection connection : connections.values()) {
+      try {
+        connection.close();
+      } catch (SQLException e) {
+        log.debug("Error closing shard connection.  Cause: " + e);
+        failure = e;
+      }
+    }
+    connections.clear();
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  private static Object invoke(Connection target, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (Exception e) {
+      throw ExceptionUtil.unwrapThrowable(e);
+    }
+  }
+}
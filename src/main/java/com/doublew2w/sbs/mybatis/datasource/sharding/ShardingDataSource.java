@@ -0,0 +1,112 @@
+package com.doublew2w.sbs.mybatis.datasource.sharding;
+
+import java.io.PrintWriter;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+
+/**
+ * 分库数据源
+ *
+ * <p>按名称持有每个分片的数据源（通常各自是一个连接池），返回的连接在分片插件指定分片后才获取对应分片的真实连接；未指定分片的语句使用第一个分片。
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/18 8:05
+ * @project: sbs-mybatis
+ */
+public class ShardingDataSource implements DataSource {
+  /** 分片名称 -> 数据源，保持配置顺序 */
+  private final Map<String, DataSource> dataSources;
+
+  private final String defaultName;
+
+  public ShardingDataSource(Map<String, DataSource> dataSources) {
+    if (dataSources == null || dataSources.isEmpty()) {
+      throw new IllegalArgumentException("ShardingDataSource requires at least one data source");
+    }
+    this.dataSources = Collections.unmodifiableMap(new LinkedHashMap<>(dataSources));
+    this.defaultName = this.dataSources.keySet().iterator().next();
+  }
+
+  public Map<String, DataSource> getDataSources() {
+    return dataSources;
+  }
+
+  /** 未指定分片时使用的数据源名称 */
+  public String getDefaultName() {
+    return defaultName;
+  }
+
+  public DataSource getDataSource(String name) {
+    return dataSources.get(name);
+  }
+
+  /** 返回分片连接，真实连接在第一次使用某个分片时才获取 */
+  @Override
+  public Connection getConnection() throws SQLException {
+    ShardingConnection shardingConnection = new ShardingConnection(this);
+    return (Connection)
+        Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[] {Connection.class},
+            shardingConnection);
+  }
+
+  /** 指定账号时不做分片，直接使用默认分片 */
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return defaultDataSource().getConnection(username, password);
+  }
+
+  private DataSource defaultDataSource() {
+    return dataSources.get(defaultName);
+  }
+
+  @Override
+  public PrintWriter getLogWriter() throws SQLException {
+    return defaultDataSource().getLogWriter();
+  }
+
+  @Override
+  public void setLogWriter(PrintWriter out) throws SQLException {
+    for (DataSource dataSource : dataSources.values()) {
+      dataSource.setLogWriter(out);
+    }
+  }
+
+  @Override
+  public void setLoginTimeout(int seconds) throws SQLException {
+    for (DataSource dataSource : dataSources.values()) {
+      dataSource.setLoginTimeout(seconds);
+    }
+  }
+
+  @Override
+  public int getLoginTimeout() throws SQLException {
+    return defaultDataSource().getLoginTimeout();
+  }
+
+  @Override
+  public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+    return Logger.getLogger(Logger.GLOBAL_LOGGER_NAME);
+  }
+
+  @Override
+  public <T> T unwrap(Class<T> iface) throws SQLException {
+    if (iface.isInstance(this)) {
+      return iface.cast(this);
+    }
+    return defaultDataSource().unwrap(iface);
+  }
+
+  @Override
+  public boolean isWrapperFor(Class<?> iface) throws SQLException {
+    return iface.isInstance(this) || defaultDataSource().isWrapperFor(iface);
+  }
+}
@@ -7,6 +7,7 @@ import java.util.Enumeration;
 import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Logger;
 import javax.sql.DataSource;
 import lombok.Getter;
@@ -28,6 +29,9 @@ public class UnpooledDataSource implements DataSource {
   /** 驱动注册器 */
   @Setter @Getter private static Map<String, Driver> registeredDrivers = new ConcurrentHashMap<>();
 
+  /** 串行化驱动注册，加载驱动类可能较慢，不使用对象监视器以免虚拟线程固定在载体线程上 */
+  private static final ReentrantLock DRIVER_LOCK = new ReentrantLock();
+
   /** 驱动 */
   @Setter @Getter private String driver;
 
@@ -108,14 +112,21 @@ public class UnpooledDataSource implements DataSource {
   }
 
   /**
-   * 使用同步方法初始化数据库驱动程序，以确保多线程环境下的线程安全
+   * 初始化数据库驱动程序，已注册时不加锁直接返回
    *
-   * <p>如果驱动程序尚未注册，则根据给定的驱动程序名称和类加载器进行注册
+   * <p>如果驱动程序尚未注册，则在锁内根据给定的驱动程序名称和类加载器进行注册
    *
    * @throws SQLException 如果驱动程序初始化失败
    */
-  private synchronized void initializeDriver() throws SQLException {
-    if (!registeredDrivers.containsKey(driver)) {
+  private void initializeDriver() throws SQLException {
+    if (registeredDrivers.containsKey(driver)) {
+      return;
+    }
+    DRIVER_LOCK.lock();
+    try {
+      if (registeredDrivers.containsKey(driver)) {
+        return;
+      }
       Class<?> driverType;
       try {
         // 尝试使用指定的类加载器加载驱动程序类
@@ -132,6 +143,8 @@ public class UnpooledDataSource implements DataSource {
       } catch (Exception e) {
         throw new SQLException("Error setting driver on UnpooledDataSource. Cause: " + e);
       }
+    } finally {
+      DRIVER_LOCK.unlock();
     }
   }
 
@@ -2,6 +2,8 @@ package com.doublew2w.sbs.mybatis.executor;
 
 import com.doublew2w.sbs.mybatis.cache.CacheKey;
 import com.doublew2w.sbs.mybatis.cache.impl.PerpetualCache;
+import com.doublew2w.sbs.mybatis.cursor.Cursor;
+import com.doublew2w.sbs.mybatis.datasource.pooled.PoolLaneContext;
 import com.doublew2w.sbs.mybatis.mapping.BoundSql;
 import com.doublew2w.sbs.mybatis.mapping.MappedStatement;
 import com.doublew2w.sbs.mybatis.mapping.ParameterMapping;
@@ -52,7 +54,12 @@ public abstract class BaseExecutor implements Executor {
     }
     // 进行 CUD都会清理缓存
     clearLocalCache();
-    return doUpdate(ms, parameter);
+    String previousLane = enterLane(ms);
+    try {
+      return doUpdate(ms, parameter);
+    } finally {
+      exitLane(ms, previousLane);
+    }
   }
 
   @Override
@@ -60,7 +67,7 @@ public abstract class BaseExecutor implements Executor {
       MappedStatement ms, Object parameter, RowBounds rowBounds, ResultHandler resultHandler)
       throws SQLException {
     // 1. 获取绑定SQL
-    BoundSql boundSql = ms.getBoundSql(parameter);
+    BoundSql boundSql = ms.getBoundSql(parameter, rowBounds);
     // 2. 创建缓存Key
     CacheKey key = createCacheKey(ms, parameter, rowBounds, boundSql);
     return query(ms, parameter, rowBounds, resultHandler, key, boundSql);
@@ -103,6 +110,21 @@ public abstract class BaseExecutor implements Executor {
     return list;
   }
 
+  @Override
+  public <E> Cursor<E> queryCursor(MappedStatement ms, Object parameter, RowBounds rowBounds)
+      throws SQLException {
+    if (closed) {
+      throw new RuntimeException("Executor was closed.");
+    }
+    BoundSql boundSql = ms.getBoundSql(parameter, rowBounds);
+    String previousLane = enterLane(ms);
+    try {
+      return doQueryCursor(ms, parameter, rowBounds, boundSql);
+    } finally {
+      exitLane(ms, previousLane);
+    }
+  }
+
   @Override
   public Transaction getTransaction() {
     if (closed) {
@@ -117,6 +139,7 @@ public abstract class BaseExecutor implements Executor {
       throw new RuntimeException("Cannot commit, transaction is already closed");
     }
     clearLocalCache();
+    flushStatements(false);
     if (required) {
       transaction.commit();
     }
@@ -127,6 +150,7 @@ public abstract class BaseExecutor implements Executor {
     if (!closed) {
       try {
         clearLocalCache();
+        flushStatements(true);
       } finally {
         if (required) {
           transaction.rollback();
@@ -198,6 +222,23 @@ public abstract class BaseExecutor implements Executor {
     this.wrapper = wrapper;
   }
 
+  @Override
+  public List<BatchResult> flushStatements() throws SQLException {
+    return flushStatements(false);
+  }
+
+  /**
+   * 刷新语句：执行积压的批次，关闭执行器在会话内持有的语句
+   *
+   * @param isRollback 是否因回滚而刷新，回滚时积压的批次直接丢弃
+   */
+  protected List<BatchResult> flushStatements(boolean isRollback) throws SQLException {
+    if (closed) {
+      throw new RuntimeException("Executor was closed.");
+    }
+    return doFlushStatements(isRollback);
+  }
+
   /** 真正的具体实现交给子类 */
   protected abstract int doUpdate(MappedStatement ms, Object parameter) throws SQLException;
 
@@ -216,7 +257,30 @@ public abstract class BaseExecutor implements Executor {
       Object parameter,
       RowBounds rowBounds,
       ResultHandler resultHandler,
-      BoundSql boundSql);
+      BoundSql boundSql)
+      throws SQLException;
+
+  /**
+   * 游标查询的具体实现，返回的游标持有语句，由游标负责关闭
+   *
+   * @param ms 映射语句
+   * @param parameter 参数
+   * @param rowBounds 分页记录
+   * @param boundSql 绑定SQL
+   * @return 游标
+   */
+  protected abstract <E> Cursor<E> doQueryCursor(
+      MappedStatement ms, Object parameter, RowBounds rowBounds, BoundSql boundSql)
+      throws SQLException;
+
+  /**
+   * 刷新语句的具体实现，由持有语句的子类（如 ReuseExecutor、BatchExecutor）执行批次、释放资源
+   *
+   * @param isRollback 是否因回滚而刷新
+   * @return 批次执行结果
+   */
+  protected abstract List<BatchResult> doFlushStatements(boolean isRollback)
+      throws SQLException;
 
   protected void closeStatement(Statement statement) {
     if (statement != null) {
@@ -237,13 +301,32 @@ public abstract class BaseExecutor implements Executor {
       throws SQLException {
     List<E> list;
     localCache.putObject(key, ExecutionPlaceholder.EXECUTION_PLACEHOLDER);
+    String previousLane = enterLane(ms);
     try {
       list = doQuery(ms, parameter, rowBounds, resultHandler, boundSql);
     } finally {
+      exitLane(ms, previousLane);
       localCache.removeObject(key);
     }
-    // 存入缓存
-    localCache.putObject(key, list);
+    // 存入缓存；结果交给外部结果处理器时并未收集，不能缓存
+    if (resultHandler == null) {
+      localCache.putObject(key, list);
+    }
     return list;
   }
+
+  /**
+   * 语句配置了连接池通道时，在执行期间设置到当前线程，会话的第一条语句借用连接时生效
+   *
+   * @return 之前的通道，用于恢复
+   */
+  private String enterLane(MappedStatement ms) {
+    return ms.getLane() == null ? null : PoolLaneContext.set(ms.getLane());
+  }
+
+  private void exitLane(MappedStatement ms, String previousLane) {
+    if (ms.getLane() != null) {
+      PoolLaneContext.set(previousLane);
+    }
+  }
 }
@@ -0,0 +1,219 @@
+package com.doublew2w.sbs.mybatis.executor;
+
+import com.doublew2w.sbs.mybatis.cursor.Cursor;
+import com.doublew2w.sbs.mybatis.executor.keygen.Jdbc3KeyGenerator;
+import com.doublew2w.sbs.mybatis.executor.keygen.KeyGenerator;
+import com.doublew2w.sbs.mybatis.executor.keygen.NoKeyGenerator;
+import com.doublew2w.sbs.mybatis.executor.statement.BaseStatementHandler;
+import com.doublew2w.sbs.mybatis.executor.statement.StatementHandler;
+import com.doublew2w.sbs.mybatis.executor.statement.StatementReuse;
+import com.doublew2w.sbs.mybatis.mapping.BoundSql;
+import com.doublew2w.sbs.mybatis.mapping.MappedStatement;
+import com.doublew2w.sbs.mybatis.plugin.Plugin;
+import com.doublew2w.sbs.mybatis.session.Configuration;
+import com.doublew2w.sbs.mybatis.session.ResultHandler;
+import com.doublew2w.sbs.mybatis.session.RowBounds;
+import com.doublew2w.sbs.mybatis.transaction.Transaction;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 批处理执行器
+ *
+ * <p>连续的、映射语句和最终SQL（插件改写之后）都相同的更新通过 addBatch 合并到同一个语句中，在 flushStatements / commit
+ * 或下一次查询前统一 executeBatch。
+ *
+ * <p>更新方法返回 {@link #BATCH_UPDATE_RETURN_VALUE}，实际影响行数从 flushStatements 返回的 {@link
+ * BatchResult} 中获取。
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/18 0:10
+ * @project: sbs-mybatis
+ */
+@Slf4j
+public class BatchExecutor extends BaseExecutor {
+
+  /** 批处理模式下 update 的返回值，表示行数尚未确定 */
+  public static final int BATCH_UPDATE_RETURN_VALUE = Integer.MIN_VALUE + 1002;
+
+  /** 待执行的批次语句 */
+  private final List<Statement> statementList = new ArrayList<>();
+
+  /** 与 statementList 一一对应的批次结果 */
+  private final List<BatchResult> batchResultList = new ArrayList<>();
+
+  /** 当前批次的最终SQL（插件改写之后） */
+  private String currentSql;
+
+  /** 当前批次的映射语句 */
+  private MappedStatement currentStatement;
+
+  /** 当前批次预编译使用的连接，分片时为分片连接 */
+  private Connection currentConnection;
+
+  /** 正在追加的更新 */
+  private MappedStatement pendingStatement;
+
+  private Object pendingParameter;
+
+  /** 交给语句处理器：插件改写SQL之后，连接、映射语句和SQL都与当前批次相同时追加到当前批次 */
+  private final StatementReuse batchReuse =
+      new StatementReuse() {
+        @Override
+        public Statement get(Connection connection, String sql) {
+          if (connection != currentConnection
+              || !sql.equals(currentSql)
+              || !pendingStatement.equals(currentStatement)) {
+            return null;
+          }
+          int last = statementList.size() - 1;
+          batchResultList.get(last).addParameterObject(pendingParameter);
+          return statementList.get(last);
+        }
+
+        @Override
+        public void put(Connection connection, String sql, Statement statement) {
+          currentConnection = connection;
+          currentSql = sql;
+          currentStatement = pendingStatement;
+          statementList.add(statement);
+          batchResultList.add(new BatchResult(pendingStatement, sql, pendingParameter));
+        }
+      };
+
+  public BatchExecutor(Configuration configuration, Transaction transaction) {
+    super(configuration, transaction);
+  }
+
+  @Override
+  protected int doUpdate(MappedStatement ms, Object parameter) throws SQLException {
+    final Configuration configuration = ms.getConfiguration();
+    final StatementHandler handler =
+        configuration.newStatementHandler(this, ms, parameter, RowBounds.DEFAULT, null, null);
+    final Connection connection = transaction.getConnection();
+    final Object target = Plugin.unwrap(handler);
+    pendingStatement = ms;
+    pendingParameter = parameter;
+    final Statement stmt;
+    try {
+      if (target instanceof BaseStatementHandler) {
+        ((BaseStatementHandler) target).setStatementReuse(batchReuse);
+        stmt = handler.prepare(connection);
+      } else {
+        // 自定义语句处理器：按改写前的SQL判断是否追加
+        Statement current = batchReuse.get(connection, handler.getBoundSql().getSql());
+        stmt = current != null ? current : handler.prepare(connection);
+        if (current == null) {
+          batchReuse.put(connection, handler.getBoundSql().getSql(), stmt);
+        }
+      }
+    } finally {
+      pendingStatement = null;
+      pendingParameter = null;
+    }
+    handler.parameterize(stmt);
+    handler.batch(stmt);
+    return BATCH_UPDATE_RETURN_VALUE;
+  }
+
+  @Override
+  protected <E> List<E> doQuery(
+      MappedStatement ms,
+      Object parameter,
+      RowBounds rowBounds,
+      ResultHandler resultHandler,
+      BoundSql boundSql)
+      throws SQLException {
+    Statement stmt = null;
+    try {
+      // 查询前先执行积压的批次，保证读到自己的写
+      flushStatements();
+      Configuration configuration = ms.getConfiguration();
+      StatementHandler handler =
+          configuration.newStatementHandler(
+              wrapper, ms, parameter, rowBounds, resultHandler, boundSql);
+      Connection connection = transaction.getConnection();
+      stmt = handler.prepare(connection);
+      handler.parameterize(stmt);
+      return handler.query(stmt, resultHandler);
+    } finally {
+      closeStatement(stmt);
+    }
+  }
+
+  @Override
+  protected <E> Cursor<E> doQueryCursor(
+      MappedStatement ms, Object parameter, RowBounds rowBounds, BoundSql boundSql)
+      throws SQLException {
+    flushStatements();
+    Configuration configuration = ms.getConfiguration();
+    StatementHandler handler =
+        configuration.newStatementHandler(wrapper, ms, parameter, rowBounds, null, boundSql);
+    Connection connection = transaction.getConnection();
+    Statement stmt = handler.prepare(connection);
+    handler.parameterize(stmt);
+    Cursor<E> cursor = handler.queryCursor(stmt);
+    stmt.closeOnCompletion();
+    return cursor;
+  }
+
+  @Override
+  protected List<BatchResult> doFlushStatements(boolean isRollback) throws SQLException {
+    try {
+      if (isRollback) {
+        return Collections.emptyList();
+      }
+      List<BatchResult> results = new ArrayList<>();
+      for (int i = 0, n = statementList.size(); i < n; i++) {
+        Statement stmt = statementList.get(i);
+        BatchResult batchResult = batchResultList.get(i);
+        try {
+          batchResult.setUpdateCounts(stmt.executeBatch());
+          MappedStatement ms = batchResult.getMappedStatement();
+          List<Object> parameterObjects = batchResult.getParameterObjects();
+          KeyGenerator keyGenerator = ms.getKeyGenerator();
+          if (keyGenerator instanceof Jdbc3KeyGenerator) {
+            // 批量回填自增主键
+            ((Jdbc3KeyGenerator) keyGenerator).processBatch(ms, stmt, parameterObjects);
+          } else if (!(keyGenerator instanceof NoKeyGenerator)) {
+            for (Object parameter : parameterObjects) {
+              keyGenerator.processAfter(this, ms, stmt, parameter);
+            }
+          }
+        } catch (BatchUpdateException e) {
+          StringBuilder message = new StringBuilder();
+          message
+              .append(batchResult.getMappedStatement().getId())
+              .append(" (batch index #")
+              .append(i + 1)
+              .append(")")
+              .append(" failed.");
+          if (i > 0) {
+            message
+                .append(" ")
+                .append(i)
+                .append(" prior sub executor(s) completed successfully, but will be rolled back.");
+          }
+          throw new RuntimeException(message.toString() + " Cause: " + e, e);
+        }
+        results.add(batchResult);
+      }
+      return results;
+    } finally {
+      for (Statement stmt : statementList) {
+        closeStatement(stmt);
+      }
+      currentSql = null;
+      currentStatement = null;
+      currentConnection = null;
+      statementList.clear();
+      batchResultList.clear();
+    }
+  }
+}
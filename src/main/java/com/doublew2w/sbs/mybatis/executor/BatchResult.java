@@ -0,0 +1,47 @@
+package com.doublew2w.sbs.mybatis.executor;
+
+import com.doublew2w.sbs.mybatis.mapping.MappedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 批处理结果
+ *
+ * <p>对应一次 JDBC executeBatch：同一映射语句、同一SQL的连续更新被合并为一个批次
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/18 0:05
+ * @project: sbs-mybatis
+ */
+@Getter
+public class BatchResult {
+
+  /** 映射语句 */
+  private final MappedStatement mappedStatement;
+
+  /** 批次SQL */
+  private final String sql;
+
+  /** 批次中每一行的参数对象，顺序与 updateCounts 一致 */
+  private final List<Object> parameterObjects;
+
+  /** 每一行的影响行数，执行批次后设置 */
+  @Setter private int[] updateCounts;
+
+  public BatchResult(MappedStatement mappedStatement, String sql) {
+    this.mappedStatement = mappedStatement;
+    this.sql = sql;
+    this.parameterObjects = new ArrayList<>();
+  }
+
+  public BatchResult(MappedStatement mappedStatement, String sql, Object parameterObject) {
+    this(mappedStatement, sql);
+    addParameterObject(parameterObject);
+  }
+
+  public void addParameterObject(Object parameterObject) {
+    this.parameterObjects.add(parameterObject);
+  }
+}
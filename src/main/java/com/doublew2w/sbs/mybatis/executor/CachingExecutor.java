@@ -4,8 +4,10 @@ import com.alibaba.fastjson2.JSON;
 import com.doublew2w.sbs.mybatis.cache.Cache;
 import com.doublew2w.sbs.mybatis.cache.CacheKey;
 import com.doublew2w.sbs.mybatis.cache.TransactionalCacheManager;
+import com.doublew2w.sbs.mybatis.cursor.Cursor;
 import com.doublew2w.sbs.mybatis.mapping.BoundSql;
 import com.doublew2w.sbs.mybatis.mapping.MappedStatement;
+import com.doublew2w.sbs.mybatis.session.Configuration;
 import com.doublew2w.sbs.mybatis.session.ResultHandler;
 import com.doublew2w.sbs.mybatis.session.RowBounds;
 import com.doublew2w.sbs.mybatis.transaction.Transaction;
@@ -47,7 +49,7 @@ public class CachingExecutor implements Executor {
         @SuppressWarnings("unchecked")
         List<E> list = (List<E>) tcm.getObject(cache, key);
         if (list == null) {
-          list = delegate.<E>query(ms, parameter, rowBounds, resultHandler, key, boundSql);
+          list = queryDelegate(ms, parameter, rowBounds, key, boundSql, cache);
           // cache：缓存队列实现类，FIFO
           // key：哈希值 [mappedStatementId + offset + limit + SQL + queryParams + environment]
           // list：查询的数据
@@ -63,22 +65,56 @@ public class CachingExecutor implements Executor {
     return delegate.<E>query(ms, parameter, rowBounds, resultHandler, key, boundSql);
   }
 
+  /** 二级缓存未命中时查询；开启单飞且本事务没有未提交的写时，同一Key的并发查询只有一条打到数据库 */
+  private <E> List<E> queryDelegate(
+      MappedStatement ms,
+      Object parameter,
+      RowBounds rowBounds,
+      CacheKey key,
+      BoundSql boundSql,
+      Cache cache)
+      throws SQLException {
+    Configuration configuration = ms.getConfiguration();
+    if (!configuration.isSingleFlightEnabled() || tcm.isClearOnCommit(cache)) {
+      return delegate.<E>query(ms, parameter, rowBounds, null, key, boundSql);
+    }
+    return configuration
+        .getSingleFlight(cache)
+        .execute(
+            key,
+            () -> delegate.<E>query(ms, parameter, rowBounds, null, key, boundSql),
+            configuration.getSingleFlightTimeout());
+  }
+
   @Override
   public <E> List<E> query(
       MappedStatement ms, Object parameter, RowBounds rowBounds, ResultHandler resultHandler)
       throws SQLException {
     // 1. 获取绑定SQL
-    BoundSql boundSql = ms.getBoundSql(parameter);
+    BoundSql boundSql = ms.getBoundSql(parameter, rowBounds);
     // 2. 创建缓存Key
     CacheKey key = createCacheKey(ms, parameter, rowBounds, boundSql);
     return query(ms, parameter, rowBounds, resultHandler, key, boundSql);
   }
 
+  @Override
+  public <E> Cursor<E> queryCursor(MappedStatement ms, Object parameter, RowBounds rowBounds)
+      throws SQLException {
+    // 游标结果不进入二级缓存
+    flushCacheIfRequired(ms);
+    return delegate.queryCursor(ms, parameter, rowBounds);
+  }
+
   @Override
   public int update(MappedStatement ms, Object parameter) throws SQLException {
     return delegate.update(ms, parameter);
   }
 
+  @Override
+  public List<BatchResult> flushStatements() throws SQLException {
+    return delegate.flushStatements();
+  }
+
   @Override
   public Transaction getTransaction() {
     return delegate.getTransaction();
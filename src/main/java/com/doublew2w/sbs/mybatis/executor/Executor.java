@@ -1,6 +1,7 @@
 package com.doublew2w.sbs.mybatis.executor;
 
 import com.doublew2w.sbs.mybatis.cache.CacheKey;
+import com.doublew2w.sbs.mybatis.cursor.Cursor;
 import com.doublew2w.sbs.mybatis.mapping.BoundSql;
 import com.doublew2w.sbs.mybatis.mapping.MappedStatement;
 import com.doublew2w.sbs.mybatis.session.ResultHandler;
@@ -34,9 +35,27 @@ public interface Executor {
       MappedStatement ms, Object parameter, RowBounds rowBounds, ResultHandler resultHandler)
       throws SQLException;
 
+  /**
+   * 游标查询，结果逐行映射；语句在游标关闭时释放
+   *
+   * @param ms 映射语句
+   * @param parameter 参数
+   * @param rowBounds 分页记录
+   * @return 游标
+   */
+  <E> Cursor<E> queryCursor(MappedStatement ms, Object parameter, RowBounds rowBounds)
+      throws SQLException;
+
   /** 更新操作 */
   int update(MappedStatement ms, Object parameter) throws SQLException;
 
+  /**
+   * 刷新批处理语句
+   *
+   * @return 每个批次的执行结果，非批处理执行器返回空集合
+   */
+  List<BatchResult> flushStatements() throws SQLException;
+
   Transaction getTransaction();
 
   void commit(boolean required) throws SQLException;
@@ -0,0 +1,173 @@
+package com.doublew2w.sbs.mybatis.executor;
+
+import com.doublew2w.sbs.mybatis.cursor.Cursor;
+import com.doublew2w.sbs.mybatis.executor.statement.BaseStatementHandler;
+import com.doublew2w.sbs.mybatis.executor.statement.StatementHandler;
+import com.doublew2w.sbs.mybatis.executor.statement.StatementReuse;
+import com.doublew2w.sbs.mybatis.mapping.BoundSql;
+import com.doublew2w.sbs.mybatis.mapping.MappedStatement;
+import com.doublew2w.sbs.mybatis.plugin.Plugin;
+import com.doublew2w.sbs.mybatis.session.Configuration;
+import com.doublew2w.sbs.mybatis.session.ResultHandler;
+import com.doublew2w.sbs.mybatis.session.RowBounds;
+import com.doublew2w.sbs.mybatis.transaction.Transaction;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 可重用执行器
+ *
+ * <p>在会话（事务连接）范围内以连接和最终SQL为键缓存预编译语句，同一条SQL再次执行时只重置参数，不再重新预编译。查找在插件改写SQL之后进行（见
+ * {@link StatementReuse}），分页、分片改写后的语句同样可以复用。
+ *
+ * <p>提交、回滚、关闭会话时关闭全部缓存的语句。
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/17 23:12
+ * @project: sbs-mybatis
+ */
+@Slf4j
+public class ReuseExecutor extends BaseExecutor {
+
+  /** 语句缓存，key：预编译使用的连接（分片时为分片连接）-> 最终SQL，value：预编译好的语句 */
+  private final Map<Connection, Map<String, Statement>> statementMap = new IdentityHashMap<>();
+
+  /** 交给语句处理器，在插件改写SQL之后查找和登记语句 */
+  private final StatementReuse statementReuse =
+      new StatementReuse() {
+        @Override
+        public Statement get(Connection connection, String sql) throws SQLException {
+          Map<String, Statement> statements = statementMap.get(connection);
+          Statement stmt = statements == null ? null : statements.get(sql);
+          if (stmt == null || stmt.isClosed()) {
+            return null;
+          }
+          // 复用：清空上一次绑定的参数后重新设置
+          if (stmt instanceof PreparedStatement) {
+            ((PreparedStatement) stmt).clearParameters();
+          }
+          reuseCount++;
+          return stmt;
+        }
+
+        @Override
+        public void put(Connection connection, String sql, Statement statement) {
+          Statement previous =
+              statementMap.computeIfAbsent(connection, key -> new HashMap<>()).put(sql, statement);
+          if (previous != null && previous != statement) {
+            closeStatement(previous);
+          }
+          prepareCount++;
+        }
+      };
+
+  /** 缓存语句所属的连接，连接变化时缓存作废 */
+  private Connection statementConnection;
+
+  /** 实际预编译的次数 */
+  private long prepareCount;
+
+  /** 复用已缓存语句的次数，即节省下来的预编译次数 */
+  private long reuseCount;
+
+  public ReuseExecutor(Configuration configuration, Transaction transaction) {
+    super(configuration, transaction);
+  }
+
+  @Override
+  protected int doUpdate(MappedStatement ms, Object parameter) throws SQLException {
+    Configuration configuration = ms.getConfiguration();
+    StatementHandler handler =
+        configuration.newStatementHandler(this, ms, parameter, RowBounds.DEFAULT, null, null);
+    Statement stmt = prepareStatement(handler);
+    return handler.update(stmt);
+  }
+
+  @Override
+  protected <E> List<E> doQuery(
+      MappedStatement ms,
+      Object parameter,
+      RowBounds rowBounds,
+      ResultHandler resultHandler,
+      BoundSql boundSql)
+      throws SQLException {
+    Configuration configuration = ms.getConfiguration();
+    StatementHandler handler =
+        configuration.newStatementHandler(
+            wrapper, ms, parameter, rowBounds, resultHandler, boundSql);
+    Statement stmt = prepareStatement(handler);
+    return handler.query(stmt, resultHandler);
+  }
+
+  @Override
+  protected <E> Cursor<E> doQueryCursor(
+      MappedStatement ms, Object parameter, RowBounds rowBounds, BoundSql boundSql)
+      throws SQLException {
+    Configuration configuration = ms.getConfiguration();
+    StatementHandler handler =
+        configuration.newStatementHandler(wrapper, ms, parameter, rowBounds, null, boundSql);
+    // 游标独占语句直到关闭，不放入复用缓存
+    Connection connection = transaction.getConnection();
+    Statement stmt = handler.prepare(connection);
+    handler.parameterize(stmt);
+    prepareCount++;
+    Cursor<E> cursor = handler.queryCursor(stmt);
+    stmt.closeOnCompletion();
+    return cursor;
+  }
+
+  @Override
+  protected List<BatchResult> doFlushStatements(boolean isRollback) {
+    int closed = 0;
+    for (Map<String, Statement> statements : statementMap.values()) {
+      for (Statement stmt : statements.values()) {
+        closeStatement(stmt);
+        closed++;
+      }
+    }
+    if (closed > 0) {
+      log.debug("关闭 {} 个缓存语句，累计预编译 {} 次，复用 {} 次", closed, prepareCount, reuseCount);
+    }
+    statementMap.clear();
+    statementConnection = null;
+    return Collections.emptyList();
+  }
+
+  private Statement prepareStatement(StatementHandler handler) throws SQLException {
+    Connection connection = transaction.getConnection();
+    if (connection != statementConnection) {
+      doFlushStatements(false);
+      statementConnection = connection;
+    }
+    Object target = Plugin.unwrap(handler);
+    Statement stmt;
+    if (target instanceof BaseStatementHandler) {
+      ((BaseStatementHandler) target).setStatementReuse(statementReuse);
+      stmt = handler.prepare(connection);
+    } else {
+      // 自定义语句处理器无法在预编译前查找，只登记以便统一关闭
+      stmt = handler.prepare(connection);
+      statementReuse.put(connection, handler.getBoundSql().getSql(), stmt);
+    }
+    handler.parameterize(stmt);
+    return stmt;
+  }
+
+  /** 获取实际预编译的次数 */
+  public long getPrepareCount() {
+    return prepareCount;
+  }
+
+  /** 获取复用语句的次数（节省的预编译次数） */
+  public long getReuseCount() {
+    return reuseCount;
+  }
+}
@@ -1,5 +1,6 @@
 package com.doublew2w.sbs.mybatis.executor;
 
+import com.doublew2w.sbs.mybatis.cursor.Cursor;
 import com.doublew2w.sbs.mybatis.executor.statement.StatementHandler;
 import com.doublew2w.sbs.mybatis.mapping.BoundSql;
 import com.doublew2w.sbs.mybatis.mapping.MappedStatement;
@@ -8,6 +9,7 @@ import com.doublew2w.sbs.mybatis.session.ResultHandler;
 import com.doublew2w.sbs.mybatis.session.RowBounds;
 import com.doublew2w.sbs.mybatis.transaction.Transaction;
 import java.sql.*;
+import java.util.Collections;
 import java.util.List;
 import lombok.extern.slf4j.Slf4j;
 
@@ -58,7 +60,6 @@ public class SimpleExecutor extends BaseExecutor {
       StatementHandler handler =
           configuration.newStatementHandler(
               wrapper, ms, parameter, rowBounds, resultHandler, boundSql);
-      Connection connection = transaction.getConnection();
       // 准备语句
       stmt = prepareStatement(handler);
       // 返回结果
@@ -66,9 +67,31 @@ public class SimpleExecutor extends BaseExecutor {
     } catch (SQLException e) {
       log.error(e.getMessage(), e);
       return null;
+    } finally {
+      closeStatement(stmt);
     }
   }
 
+  @Override
+  protected <E> Cursor<E> doQueryCursor(
+      MappedStatement ms, Object parameter, RowBounds rowBounds, BoundSql boundSql)
+      throws SQLException {
+    Configuration configuration = ms.getConfiguration();
+    StatementHandler handler =
+        configuration.newStatementHandler(wrapper, ms, parameter, rowBounds, null, boundSql);
+    Statement stmt = prepareStatement(handler);
+    Cursor<E> cursor = handler.queryCursor(stmt);
+    // 游标读完或关闭结果集时自动关闭语句
+    stmt.closeOnCompletion();
+    return cursor;
+  }
+
+  @Override
+  protected List<BatchResult> doFlushStatements(boolean isRollback) {
+    // 简单执行器每次执行后即关闭语句，无需刷新
+    return Collections.emptyList();
+  }
+
   private Statement prepareStatement(StatementHandler handler) throws SQLException {
     Statement stmt;
     Connection connection = transaction.getConnection();
@@ -4,6 +4,7 @@ import com.doublew2w.sbs.mybatis.executor.Executor;
 import com.doublew2w.sbs.mybatis.mapping.MappedStatement;
 import com.doublew2w.sbs.mybatis.reflection.MetaObject;
 import com.doublew2w.sbs.mybatis.session.Configuration;
+import com.doublew2w.sbs.mybatis.session.ExecutorType;
 import com.doublew2w.sbs.mybatis.session.RowBounds;
 import java.sql.Statement;
 import java.util.List;
@@ -47,7 +48,9 @@ public class SelectKeyGenerator implements KeyGenerator {
         final MetaObject metaParam = configuration.newMetaObject(parameter);
         // Do not close keyExecutor.
         // The transaction will be closed by parent executor.
-        Executor keyExecutor = configuration.newExecutor(executor.getTransaction());
+        // 主键查询必须立即执行，不能跟随外层的批处理/复用执行器
+        Executor keyExecutor =
+            configuration.newExecutor(executor.getTransaction(), ExecutorType.SIMPLE);
         List<Object> values =
             keyExecutor.query(
                 keyStatement, parameter, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
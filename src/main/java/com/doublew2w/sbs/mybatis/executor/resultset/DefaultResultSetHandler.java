@@ -1,10 +1,13 @@
 package com.doublew2w.sbs.mybatis.executor.resultset;
 
+import com.doublew2w.sbs.mybatis.cursor.Cursor;
+import com.doublew2w.sbs.mybatis.cursor.defaults.DefaultCursor;
 import com.doublew2w.sbs.mybatis.executor.Executor;
 import com.doublew2w.sbs.mybatis.mapping.BoundSql;
 import com.doublew2w.sbs.mybatis.mapping.MappedStatement;
 import com.doublew2w.sbs.mybatis.mapping.ResultMap;
 import com.doublew2w.sbs.mybatis.mapping.ResultMapping;
+import com.doublew2w.sbs.mybatis.mapping.StatementStatistics;
 import com.doublew2w.sbs.mybatis.reflection.MetaClass;
 import com.doublew2w.sbs.mybatis.reflection.MetaObject;
 import com.doublew2w.sbs.mybatis.reflection.factory.ObjectFactory;
@@ -62,7 +65,11 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     while (rsw != null && resultMaps.size() > resultSetCount) {
       ResultMap resultMap = resultMaps.get(resultSetCount);
       // 处理结果
-      handleResultSet(rsw, resultMap, multipleResults, null);
+      boolean stopped = handleResultSet(rsw, resultMap, multipleResults, null);
+      if (stopped) {
+        // 结果处理器主动停止，不再读取后续结果集
+        break;
+      }
       // 获取下一个结果集
       rsw = getNextResultSet(stmt);
       resultSetCount++;
@@ -70,12 +77,28 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return collapseSingleResultList(multipleResults);
   }
 
+  @Override
+  public <E> Cursor<E> handleCursorResultSets(Statement stmt) throws SQLException {
+    ResultSetWrapper rsw = getFirstResultSet(stmt);
+    List<ResultMap> resultMaps = mappedStatement.getResultMaps();
+    if (resultMaps.size() != 1) {
+      throw new RuntimeException("Cursor results cannot be mapped to multiple resultMaps");
+    }
+    ResultMap resultMap = resultMaps.get(0);
+    return new DefaultCursor<>(this, resultMap, rsw, rowBounds);
+  }
+
   @SuppressWarnings("unchecked")
   private List<Object> collapseSingleResultList(List<Object> multipleResults) {
     return multipleResults.size() == 1 ? (List<Object>) multipleResults.get(0) : multipleResults;
   }
 
-  private void handleResultSet(
+  /**
+   * 处理单个结果集
+   *
+   * @return 外部结果处理器是否提前停止了读取
+   */
+  private boolean handleResultSet(
       ResultSetWrapper rsw,
       ResultMap resultMap,
       List<Object> multipleResults,
@@ -84,18 +107,55 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     try {
       if (resultHandler == null) {
         // 1. 新创建结果处理器
-        DefaultResultHandler defaultResultHandler = new DefaultResultHandler(objectFactory);
+        DefaultResultHandler defaultResultHandler = newDefaultResultHandler();
         // 2. 封装数据
         handleRowValuesForSimpleResultMap(rsw, resultMap, defaultResultHandler, rowBounds, null);
         // 3. 保存结果
-        multipleResults.add(defaultResultHandler.getResultList());
+        List<Object> resultList = defaultResultHandler.getResultList();
+        multipleResults.add(resultList);
+        if (configuration.isAdaptiveFetchSize()) {
+          mappedStatement.getStatistics().record(resultList.size());
+        }
+        return false;
+      }
+      // 推模式：每行直接交给调用方的结果处理器，不做收集
+      boolean stopped =
+          handleRowValuesForSimpleResultMap(rsw, resultMap, resultHandler, rowBounds, null);
+      if (stopped) {
+        // 提前终止：取消语句，避免驱动在关闭结果集时把剩余的行读完
+        cancelStatement(rsw.getResultSet());
       }
+      return stopped;
     } finally {
       // issue #228 (close resultsets)
       closeResultSet(rsw.getResultSet());
     }
   }
 
+  /** 开启 adaptiveFetchSize 时按历史典型行数预分配结果列表 */
+  private DefaultResultHandler newDefaultResultHandler() {
+    if (configuration.isAdaptiveFetchSize()) {
+      StatementStatistics statistics = mappedStatement.getStatistics();
+      if (statistics.getSamples() > 0) {
+        int expectedRows = Math.min(statistics.getTypicalRows(), rowBounds.getLimit());
+        return new DefaultResultHandler(
+            Math.min(expectedRows, configuration.getAdaptiveMaxFetchSize()));
+      }
+    }
+    return new DefaultResultHandler(objectFactory);
+  }
+
+  private void cancelStatement(ResultSet rs) {
+    try {
+      Statement statement = rs.getStatement();
+      if (statement != null) {
+        statement.cancel();
+      }
+    } catch (SQLException e) {
+      log.debug("Error cancelling statement.  Cause: " + e);
+    }
+  }
+
   private void closeResultSet(ResultSet rs) {
     try {
       if (rs != null) {
@@ -106,8 +166,23 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     }
   }
 
-  /** 处理行记录 */
-  private void handleRowValuesForSimpleResultMap(
+  /** 处理行记录，供游标逐行读取使用 */
+  public void handleRowValues(
+      ResultSetWrapper rsw,
+      ResultMap resultMap,
+      ResultHandler resultHandler,
+      RowBounds rowBounds,
+      ResultMapping parentMapping)
+      throws SQLException {
+    handleRowValuesForSimpleResultMap(rsw, resultMap, resultHandler, rowBounds, parentMapping);
+  }
+
+  /**
+   * 处理行记录
+   *
+   * @return 结果处理器是否通过 {@link ResultContext#stop()} 提前停止
+   */
+  private boolean handleRowValuesForSimpleResultMap(
       ResultSetWrapper rsw,
       ResultMap resultMap,
       ResultHandler resultHandler,
@@ -116,10 +191,32 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       throws SQLException {
     DefaultResultContext resultContext = new DefaultResultContext();
     ResultSet resultSet = rsw.getResultSet();
-    while (resultContext.getResultCount() < rowBounds.getLimit() && resultSet.next()) {
+    skipRows(resultSet, rowBounds);
+    while (shouldProcessMoreRows(resultContext, rowBounds) && resultSet.next()) {
       Object rowValue = getRowValue(rsw, resultMap);
       callResultHandler(resultHandler, resultContext, rowValue);
     }
+    return resultContext.isStopped();
+  }
+
+  /** 跳过 offset 之前的行：可滚动结果集直接定位，否则逐行跳过 */
+  private void skipRows(ResultSet rs, RowBounds rowBounds) throws SQLException {
+    if (rowBounds.getOffset() == RowBounds.NO_ROW_OFFSET) {
+      return;
+    }
+    if (rs.getType() != ResultSet.TYPE_FORWARD_ONLY) {
+      rs.absolute(rowBounds.getOffset());
+    } else {
+      for (int i = 0; i < rowBounds.getOffset(); i++) {
+        if (!rs.next()) {
+          break;
+        }
+      }
+    }
+  }
+
+  private boolean shouldProcessMoreRows(DefaultResultContext context, RowBounds rowBounds) {
+    return !context.isStopped() && context.getResultCount() < rowBounds.getLimit();
   }
 
   /**
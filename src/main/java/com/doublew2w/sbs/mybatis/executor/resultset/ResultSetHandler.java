@@ -1,5 +1,6 @@
 package com.doublew2w.sbs.mybatis.executor.resultset;
 
+import com.doublew2w.sbs.mybatis.cursor.Cursor;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.List;
@@ -21,4 +22,14 @@ public interface ResultSetHandler {
    * @throws SQLException SQL异常
    */
   <E> List<E> handleResultSets(Statement stmt) throws SQLException;
+
+  /**
+   * 以游标的方式处理结果集，逐行映射
+   *
+   * @param stmt 执行SQL语句的语句对象
+   * @return 游标
+   * @param <E> 结果类型
+   * @throws SQLException SQL异常
+   */
+  <E> Cursor<E> handleCursorResultSets(Statement stmt) throws SQLException;
 }
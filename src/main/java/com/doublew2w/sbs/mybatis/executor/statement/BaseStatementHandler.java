@@ -1,11 +1,14 @@
 package com.doublew2w.sbs.mybatis.executor.statement;
 
+import com.doublew2w.sbs.mybatis.datasource.routing.RoutingConnection;
 import com.doublew2w.sbs.mybatis.executor.Executor;
 import com.doublew2w.sbs.mybatis.executor.keygen.KeyGenerator;
+import com.doublew2w.sbs.mybatis.executor.keygen.SelectKeyGenerator;
 import com.doublew2w.sbs.mybatis.executor.parameter.ParameterHandler;
 import com.doublew2w.sbs.mybatis.executor.resultset.ResultSetHandler;
 import com.doublew2w.sbs.mybatis.mapping.BoundSql;
 import com.doublew2w.sbs.mybatis.mapping.MappedStatement;
+import com.doublew2w.sbs.mybatis.mapping.SqlCommandType;
 import com.doublew2w.sbs.mybatis.session.Configuration;
 import com.doublew2w.sbs.mybatis.session.ResultHandler;
 import com.doublew2w.sbs.mybatis.session.RowBounds;
@@ -44,6 +47,12 @@ public abstract class BaseStatementHandler implements StatementHandler {
 
   protected final RowBounds rowBounds;
 
+  /** 语句复用，由可重用执行器设置；为空时每次都预编译 */
+  protected StatementReuse statementReuse;
+
+  /** 本次使用的是复用的语句：上一次设置的超时、fetchSize、maxRows 仍然生效，未配置时要重置为驱动默认值 */
+  protected boolean reusedStatement;
+
   public BaseStatementHandler(
       Executor executor,
       MappedStatement mappedStatement,
@@ -76,21 +85,92 @@ public abstract class BaseStatementHandler implements StatementHandler {
     return boundSql;
   }
 
+  public void setStatementReuse(StatementReuse statementReuse) {
+    this.statementReuse = statementReuse;
+  }
+
   @Override
   public Statement prepare(Connection connection) throws SQLException {
     Statement statement = null;
     try {
-      // 实例化 Statement
-      statement = instantiateStatement(connection);
-      // 参数设置，可以被抽取，提供配置
-      statement.setQueryTimeout(350);
-      statement.setFetchSize(10000);
+      // 读写分离：声明语句类型，路由连接据此选择主库或从库
+      RoutingConnection.route(connection, routingCommandType());
+      // 实例化 Statement：插件已改写SQL，按最终SQL复用
+      String sql = boundSql.getSql();
+      statement = statementReuse == null ? null : statementReuse.get(connection, sql);
+      reusedStatement = statement != null;
+      if (statement == null) {
+        statement = instantiateStatement(connection);
+        if (statementReuse != null) {
+          statementReuse.put(connection, sql, statement);
+        }
+      }
+      setStatementTimeout(statement);
+      setFetchSize(statement);
+      setMaxRows(statement);
       return statement;
     } catch (Exception e) {
       throw new RuntimeException("Error preparing statement.  Cause: " + e, e);
     }
   }
 
+  /** selectKey 查询属于插入的一部分（如序列取值），按写操作路由到主库 */
+  private SqlCommandType routingCommandType() {
+    if (mappedStatement.getId().endsWith(SelectKeyGenerator.SELECT_KEY_SUFFIX)) {
+      return SqlCommandType.INSERT;
+    }
+    return mappedStatement.getSqlCommandType();
+  }
+
+  /** 超时：语句配置优先，其次全局 defaultStatementTimeout */
+  protected void setStatementTimeout(Statement statement) throws SQLException {
+    Integer timeout = mappedStatement.getTimeout();
+    if (timeout == null) {
+      timeout = configuration.getDefaultStatementTimeout();
+    }
+    if (timeout != null) {
+      statement.setQueryTimeout(timeout);
+    } else if (reusedStatement) {
+      statement.setQueryTimeout(0);
+    }
+  }
+
+  /** fetchSize：语句配置优先，其次按历史行数自适应，最后是全局 defaultFetchSize */
+  protected void setFetchSize(Statement statement) throws SQLException {
+    Integer fetchSize = mappedStatement.getFetchSize();
+    if (fetchSize == null && configuration.isAdaptiveFetchSize()) {
+      fetchSize =
+          mappedStatement
+              .getStatistics()
+              .suggestFetchSize(configuration.getAdaptiveMaxFetchSize());
+    }
+    if (fetchSize == null) {
+      fetchSize = configuration.getDefaultFetchSize();
+    }
+    if (fetchSize != null) {
+      statement.setFetchSize(fetchSize);
+    } else if (reusedStatement) {
+      statement.setFetchSize(0);
+    }
+  }
+
+  /** 未在服务端分页时，通过 maxRows 限制驱动最多返回 offset + limit 行，与语句配置的 maxRows 取较小值 */
+  protected void setMaxRows(Statement statement) throws SQLException {
+    long maxRows = Long.MAX_VALUE;
+    if (rowBounds != null && rowBounds.getLimit() != RowBounds.NO_ROW_LIMIT) {
+      maxRows = (long) rowBounds.getOffset() + rowBounds.getLimit();
+    }
+    if (mappedStatement.getMaxRows() != null && mappedStatement.getMaxRows() > 0) {
+      maxRows = Math.min(maxRows, mappedStatement.getMaxRows());
+    }
+    if (maxRows < Integer.MAX_VALUE) {
+      statement.setMaxRows((int) maxRows);
+    } else if (reusedStatement) {
+      // 0 表示不限制，避免沿用上一次 selectOne 等设置的行数上限
+      statement.setMaxRows(0);
+    }
+  }
+
   protected void generateKeys(Object parameter) {
     KeyGenerator keyGenerator = mappedStatement.getKeyGenerator();
     keyGenerator.processBefore(executor, mappedStatement, null, parameter);
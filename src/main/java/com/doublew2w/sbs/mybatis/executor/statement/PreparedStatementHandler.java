@@ -1,6 +1,8 @@
 package com.doublew2w.sbs.mybatis.executor.statement;
 
+import com.doublew2w.sbs.mybatis.cursor.Cursor;
 import com.doublew2w.sbs.mybatis.executor.Executor;
+import com.doublew2w.sbs.mybatis.executor.keygen.Jdbc3KeyGenerator;
 import com.doublew2w.sbs.mybatis.executor.keygen.KeyGenerator;
 import com.doublew2w.sbs.mybatis.mapping.BoundSql;
 import com.doublew2w.sbs.mybatis.mapping.MappedStatement;
@@ -8,6 +10,7 @@ import com.doublew2w.sbs.mybatis.session.ResultHandler;
 import com.doublew2w.sbs.mybatis.session.RowBounds;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.List;
@@ -36,15 +39,42 @@ public class PreparedStatementHandler extends BaseStatementHandler {
   @Override
   protected Statement instantiateStatement(Connection connection) throws SQLException {
     String sql = boundSql.getSql();
+    if (mappedStatement.getKeyGenerator() instanceof Jdbc3KeyGenerator) {
+      String[] keyColumnNames = mappedStatement.getKeyColumns();
+      if (keyColumnNames == null) {
+        return connection.prepareStatement(sql, PreparedStatement.RETURN_GENERATED_KEYS);
+      } else {
+        return connection.prepareStatement(sql, keyColumnNames);
+      }
+    }
+    if (rowBounds != null
+        && rowBounds.getOffset() != RowBounds.NO_ROW_OFFSET
+        && !isStreaming()) {
+      // 需要在客户端跳过行时使用可滚动结果集，以便 ResultSet.absolute() 直接定位
+      return connection.prepareStatement(
+          sql, ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+    }
     return connection.prepareStatement(sql);
   }
 
+  /** MySQL 流式读取（fetchSize = Integer.MIN_VALUE）要求只进结果集 */
+  private boolean isStreaming() {
+    Integer fetchSize = mappedStatement.getFetchSize();
+    return fetchSize != null && fetchSize == Integer.MIN_VALUE;
+  }
+
   @Override
   public void parameterize(Statement statement) throws SQLException {
     PreparedStatement ps = (PreparedStatement) statement;
     parameterHandler.setParameters(ps);
   }
 
+  @Override
+  public void batch(Statement statement) throws SQLException {
+    PreparedStatement ps = (PreparedStatement) statement;
+    ps.addBatch();
+  }
+
   @Override
   public <E> List<E> query(Statement statement, ResultHandler resultHandler) throws SQLException {
     PreparedStatement ps = (PreparedStatement) statement;
@@ -52,6 +82,13 @@ public class PreparedStatementHandler extends BaseStatementHandler {
     return resultSetHandler.<E>handleResultSets(ps);
   }
 
+  @Override
+  public <E> Cursor<E> queryCursor(Statement statement) throws SQLException {
+    PreparedStatement ps = (PreparedStatement) statement;
+    ps.execute();
+    return resultSetHandler.handleCursorResultSets(ps);
+  }
+
   @Override
   public int update(Statement statement) throws SQLException {
     PreparedStatement ps = (PreparedStatement) statement;
@@ -1,5 +1,6 @@
 package com.doublew2w.sbs.mybatis.executor.statement;
 
+import com.doublew2w.sbs.mybatis.cursor.Cursor;
 import com.doublew2w.sbs.mybatis.executor.Executor;
 import com.doublew2w.sbs.mybatis.executor.keygen.Jdbc3KeyGenerator;
 import com.doublew2w.sbs.mybatis.executor.keygen.KeyGenerator;
@@ -65,10 +66,23 @@ public class SimpleStatementHandler extends BaseStatementHandler {
     return rows;
   }
 
+  @Override
+  public void batch(Statement statement) throws SQLException {
+    String sql = boundSql.getSql();
+    statement.addBatch(sql);
+  }
+
   @Override
   public <E> List<E> query(Statement statement, ResultHandler resultHandler) throws SQLException {
     String sql = boundSql.getSql();
     statement.execute(sql);
     return resultSetHandler.handleResultSets(statement);
   }
+
+  @Override
+  public <E> Cursor<E> queryCursor(Statement statement) throws SQLException {
+    String sql = boundSql.getSql();
+    statement.execute(sql);
+    return resultSetHandler.handleCursorResultSets(statement);
+  }
 }
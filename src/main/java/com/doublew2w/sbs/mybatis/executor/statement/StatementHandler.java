@@ -1,5 +1,6 @@
 package com.doublew2w.sbs.mybatis.executor.statement;
 
+import com.doublew2w.sbs.mybatis.cursor.Cursor;
 import com.doublew2w.sbs.mybatis.mapping.BoundSql;
 import com.doublew2w.sbs.mybatis.session.ResultHandler;
 import java.sql.Connection;
@@ -24,9 +25,15 @@ public interface StatementHandler {
   /** 执行查询 */
   <E> List<E> query(Statement statement, ResultHandler resultHandler) throws SQLException;
 
+  /** 执行查询，返回游标 */
+  <E> Cursor<E> queryCursor(Statement statement) throws SQLException;
+
   /** 执行更新 */
   int update(Statement statement) throws SQLException;
 
+  /** 加入批处理 */
+  void batch(Statement statement) throws SQLException;
+
   /** 获取绑定SQL */
   BoundSql getBoundSql();
 }
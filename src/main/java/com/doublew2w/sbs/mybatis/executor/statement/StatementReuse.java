@@ -0,0 +1,28 @@
+package com.doublew2w.sbs.mybatis.executor.statement;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * 语句复用：由执行器提供给语句处理器
+ *
+ * <p>语句处理器在插件改写SQL（分页、分片）之后、预编译之前按最终的连接和SQL查找，查找和登记使用同一个键。
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/18 18:10
+ * @project: sbs-mybatis
+ */
+public interface StatementReuse {
+  /**
+   * 查找可复用的语句
+   *
+   * @param connection 预编译使用的连接，分片插件可能已切换到分片连接
+   * @param sql 最终执行的SQL
+   * @return 已重置参数的语句，没有可复用的语句时返回 null
+   */
+  Statement get(Connection connection, String sql) throws SQLException;
+
+  /** 登记新预编译的语句 */
+  void put(Connection connection, String sql, Statement statement);
+}
@@ -0,0 +1,270 @@
+package com.doublew2w.sbs.mybatis.mapping;
+
+import com.doublew2w.sbs.mybatis.session.Configuration;
+import com.doublew2w.sbs.mybatis.session.KeyRange;
+import com.doublew2w.sbs.mybatis.session.Page;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 键集分页 SQL 构建：在绑定SQL上追加定位条件和排序
+ *
+ * <p>定位条件 {@code WHERE/AND col > ?} 插入到 GROUP BY/HAVING/ORDER BY/LIMIT 等尾部子句之前，让数据库沿索引定位；原有的 ORDER BY
+ * 替换为按键排序。只有 UNION 查询包成派生表后再定位，派生表外按去掉表限定的列名引用。
+ *
+ * <p>键范围（{@link KeyRange}）的条件插入到尾部子句之前，保留原有的排序。
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/18 3:10
+ * @project: sbs-mybatis
+ */
+class KeysetSqlBuilder {
+  /** 定位键在附加参数中的名称 */
+  static final String KEYSET_PARAMETER = "_keyset";
+
+  /** 范围上下界在附加参数中的名称 */
+  static final String RANGE_FROM_PARAMETER = "_range_from";
+
+  static final String RANGE_TO_PARAMETER = "_range_to";
+
+  /** 范围条件插入在这些子句之前 */
+  private static final String[] FILTER_TAIL_CLAUSES = {
+    "GROUP BY", "HAVING", "ORDER BY", "LIMIT", "OFFSET", "FETCH", "FOR UPDATE"
+  };
+
+  /** 排在 ORDER BY 之后的子句 */
+  private static final String[] LIMIT_CLAUSES = {"LIMIT", "OFFSET", "FETCH", "FOR UPDATE"};
+
+  private KeysetSqlBuilder() {}
+
+  static BoundSql build(
+      Configuration configuration, BoundSql boundSql, String column, Page<?> page) {
+    String sql = trim(boundSql.getSql());
+    String upper = sql.toUpperCase(Locale.ENGLISH);
+    List<ParameterMapping> parameterMappings = new ArrayList<>(boundSql.getParameterMappings());
+    ParameterMapping keyMapping =
+        page.isFirst()
+            ? null
+            : new ParameterMapping.Builder(
+                    configuration, KEYSET_PARAMETER, page.getKey().getClass())
+                .build();
+    String seekSql;
+    if (indexOfTopLevel(upper, new String[] {"UNION"}) >= 0) {
+      // UNION 无法把条件推入各分支，包成派生表；派生表外只能按输出列名引用
+      String outerColumn = column.substring(column.lastIndexOf('.') + 1);
+      seekSql = "SELECT * FROM (" + sql + ") tmp_keyset";
+      if (keyMapping != null) {
+        seekSql += " WHERE " + outerColumn + " " + page.getDirection().getOperator() + " ?";
+        parameterMappings.add(keyMapping);
+      }
+      seekSql += " ORDER BY " + outerColumn + " " + page.getDirection();
+    } else {
+      // 定位条件插入 WHERE，原有排序替换为按键排序，GROUP BY/HAVING 和 LIMIT 等保留在原位置
+      String head = sql;
+      String grouping = "";
+      String orderBy = "";
+      String limit = "";
+      int tailStart = indexOfTopLevel(upper, FILTER_TAIL_CLAUSES);
+      if (tailStart >= 0) {
+        head = sql.substring(0, tailStart).trim();
+        String tail = sql.substring(tailStart);
+        String upperTail = upper.substring(tailStart);
+        int orderStart = indexOfTopLevel(upperTail, new String[] {"ORDER BY"});
+        int limitStart = indexOfTopLevel(upperTail, LIMIT_CLAUSES);
+        int orderEnd = limitStart >= 0 ? limitStart : tail.length();
+        int groupingEnd = orderStart >= 0 ? orderStart : orderEnd;
+        grouping = tail.substring(0, groupingEnd).trim();
+        if (orderStart >= 0) {
+          orderBy = tail.substring(orderStart, Math.max(orderStart, orderEnd));
+        }
+        if (limitStart >= 0) {
+          limit = tail.substring(limitStart).trim();
+        }
+      }
+      int headPlaceholders = countPlaceholders(head);
+      // 去掉原有排序中的占位符对应的参数
+      int orderByPlaceholders = countPlaceholders(orderBy);
+      if (orderByPlaceholders > 0) {
+        int from = headPlaceholders + countPlaceholders(grouping);
+        parameterMappings.subList(from, from + orderByPlaceholders).clear();
+      }
+      if (keyMapping != null) {
+        head = appendCondition(head, column + " " + page.getDirection().getOperator() + " ?");
+        parameterMappings.add(headPlaceholders, keyMapping);
+      }
+      StringBuilder builder = new StringBuilder(head);
+      if (!grouping.isEmpty()) {
+        builder.append(' ').append(grouping);
+      }
+      builder.append(" ORDER BY ").append(column).append(' ').append(page.getDirection());
+      if (!limit.isEmpty()) {
+        builder.append(' ').append(limit);
+      }
+      seekSql = builder.toString();
+    }
+
+    BoundSql seekBoundSql = copyOf(configuration, boundSql, seekSql, parameterMappings);
+    if (keyMapping != null) {
+      seekBoundSql.setAdditionalParameter(KEYSET_PARAMETER, page.getKey());
+    }
+    return seekBoundSql;
+  }
+
+  static BoundSql buildRange(Configuration configuration, BoundSql boundSql, KeyRange range) {
+    List<String> conditions = new ArrayList<>(2);
+    List<ParameterMapping> rangeMappings = new ArrayList<>(2);
+    if (range.getFrom() != null) {
+      conditions.add(range.getColumn() + " >= ?");
+      rangeMappings.add(
+          new ParameterMapping.Builder(
+                  configuration, RANGE_FROM_PARAMETER, range.getFrom().getClass())
+              .build());
+    }
+    if (range.getTo() != null) {
+      conditions.add(range.getColumn() + " < ?");
+      rangeMappings.add(
+          new ParameterMapping.Builder(configuration, RANGE_TO_PARAMETER, range.getTo().getClass())
+              .build());
+    }
+    if (conditions.isEmpty()) {
+      return boundSql;
+    }
+    String sql = trim(boundSql.getSql());
+    String upper = sql.toUpperCase(Locale.ENGLISH);
+    String head = sql;
+    String tail = "";
+    if (indexOfTopLevel(upper, new String[] {"UNION"}) >= 0) {
+      head = "SELECT * FROM (" + sql + ") tmp_range";
+    } else {
+      int tailStart = indexOfTopLevel(upper, FILTER_TAIL_CLAUSES);
+      if (tailStart >= 0) {
+        head = sql.substring(0, tailStart).trim();
+        tail = " " + sql.substring(tailStart);
+      }
+    }
+    String rangeSql = appendCondition(head, String.join(" AND ", conditions)) + tail;
+    // 范围条件的占位符位于尾部子句（如 LIMIT ?）的占位符之前
+    List<ParameterMapping> parameterMappings = new ArrayList<>(boundSql.getParameterMappings());
+    parameterMappings.addAll(countPlaceholders(head), rangeMappings);
+
+    BoundSql rangeBoundSql = copyOf(configuration, boundSql, rangeSql, parameterMappings);
+    if (range.getFrom() != null) {
+      rangeBoundSql.setAdditionalParameter(RANGE_FROM_PARAMETER, range.getFrom());
+    }
+    if (range.getTo() != null) {
+      rangeBoundSql.setAdditionalParameter(RANGE_TO_PARAMETER, range.getTo());
+    }
+    return rangeBoundSql;
+  }
+
+  /** 在没有尾部子句的 SQL 上追加条件，原条件加括号，避免 OR 的优先级问题 */
+  private static String appendCondition(String sql, String predicate) {
+    int where = indexOfTopLevel(sql.toUpperCase(Locale.ENGLISH), new String[] {"WHERE"});
+    if (where < 0) {
+      return sql + " WHERE " + predicate;
+    }
+    int conditionStart = where + "WHERE".length();
+    return sql.substring(0, conditionStart)
+        + " ("
+        + sql.substring(conditionStart).trim()
+        + ") AND "
+        + predicate;
+  }
+
+  private static BoundSql copyOf(
+      Configuration configuration,
+      BoundSql boundSql,
+      String sql,
+      List<ParameterMapping> parameterMappings) {
+    BoundSql copy =
+        new BoundSql(configuration, sql, parameterMappings, boundSql.getParameterObject());
+    for (Map.Entry<String, Object> entry : boundSql.getAdditionalParameters().entrySet()) {
+      copy.setAdditionalParameter(entry.getKey(), entry.getValue());
+    }
+    return copy;
+  }
+
+  /** 引号之外的占位符数量 */
+  private static int countPlaceholders(String sql) {
+    int count = 0;
+    char quote = 0;
+    for (int i = 0; i < sql.length(); i++) {
+      char c = sql.charAt(i);
+      if (quote != 0) {
+        if (c == quote) {
+          quote = 0;
+        }
+      } else if (c == '\'' || c == '"' || c == '`') {
+        quote = c;
+      } else if (c == '?') {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private static String trim(String sql) {
+    String trimmed = sql.trim();
+    while (trimmed.endsWith(";")) {
+      trimmed = trimmed.substring(0, trimmed.length() - 1).trim();
+    }
+    return trimmed;
+  }
+
+  /** 查找括号和引号之外、按单词边界出现的关键字，返回第一个命中的位置，找不到返回 -1 */
+  static int indexOfTopLevel(String upperSql, String[] keywords) {
+    int depth = 0;
+    char quote = 0;
+    for (int i = 0; i < upperSql.length(); i++) {
+      char c = upperSql.charAt(i);
+      if (quote != 0) {
+        if (c == quote) {
+          quote = 0;
+        }
+        continue;
+      }
+      if (c == '\'' || c == '"' || c == '`') {
+        quote = c;
+      } else if (c == '(') {
+        depth++;
+      } else if (c == ')') {
+        depth--;
+      } else if (depth == 0 && (i == 0 || !isIdentifierPart(upperSql.charAt(i - 1)))) {
+        for (String keyword : keywords) {
+          if (matchesAt(upperSql, i, keyword)) {
+            return i;
+          }
+        }
+      }
+    }
+    return -1;
+  }
+
+  /** 关键字中的空格匹配任意空白 */
+  private static boolean matchesAt(String upperSql, int start, String keyword) {
+    int i = start;
+    for (int k = 0; k < keyword.length(); k++) {
+      char expected = keyword.charAt(k);
+      if (expected == ' ') {
+        if (i >= upperSql.length() || !Character.isWhitespace(upperSql.charAt(i))) {
+          return false;
+        }
+        while (i < upperSql.length() && Character.isWhitespace(upperSql.charAt(i))) {
+          i++;
+        }
+      } else {
+        if (i >= upperSql.length() || upperSql.charAt(i) != expected) {
+          return false;
+        }
+        i++;
+      }
+    }
+    return i == upperSql.length() || !isIdentifierPart(upperSql.charAt(i));
+  }
+
+  private static boolean isIdentifierPart(char c) {
+    return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+  }
+}
@@ -6,6 +6,9 @@ import com.doublew2w.sbs.mybatis.executor.keygen.KeyGenerator;
 import com.doublew2w.sbs.mybatis.executor.keygen.NoKeyGenerator;
 import com.doublew2w.sbs.mybatis.scripting.LanguageDriver;
 import com.doublew2w.sbs.mybatis.session.Configuration;
+import com.doublew2w.sbs.mybatis.session.KeyRange;
+import com.doublew2w.sbs.mybatis.session.Page;
+import com.doublew2w.sbs.mybatis.session.RowBounds;
 import java.util.List;
 import lombok.Getter;
 import lombok.Setter;
@@ -57,6 +60,27 @@ public class MappedStatement {
   private Cache cache;
   private boolean useCache;
 
+  /** 驱动每次批量返回的行数，null 表示使用默认值；MySQL 流式读取使用 Integer.MIN_VALUE */
+  private Integer fetchSize;
+
+  /** 语句超时秒数，null 表示使用全局 defaultStatementTimeout */
+  private Integer timeout;
+
+  /** 驱动最多返回的行数，null 表示不限制 */
+  private Integer maxRows;
+
+  /** 返回行数统计，开启 adaptiveFetchSize 时使用 */
+  private final StatementStatistics statistics = new StatementStatistics();
+
+  /** 键集分页的排序列，为 null 时不支持 Page 参数 */
+  private String keysetColumn;
+
+  /** 键集分页时从结果对象上读取下一页起点的属性 */
+  private String keysetProperty;
+
+  /** 借用连接时使用的连接池通道，null 表示使用会话或线程上指定的通道 */
+  private String lane;
+
   MappedStatement() {}
 
   public BoundSql getBoundSql(Object parameterObject) {
@@ -64,6 +88,24 @@ public class MappedStatement {
     return sqlSource.getBoundSql(parameterObject);
   }
 
+  /**
+   * 获取绑定SQL，分页参数是 {@link Page} 时追加键集定位条件和排序，是 {@link KeyRange} 时追加范围条件
+   */
+  public BoundSql getBoundSql(Object parameterObject, RowBounds rowBounds) {
+    BoundSql boundSql = getBoundSql(parameterObject);
+    if (rowBounds instanceof Page) {
+      if (keysetColumn == null) {
+        throw new RuntimeException(
+            "Mapped statement '" + id + "' does not declare a keysetColumn for Page parameters");
+      }
+      return KeysetSqlBuilder.build(configuration, boundSql, keysetColumn, (Page<?>) rowBounds);
+    }
+    if (rowBounds instanceof KeyRange) {
+      return KeysetSqlBuilder.buildRange(configuration, boundSql, (KeyRange) rowBounds);
+    }
+    return boundSql;
+  }
+
   /** 建造者 */
   public static class Builder {
 
@@ -131,6 +173,32 @@ public class MappedStatement {
       return this;
     }
 
+    public Builder fetchSize(Integer fetchSize) {
+      mappedStatement.fetchSize = fetchSize;
+      return this;
+    }
+
+    public Builder timeout(Integer timeout) {
+      mappedStatement.timeout = timeout;
+      return this;
+    }
+
+    public Builder maxRows(Integer maxRows) {
+      mappedStatement.maxRows = maxRows;
+      return this;
+    }
+
+    public Builder keyset(String keysetColumn, String keysetProperty) {
+      mappedStatement.keysetColumn = keysetColumn;
+      mappedStatement.keysetProperty = keysetProperty == null ? keysetColumn : keysetProperty;
+      return this;
+    }
+
+    public Builder lane(String lane) {
+      mappedStatement.lane = lane;
+      return this;
+    }
+
     public MappedStatement build() {
       assert mappedStatement.configuration != null;
       assert mappedStatement.id != null;
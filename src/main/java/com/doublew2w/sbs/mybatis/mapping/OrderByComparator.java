@@ -0,0 +1,133 @@
+package com.doublew2w.sbs.mybatis.mapping;
+
+import com.doublew2w.sbs.mybatis.reflection.MetaClass;
+import com.doublew2w.sbs.mybatis.session.Configuration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 按 SQL 顶层 ORDER BY 生成结果行的比较器，用于在内存中合并多个各自有序的结果
+ *
+ * <p>只支持按列排序（可带表别名和 ASC/DESC），列通过结果映射或驼峰规则对应到结果对象的属性；NULL 视为最小值，与 MySQL 一致。
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/18 9:30
+ * @project: sbs-mybatis
+ */
+public class OrderByComparator {
+  private static final String[] ORDER_BY = {"ORDER BY"};
+  private static final String[] ORDER_BY_END = {"LIMIT", "OFFSET", "FETCH", "FOR UPDATE"};
+
+  private OrderByComparator() {}
+
+  /**
+   * 生成比较器
+   *
+   * @param ms 映射语句
+   * @param boundSql 子查询的绑定SQL
+   * @return 比较器，SQL 没有顶层 ORDER BY 时返回 null
+   * @throws IllegalArgumentException ORDER BY 含表达式等无法在内存中比较的项
+   */
+  public static Comparator<Object> of(MappedStatement ms, BoundSql boundSql) {
+    String sql = boundSql.getSql();
+    String upper = sql.toUpperCase(Locale.ENGLISH);
+    int orderBy = KeysetSqlBuilder.indexOfTopLevel(upper, ORDER_BY);
+    if (orderBy < 0) {
+      return null;
+    }
+    int start = upper.indexOf("BY", orderBy) + 2;
+    int end = KeysetSqlBuilder.indexOfTopLevel(upper.substring(start), ORDER_BY_END);
+    String clause = end < 0 ? sql.substring(start) : sql.substring(start, start + end);
+
+    Configuration configuration = ms.getConfiguration();
+    ResultMap resultMap = ms.getResultMaps().get(0);
+    Comparator<Object> comparator = null;
+    for (String item : splitTopLevel(clause.trim())) {
+      String[] tokens = item.trim().split("\\s+");
+      if (tokens.length > 2 || !tokens[0].matches("[\\w$.`\"]+")) {
+        throw new IllegalArgumentException(
+            "Cannot merge rows ordered by '"
+                + item.trim()
+                + "' of "
+                + ms.getId()
+                + ", specify a comparator");
+      }
+      boolean descending = tokens.length == 2 && "DESC".equalsIgnoreCase(tokens[1]);
+      String column =
+          tokens[0].substring(tokens[0].lastIndexOf('.') + 1).replaceAll("[`\"]", "");
+      Comparator<Object> next = column(configuration, resultMap, column, ms.getId());
+      next = descending ? next.reversed() : next;
+      comparator = comparator == null ? next : comparator.thenComparing(next);
+    }
+    return comparator;
+  }
+
+  private static Comparator<Object> column(
+      Configuration configuration, ResultMap resultMap, String column, String statementId) {
+    Class<?> type = resultMap.getType();
+    if (configuration.getTypeHandlerRegistry().hasTypeHandler(type)) {
+      // 单列结果，行本身即排序值
+      return (a, b) -> compareValues(a, b);
+    }
+    String property = null;
+    if (Map.class.isAssignableFrom(type)) {
+      property = column;
+    } else {
+      for (ResultMapping mapping : resultMap.getResultMappings()) {
+        if (column.equalsIgnoreCase(mapping.getColumn())) {
+          property = mapping.getProperty();
+          break;
+        }
+      }
+      if (property == null) {
+        property = MetaClass.forClass(type).findProperty(column, true);
+      }
+    }
+    if (property == null) {
+      throw new IllegalArgumentException(
+          "Cannot map ORDER BY column '" + column + "' of " + statementId + " to a property");
+    }
+    String name = property;
+    return (a, b) ->
+        compareValues(
+            configuration.newMetaObject(a).getValue(name),
+            configuration.newMetaObject(b).getValue(name));
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static int compareValues(Object a, Object b) {
+    if (a == b) {
+      return 0;
+    }
+    if (a == null) {
+      return -1;
+    }
+    if (b == null) {
+      return 1;
+    }
+    return ((Comparable) a).compareTo(b);
+  }
+
+  /** 按括号外的逗号切分 */
+  private static List<String> splitTopLevel(String clause) {
+    List<String> items = new ArrayList<>();
+    int depth = 0;
+    int last = 0;
+    for (int i = 0; i < clause.length(); i++) {
+      char c = clause.charAt(i);
+      if (c == '(') {
+        depth++;
+      } else if (c == ')') {
+        depth--;
+      } else if (c == ',' && depth == 0) {
+        items.add(clause.substring(last, i));
+        last = i + 1;
+      }
+    }
+    items.add(clause.substring(last));
+    return items;
+  }
+}
@@ -0,0 +1,73 @@
+package com.doublew2w.sbs.mybatis.mapping;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * 映射语句的返回行数统计，用于自适应 fetchSize 和结果列表预分配
+ *
+ * <p>行数取指数加权移动平均，近期的查询权重更高；同时记录衰减的近期最大值，避免偶尔的大结果集被平均值低估。
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/18 5:40
+ * @project: sbs-mybatis
+ */
+public class StatementStatistics {
+  /** 移动平均的权重 */
+  private static final double ALPHA = 0.2;
+
+  /** 近期最大值每次查询的衰减比例 */
+  private static final double MAX_DECAY = 0.95;
+
+  /** 还没有样本，double 的 NaN 位模式 */
+  private static final long NO_VALUE = Double.doubleToRawLongBits(Double.NaN);
+
+  /** 样本数 */
+  private final AtomicLong samples = new AtomicLong();
+
+  /** 行数的移动平均，存放 double 的位模式，CAS 更新 */
+  private final AtomicLong averageRows = new AtomicLong(NO_VALUE);
+
+  /** 衰减的近期最大行数，存放 double 的位模式，CAS 更新 */
+  private final AtomicLong recentMaxRows = new AtomicLong(NO_VALUE);
+
+  /** 记录一次查询返回的行数，每次查询结束都会调用，不加锁 */
+  public void record(int rows) {
+    update(averageRows, old -> Double.isNaN(old) ? rows : old + ALPHA * (rows - old));
+    update(recentMaxRows, old -> Double.isNaN(old) ? rows : Math.max(rows, old * MAX_DECAY));
+    // 先更新统计值再计数，样本数大于 0 时统计值一定已经有值
+    samples.incrementAndGet();
+  }
+
+  public long getSamples() {
+    return samples.get();
+  }
+
+  /** 典型行数：移动平均与近期最大值的折中，向上取整 */
+  public int getTypicalRows() {
+    double average = Double.longBitsToDouble(averageRows.get());
+    double recentMax = Double.longBitsToDouble(recentMaxRows.get());
+    if (Double.isNaN(average) || Double.isNaN(recentMax)) {
+      return 0;
+    }
+    return (int) Math.ceil((average + recentMax) / 2);
+  }
+
+  /**
+   * 建议的 fetchSize：典型行数多留一行，让驱动一次往返就能确认结果集结束
+   *
+   * @param maxFetchSize 上限，防止大结果集一次拉取过多行占用内存
+   * @return 没有样本时返回 null
+   */
+  public Integer suggestFetchSize(int maxFetchSize) {
+    if (samples.get() == 0) {
+      return null;
+    }
+    return Math.max(1, Math.min(maxFetchSize, getTypicalRows() + 1));
+  }
+
+  private static void update(AtomicLong value, DoubleUnaryOperator function) {
+    value.updateAndGet(
+        bits -> Double.doubleToRawLongBits(function.applyAsDouble(Double.longBitsToDouble(bits))));
+  }
+}
@@ -55,6 +55,20 @@ public class Plugin implements InvocationHandler {
     return target;
   }
 
+  /**
+   * 剥离插件代理，获取最内层的真实对象
+   *
+   * @param target 可能被多层插件代理的对象
+   * @return 真实对象
+   */
+  public static Object unwrap(Object target) {
+    while (Proxy.isProxyClass(target.getClass())
+        && Proxy.getInvocationHandler(target) instanceof Plugin) {
+      target = ((Plugin) Proxy.getInvocationHandler(target)).target;
+    }
+    return target;
+  }
+
   @Override
   public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
     try {
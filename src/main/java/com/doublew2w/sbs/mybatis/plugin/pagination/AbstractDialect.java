@@ -0,0 +1,51 @@
+package com.doublew2w.sbs.mybatis.plugin.pagination;
+
+import java.util.Locale;
+
+/**
+ * 方言基类，提供通用的计数SQL
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/18 2:12
+ * @project: sbs-mybatis
+ */
+public abstract class AbstractDialect implements Dialect {
+
+  @Override
+  public String getCountSql(String sql) {
+    return "SELECT COUNT(*) FROM (" + removeOrderBy(sql) + ") tmp_count";
+  }
+
+  /** 通用计数SQL，不依赖具体数据库，无法识别数据库时也可使用 */
+  public static String genericCountSql(String sql) {
+    return "SELECT COUNT(*) FROM (" + stripOrderBy(sql) + ") tmp_count";
+  }
+
+  /** 去掉末尾最外层的 ORDER BY，计数时排序没有意义 */
+  protected String removeOrderBy(String sql) {
+    return stripOrderBy(sql);
+  }
+
+  /** 去掉首尾空白和末尾分号 */
+  protected String trimSql(String sql) {
+    return stripSemicolons(sql);
+  }
+
+  private static String stripOrderBy(String sql) {
+    String trimmed = stripSemicolons(sql);
+    int index = trimmed.toUpperCase(Locale.ENGLISH).lastIndexOf("ORDER BY");
+    // ORDER BY 之后还有括号说明它属于子查询，保持原样
+    if (index > 0 && trimmed.indexOf(')', index) < 0 && trimmed.indexOf('?', index) < 0) {
+      return trimmed.substring(0, index).trim();
+    }
+    return trimmed;
+  }
+
+  private static String stripSemicolons(String sql) {
+    String trimmed = sql.trim();
+    while (trimmed.endsWith(";")) {
+      trimmed = trimmed.substring(0, trimmed.length() - 1).trim();
+    }
+    return trimmed;
+  }
+}
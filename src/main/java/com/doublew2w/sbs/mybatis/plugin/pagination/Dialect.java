@@ -0,0 +1,36 @@
+package com.doublew2w.sbs.mybatis.plugin.pagination;
+
+/**
+ * 分页方言：把普通查询改写为数据库特定的分页SQL和计数SQL
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/18 2:10
+ * @project: sbs-mybatis
+ */
+public interface Dialect {
+
+  /**
+   * 生成分页SQL，跳过的行数和最大行数以占位符 ? 追加在末尾，同一查询的所有页共用一条预编译语句
+   *
+   * @param sql 原始SQL
+   * @return 分页SQL
+   */
+  String getLimitSql(String sql);
+
+  /**
+   * 分页占位符的值
+   *
+   * @param offset 跳过的行数
+   * @param limit 返回的最大行数
+   * @return 与 {@link #getLimitSql(String)} 追加的占位符顺序一致
+   */
+  long[] getLimitParameters(int offset, int limit);
+
+  /**
+   * 生成计数SQL，参数占位符与原始SQL保持一致
+   *
+   * @param sql 原始SQL
+   * @return 计数SQL
+   */
+  String getCountSql(String sql);
+}
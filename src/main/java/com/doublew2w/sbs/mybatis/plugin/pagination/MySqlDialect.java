@@ -0,0 +1,21 @@
+package com.doublew2w.sbs.mybatis.plugin.pagination;
+
+/**
+ * MySQL / MariaDB 方言：LIMIT ?, ?（offset, limit）
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/18 2:15
+ * @project: sbs-mybatis
+ */
+public class MySqlDialect extends AbstractDialect {
+
+  @Override
+  public String getLimitSql(String sql) {
+    return trimSql(sql) + " LIMIT ?, ?";
+  }
+
+  @Override
+  public long[] getLimitParameters(int offset, int limit) {
+    return new long[] {offset, limit};
+  }
+}
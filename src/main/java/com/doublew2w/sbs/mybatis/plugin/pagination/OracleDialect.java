@@ -0,0 +1,21 @@
+package com.doublew2w.sbs.mybatis.plugin.pagination;
+
+/**
+ * Oracle 12c+ 方言：OFFSET ? ROWS FETCH NEXT ? ROWS ONLY（offset, limit）
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/18 2:17
+ * @project: sbs-mybatis
+ */
+public class OracleDialect extends AbstractDialect {
+
+  @Override
+  public String getLimitSql(String sql) {
+    return trimSql(sql) + " OFFSET ? ROWS FETCH NEXT ? ROWS ONLY";
+  }
+
+  @Override
+  public long[] getLimitParameters(int offset, int limit) {
+    return new long[] {offset, limit};
+  }
+}
@@ -0,0 +1,32 @@
+package com.doublew2w.sbs.mybatis.plugin.pagination;
+
+import com.doublew2w.sbs.mybatis.session.RowBounds;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 带总数的分页记录限制
+ *
+ * <p>配合 {@link PaginationInterceptor} 使用，查询结束后可通过 {@link #getTotal()} 获取总记录数
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/18 2:20
+ * @project: sbs-mybatis
+ */
+public class PageRowBounds extends RowBounds {
+
+  /** 是否需要查询总数 */
+  @Getter private final boolean count;
+
+  /** 总记录数，未查询时为 null */
+  @Getter @Setter private Long total;
+
+  public PageRowBounds(int offset, int limit) {
+    this(offset, limit, true);
+  }
+
+  public PageRowBounds(int offset, int limit, boolean count) {
+    super(offset, limit);
+    this.count = count;
+  }
+}
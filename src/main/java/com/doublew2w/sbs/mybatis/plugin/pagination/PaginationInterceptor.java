@@ -0,0 +1,275 @@
+package com.doublew2w.sbs.mybatis.plugin.pagination;
+
+import com.doublew2w.sbs.mybatis.cache.CacheKey;
+import com.doublew2w.sbs.mybatis.executor.Executor;
+import com.doublew2w.sbs.mybatis.executor.parameter.ParameterHandler;
+import com.doublew2w.sbs.mybatis.executor.statement.StatementHandler;
+import com.doublew2w.sbs.mybatis.mapping.BoundSql;
+import com.doublew2w.sbs.mybatis.mapping.MappedStatement;
+import com.doublew2w.sbs.mybatis.mapping.ParameterMapping;
+import com.doublew2w.sbs.mybatis.mapping.SqlCommandType;
+import com.doublew2w.sbs.mybatis.plugin.Interceptor;
+import com.doublew2w.sbs.mybatis.plugin.Intercepts;
+import com.doublew2w.sbs.mybatis.plugin.Invocation;
+import com.doublew2w.sbs.mybatis.plugin.Plugin;
+import com.doublew2w.sbs.mybatis.plugin.Signature;
+import com.doublew2w.sbs.mybatis.reflection.MetaObject;
+import com.doublew2w.sbs.mybatis.reflection.SystemMetaObject;
+import com.doublew2w.sbs.mybatis.session.RowBounds;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 分页插件
+ *
+ * <p>拦截 {@link StatementHandler#prepare(Connection)}，当查询带有 {@link RowBounds} 时把 SQL 改写为方言对应的
+ * LIMIT/OFFSET 分页SQL，并把 RowBounds 重置为默认值，客户端不再逐行跳过。offset 和 limit 以占位符绑定，
+ * 同一查询的所有页共用一条预编译语句。
+ *
+ * <p>传入 {@link PageRowBounds} 时额外执行 COUNT(*) 查询：计数SQL按SQL形态缓存，计数结果按语句和参数缓存一段时间（TTL）。
+ *
+ * <p>无法识别数据库时不改写SQL，由结果集处理器通过 ResultSet.absolute() / next() 在客户端跳过。
+ *
+ * <pre>
+ *   &lt;plugin interceptor="com.doublew2w.sbs.mybatis.plugin.pagination.PaginationInterceptor"&gt;
+ *       &lt;!--可选：mysql/postgresql/oracle 等或 Dialect 实现类全名，不配置则按连接自动识别--&gt;
+ *       &lt;property name="dialect" value="mysql"/&gt;
+ *       &lt;!--计数结果缓存时间（毫秒），0 表示不缓存--&gt;
+ *       &lt;property name="countCacheTtl" value="60000"/&gt;
+ *   &lt;/plugin&gt;
+ * </pre>
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/18 2:25
+ * @project: sbs-mybatis
+ */
+@Slf4j
+@Intercepts({
+  @Signature(
+      type = StatementHandler.class,
+      method = "prepare",
+      args = {Connection.class})
+})
+public class PaginationInterceptor implements Interceptor {
+
+  /** 分页参数在附加参数中的名称前缀 */
+  private static final String PAGE_PARAMETER_PREFIX = "_page_";
+
+  /** 缓存条目上限，超过后先清理过期条目，仍超出则整体清空 */
+  private static final int MAX_CACHE_SIZE = 1024;
+
+  /** 配置的方言，为空时按连接识别 */
+  private Dialect dialect;
+
+  /** 计数结果缓存时间（毫秒） */
+  private long countCacheTtl = 60_000L;
+
+  /** 数据库产品名 -> 方言，无法识别的数据库为空 */
+  private final Map<String, Optional<Dialect>> dialectCache = new ConcurrentHashMap<>();
+
+  /** 原始SQL -> 计数SQL */
+  private final Map<String, String> countSqlCache = new ConcurrentHashMap<>();
+
+  /** 语句+参数 -> 计数结果 */
+  private final Map<CacheKey, CountEntry> countCache = new ConcurrentHashMap<>();
+
+  @Override
+  public Object intercept(Invocation invocation) throws Throwable {
+    StatementHandler statementHandler = (StatementHandler) Plugin.unwrap(invocation.getTarget());
+    MetaObject metaHandler = SystemMetaObject.forObject(statementHandler);
+    MappedStatement ms = (MappedStatement) metaHandler.getValue("mappedStatement");
+    RowBounds rowBounds = (RowBounds) metaHandler.getValue("rowBounds");
+    if (ms.getSqlCommandType() != SqlCommandType.SELECT || !isPaged(rowBounds)) {
+      return invocation.proceed();
+    }
+    Connection connection = (Connection) invocation.getArgs()[0];
+    BoundSql boundSql = statementHandler.getBoundSql();
+    String sql = boundSql.getSql();
+    Optional<Dialect> currentDialect = resolveDialect(connection);
+
+    if (rowBounds instanceof PageRowBounds && ((PageRowBounds) rowBounds).isCount()) {
+      String countSql =
+          cacheGet(
+              countSqlCache,
+              sql,
+              s ->
+                  currentDialect
+                      .map(d -> d.getCountSql(s))
+                      .orElseGet(() -> AbstractDialect.genericCountSql(s)));
+      long total = count(metaHandler, ms, boundSql, connection, countSql);
+      ((PageRowBounds) rowBounds).setTotal(total);
+    }
+
+    if (!currentDialect.isPresent()) {
+      // 无法识别数据库，不改写SQL，交给结果集处理器在客户端跳过
+      return invocation.proceed();
+    }
+    bindLimit(metaHandler, ms, boundSql, currentDialect.get(), rowBounds);
+    // 服务端已分页，客户端不再跳过和截断
+    metaHandler.setValue("rowBounds", RowBounds.DEFAULT);
+    metaHandler.setValue("resultSetHandler.rowBounds", RowBounds.DEFAULT);
+    return invocation.proceed();
+  }
+
+  /** 改写为带占位符的分页SQL，并追加对应的参数映射和附加参数；原参数映射列表可能被共享，复制后再追加 */
+  private void bindLimit(
+      MetaObject metaHandler,
+      MappedStatement ms,
+      BoundSql boundSql,
+      Dialect dialect,
+      RowBounds rowBounds) {
+    long[] values = dialect.getLimitParameters(rowBounds.getOffset(), rowBounds.getLimit());
+    List<ParameterMapping> parameterMappings =
+        new ArrayList<>(boundSql.getParameterMappings().size() + values.length);
+    parameterMappings.addAll(boundSql.getParameterMappings());
+    for (int i = 0; i < values.length; i++) {
+      String name = PAGE_PARAMETER_PREFIX + i;
+      parameterMappings.add(
+          new ParameterMapping.Builder(ms.getConfiguration(), name, Long.class).build());
+      boundSql.setAdditionalParameter(name, values[i]);
+    }
+    metaHandler.setValue("boundSql.sql", dialect.getLimitSql(boundSql.getSql()));
+    metaHandler.setValue("boundSql.parameterMappings", parameterMappings);
+  }
+
+  private boolean isPaged(RowBounds rowBounds) {
+    return rowBounds != null
+        && rowBounds != RowBounds.SELECT_ONE
+        && (rowBounds.getOffset() != RowBounds.NO_ROW_OFFSET
+            || rowBounds.getLimit() != RowBounds.NO_ROW_LIMIT);
+  }
+
+  /** 执行计数查询，结果按 语句ID+SQL+参数+环境 缓存 countCacheTtl 毫秒 */
+  private long count(
+      MetaObject metaHandler,
+      MappedStatement ms,
+      BoundSql boundSql,
+      Connection connection,
+      String countSql)
+      throws SQLException {
+    CacheKey key = null;
+    if (countCacheTtl > 0) {
+      Executor executor = (Executor) metaHandler.getValue("executor");
+      key = executor.createCacheKey(ms, boundSql.getParameterObject(), RowBounds.DEFAULT, boundSql);
+      CountEntry entry = countCache.get(key);
+      if (entry != null && entry.expireAt > System.currentTimeMillis()) {
+        return entry.total;
+      }
+    }
+    ParameterHandler parameterHandler =
+        (ParameterHandler) metaHandler.getValue("parameterHandler");
+    long total = 0;
+    try (PreparedStatement ps = connection.prepareStatement(countSql)) {
+      // 计数SQL与原SQL的占位符一致，直接复用参数处理器
+      parameterHandler.setParameters(ps);
+      try (ResultSet rs = ps.executeQuery()) {
+        if (rs.next()) {
+          total = rs.getLong(1);
+        }
+      }
+    }
+    if (key != null) {
+      if (countCache.size() >= MAX_CACHE_SIZE) {
+        long now = System.currentTimeMillis();
+        countCache.values().removeIf(e -> e.expireAt <= now);
+      }
+      long expireAt = System.currentTimeMillis() + countCacheTtl;
+      cachePut(countCache, key, new CountEntry(total, expireAt));
+    }
+    return total;
+  }
+
+  private Optional<Dialect> resolveDialect(Connection connection) throws SQLException {
+    if (dialect != null) {
+      return Optional.of(dialect);
+    }
+    String productName = connection.getMetaData().getDatabaseProductName();
+    return cacheGet(dialectCache, productName == null ? "" : productName, this::dialectForName);
+  }
+
+  private Optional<Dialect> dialectForName(String name) {
+    Optional<Dialect> known = knownDialect(name);
+    if (!known.isPresent()) {
+      log.warn("未识别的数据库 {}，分页将在客户端跳过", name);
+    }
+    return known;
+  }
+
+  private static Optional<Dialect> knownDialect(String name) {
+    String lowerName = name.toLowerCase(Locale.ENGLISH);
+    if (lowerName.contains("mysql") || lowerName.contains("mariadb")) {
+      return Optional.of(new MySqlDialect());
+    } else if (lowerName.contains("postgresql")
+        || lowerName.contains("h2")
+        || lowerName.contains("hsql")
+        || lowerName.contains("sqlite")) {
+      return Optional.of(new PostgreSqlDialect());
+    } else if (lowerName.contains("oracle")) {
+      return Optional.of(new OracleDialect());
+    }
+    return Optional.empty();
+  }
+
+  private static <K, V> V cacheGet(Map<K, V> cache, K key, Function<K, V> loader) {
+    V value = cache.get(key);
+    if (value == null) {
+      value = loader.apply(key);
+      cachePut(cache, key, value);
+    }
+    return value;
+  }
+
+  private static <K, V> void cachePut(Map<K, V> cache, K key, V value) {
+    if (cache.size() >= MAX_CACHE_SIZE) {
+      cache.clear();
+    }
+    cache.put(key, value);
+  }
+
+  /** 清空计数缓存，数据大批量变化后可主动调用 */
+  public void clearCountCache() {
+    countCache.clear();
+  }
+
+  @Override
+  public void setProperties(Properties properties) {
+    String dialectName = properties.getProperty("dialect");
+    if (dialectName != null && !dialectName.isEmpty()) {
+      this.dialect = knownDialect(dialectName).orElseGet(() -> newDialect(dialectName));
+    }
+    String ttl = properties.getProperty("countCacheTtl");
+    if (ttl != null) {
+      this.countCacheTtl = Long.parseLong(ttl);
+    }
+  }
+
+  private static Dialect newDialect(String className) {
+    try {
+      return (Dialect) Class.forName(className).getDeclaredConstructor().newInstance();
+    } catch (Exception e) {
+      throw new RuntimeException("Error instantiating dialect " + className + ". Cause: " + e, e);
+    }
+  }
+
+  /** 计数缓存条目 */
+  private static class CountEntry {
+    private final long total;
+    private final long expireAt;
+
+    CountEntry(long total, long expireAt) {
+      this.total = total;
+      this.expireAt = expireAt;
+    }
+  }
+}
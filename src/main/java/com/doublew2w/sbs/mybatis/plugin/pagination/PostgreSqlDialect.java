@@ -0,0 +1,21 @@
+package com.doublew2w.sbs.mybatis.plugin.pagination;
+
+/**
+ * PostgreSQL 方言：LIMIT ? OFFSET ?（limit, offset），H2、HSQLDB、SQLite 同样适用
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/18 2:16
+ * @project: sbs-mybatis
+ */
+public class PostgreSqlDialect extends AbstractDialect {
+
+  @Override
+  public String getLimitSql(String sql) {
+    return trimSql(sql) + " LIMIT ? OFFSET ?";
+  }
+
+  @Override
+  public long[] getLimitParameters(int offset, int limit) {
+    return new long[] {limit, offset};
+  }
+}
@@ -0,0 +1,15 @@
+package com.doublew2w.sbs.mybatis.plugin.sharding;
+
+/**
+ * 分片表上的语句缺少分片键时的处理方式
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/18 8:05
+ * @project: sbs-mybatis
+ */
+public enum MissingShardKeyStrategy {
+  /** 直接抛出异常 */
+  FAIL,
+  /** 在所有分片上执行：查询合并结果，更新累加影响行数 */
+  BROADCAST
+}
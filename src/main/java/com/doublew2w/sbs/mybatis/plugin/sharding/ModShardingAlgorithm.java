@@ -0,0 +1,19 @@
+package com.doublew2w.sbs.mybatis.plugin.sharding;
+
+/**
+ * 取模分片：整数按数值取模，其他类型按 hashCode 取模
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/18 8:05
+ * @project: sbs-mybatis
+ */
+public class ModShardingAlgorithm implements ShardingAlgorithm {
+
+  @Override
+  public int shard(Object shardKey, int shardCount) {
+    if (shardKey instanceof Number) {
+      return (int) Math.floorMod(((Number) shardKey).longValue(), (long) shardCount);
+    }
+    return Math.floorMod(shardKey.hashCode(), shardCount);
+  }
+}
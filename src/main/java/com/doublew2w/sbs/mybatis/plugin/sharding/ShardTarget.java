@@ -0,0 +1,31 @@
+package com.doublew2w.sbs.mybatis.plugin.sharding;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * 分片目标：数据源名称 + 全局表序号
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/18 8:05
+ * @project: sbs-mybatis
+ */
+@Getter
+@EqualsAndHashCode
+public class ShardTarget {
+  /** 数据源名称，未分库时为 null */
+  private final String dataSourceName;
+
+  /** 物理表序号，在所有数据源中唯一 */
+  private final int tableIndex;
+
+  public ShardTarget(String dataSourceName, int tableIndex) {
+    this.dataSourceName = dataSourceName;
+    this.tableIndex = tableIndex;
+  }
+
+  @Override
+  public String toString() {
+    return (dataSourceName == null ? "" : dataSourceName + ".") + tableIndex;
+  }
+}
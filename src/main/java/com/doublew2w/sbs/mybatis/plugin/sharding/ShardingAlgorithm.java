@@ -0,0 +1,20 @@
+package com.doublew2w.sbs.mybatis.plugin.sharding;
+
+/**
+ * 分片算法：把分片键映射到全局分片序号
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/18 8:05
+ * @project: sbs-mybatis
+ */
+public interface ShardingAlgorithm {
+
+  /**
+   * 计算分片序号
+   *
+   * @param shardKey 分片键的值，不为 null
+   * @param shardCount 分片总数（数据源数 * 每库表数）
+   * @return [0, shardCount) 范围内的分片序号
+   */
+  int shard(Object shardKey, int shardCount);
+}
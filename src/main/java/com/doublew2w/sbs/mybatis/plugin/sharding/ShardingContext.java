@@ -0,0 +1,39 @@
+package com.doublew2w.sbs.mybatis.plugin.sharding;
+
+/**
+ * 分片提示：在当前线程上强制指定分片，优先于按参数计算的分片
+ *
+ * <pre>
+ *   ShardingContext.set(rule.route(activityId));
+ *   try {
+ *     mapper.queryStatistics();
+ *   } finally {
+ *     ShardingContext.clear();
+ *   }
+ * </pre>
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/18 8:05
+ * @project: sbs-mybatis
+ */
+public final class ShardingContext {
+  private static final ThreadLocal<ShardTarget> CURRENT = new ThreadLocal<>();
+
+  private ShardingContext() {}
+
+  public static ShardTarget current() {
+    return CURRENT.get();
+  }
+
+  public static void set(ShardTarget target) {
+    if (target == null) {
+      CURRENT.remove();
+    } else {
+      CURRENT.set(target);
+    }
+  }
+
+  public static void clear() {
+    CURRENT.remove();
+  }
+}
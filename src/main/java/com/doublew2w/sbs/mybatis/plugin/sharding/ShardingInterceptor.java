@@ -0,0 +1,234 @@
+package com.doublew2w.sbs.mybatis.plugin.sharding;
+
+import com.doublew2w.sbs.mybatis.cache.CacheKey;
+import com.doublew2w.sbs.mybatis.datasource.sharding.ShardingConnection;
+import com.doublew2w.sbs.mybatis.datasource.sharding.ShardingDataSource;
+import com.doublew2w.sbs.mybatis.executor.BatchExecutor;
+import com.doublew2w.sbs.mybatis.executor.Executor;
+import com.doublew2w.sbs.mybatis.executor.statement.StatementHandler;
+import com.doublew2w.sbs.mybatis.mapping.BoundSql;
+import com.doublew2w.sbs.mybatis.mapping.MappedStatement;
+import com.doublew2w.sbs.mybatis.plugin.Interceptor;
+import com.doublew2w.sbs.mybatis.plugin.Intercepts;
+import com.doublew2w.sbs.mybatis.plugin.Invocation;
+import com.doublew2w.sbs.mybatis.plugin.Plugin;
+import com.doublew2w.sbs.mybatis.plugin.Signature;
+import com.doublew2w.sbs.mybatis.reflection.MetaObject;
+import com.doublew2w.sbs.mybatis.reflection.SystemMetaObject;
+import com.doublew2w.sbs.mybatis.session.Configuration;
+import com.doublew2w.sbs.mybatis.session.ResultHandler;
+import com.doublew2w.sbs.mybatis.session.RowBounds;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 分库分表插件
+ *
+ * <p>从参数对象中（通过 {@link MetaObject}）取出分片键，计算目标分片后：把 {@link BoundSql} 中的逻辑表名改写为物理表名，并从
+ * {@link ShardingDataSource} 取得该分片的连接来创建语句。每个分片的数据源各自配置，通常是独立的连接池。
+ *
+ * <p>分片表上的语句缺少分片键时，按 missingShardKey 直接失败，或在所有分片上广播执行：查询按分片顺序拼接结果，更新累加影响行数。广播查询的
+ * RowBounds 在每个分片上分别生效。
+ *
+ * <pre>
+ *   &lt;plugin interceptor="com.doublew2w.sbs.mybatis.plugin.sharding.ShardingInterceptor"&gt;
+ *       &lt;!--逻辑表，多个绑定表用逗号分隔--&gt;
+ *       &lt;property name="tables" value="activity"/&gt;
+ *       &lt;!--分片键在参数中的属性，简单类型参数直接作为分片键--&gt;
+ *       &lt;property name="shardKey" value="activityId"/&gt;
+ *       &lt;!--分库：与 &lt;shard name="..."&gt; 对应，不配置则只分表--&gt;
+ *       &lt;property name="dataSources" value="ds_0,ds_1"/&gt;
+ *       &lt;property name="tablesPerDataSource" value="4"/&gt;
+ *       &lt;!--FAIL / BROADCAST--&gt;
+ *       &lt;property name="missingShardKey" value="FAIL"/&gt;
+ *       &lt;!--可选：分片算法实现类全名，物理表名格式--&gt;
+ *       &lt;property name="algorithm" value="com.doublew2w.sbs.mybatis.plugin.sharding.ModShardingAlgorithm"/&gt;
+ *       &lt;property name="actualTableFormat" value="%s_%d"/&gt;
+ *   &lt;/plugin&gt;
+ * </pre>
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/18 8:05
+ * @project: sbs-mybatis
+ */
+@Slf4j
+@Intercepts({
+  @Signature(
+      type = Executor.class,
+      method = "query",
+      args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+  @Signature(
+      type = Executor.class,
+      method = "update",
+      args = {MappedStatement.class, Object.class}),
+  @Signature(
+      type = StatementHandler.class,
+      method = "prepare",
+      args = {Connection.class})
+})
+public class ShardingInterceptor implements Interceptor {
+
+  private ShardingRule rule;
+  private MissingShardKeyStrategy missingShardKey = MissingShardKeyStrategy.FAIL;
+
+  public ShardingInterceptor() {}
+
+  public ShardingInterceptor(ShardingRule rule, MissingShardKeyStrategy missingShardKey) {
+    this.rule = rule;
+    this.missingShardKey = missingShardKey;
+  }
+
+  public ShardingRule getRule() {
+    return rule;
+  }
+
+  @Override
+  public Object intercept(Invocation invocation) throws Throwable {
+    if (invocation.getTarget() instanceof Executor) {
+      return interceptExecutor(invocation);
+    }
+    return interceptPrepare(invocation);
+  }
+
+  /** 执行器层：只处理强制分片和广播，单分片路由在预编译时完成 */
+  private Object interceptExecutor(Invocation invocation) throws Throwable {
+    Object[] args = invocation.getArgs();
+    MappedStatement ms = (MappedStatement) args[0];
+    Object parameter = args[1];
+    boolean query = args.length == 4;
+    ShardTarget hint = ShardingContext.current();
+    if (hint == null
+        && (missingShardKey == MissingShardKeyStrategy.FAIL
+            || shardKeyValue(ms.getConfiguration(), parameter) != null)) {
+      return invocation.proceed();
+    }
+    RowBounds rowBounds = query ? (RowBounds) args[2] : RowBounds.DEFAULT;
+    if (!rule.matches(ms.getBoundSql(parameter, rowBounds).getSql())) {
+      return invocation.proceed();
+    }
+    List<ShardTarget> targets = hint != null ? List.of(hint) : rule.getTargets();
+    if (hint == null) {
+      log.debug("语句 {} 缺少分片键，广播到 {} 个分片", ms.getId(), targets.size());
+    }
+    Executor executor = (Executor) invocation.getTarget();
+    List<Object> results = new ArrayList<>();
+    int updated = 0;
+    boolean batched = false;
+    try {
+      for (ShardTarget target : targets) {
+        ShardingContext.set(target);
+        if (query) {
+          // 每个分片使用新的 BoundSql：预编译时会原地改写SQL
+          BoundSql boundSql = ms.getBoundSql(parameter, rowBounds);
+          CacheKey key = executor.createCacheKey(ms, parameter, rowBounds, boundSql);
+          key.update(target.toString());
+          results.addAll(
+              executor.query(ms, parameter, rowBounds, (ResultHandler) args[3], key, boundSql));
+        } else {
+          int count = (Integer) invocation.proceed();
+          // 批处理执行器返回固定值，实际影响行数由 flushStatements 按分片返回
+          if (count == BatchExecutor.BATCH_UPDATE_RETURN_VALUE) {
+            batched = true;
+          } else {
+            updated += count;
+          }
+        }
+      }
+    } finally {
+      ShardingContext.set(hint);
+    }
+    if (query) {
+      return results;
+    }
+    return batched ? BatchExecutor.BATCH_UPDATE_RETURN_VALUE : updated;
+  }
+
+  /** 预编译：改写物理表名，切换到分片连接 */
+  private Object interceptPrepare(Invocation invocation) throws Throwable {
+    StatementHandler statementHandler = (StatementHandler) Plugin.unwrap(invocation.getTarget());
+    BoundSql boundSql = statementHandler.getBoundSql();
+    String sql = boundSql.getSql();
+    if (!rule.matches(sql)) {
+      return invocation.proceed();
+    }
+    MetaObject metaHandler = SystemMetaObject.forObject(statementHandler);
+    MappedStatement ms = (MappedStatement) metaHandler.getValue("mappedStatement");
+    ShardTarget target = ShardingContext.current();
+    if (target == null) {
+      target = rule.route(shardKeyValue(ms.getConfiguration(), boundSql.getParameterObject()));
+    }
+    if (target == null) {
+      throw new RuntimeException(
+          "Missing shard key '"
+              + rule.getShardKey()
+              + "' for statement "
+              + ms.getId()
+              + " on sharded table "
+              + rule.getLogicTables());
+    }
+    metaHandler.setValue("boundSql.sql", rule.rewrite(sql, target));
+    if (target.getDataSourceName() != null) {
+      Connection connection = (Connection) invocation.getArgs()[0];
+      invocation.getArgs()[0] = ShardingConnection.shard(connection, target.getDataSourceName());
+    }
+    return invocation.proceed();
+  }
+
+  /** 取分片键的值：简单类型参数本身即分片键，其余按属性路径取值 */
+  private Object shardKeyValue(Configuration configuration, Object parameter) {
+    if (parameter == null) {
+      return null;
+    }
+    if (configuration.getTypeHandlerRegistry().hasTypeHandler(parameter.getClass())) {
+      return parameter;
+    }
+    MetaObject metaObject = configuration.newMetaObject(parameter);
+    String shardKey = rule.getShardKey();
+    return metaObject.hasGetter(shardKey) ? metaObject.getValue(shardKey) : null;
+  }
+
+  @Override
+  public void setProperties(Properties properties) {
+    String tables = properties.getProperty("tables");
+    String shardKey = properties.getProperty("shardKey");
+    if (tables == null || shardKey == null) {
+      throw new RuntimeException("ShardingInterceptor requires 'tables' and 'shardKey' properties");
+    }
+    String algorithmName = properties.getProperty("algorithm");
+    ShardingAlgorithm algorithm = new ModShardingAlgorithm();
+    if (algorithmName != null && !algorithmName.isEmpty()) {
+      try {
+        algorithm =
+            (ShardingAlgorithm)
+                Class.forName(algorithmName).getDeclaredConstructor().newInstance();
+      } catch (Exception e) {
+        throw new RuntimeException(
+            "Error instantiating sharding algorithm " + algorithmName + ". Cause: " + e, e);
+      }
+    }
+    this.rule =
+        new ShardingRule(
+            split(tables),
+            shardKey,
+            split(properties.getProperty("dataSources", "")),
+            Integer.parseInt(properties.getProperty("tablesPerDataSource", "1")),
+            algorithm,
+            properties.getProperty("actualTableFormat", "%s_%d"));
+    this.missingShardKey =
+        MissingShardKeyStrategy.valueOf(
+            properties.getProperty("missingShardKey", "FAIL").toUpperCase(Locale.ENGLISH));
+  }
+
+  private static List<String> split(String value) {
+    return Arrays.stream(value.split(","))
+        .map(String::trim)
+        .filter(s -> !s.isEmpty())
+        .collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,145 @@
+package com.doublew2w.sbs.mybatis.plugin.sharding;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * 分片规则
+ *
+ * <p>分片总数 = 数据源数 * 每库表数，全局分片序号 i 对应数据源 {@code dataSourceNames[i / tablesPerDataSource]}
+ * 上的物理表 {@code activity_i}。物理表名全局唯一，同一逻辑SQL在不同分片上得到不同的SQL文本。
+ *
+ * <p>逻辑表名按单词整体匹配（不区分大小写），同名的列或字符串常量也会被改写，逻辑表名应避免与列名相同。
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/18 8:05
+ * @project: sbs-mybatis
+ */
+public class ShardingRule {
+  /** 逻辑表，使用相同分片键和分布的绑定表 */
+  private final List<String> logicTables;
+
+  /** 分片键在参数对象中的属性路径 */
+  private final String shardKey;
+
+  /** 数据源名称，为空时只分表不分库 */
+  private final List<String> dataSourceNames;
+
+  private final int tablesPerDataSource;
+  private final ShardingAlgorithm algorithm;
+
+  /** 物理表名格式，参数依次为逻辑表名和分片序号 */
+  private final String actualTableFormat;
+
+  private final Pattern tablePattern;
+  private final List<ShardTarget> targets;
+
+  public ShardingRule(
+      List<String> logicTables,
+      String shardKey,
+      List<String> dataSourceNames,
+      int tablesPerDataSource,
+      ShardingAlgorithm algorithm,
+      String actualTableFormat) {
+    if (logicTables == null || logicTables.isEmpty()) {
+      throw new IllegalArgumentException("Sharding rule requires at least one logic table");
+    }
+    if (tablesPerDataSource < 1) {
+      throw new IllegalArgumentException("tablesPerDataSource must be positive");
+    }
+    this.logicTables = Collections.unmodifiableList(new ArrayList<>(logicTables));
+    this.shardKey = shardKey;
+    this.dataSourceNames =
+        dataSourceNames == null
+            ? Collections.emptyList()
+            : Collections.unmodifiableList(new ArrayList<>(dataSourceNames));
+    this.tablesPerDataSource = tablesPerDataSource;
+    this.algorithm = algorithm;
+    this.actualTableFormat = actualTableFormat;
+    this.tablePattern =
+        Pattern.compile(
+            logicTables.stream()
+                .map(Pattern::quote)
+                .collect(Collectors.joining("|", "(?<![\\w$])(", ")(?![\\w$])")),
+            Pattern.CASE_INSENSITIVE);
+    List<ShardTarget> all = new ArrayList<>();
+    for (int i = 0; i < getShardCount(); i++) {
+      all.add(target(i));
+    }
+    this.targets = Collections.unmodifiableList(all);
+  }
+
+  public List<String> getLogicTables() {
+    return logicTables;
+  }
+
+  public String getShardKey() {
+    return shardKey;
+  }
+
+  public List<String> getDataSourceNames() {
+    return dataSourceNames;
+  }
+
+  /** 分片总数 */
+  public int getShardCount() {
+    return Math.max(1, dataSourceNames.size()) * tablesPerDataSource;
+  }
+
+  /** 所有分片，广播时按此顺序执行 */
+  public List<ShardTarget> getTargets() {
+    return targets;
+  }
+
+  /**
+   * 按分片键的值计算分片
+   *
+   * @param shardKeyValue 分片键的值
+   * @return 分片目标，值为 null 时返回 null
+   */
+  public ShardTarget route(Object shardKeyValue) {
+    if (shardKeyValue == null) {
+      return null;
+    }
+    int index = algorithm.shard(shardKeyValue, getShardCount());
+    if (index < 0 || index >= getShardCount()) {
+      throw new IllegalStateException(
+          "Sharding algorithm returned " + index + " for " + getShardCount() + " shards");
+    }
+    return targets.isEmpty() ? target(index) : targets.get(index);
+  }
+
+  private ShardTarget target(int index) {
+    String dataSourceName =
+        dataSourceNames.isEmpty() ? null : dataSourceNames.get(index / tablesPerDataSource);
+    return new ShardTarget(dataSourceName, index);
+  }
+
+  /** SQL 是否引用了分片表 */
+  public boolean matches(String sql) {
+    return tablePattern.matcher(sql).find();
+  }
+
+  /** 把 SQL 中的逻辑表名替换为目标分片的物理表名 */
+  public String rewrite(String sql, ShardTarget target) {
+    Matcher matcher = tablePattern.matcher(sql);
+    StringBuilder rewritten = new StringBuilder(sql.length() + 8);
+    int last = 0;
+    while (matcher.find()) {
+      rewritten.append(sql, last, matcher.start());
+      rewritten.append(getActualTable(matcher.group(1), target.getTableIndex()));
+      last = matcher.end();
+    }
+    return rewritten.append(sql, last, sql.length()).toString();
+  }
+
+  /** 物理表名 */
+  public String getActualTable(String logicTable, int tableIndex) {
+    return String.format(Locale.ENGLISH, actualTableFormat, logicTable, tableIndex);
+  }
+}
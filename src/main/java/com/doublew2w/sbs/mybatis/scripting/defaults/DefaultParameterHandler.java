@@ -53,7 +53,12 @@ public class DefaultParameterHandler implements ParameterHandler {
         ParameterMapping parameterMapping = parameterMappings.get(parameterIndex);
         String propertyName = parameterMapping.getProperty();
         Object value;
-        if (typeHandlerRegistry.hasTypeHandler(parameterObject.getClass())) {
+        if (boundSql.hasAdditionalParameter(propertyName)) {
+          // 动态SQL绑定的变量、键集分页的定位键等附加参数
+          value = boundSql.getAdditionalParameter(propertyName);
+        } else if (parameterObject == null) {
+          value = null;
+        } else if (typeHandlerRegistry.hasTypeHandler(parameterObject.getClass())) {
           value = parameterObject;
         } else {
           // 通过 MetaObject.getValue 反射取得值设进去
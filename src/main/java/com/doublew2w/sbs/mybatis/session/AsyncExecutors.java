@@ -0,0 +1,123 @@
+package com.doublew2w.sbs.mybatis.session;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 异步映射器方法使用的线程池
+ *
+ * <p>运行时支持虚拟线程（JDK 21+）时每个任务一个虚拟线程，否则使用有界的平台线程池。
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/18 4:10
+ * @project: sbs-mybatis
+ */
+@Slf4j
+public final class AsyncExecutors {
+  private static final String THREAD_NAME_PREFIX = "sbs-mybatis-async-";
+  private static final String SCATTER_THREAD_NAME_PREFIX = "sbs-mybatis-scatter-";
+
+  private AsyncExecutors() {}
+
+  /**
+   * 创建异步执行器
+   *
+   * @param poolSize 平台线程池大小
+   * @param queueCapacity 平台线程池等待队列容量，满了直接拒绝
+   * @param useVirtualThreads 运行时支持时是否使用虚拟线程
+   */
+  public static ExecutorService newExecutor(
+      int poolSize, int queueCapacity, boolean useVirtualThreads) {
+    if (useVirtualThreads) {
+      ExecutorService virtual = newVirtualThreadPerTaskExecutor();
+      if (virtual != null) {
+        return virtual;
+      }
+    }
+    ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(
+            poolSize,
+            poolSize,
+            60L,
+            TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            new DaemonThreadFactory(THREAD_NAME_PREFIX),
+            new ThreadPoolExecutor.AbortPolicy());
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  /**
+   * 创建分区查询（scatter-gather）生产者使用的执行器：每个任务都立即拿到线程，从不排队
+   *
+   * <p>生产者在合并方取走行之前一直占用线程，排队的分区会和已占满缓冲区的分区互相等待，所以不能使用有界线程池。空闲线程保留 60 秒后回收。
+   *
+   * @param useVirtualThreads 运行时支持时是否使用虚拟线程
+   */
+  public static ExecutorService newThreadPerTaskExecutor(boolean useVirtualThreads) {
+    if (useVirtualThreads) {
+      ExecutorService virtual = newVirtualThreadPerTaskExecutor();
+      if (virtual != null) {
+        return virtual;
+      }
+    }
+    return new ThreadPoolExecutor(
+        0,
+        Integer.MAX_VALUE,
+        60L,
+        TimeUnit.SECONDS,
+        new SynchronousQueue<>(),
+        new DaemonThreadFactory(SCATTER_THREAD_NAME_PREFIX));
+  }
+
+  /** 运行时是否支持虚拟线程 */
+  public static boolean isVirtualThreadSupported() {
+    return virtualThreadFactoryMethod() != null;
+  }
+
+  /** 编译目标是 Java 11，通过反射调用 Executors.newVirtualThreadPerTaskExecutor */
+  private static ExecutorService newVirtualThreadPerTaskExecutor() {
+    Method method = virtualThreadFactoryMethod();
+    if (method == null) {
+      return null;
+    }
+    try {
+      return (ExecutorService) method.invoke(null);
+    } catch (ReflectiveOperationException e) {
+      log.warn("Virtual threads unavailable, falling back to platform threads", e);
+      return null;
+    }
+  }
+
+  private static Method virtualThreadFactoryMethod() {
+    try {
+      return java.util.concurrent.Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+    } catch (NoSuchMethodException e) {
+      return null;
+    }
+  }
+
+  /** 守护线程，不阻止 JVM 退出 */
+  private static class DaemonThreadFactory implements ThreadFactory {
+    private final String namePrefix;
+    private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+    DaemonThreadFactory(String namePrefix) {
+      this.namePrefix = namePrefix;
+    }
+
+    @Override
+    public Thread newThread(Runnable r) {
+      Thread thread = new Thread(r, namePrefix + threadNumber.getAndIncrement());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+}
@@ -2,13 +2,16 @@ package com.doublew2w.sbs.mybatis.session;
 
 import com.doublew2w.sbs.mybatis.binding.MapperRegistry;
 import com.doublew2w.sbs.mybatis.cache.Cache;
+import com.doublew2w.sbs.mybatis.cache.SingleFlight;
 import com.doublew2w.sbs.mybatis.cache.decorators.FifoCache;
 import com.doublew2w.sbs.mybatis.cache.impl.PerpetualCache;
 import com.doublew2w.sbs.mybatis.datasource.druid.DruidDataSourceFactory;
 import com.doublew2w.sbs.mybatis.datasource.pooled.PooledDataSourceFactory;
 import com.doublew2w.sbs.mybatis.datasource.unpooled.UnpooledDataSourceFactory;
+import com.doublew2w.sbs.mybatis.executor.BatchExecutor;
 import com.doublew2w.sbs.mybatis.executor.CachingExecutor;
 import com.doublew2w.sbs.mybatis.executor.Executor;
+import com.doublew2w.sbs.mybatis.executor.ReuseExecutor;
 import com.doublew2w.sbs.mybatis.executor.SimpleExecutor;
 import com.doublew2w.sbs.mybatis.executor.keygen.KeyGenerator;
 import com.doublew2w.sbs.mybatis.executor.parameter.ParameterHandler;
@@ -38,6 +41,9 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.locks.ReentrantLock;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -62,6 +68,11 @@ public class Configuration {
 
   // 缓存,存在Map里
   protected final Map<String, Cache> caches = new HashMap<>();
+  // 每个命名空间缓存进行中的查询，开启 singleFlightEnabled 时合并同一缓存Key的并发查询
+  protected final Map<String, SingleFlight> singleFlights = new ConcurrentHashMap<>();
+  @Getter @Setter protected boolean singleFlightEnabled;
+  // 等待其他会话查询结果的超时毫秒数
+  @Getter @Setter protected long singleFlightTimeout = 5000L;
   @Getter protected final Map<String, KeyGenerator> keyGenerators = new HashMap<>();
 
   // 结果映射，存在Map里
@@ -83,6 +94,27 @@ public class Configuration {
   @Getter protected String databaseId;
   // 缓存机制，默认不配置的情况是 SESSION
   @Getter @Setter protected LocalCacheScope localCacheScope = LocalCacheScope.SESSION;
+  // 默认执行器类型，默认不配置的情况是 SIMPLE
+  @Getter @Setter protected ExecutorType defaultExecutorType = ExecutorType.SIMPLE;
+  // 语句未配置时的全局超时秒数、fetchSize，null 表示使用驱动默认值
+  @Getter @Setter protected Integer defaultStatementTimeout;
+  @Getter @Setter protected Integer defaultFetchSize;
+  // 按每个映射语句的历史返回行数自动调整 fetchSize 和结果列表初始容量
+  @Getter @Setter protected boolean adaptiveFetchSize;
+  @Getter @Setter protected int adaptiveMaxFetchSize = 1000;
+  // 异步映射器方法的平台线程池大小、等待队列容量，以及运行时支持时是否改用虚拟线程
+  @Getter @Setter
+  protected int asyncPoolSize = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
+  @Getter @Setter protected int asyncQueueCapacity = 1024;
+  @Getter @Setter protected boolean useVirtualThreads = true;
+  // 并行查询（selectAllParallel）单次调用最多同时占用的连接数
+  @Getter @Setter protected int parallelQueryMaxConcurrency = 4;
+  // 异步映射器方法的执行器，未设置时首次使用按上面的配置创建
+  @Setter protected volatile ExecutorService asyncExecutor;
+  // 分区查询生产者的执行器，每个分区一个线程，未设置时首次使用创建
+  @Setter protected volatile ExecutorService scatterExecutor;
+  private final ReentrantLock asyncExecutorLock = new ReentrantLock();
 
   public Configuration() {
     typeAliasRegistry.registerAlias("JDBC", JdbcTransactionFactory.class);
@@ -130,14 +162,28 @@ public class Configuration {
         executor, mappedStatement, resultHandler, rowBounds, boundSql);
   }
 
-  /** 生产执行器 */
+  /** 生产执行器，使用默认执行器类型 */
   public Executor newExecutor(Transaction transaction) {
-    Executor executor = new SimpleExecutor(this, transaction);
+    return newExecutor(transaction, defaultExecutorType);
+  }
+
+  /** 生产指定类型的执行器 */
+  public Executor newExecutor(Transaction transaction, ExecutorType executorType) {
+    executorType = executorType == null ? defaultExecutorType : executorType;
+    Executor executor;
+    if (ExecutorType.BATCH == executorType) {
+      executor = new BatchExecutor(this, transaction);
+    } else if (ExecutorType.REUSE == executorType) {
+      executor = new ReuseExecutor(this, transaction);
+    } else {
+      executor = new SimpleExecutor(this, transaction);
+    }
     // 配置开启缓存，创建 CachingExecutor(默认就是有缓存)装饰者模式
     if (cacheEnabled) {
       executor = new CachingExecutor(executor);
     }
-    return executor;
+    // 嵌入插件，代理对象
+    return (Executor) interceptorChain.pluginAll(executor);
   }
 
   /** 创建语句处理器 */
@@ -208,6 +254,41 @@ public class Configuration {
     return keyGenerators.get(id);
   }
 
+  /** 获取异步映射器方法的执行器 */
+  public ExecutorService getAsyncExecutor() {
+    ExecutorService executor = asyncExecutor;
+    if (executor != null) {
+      return executor;
+    }
+    asyncExecutorLock.lock();
+    try {
+      if (asyncExecutor == null) {
+        asyncExecutor =
+            AsyncExecutors.newExecutor(asyncPoolSize, asyncQueueCapacity, useVirtualThreads);
+      }
+      return asyncExecutor;
+    } finally {
+      asyncExecutorLock.unlock();
+    }
+  }
+
+  /** 获取分区查询（selectMerged）生产者的执行器 */
+  public ExecutorService getScatterExecutor() {
+    ExecutorService executor = scatterExecutor;
+    if (executor != null) {
+      return executor;
+    }
+    asyncExecutorLock.lock();
+    try {
+      if (scatterExecutor == null) {
+        scatterExecutor = AsyncExecutors.newThreadPerTaskExecutor(useVirtualThreads);
+      }
+      return scatterExecutor;
+    } finally {
+      asyncExecutorLock.unlock();
+    }
+  }
+
   public void addInterceptor(Interceptor interceptorInstance) {
     interceptorChain.addInterceptor(interceptorInstance);
   }
@@ -224,6 +305,10 @@ public class Configuration {
     caches.put(cache.getId(), cache);
   }
 
+  public SingleFlight getSingleFlight(Cache cache) {
+    return singleFlights.computeIfAbsent(cache.getId(), id -> new SingleFlight());
+  }
+
   public Cache getCache(String id) {
     return caches.get(id);
   }
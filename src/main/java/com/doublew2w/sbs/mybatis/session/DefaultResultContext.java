@@ -11,10 +11,12 @@ package com.doublew2w.sbs.mybatis.session;
 public class DefaultResultContext implements ResultContext {
   private Object resultObject;
   private int resultCount;
+  private boolean stopped;
 
   public DefaultResultContext() {
     this.resultObject = null;
     this.resultCount = 0;
+    this.stopped = false;
   }
 
   @Override
@@ -27,6 +29,16 @@ public class DefaultResultContext implements ResultContext {
     return resultCount;
   }
 
+  @Override
+  public void stop() {
+    this.stopped = true;
+  }
+
+  @Override
+  public boolean isStopped() {
+    return stopped;
+  }
+
   public void nextResultObject(Object resultObject) {
     resultCount++;
     this.resultObject = resultObject;
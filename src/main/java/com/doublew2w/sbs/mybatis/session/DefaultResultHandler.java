@@ -19,6 +19,11 @@ public class DefaultResultHandler implements ResultHandler {
     this.list = new ArrayList<>();
   }
 
+  /** 预知大致行数时指定结果列表的初始容量，避免扩容复制 */
+  public DefaultResultHandler(int initialCapacity) {
+    this.list = new ArrayList<>(initialCapacity);
+  }
+
   /** 通过 ObjectFactory 反射工具类，产生特定的 List */
   @SuppressWarnings("unchecked")
   public DefaultResultHandler(ObjectFactory objectFactory) {
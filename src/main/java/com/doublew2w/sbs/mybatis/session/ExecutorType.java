@@ -0,0 +1,20 @@
+package com.doublew2w.sbs.mybatis.session;
+
+/**
+ * 执行器类型
+ *
+ * <p>SIMPLE 默认值，每次执行都创建新的语句并在执行后关闭
+ *
+ * <p>REUSE 在会话内按SQL复用预编译语句，提交、回滚或关闭会话时统一关闭
+ *
+ * <p>BATCH 连续的相同更新合并为 JDBC 批处理，在 flushStatements、提交或查询前执行
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/17 23:10
+ * @project: sbs-mybatis
+ */
+public enum ExecutorType {
+  SIMPLE,
+  REUSE,
+  BATCH
+}
@@ -0,0 +1,68 @@
+package com.doublew2w.sbs.mybatis.session;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+
+/**
+ * 键范围：把查询限定在 {@code from <= column < to} 内，用于按范围切分查询
+ *
+ * <p>作为分页参数传入时，映射语句在绑定SQL的顶层条件上追加范围条件，原有的排序和尾部子句保持不变。边界为 null 表示不限。
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/18 9:05
+ * @project: sbs-mybatis
+ */
+@Getter
+public class KeyRange extends RowBounds {
+  /** 范围列 */
+  private final String column;
+
+  /** 下界（含），null 表示不限 */
+  private final Object from;
+
+  /** 上界（不含），null 表示不限 */
+  private final Object to;
+
+  public KeyRange(String column, Object from, Object to) {
+    this(column, from, to, NO_ROW_LIMIT);
+  }
+
+  public KeyRange(String column, Object from, Object to, int limit) {
+    super(NO_ROW_OFFSET, limit);
+    if (column == null || column.isEmpty()) {
+      throw new IllegalArgumentException("KeyRange requires a column");
+    }
+    this.column = column;
+    this.from = from;
+    this.to = to;
+  }
+
+  /**
+   * 按边界切分为首尾相接的范围：[null, b0), [b0, b1), ..., [bn, null)
+   *
+   * @param column 范围列
+   * @param boundaries 升序的边界值
+   * @return boundaries.size() + 1 个范围
+   */
+  public static List<KeyRange> split(String column, List<?> boundaries) {
+    List<KeyRange> ranges = new ArrayList<>(boundaries.size() + 1);
+    Object from = null;
+    for (Object boundary : boundaries) {
+      ranges.add(new KeyRange(column, from, boundary));
+      from = boundary;
+    }
+    ranges.add(new KeyRange(column, from, null));
+    return ranges;
+  }
+
+  /** 范围不变、限制条数的副本 */
+  public KeyRange withLimit(int limit) {
+    return new KeyRange(column, from, to, limit);
+  }
+
+  @Override
+  public String toString() {
+    return "KeyRange{" + column + " in [" + from + ", " + to + ")}";
+  }
+}
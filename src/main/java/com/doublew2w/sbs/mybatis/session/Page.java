@@ -0,0 +1,85 @@
+package com.doublew2w.sbs.mybatis.session;
+
+import lombok.Getter;
+
+/**
+ * 键集（seek）分页令牌：上一页最后一行的键 + 排序方向 + 每页条数
+ *
+ * <p>与 OFFSET 分页不同，查询时追加 {@code WHERE col > ? ORDER BY col} 直接从索引定位，翻到第几页耗时都一样。
+ *
+ * <pre>
+ * PageList&lt;Activity&gt; page = mapper.queryActivityPage(Page.first(20));
+ * while (page.hasNext()) {
+ *   page = mapper.queryActivityPage(page.getNextPage());
+ * }
+ * </pre>
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/18 3:10
+ * @project: sbs-mybatis
+ */
+@Getter
+public class Page<K> extends RowBounds {
+
+  /** 上一页最后一行的键，为 null 表示第一页 */
+  private final K key;
+
+  /** 排序方向 */
+  private final Direction direction;
+
+  /** 每页条数 */
+  private final int size;
+
+  private Page(K key, int size, Direction direction) {
+    super(NO_ROW_OFFSET, size);
+    if (size <= 0) {
+      throw new IllegalArgumentException("Page size must be positive, but was " + size);
+    }
+    this.key = key;
+    this.size = size;
+    this.direction = direction == null ? Direction.ASC : direction;
+  }
+
+  public static <K> Page<K> first(int size) {
+    return new Page<>(null, size, Direction.ASC);
+  }
+
+  public static <K> Page<K> first(int size, Direction direction) {
+    return new Page<>(null, size, direction);
+  }
+
+  public static <K> Page<K> after(K key, int size) {
+    return new Page<>(key, size, Direction.ASC);
+  }
+
+  public static <K> Page<K> after(K key, int size, Direction direction) {
+    return new Page<>(key, size, direction);
+  }
+
+  /** 以 key 为起点、方向和条数不变的下一页 */
+  public Page<K> next(K key) {
+    return new Page<>(key, size, direction);
+  }
+
+  public boolean isFirst() {
+    return key == null;
+  }
+
+  @Override
+  public String toString() {
+    return "Page{key=" + key + ", direction=" + direction + ", size=" + size + "}";
+  }
+
+  /** 排序方向 */
+  public enum Direction {
+    ASC(">"),
+    DESC("<");
+
+    /** 定位条件使用的比较符 */
+    @Getter private final String operator;
+
+    Direction(String operator) {
+      this.operator = operator;
+    }
+  }
+}
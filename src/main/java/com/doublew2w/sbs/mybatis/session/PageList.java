@@ -0,0 +1,61 @@
+package com.doublew2w.sbs.mybatis.session;
+
+import com.doublew2w.sbs.mybatis.reflection.MetaObject;
+import com.doublew2w.sbs.mybatis.reflection.SystemMetaObject;
+import com.doublew2w.sbs.mybatis.type.SimpleTypeRegistry;
+import java.util.ArrayList;
+import java.util.Collection;
+import lombok.Getter;
+
+/**
+ * 键集分页的查询结果，附带下一页令牌
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/18 3:10
+ * @project: sbs-mybatis
+ */
+public class PageList<E> extends ArrayList<E> {
+  private static final long serialVersionUID = -2286461738221823570L;
+
+  /** 下一页令牌，已经是最后一页时为 null */
+  @Getter private final Page<Object> nextPage;
+
+  public PageList(Collection<? extends E> rows, Page<Object> nextPage) {
+    super(rows);
+    this.nextPage = nextPage;
+  }
+
+  public boolean hasNext() {
+    return nextPage != null;
+  }
+
+  /**
+   * 由本页结果生成分页列表，下一页起点取最后一行的 keysetProperty
+   *
+   * @param rows 本页结果
+   * @param page 本页令牌
+   * @param keysetProperty 结果对象上的键属性，结果本身就是键时可为 null
+   */
+  @SuppressWarnings("unchecked")
+  public static <E> PageList<E> of(
+      Collection<? extends E> rows, Page<?> page, String keysetProperty) {
+    if (rows.size() < page.getSize()) {
+      // 不足一页说明已经到底
+      return new PageList<>(rows, null);
+    }
+    Object last = null;
+    for (E row : rows) {
+      last = row;
+    }
+    Object key = last;
+    if (keysetProperty != null && last != null && !SimpleTypeRegistry.isSimpleType(last.getClass())) {
+      MetaObject metaObject = SystemMetaObject.forObject(last);
+      key = metaObject.getValue(keysetProperty);
+    }
+    if (key == null) {
+      throw new RuntimeException(
+          "Cannot read keyset property '" + keysetProperty + "' from the last row " + last);
+    }
+    return new PageList<>(rows, ((Page<Object>) page).next(key));
+  }
+}
@@ -0,0 +1,73 @@
+package com.doublew2w.sbs.mybatis.session;
+
+import com.doublew2w.sbs.mybatis.plugin.sharding.ShardTarget;
+import com.doublew2w.sbs.mybatis.plugin.sharding.ShardingRule;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+
+/**
+ * 分散查询的一个分区：键范围、分片，或二者组合
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/18 9:30
+ * @project: sbs-mybatis
+ */
+@Getter
+public class QueryPartition {
+  /** 键范围，null 表示不限 */
+  private final KeyRange range;
+
+  /** 分片，null 表示按分片插件的规则路由 */
+  private final ShardTarget shard;
+
+  private QueryPartition(KeyRange range, ShardTarget shard) {
+    this.range = range;
+    this.shard = shard;
+  }
+
+  public static QueryPartition of(KeyRange range) {
+    return new QueryPartition(range, null);
+  }
+
+  public static QueryPartition of(ShardTarget shard) {
+    return new QueryPartition(null, shard);
+  }
+
+  public static QueryPartition of(ShardTarget shard, KeyRange range) {
+    return new QueryPartition(range, shard);
+  }
+
+  /** 按边界切分键范围，见 {@link KeyRange#split} */
+  public static List<QueryPartition> ranges(String column, List<?> boundaries) {
+    List<QueryPartition> partitions = new ArrayList<>();
+    for (KeyRange range : KeyRange.split(column, boundaries)) {
+      partitions.add(of(range));
+    }
+    return partitions;
+  }
+
+  /** 分片规则中的每个分片各一个分区 */
+  public static List<QueryPartition> shards(ShardingRule rule) {
+    List<QueryPartition> partitions = new ArrayList<>();
+    for (ShardTarget target : rule.getTargets()) {
+      partitions.add(of(target));
+    }
+    return partitions;
+  }
+
+  /** 分区查询使用的分页参数：范围条件 + 下推的条数限制 */
+  public RowBounds rowBounds(int limit) {
+    if (range != null) {
+      return limit == RowBounds.NO_ROW_LIMIT ? range : range.withLimit(limit);
+    }
+    return limit == RowBounds.NO_ROW_LIMIT
+        ? RowBounds.DEFAULT
+        : new RowBounds(RowBounds.NO_ROW_OFFSET, limit);
+  }
+
+  @Override
+  public String toString() {
+    return "QueryPartition{range=" + range + ", shard=" + shard + "}";
+  }
+}
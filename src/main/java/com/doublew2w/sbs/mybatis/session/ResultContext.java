@@ -13,4 +13,10 @@ public interface ResultContext {
 
   /** 获取记录数 */
   int getResultCount();
+
+  /** 停止继续读取结果，结果处理器已拿到足够的数据时调用 */
+  void stop();
+
+  /** 是否已停止 */
+  boolean isStopped();
 }
@@ -13,6 +13,8 @@ public class RowBounds {
   public static final int NO_ROW_OFFSET = 0;
   public static final int NO_ROW_LIMIT = Integer.MAX_VALUE;
   public static final RowBounds DEFAULT = new RowBounds();
+  /** selectOne 使用：驱动最多返回 2 行即可判断结果是否唯一，分页插件不改写 */
+  public static final RowBounds SELECT_ONE = new RowBounds(NO_ROW_OFFSET, 2);
   @Getter private final int offset;
   @Getter private final int limit;
 
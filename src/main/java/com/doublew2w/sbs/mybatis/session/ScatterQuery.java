@@ -0,0 +1,74 @@
+package com.doublew2w.sbs.mybatis.session;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import lombok.Getter;
+
+/**
+ * 分散-合并查询：同一映射语句按分区拆成多个子查询并行执行，结果按 ORDER BY 流式归并
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/18 9:30
+ * @project: sbs-mybatis
+ */
+@Getter
+public class ScatterQuery {
+  /** 默认每个分区预取的行数 */
+  public static final int DEFAULT_BUFFER_SIZE = 256;
+
+  private String statement;
+  private Object parameter;
+  private List<QueryPartition> partitions;
+
+  /** 合并顺序，null 时按子查询的 ORDER BY 推导 */
+  private Comparator<?> comparator;
+
+  /** 合并后最多返回的行数，同时下推到每个子查询 */
+  private int limit = RowBounds.NO_ROW_LIMIT;
+
+  /** 每个分区预取的行数 */
+  private int bufferSize = DEFAULT_BUFFER_SIZE;
+
+  private ScatterQuery() {}
+
+  /** 建造者 */
+  public static class Builder {
+    private final ScatterQuery query = new ScatterQuery();
+
+    public Builder(String statement, List<QueryPartition> partitions) {
+      query.statement = statement;
+      query.partitions = new ArrayList<>(partitions);
+    }
+
+    public Builder parameter(Object parameter) {
+      query.parameter = parameter;
+      return this;
+    }
+
+    public <T> Builder comparator(Comparator<T> comparator) {
+      query.comparator = comparator;
+      return this;
+    }
+
+    public Builder limit(int limit) {
+      query.limit = limit;
+      return this;
+    }
+
+    public Builder bufferSize(int bufferSize) {
+      query.bufferSize = bufferSize;
+      return this;
+    }
+
+    public ScatterQuery build() {
+      if (query.partitions.isEmpty()) {
+        throw new IllegalArgumentException("Scatter query requires at least one partition");
+      }
+      if (query.limit <= 0 || query.bufferSize <= 0) {
+        throw new IllegalArgumentException("limit and bufferSize must be positive");
+      }
+      return query;
+    }
+  }
+}
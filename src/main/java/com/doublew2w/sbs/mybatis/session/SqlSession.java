@@ -1,5 +1,7 @@
 package com.doublew2w.sbs.mybatis.session;
 
+import com.doublew2w.sbs.mybatis.cursor.Cursor;
+import com.doublew2w.sbs.mybatis.executor.BatchResult;
 import java.util.List;
 
 /**
@@ -29,6 +31,72 @@ public interface SqlSession {
   /** 获取多条记录，这个方法容许我们可以传递一些参数 */
   <E> List<E> selectList(String statement, Object parameter);
 
+  /**
+   * 获取多条记录，按分页记录限制返回
+   *
+   * @param statement sqlID
+   * @param parameter 传入语句的参数
+   * @param rowBounds 分页记录限制
+   * @return 结果列表
+   */
+  <E> List<E> selectList(String statement, Object parameter, RowBounds rowBounds);
+
+  /**
+   * 推模式查询：每映射一行就交给结果处理器，不在内存中收集结果
+   *
+   * @param statement sqlID
+   * @param handler 结果处理器，可通过 {@link ResultContext#stop()} 提前终止
+   */
+  void select(String statement, ResultHandler handler);
+
+  /**
+   * 推模式查询，这个方法容许我们可以传递一些参数
+   *
+   * @param statement sqlID
+   * @param parameter 传入语句的参数
+   * @param handler 结果处理器
+   */
+  void select(String statement, Object parameter, ResultHandler handler);
+
+  /**
+   * 推模式查询，带分页记录限制
+   *
+   * @param statement sqlID
+   * @param parameter 传入语句的参数
+   * @param rowBounds 分页记录限制
+   * @param handler 结果处理器
+   */
+  void select(String statement, Object parameter, RowBounds rowBounds, ResultHandler handler);
+
+  /**
+   * 以游标的方式获取多条记录，逐行映射，适合大结果集
+   *
+   * <p>游标持有语句和连接，使用完毕需关闭游标（或关闭Session）
+   *
+   * @param statement sqlID
+   * @return 游标
+   */
+  <T> Cursor<T> selectCursor(String statement);
+
+  /**
+   * 以游标的方式获取多条记录，这个方法容许我们可以传递一些参数
+   *
+   * @param statement sqlID
+   * @param parameter 传入语句的参数
+   * @return 游标
+   */
+  <T> Cursor<T> selectCursor(String statement, Object parameter);
+
+  /**
+   * 以游标的方式获取多条记录，按分页记录限制返回
+   *
+   * @param statement sqlID
+   * @param parameter 传入语句的参数
+   * @param rowBounds 分页记录限制
+   * @return 游标
+   */
+  <T> Cursor<T> selectCursor(String statement, Object parameter, RowBounds rowBounds);
+
   /**
    * 执行delete语句。将返回受影响的行数。
    *
@@ -86,6 +154,13 @@ public interface SqlSession {
    */
   void commit();
 
+  /**
+   * 刷新批处理语句
+   *
+   * @return 每个批次的执行结果，包括影响行数
+   */
+  List<BatchResult> flushStatements();
+
   /**
    * 获取映射器，这个巧妙的使用了泛型，使得类型安全
    *
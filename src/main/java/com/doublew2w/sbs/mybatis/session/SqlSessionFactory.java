@@ -1,5 +1,8 @@
 package com.doublew2w.sbs.mybatis.session;
 
+import com.doublew2w.sbs.mybatis.cursor.Cursor;
+import java.util.List;
+
 /**
  * @author: DoubleW2w
  * @date: 2024/9/1 5:39
@@ -13,4 +16,60 @@ public interface SqlSessionFactory {
    * @return SqlSession
    */
   SqlSession openSession();
+
+  /**
+   * 使用指定类型的执行器打开一个 session
+   *
+   * @param execType 执行器类型
+   * @return SqlSession
+   */
+  SqlSession openSession(ExecutorType execType);
+
+  /**
+   * 打开一个 session，借用连接时使用指定的连接池通道
+   *
+   * <p>映射语句上配置的 lane 优先；数据源不是池化数据源或未配置该通道时使用默认通道
+   *
+   * @param lane 连接池通道名称
+   * @return SqlSession
+   */
+  SqlSession openSession(String lane);
+
+  /**
+   * 使用指定类型的执行器和连接池通道打开一个 session
+   *
+   * @param execType 执行器类型
+   * @param lane 连接池通道名称
+   * @return SqlSession
+   */
+  SqlSession openSession(ExecutorType execType, String lane);
+
+  /**
+   * 并行执行多条互不依赖的查询，每个并发工作线程使用独立的会话和连接
+   *
+   * <p>并发数不超过 parallelQueryMaxConcurrency，使用池化数据源时也不超过连接池上限的一半
+   *
+   * @param requests 查询请求
+   * @return 各查询的结果，顺序与请求一致
+   */
+  List<List<Object>> selectAllParallel(List<StatementRequest> requests);
+
+  /**
+   * 并行执行多条互不依赖的查询
+   *
+   * @param requests 查询请求
+   * @param maxConcurrency 本次调用最多同时占用的连接数
+   * @return 各查询的结果，顺序与请求一致
+   */
+  List<List<Object>> selectAllParallel(List<StatementRequest> requests, int maxConcurrency);
+
+  /**
+   * 分散-合并查询：按分区（键范围或分片）把一条映射语句拆成多个子查询，每个分区在独立的线程和连接上执行，结果按 ORDER BY 做流式多路归并
+   *
+   * <p>每个分区最多缓冲 bufferSize 行，不会物化任何分区的完整结果；达到 limit 或关闭游标时释放所有分区的连接。所有分区同时占用连接，使用池化数据源时分区数不能超过连接池上限的一半
+   *
+   * @param query 分散查询
+   * @return 合并后的游标，使用完毕必须关闭
+   */
+  <T> Cursor<T> selectMerged(ScatterQuery query);
 }
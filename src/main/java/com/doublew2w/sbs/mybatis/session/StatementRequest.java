@@ -0,0 +1,41 @@
+package com.doublew2w.sbs.mybatis.session;
+
+import lombok.Getter;
+
+/**
+ * 并行查询中的一条查询请求
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/18 4:50
+ * @project: sbs-mybatis
+ */
+@Getter
+public class StatementRequest {
+  /** 映射语句id */
+  private final String statement;
+
+  /** 参数对象 */
+  private final Object parameter;
+
+  /** 分页记录限制 */
+  private final RowBounds rowBounds;
+
+  public StatementRequest(String statement, Object parameter, RowBounds rowBounds) {
+    this.statement = statement;
+    this.parameter = parameter;
+    this.rowBounds = rowBounds == null ? RowBounds.DEFAULT : rowBounds;
+  }
+
+  public static StatementRequest of(String statement) {
+    return new StatementRequest(statement, null, RowBounds.DEFAULT);
+  }
+
+  public static StatementRequest of(String statement, Object parameter) {
+    return new StatementRequest(statement, parameter, RowBounds.DEFAULT);
+  }
+
+  @Override
+  public String toString() {
+    return "StatementRequest{statement='" + statement + "'}";
+  }
+}
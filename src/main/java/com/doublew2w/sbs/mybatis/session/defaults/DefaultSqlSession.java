@@ -1,12 +1,19 @@
 package com.doublew2w.sbs.mybatis.session.defaults;
 
 import com.alibaba.fastjson2.JSON;
+import com.doublew2w.sbs.mybatis.cursor.Cursor;
+import com.doublew2w.sbs.mybatis.executor.BatchResult;
 import com.doublew2w.sbs.mybatis.executor.Executor;
 import com.doublew2w.sbs.mybatis.mapping.MappedStatement;
 import com.doublew2w.sbs.mybatis.session.Configuration;
+import com.doublew2w.sbs.mybatis.session.Page;
+import com.doublew2w.sbs.mybatis.session.PageList;
+import com.doublew2w.sbs.mybatis.session.ResultHandler;
 import com.doublew2w.sbs.mybatis.session.RowBounds;
 import com.doublew2w.sbs.mybatis.session.SqlSession;
+import java.io.IOException;
 import java.sql.*;
+import java.util.ArrayList;
 import java.util.List;
 import lombok.extern.slf4j.Slf4j;
 
@@ -21,6 +28,8 @@ import lombok.extern.slf4j.Slf4j;
 public class DefaultSqlSession implements SqlSession {
   private Configuration configuration;
   private Executor executor;
+  // 本会话打开的游标，关闭会话时一并关闭
+  private List<Cursor<?>> cursorList;
 
   public DefaultSqlSession(Configuration configuration, Executor executor) {
     this.configuration = configuration;
@@ -34,7 +43,7 @@ public class DefaultSqlSession implements SqlSession {
 
   @Override
   public <T> T selectOne(String statement, Object parameter) {
-    List<T> list = this.<T>selectList(statement, parameter);
+    List<T> list = this.<T>selectList(statement, parameter, RowBounds.SELECT_ONE);
     if (list.size() == 1) {
       return list.get(0);
     } else if (list.size() > 1) {
@@ -47,10 +56,65 @@ public class DefaultSqlSession implements SqlSession {
 
   @Override
   public <E> List<E> selectList(String statement, Object parameter) {
+    return selectList(statement, parameter, RowBounds.DEFAULT);
+  }
+
+  @Override
+  public <E> List<E> selectList(String statement, Object parameter, RowBounds rowBounds) {
     log.info("执行查询 statement：{} parameter：{}", statement, JSON.toJSONString(parameter));
     MappedStatement ms = configuration.getMappedStatement(statement);
     try {
-      return executor.query(ms, parameter, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+      List<E> list = executor.query(ms, parameter, rowBounds, Executor.NO_RESULT_HANDLER);
+      if (rowBounds instanceof Page) {
+        // 键集分页：带回由最后一行生成的下一页令牌
+        return PageList.of(list, (Page<?>) rowBounds, ms.getKeysetProperty());
+      }
+      return list;
+    } catch (SQLException e) {
+      throw new RuntimeException("Error querying database.  Cause: " + e);
+    }
+  }
+
+  @Override
+  public void select(String statement, ResultHandler handler) {
+    select(statement, null, RowBounds.DEFAULT, handler);
+  }
+
+  @Override
+  public void select(String statement, Object parameter, ResultHandler handler) {
+    select(statement, parameter, RowBounds.DEFAULT, handler);
+  }
+
+  @Override
+  public void select(
+      String statement, Object parameter, RowBounds rowBounds, ResultHandler handler) {
+    log.info("执行查询 statement：{} parameter：{}", statement, JSON.toJSONString(parameter));
+    MappedStatement ms = configuration.getMappedStatement(statement);
+    try {
+      executor.query(ms, parameter, rowBounds, handler);
+    } catch (SQLException e) {
+      throw new RuntimeException("Error querying database.  Cause: " + e);
+    }
+  }
+
+  @Override
+  public <T> Cursor<T> selectCursor(String statement) {
+    return selectCursor(statement, null);
+  }
+
+  @Override
+  public <T> Cursor<T> selectCursor(String statement, Object parameter) {
+    return selectCursor(statement, parameter, RowBounds.DEFAULT);
+  }
+
+  @Override
+  public <T> Cursor<T> selectCursor(String statement, Object parameter, RowBounds rowBounds) {
+    log.info("执行游标查询 statement：{} parameter：{}", statement, JSON.toJSONString(parameter));
+    MappedStatement ms = configuration.getMappedStatement(statement);
+    try {
+      Cursor<T> cursor = executor.queryCursor(ms, parameter, rowBounds);
+      registerCursor(cursor);
+      return cursor;
     } catch (SQLException e) {
       throw new RuntimeException("Error querying database.  Cause: " + e);
     }
@@ -100,6 +164,15 @@ public class DefaultSqlSession implements SqlSession {
     }
   }
 
+  @Override
+  public List<BatchResult> flushStatements() {
+    try {
+      return executor.flushStatements();
+    } catch (SQLException e) {
+      throw new RuntimeException("Error flushing statements.  Cause: " + e);
+    }
+  }
+
   @Override
   public <T> T getMapper(Class<T> type) {
     return configuration.getMapper(type, this);
@@ -112,7 +185,32 @@ public class DefaultSqlSession implements SqlSession {
 
   @Override
   public void close() {
-    executor.close(true);
+    // 先关闭游标释放结果集和语句，再回滚并归还连接，避免下一个借用者看到未关闭的游标
+    try {
+      closeCursors();
+    } finally {
+      executor.close(true);
+    }
+  }
+
+  private void closeCursors() {
+    if (cursorList != null && !cursorList.isEmpty()) {
+      for (Cursor<?> cursor : cursorList) {
+        try {
+          cursor.close();
+        } catch (IOException e) {
+          throw new RuntimeException("Error closing cursor.  Cause: " + e, e);
+        }
+      }
+      cursorList.clear();
+    }
+  }
+
+  private <T> void registerCursor(Cursor<T> cursor) {
+    if (cursorList == null) {
+      cursorList = new ArrayList<>();
+    }
+    cursorList.add(cursor);
   }
 
   @Override
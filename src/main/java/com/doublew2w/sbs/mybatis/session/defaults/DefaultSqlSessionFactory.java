@@ -1,14 +1,40 @@
 package com.doublew2w.sbs.mybatis.session.defaults;
 
+import com.doublew2w.sbs.mybatis.cursor.Cursor;
+import com.doublew2w.sbs.mybatis.cursor.defaults.MergingCursor;
+import com.doublew2w.sbs.mybatis.cursor.defaults.PrefetchCursor;
+import com.doublew2w.sbs.mybatis.datasource.pooled.PoolLaneDataSource;
+import com.doublew2w.sbs.mybatis.datasource.pooled.PooledDataSource;
 import com.doublew2w.sbs.mybatis.executor.Executor;
 import com.doublew2w.sbs.mybatis.mapping.Environment;
+import com.doublew2w.sbs.mybatis.mapping.MappedStatement;
+import com.doublew2w.sbs.mybatis.mapping.OrderByComparator;
+import com.doublew2w.sbs.mybatis.plugin.sharding.ShardingContext;
 import com.doublew2w.sbs.mybatis.session.Configuration;
+import com.doublew2w.sbs.mybatis.session.ExecutorType;
+import com.doublew2w.sbs.mybatis.session.QueryPartition;
+import com.doublew2w.sbs.mybatis.session.RowBounds;
+import com.doublew2w.sbs.mybatis.session.ScatterQuery;
 import com.doublew2w.sbs.mybatis.session.SqlSession;
 import com.doublew2w.sbs.mybatis.session.SqlSessionFactory;
+import com.doublew2w.sbs.mybatis.session.StatementRequest;
 import com.doublew2w.sbs.mybatis.session.TransactionIsolationLevel;
 import com.doublew2w.sbs.mybatis.transaction.Transaction;
 import com.doublew2w.sbs.mybatis.transaction.TransactionFactory;
+import java.io.IOException;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import javax.sql.DataSource;
 
 /**
  * 默认的Sql会话工厂
@@ -18,7 +44,6 @@ import java.sql.SQLException;
  * @project: sbs-mybatis
  */
 public class DefaultSqlSessionFactory implements SqlSessionFactory {
-
   private final Configuration configuration;
 
   public DefaultSqlSessionFactory(Configuration configuration) {
@@ -27,15 +52,209 @@ public class DefaultSqlSessionFactory implements SqlSessionFactory {
 
   @Override
   public SqlSession openSession() {
+    return openSessionFromDataSource(configuration.getDefaultExecutorType());
+  }
+
+  @Override
+  public SqlSession openSession(ExecutorType execType) {
+    return openSessionFromDataSource(execType);
+  }
+
+  @Override
+  public SqlSession openSession(String lane) {
+    return openSessionFromDataSource(configuration.getDefaultExecutorType(), lane);
+  }
+
+  @Override
+  public SqlSession openSession(ExecutorType execType, String lane) {
+    return openSessionFromDataSource(execType, lane);
+  }
+
+  @Override
+  public List<List<Object>> selectAllParallel(List<StatementRequest> requests) {
+    return selectAllParallel(requests, configuration.getParallelQueryMaxConcurrency());
+  }
+
+  @Override
+  public List<List<Object>> selectAllParallel(
+      List<StatementRequest> requests, int maxConcurrency) {
+    int size = requests.size();
+    if (size == 0) {
+      return new ArrayList<>();
+    }
+    List<List<Object>> results = new ArrayList<>(Collections.nCopies(size, null));
+    int concurrency = Math.min(size, parallelism(maxConcurrency));
+    // 每个工作者持有一个会话（一条连接），从共享下标中依次领取查询，连接数不会超过并发上限
+    AtomicInteger nextIndex = new AtomicInteger();
+    AtomicBoolean failed = new AtomicBoolean();
+    Runnable worker =
+        () -> {
+          if (failed.get() || nextIndex.get() >= size) {
+            return;
+          }
+          SqlSession sqlSession = openSession();
+          try {
+            int index;
+            while (!failed.get() && (index = nextIndex.getAndIncrement()) < size) {
+              StatementRequest request = requests.get(index);
+              results.set(
+                  index,
+                  sqlSession.selectList(
+                      request.getStatement(), request.getParameter(), request.getRowBounds()));
+            }
+          } catch (RuntimeException e) {
+            // 任一查询失败，其余工作者不再领取新的查询
+            failed.set(true);
+            throw e;
+          } finally {
+            sqlSession.close();
+          }
+        };
+    // 调用方自己也是一个工作者，其余提交到异步执行器。提交的工作者开始运行时先认领，调用方做完后撤销还在排队的，
+    // 只等待已经在运行的，调用方本身运行在异步线程池上时也不会等待排在自己后面的任务
+    List<CompletableFuture<Void>> helpers = new ArrayList<>(concurrency - 1);
+    List<AtomicBoolean> claims = new ArrayList<>(concurrency - 1);
+    Throwable failure = null;
+    try {
+      for (int i = 1; i < concurrency; i++) {
+        AtomicBoolean claimed = new AtomicBoolean();
+        helpers.add(
+            CompletableFuture.runAsync(
+                () -> {
+                  if (claimed.compareAndSet(false, true)) {
+                    worker.run();
+                  }
+                },
+                configuration.getAsyncExecutor()));
+        claims.add(claimed);
+      }
+    } catch (RejectedExecutionException e) {
+      failed.set(true);
+      failure = e;
+    }
+    if (failure == null) {
+      try {
+        worker.run();
+      } catch (RuntimeException e) {
+        failure = e;
+      }
+    }
+    for (int i = 0; i < helpers.size(); i++) {
+      if (claims.get(i).compareAndSet(false, true)) {
+        // 还没开始运行，撤销
+        continue;
+      }
+      try {
+        helpers.get(i).join();
+      } catch (CompletionException e) {
+        if (failure == null) {
+          failure = e.getCause();
+        }
+      }
+    }
+    if (failure != null) {
+      throw new RuntimeException(
+          "Error querying database in parallel.  Cause: " + failure, failure);
+    }
+    return results;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> Cursor<T> selectMerged(ScatterQuery query) {
+    List<QueryPartition> partitions = query.getPartitions();
+    int connectionLimit = parallelism(Integer.MAX_VALUE);
+    if (partitions.size() > connectionLimit) {
+      throw new IllegalArgumentException(
+          "Scatter query needs one connection per partition, "
+              + partitions.size()
+              + " partitions exceed the limit of "
+              + connectionLimit);
+    }
+    Comparator<? super T> comparator = (Comparator<? super T>) query.getComparator();
+    if (comparator == null) {
+      MappedStatement ms = configuration.getMappedStatement(query.getStatement());
+      RowBounds rowBounds = partitions.get(0).rowBounds(query.getLimit());
+      comparator = OrderByComparator.of(ms, ms.getBoundSql(query.getParameter(), rowBounds));
+    }
+    // 所有分区立即并行开始查询，合并方按需从各分区的缓冲区取行。归并需要每个分区的首行，
+    // 生产者必须同时运行，所以使用每个分区一个线程的专用执行器，不和异步映射器方法共用有界线程池
+    ExecutorService executor = configuration.getScatterExecutor();
+    List<Cursor<T>> sources = new ArrayList<>(partitions.size());
+    try {
+      for (QueryPartition partition : partitions) {
+        sources.add(
+            PrefetchCursor.start(
+                sink -> fetchPartition(query, partition, sink), query.getBufferSize(), executor));
+      }
+    } catch (RuntimeException e) {
+      // 执行器拒绝时停止已经开始的分区
+      for (Cursor<T> source : sources) {
+        try {
+          source.close();
+        } catch (IOException ignore) {
+        }
+      }
+      throw e;
+    }
+    return new MergingCursor<>(sources, comparator, query.getLimit());
+  }
+
+  /** 在独立会话中以游标方式执行一个分区的子查询，逐行交给合并方 */
+  private <T> void fetchPartition(
+      ScatterQuery query, QueryPartition partition, Consumer<? super T> sink) throws IOException {
+    SqlSession sqlSession = openSession();
+    try {
+      Cursor<T> cursor;
+      ShardingContext.set(partition.getShard());
+      try {
+        cursor =
+            sqlSession.selectCursor(
+                query.getStatement(), query.getParameter(), partition.rowBounds(query.getLimit()));
+      } finally {
+        ShardingContext.clear();
+      }
+      try {
+        for (T row : cursor) {
+          sink.accept(row);
+        }
+      } finally {
+        cursor.close();
+      }
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  /** 实际并发数：不超过调用方上限，池化数据源下最多占用一半的连接，给其他请求留出余量 */
+  private int parallelism(int maxConcurrency) {
+    int parallelism = Math.max(1, maxConcurrency);
+    DataSource dataSource = configuration.getEnvironment().getDataSource();
+    if (dataSource instanceof PooledDataSource) {
+      int poolLimit = ((PooledDataSource) dataSource).getPoolMaximumActiveConnections() / 2;
+      parallelism = Math.min(parallelism, Math.max(1, poolLimit));
+    }
+    return parallelism;
+  }
+
+  private SqlSession openSessionFromDataSource(ExecutorType execType) {
+    return openSessionFromDataSource(execType, null);
+  }
+
+  private SqlSession openSessionFromDataSource(ExecutorType execType, String lane) {
     Transaction tx = null;
     try {
       final Environment environment = configuration.getEnvironment();
       TransactionFactory transactionFactory = environment.getTransactionFactory();
+      DataSource dataSource = environment.getDataSource();
+      if (lane != null) {
+        dataSource = new PoolLaneDataSource(dataSource, lane);
+      }
       tx =
           transactionFactory.newTransaction(
-              environment.getDataSource(), TransactionIsolationLevel.READ_COMMITTED, false);
+              dataSource, TransactionIsolationLevel.READ_COMMITTED, false);
       // 创建执行器
-      final Executor executor = configuration.newExecutor(tx);
+      final Executor executor = configuration.newExecutor(tx, execType);
       // 创建DefaultSqlSession
       return new DefaultSqlSession(configuration, executor);
     } catch (Exception e) {
@@ -0,0 +1,16 @@
+package com.doublew2w.sbs.mybatis.datasource.pooled;
+
+/**
+ * 虚拟线程判断：JDK 21+ 的版本，打包在多版本 jar 的 META-INF/versions/21 下
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/18 17:10
+ * @project: sbs-mybatis
+ */
+final class VirtualThreads {
+  private VirtualThreads() {}
+
+  static boolean isVirtual(Thread thread) {
+    return thread.isVirtual();
+  }
+}
@@ -0,0 +1,47 @@
+package com.doublew2w.sbs.mybatis.test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 测试用的模拟结果集：单列 BIGINT 类型的 id
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/18 19:30
+ * @project: sbs-mybatis
+ */
+public final class MockResultSets {
+  private MockResultSets() {}
+
+  /** count 行，id 从 1 开始递增 */
+  public static ResultSet idRows(long count) throws SQLException {
+    return idRows(1, 1, count);
+  }
+
+  /**
+   * 只进结果集，按需生成行，行数很大时也不占内存
+   *
+   * @param first 第一行的 id
+   * @param step 相邻两行 id 的差，负数表示降序
+   * @param count 行数
+   */
+  public static ResultSet idRows(long first, long step, long count) throws SQLException {
+    ResultSet rs = mock(ResultSet.class);
+    ResultSetMetaData rsmd = mock(ResultSetMetaData.class);
+    when(rs.getMetaData()).thenReturn(rsmd);
+    when(rsmd.getColumnCount()).thenReturn(1);
+    when(rsmd.getColumnLabel(1)).thenReturn("id");
+    when(rsmd.getColumnType(1)).thenReturn(Types.BIGINT);
+    when(rsmd.getColumnClassName(1)).thenReturn(Long.class.getName());
+    AtomicLong index = new AtomicLong(-1);
+    when(rs.next()).thenAnswer(invocation -> index.incrementAndGet() < count);
+    when(rs.getLong("id")).thenAnswer(invocation -> first + index.get() * step);
+    return rs;
+  }
+}
@@ -0,0 +1,154 @@
+package com.doublew2w.sbs.mybatis.test.binding;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import com.doublew2w.sbs.mybatis.binding.MapperMethod;
+import com.doublew2w.sbs.mybatis.builder.StaticSqlSource;
+import com.doublew2w.sbs.mybatis.mapping.Environment;
+import com.doublew2w.sbs.mybatis.mapping.MappedStatement;
+import com.doublew2w.sbs.mybatis.mapping.ResultMap;
+import com.doublew2w.sbs.mybatis.mapping.SqlCommandType;
+import com.doublew2w.sbs.mybatis.session.Configuration;
+import com.doublew2w.sbs.mybatis.session.SqlSession;
+import com.doublew2w.sbs.mybatis.test.MockResultSets;
+import com.doublew2w.sbs.mybatis.transaction.jdbc.JdbcTransactionFactory;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author: DoubleW2w
+ * @date: 2026/10/18 4:30
+ * @project: sbs-mybatis
+ */
+public class AsyncMapperMethodTest {
+
+  /** 异步映射器 */
+  public interface AsyncActivityMapper {
+    CompletableFuture<List<Long>> queryActivityIds();
+
+    CompletableFuture<Integer> updateActivityStatus();
+  }
+
+  private Configuration configuration;
+  private DataSource dataSource;
+  private final Set<Thread> jdbcThreads = ConcurrentHashMap.newKeySet();
+  private final List<Connection> connections = Collections.synchronizedList(new ArrayList<>());
+
+  @BeforeEach
+  void setUp() throws Exception {
+    configuration = new Configuration();
+    dataSource = mock(DataSource.class);
+    when(dataSource.getConnection()).thenAnswer(invocation -> newConnection());
+    configuration.setEnvironment(
+        new Environment.Builder("test")
+            .transactionFactory(new JdbcTransactionFactory())
+            .dataSource(dataSource)
+            .build());
+    String namespace = AsyncActivityMapper.class.getName();
+    configuration.addMappedStatement(
+        new MappedStatement.Builder(
+                configuration,
+                namespace + ".queryActivityIds",
+                SqlCommandType.SELECT,
+                new StaticSqlSource(configuration, "SELECT id FROM activity", new ArrayList<>()),
+                Long.class)
+            .resultMaps(
+                Collections.singletonList(
+                    new ResultMap.Builder(configuration, "ids-Inline", Long.class, new ArrayList<>())
+                        .build()))
+            .build());
+    configuration.addMappedStatement(
+        new MappedStatement.Builder(
+                configuration,
+                namespace + ".updateActivityStatus",
+                SqlCommandType.UPDATE,
+                new StaticSqlSource(
+                    configuration, "UPDATE activity SET status = 1", new ArrayList<>()),
+                int.class)
+            .build());
+  }
+
+  private Connection newConnection() throws SQLException {
+    Connection connection = mock(Connection.class);
+    PreparedStatement ps = mock(PreparedStatement.class);
+    when(connection.prepareStatement(anyString()))
+        .thenAnswer(
+            invocation -> {
+              jdbcThreads.add(Thread.currentThread());
+              return ps;
+            });
+    when(ps.getUpdateCount()).thenReturn(3);
+    ResultSet rs = MockResultSets.idRows(2);
+    when(ps.getResultSet()).thenReturn(rs);
+    connections.add(connection);
+    return connection;
+  }
+
+  private MapperMethod mapperMethod(String name) throws NoSuchMethodException {
+    return new MapperMethod(
+        AsyncActivityMapper.class, AsyncActivityMapper.class.getMethod(name), configuration);
+  }
+
+  @Test
+  void testSelectRunsOffCallerThreadWithOwnSession() throws Exception {
+    SqlSession callerSession = mock(SqlSession.class);
+    when(callerSession.getConfiguration()).thenReturn(configuration);
+
+    Object result = mapperMethod("queryActivityIds").execute(callerSession, null);
+
+    Assertions.assertInstanceOf(CompletableFuture.class, result);
+    Object ids = ((CompletableFuture<?>) result).get(5, TimeUnit.SECONDS);
+    Assertions.assertEquals(List.of(1L, 2L), ids);
+    Assertions.assertFalse(jdbcThreads.contains(Thread.currentThread()));
+    // 调用方会话只提供配置，不参与执行
+    verify(callerSession).getConfiguration();
+    verifyNoMoreInteractions(callerSession);
+    verify(connections.get(0)).close();
+  }
+
+  @Test
+  void testConcurrentCallsUseSeparateConnectionsAndCommit() throws Exception {
+    SqlSession callerSession = mock(SqlSession.class);
+    when(callerSession.getConfiguration()).thenReturn(configuration);
+    MapperMethod update = mapperMethod("updateActivityStatus");
+
+    List<CompletableFuture<?>> futures = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      futures.add((CompletableFuture<?>) update.execute(callerSession, null));
+    }
+    CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+
+    for (CompletableFuture<?> future : futures) {
+      Assertions.assertEquals(3, future.get());
+    }
+    Assertions.assertEquals(4, connections.size());
+    for (Connection connection : connections) {
+      verify(connection).commit();
+      verify(connection).close();
+    }
+  }
+
+  @Test
+  void testFailurePropagatesThroughFuture() throws Exception {
+    when(dataSource.getConnection()).thenThrow(new IllegalStateException("pool exhausted"));
+    SqlSession callerSession = mock(SqlSession.class);
+    when(callerSession.getConfiguration()).thenReturn(configuration);
+
+    CompletableFuture<?> future =
+        (CompletableFuture<?>) mapperMethod("queryActivityIds").execute(callerSession, null);
+
+    Assertions.assertThrows(Exception.class, () -> future.get(5, TimeUnit.SECONDS));
+    Assertions.assertTrue(future.isCompletedExceptionally());
+  }
+}
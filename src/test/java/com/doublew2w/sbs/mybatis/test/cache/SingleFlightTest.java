@@ -0,0 +1,241 @@
+package com.doublew2w.sbs.mybatis.test.cache;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import com.doublew2w.sbs.mybatis.builder.StaticSqlSource;
+import com.doublew2w.sbs.mybatis.cache.CacheException;
+import com.doublew2w.sbs.mybatis.cache.CacheKey;
+import com.doublew2w.sbs.mybatis.cache.SingleFlight;
+import com.doublew2w.sbs.mybatis.cache.impl.PerpetualCache;
+import com.doublew2w.sbs.mybatis.executor.CachingExecutor;
+import com.doublew2w.sbs.mybatis.executor.Executor;
+import com.doublew2w.sbs.mybatis.executor.SimpleExecutor;
+import com.doublew2w.sbs.mybatis.mapping.MappedStatement;
+import com.doublew2w.sbs.mybatis.mapping.ResultMap;
+import com.doublew2w.sbs.mybatis.mapping.SqlCommandType;
+import com.doublew2w.sbs.mybatis.session.Configuration;
+import com.doublew2w.sbs.mybatis.session.RowBounds;
+import com.doublew2w.sbs.mybatis.test.MockResultSets;
+import com.doublew2w.sbs.mybatis.transaction.Transaction;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author: DoubleW2w
+ * @date: 2026/10/18 6:50
+ * @project: sbs-mybatis
+ */
+public class SingleFlightTest {
+  private static final int THREADS = 8;
+
+  private static CacheKey key(String value) {
+    CacheKey key = new CacheKey();
+    key.update(value);
+    return key;
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /** 所有线程就绪后同时发起调用 */
+  private static <T> List<Future<T>> runConcurrently(Callable<T> task) throws Exception {
+    ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+    CyclicBarrier barrier = new CyclicBarrier(THREADS);
+    List<Future<T>> futures = new ArrayList<>();
+    try {
+      for (int i = 0; i < THREADS; i++) {
+        futures.add(
+            pool.submit(
+                () -> {
+                  barrier.await();
+                  return task.call();
+                }));
+      }
+      for (Future<T> future : futures) {
+        try {
+          future.get(10, TimeUnit.SECONDS);
+        } catch (ExecutionException ignore) {
+          // 由调用方检查
+        }
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+    return futures;
+  }
+
+  @Test
+  void testConcurrentCallsShareOneQuery() throws Exception {
+    SingleFlight singleFlight = new SingleFlight();
+    AtomicInteger executions = new AtomicInteger();
+    List<Future<List<Long>>> futures =
+        runConcurrently(
+            () ->
+                singleFlight.execute(
+                    key("hot"),
+                    () -> {
+                      executions.incrementAndGet();
+                      sleep(300);
+                      return new ArrayList<>(List.of(1L, 2L));
+                    },
+                    5000));
+
+    Assertions.assertEquals(1, executions.get());
+    for (Future<List<Long>> future : futures) {
+      Assertions.assertEquals(List.of(1L, 2L), future.get());
+    }
+    Assertions.assertEquals(THREADS - 1, singleFlight.getSharedCount());
+    Assertions.assertEquals(0, singleFlight.getInFlightCount());
+  }
+
+  @Test
+  void testEachCallerGetsItsOwnCopy() throws Exception {
+    SingleFlight singleFlight = new SingleFlight();
+    List<Long> rows = new ArrayList<>();
+    for (long i = 0; i < 10_000; i++) {
+      rows.add(i);
+    }
+    List<Future<List<Long>>> futures =
+        runConcurrently(
+            () -> {
+              List<Long> result =
+                  singleFlight.execute(
+                      key("mutable"),
+                      () -> {
+                        sleep(300);
+                        return new ArrayList<>(rows);
+                      },
+                      5000);
+              // 各调用方（包括执行查询的一方）修改自己的结果，不影响其他调用方复制
+              for (int i = 0; i < 1000; i++) {
+                result.add(-1L);
+                result.remove(0);
+              }
+              return result;
+            });
+    for (Future<List<Long>> future : futures) {
+      List<Long> result = future.get();
+      Assertions.assertEquals(rows.size(), result.size());
+      Assertions.assertEquals(rows.subList(1000, rows.size()), result.subList(0, 9000));
+    }
+    Assertions.assertEquals(THREADS - 1, singleFlight.getSharedCount());
+  }
+
+  @Test
+  void testWaiterTimesOut() throws Exception {
+    SingleFlight singleFlight = new SingleFlight();
+    CountDownLatch leaderStarted = new CountDownLatch(1);
+    ExecutorService pool = Executors.newSingleThreadExecutor();
+    try {
+      Future<List<Long>> leader =
+          pool.submit(
+              () ->
+                  singleFlight.execute(
+                      key("slow"),
+                      () -> {
+                        leaderStarted.countDown();
+                        sleep(500);
+                        return List.of(1L);
+                      },
+                      5000));
+      Assertions.assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+      Assertions.assertThrows(
+          CacheException.class,
+          () -> singleFlight.execute(key("slow"), () -> List.of(2L), 50));
+      Assertions.assertEquals(List.of(1L), leader.get(5, TimeUnit.SECONDS));
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  @Test
+  void testFailureSharedWithWaitersAndNotRetained() throws Exception {
+    SingleFlight singleFlight = new SingleFlight();
+    AtomicInteger executions = new AtomicInteger();
+    List<Future<List<Long>>> futures =
+        runConcurrently(
+            () ->
+                singleFlight.<Long>execute(
+                    key("broken"),
+                    () -> {
+                      executions.incrementAndGet();
+                      sleep(300);
+                      throw new SQLException("boom");
+                    },
+                    5000));
+    for (Future<List<Long>> future : futures) {
+      ExecutionException e = Assertions.assertThrows(ExecutionException.class, future::get);
+      Assertions.assertInstanceOf(SQLException.class, e.getCause());
+    }
+    Assertions.assertEquals(1, executions.get());
+    // 失败不留在进行中表里，下次调用重新查询
+    Assertions.assertEquals(
+        List.of(3L), singleFlight.execute(key("broken"), () -> List.of(3L), 5000));
+  }
+
+  @Test
+  void testCachingExecutorHitsDatabaseOncePerKey() throws Exception {
+    Configuration configuration = new Configuration();
+    configuration.setSingleFlightEnabled(true);
+    ResultMap resultMap =
+        new ResultMap.Builder(configuration, "test.hot-Inline", Long.class, new ArrayList<>())
+            .build();
+    MappedStatement ms =
+        new MappedStatement.Builder(
+                configuration,
+                "test.hot",
+                SqlCommandType.SELECT,
+                new StaticSqlSource(configuration, "SELECT id FROM activity", new ArrayList<>()),
+                Long.class)
+            .resultMaps(Collections.singletonList(resultMap))
+            .cache(new PerpetualCache("test"))
+            .useCache(true)
+            .build();
+    AtomicInteger databaseQueries = new AtomicInteger();
+
+    List<Future<List<Long>>> futures =
+        runConcurrently(
+            () -> {
+              // 每个线程一个会话
+              Executor executor =
+                  new CachingExecutor(
+                      new SimpleExecutor(configuration, mockTransaction(databaseQueries)));
+              return executor.query(ms, null, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+            });
+
+    Assertions.assertEquals(1, databaseQueries.get());
+    for (Future<List<Long>> future : futures) {
+      Assertions.assertEquals(List.of(1L), future.get());
+    }
+  }
+
+  private static Transaction mockTransaction(AtomicInteger databaseQueries) throws SQLException {
+    Transaction transaction = mock(Transaction.class);
+    Connection connection = mock(Connection.class);
+    PreparedStatement ps = mock(PreparedStatement.class);
+    when(transaction.getConnection()).thenReturn(connection);
+    when(connection.prepareStatement(anyString())).thenReturn(ps);
+    when(ps.execute())
+        .thenAnswer(
+            invocation -> {
+              databaseQueries.incrementAndGet();
+              Thread.sleep(300);
+              return true;
+            });
+    ResultSet rs = MockResultSets.idRows(1);
+    when(ps.getResultSet()).thenReturn(rs);
+    return transaction;
+  }
+}
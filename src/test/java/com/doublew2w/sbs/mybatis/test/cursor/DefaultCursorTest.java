@@ -0,0 +1,129 @@
+package com.doublew2w.sbs.mybatis.test.cursor;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import com.doublew2w.sbs.mybatis.builder.StaticSqlSource;
+import com.doublew2w.sbs.mybatis.cursor.Cursor;
+import com.doublew2w.sbs.mybatis.executor.SimpleExecutor;
+import com.doublew2w.sbs.mybatis.mapping.MappedStatement;
+import com.doublew2w.sbs.mybatis.mapping.ResultMap;
+import com.doublew2w.sbs.mybatis.mapping.SqlCommandType;
+import com.doublew2w.sbs.mybatis.session.Configuration;
+import com.doublew2w.sbs.mybatis.session.RowBounds;
+import com.doublew2w.sbs.mybatis.session.defaults.DefaultSqlSession;
+import com.doublew2w.sbs.mybatis.test.MockResultSets;
+import com.doublew2w.sbs.mybatis.transaction.Transaction;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+/**
+ * @author: DoubleW2w
+ * @date: 2026/10/18 1:40
+ * @project: sbs-mybatis
+ */
+public class DefaultCursorTest {
+  private Configuration configuration;
+  private Transaction transaction;
+  private PreparedStatement ps;
+  private ResultSet rs;
+  private MappedStatement ms;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    configuration = new Configuration();
+    transaction = mock(Transaction.class);
+    Connection connection = mock(Connection.class);
+    ps = mock(PreparedStatement.class);
+    when(transaction.getConnection()).thenReturn(connection);
+    when(connection.prepareStatement(anyString())).thenReturn(ps);
+    ResultMap resultMap =
+        new ResultMap.Builder(configuration, "test.select-Inline", Long.class, new ArrayList<>())
+            .build();
+    ms =
+        new MappedStatement.Builder(
+                configuration,
+                "test.select",
+                SqlCommandType.SELECT,
+                new StaticSqlSource(configuration, "SELECT id FROM activity", new ArrayList<>()),
+                Long.class)
+            .resultMaps(Collections.singletonList(resultMap))
+            .fetchSize(Integer.MIN_VALUE)
+            .build();
+  }
+
+  /** 模拟 rows 行、单列 id 的结果集，id 从 1 开始 */
+  private void mockRows(int rows) throws SQLException {
+    rs = MockResultSets.idRows(rows);
+    when(ps.getResultSet()).thenReturn(rs);
+    when(rs.getStatement()).thenReturn(ps);
+  }
+
+  @Test
+  void testIterateAllRows() throws Exception {
+    mockRows(5);
+    SimpleExecutor executor = new SimpleExecutor(configuration, transaction);
+    Cursor<Long> cursor = executor.queryCursor(ms, null, RowBounds.DEFAULT);
+    List<Long> ids = new ArrayList<>();
+    for (Long id : cursor) {
+      ids.add(id);
+      Assertions.assertTrue(cursor.isOpen());
+    }
+    Assertions.assertEquals(List.of(1L, 2L, 3L, 4L, 5L), ids);
+    Assertions.assertEquals(4, cursor.getCurrentIndex());
+    Assertions.assertTrue(cursor.isConsumed());
+    verify(ps).setFetchSize(Integer.MIN_VALUE);
+    verify(rs).close();
+    verify(ps).close();
+  }
+
+  @Test
+  void testFetchOneRowPerNext() throws Exception {
+    mockRows(1000);
+    SimpleExecutor executor = new SimpleExecutor(configuration, transaction);
+    Cursor<Long> cursor = executor.queryCursor(ms, null, RowBounds.DEFAULT);
+    Iterator<Long> iterator = cursor.iterator();
+    Assertions.assertEquals(1L, iterator.next());
+    Assertions.assertEquals(2L, iterator.next());
+    // 只向驱动请求了两行
+    verify(rs, times(2)).next();
+    cursor.close();
+    Assertions.assertFalse(cursor.isOpen());
+    Assertions.assertFalse(iterator.hasNext());
+    verify(ps).close();
+  }
+
+  @Test
+  void testSessionClosesCursorBeforeReleasingConnection() throws Exception {
+    mockRows(10);
+    configuration.addMappedStatement(ms);
+    DefaultSqlSession session =
+        new DefaultSqlSession(configuration, new SimpleExecutor(configuration, transaction));
+    Cursor<Long> cursor = session.selectCursor("test.select");
+    Assertions.assertEquals(1L, cursor.iterator().next());
+    session.close();
+    Assertions.assertFalse(cursor.isOpen());
+    InOrder inOrder = inOrder(rs, ps, transaction);
+    inOrder.verify(rs).close();
+    inOrder.verify(ps).close();
+    inOrder.verify(transaction).close();
+  }
+
+  @Test
+  void testRowBounds() throws Exception {
+    mockRows(10);
+    SimpleExecutor executor = new SimpleExecutor(configuration, transaction);
+    Cursor<Long> cursor = executor.queryCursor(ms, null, new RowBounds(3, 2));
+    List<Long> ids = new ArrayList<>();
+    cursor.forEach(ids::add);
+    Assertions.assertEquals(List.of(4L, 5L), ids);
+    Assertions.assertTrue(cursor.isConsumed());
+  }
+}
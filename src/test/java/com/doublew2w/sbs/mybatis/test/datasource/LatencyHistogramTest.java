@@ -0,0 +1,81 @@
+package com.doublew2w.sbs.mybatis.test.datasource;
+
+import com.doublew2w.sbs.mybatis.datasource.pooled.LatencyHistogram;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author: DoubleW2w
+ * @date: 2026/10/18 16:20
+ * @project: sbs-mybatis
+ */
+public class LatencyHistogramTest {
+
+  @Test
+  void reportsPercentilesWithinBucketPrecision() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    Assertions.assertEquals(0, histogram.getPercentile(99));
+    for (long value = 1; value <= 1000; value++) {
+      histogram.record(value);
+    }
+    Assertions.assertEquals(1000, histogram.getCount());
+    Assertions.assertEquals(1000, histogram.getMax());
+    Assertions.assertEquals(500, histogram.getMean());
+    assertWithin(500, histogram.getPercentile(50));
+    assertWithin(990, histogram.getPercentile(99));
+    Assertions.assertEquals(1000, histogram.getPercentile(100));
+    // 小于 16 的值精确记录
+    Assertions.assertEquals(10, histogram.getPercentile(1));
+  }
+
+  @Test
+  void recordsExtremeValues() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(-5);
+    histogram.record(Long.MAX_VALUE);
+    Assertions.assertEquals(2, histogram.getCount());
+    Assertions.assertEquals(0, histogram.getPercentile(50));
+    Assertions.assertEquals(Long.MAX_VALUE, histogram.getPercentile(100));
+    histogram.reset();
+    Assertions.assertEquals(0, histogram.getCount());
+    Assertions.assertEquals(0, histogram.getMax());
+  }
+
+  @Test
+  void countsConcurrentRecordsWithoutLocking() throws Exception {
+    LatencyHistogram histogram = new LatencyHistogram();
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < 4; t++) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  for (int i = 0; i < 10000; i++) {
+                    histogram.record(i % 100);
+                  }
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get(5, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    Assertions.assertEquals(40000, histogram.getCount());
+    Assertions.assertEquals(99, histogram.getMax());
+  }
+
+  private static void assertWithin(long expected, long actual) {
+    // 每个 2 的幂区间 16 个桶，上界误差不超过 1/16
+    Assertions.assertTrue(
+        actual >= expected && actual <= expected + expected / 16 + 1,
+        "expected about " + expected + " but was " + actual);
+  }
+}
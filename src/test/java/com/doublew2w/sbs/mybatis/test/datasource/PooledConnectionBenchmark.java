@@ -0,0 +1,99 @@
+package com.doublew2w.sbs.mybatis.test.datasource;
+
+import com.doublew2w.sbs.mybatis.datasource.pooled.PooledConnection;
+import com.doublew2w.sbs.mybatis.datasource.pooled.PooledDataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * 池化连接调用开销的微基准：直接调用、反射代理（原实现）、委托包装类
+ *
+ * <p>不属于单元测试，手动运行 main 方法，例如在 IDE 中运行或使用 {@code java -cp target/classes:target/test-classes}。
+ *
+ * @author: DoubleW2w
+ * @date: 2026/10/18 13:20
+ * @project: sbs-mybatis
+ */
+public class PooledConnectionBenchmark {
+  private static final int ROUNDS = 5;
+
+  private static final int OPERATIONS = 10_000_000;
+
+  /** 防止 JIT 消除调用 */
+  private static long sink;
+
+  public static void main(String[] args) throws Exception {
+    Connection real = stub(Connection.class);
+    Connection reflective = reflectionProxy(Connection.class, real);
+    Connection wrapper = new PooledConnection(real, new PooledDataSource()).getProxyConnection();
+    PreparedStatement realStatement = stub(PreparedStatement.class);
+    PreparedStatement reflectiveStatement =
+        reflectionProxy(PreparedStatement.class, realStatement);
+    PreparedStatement wrapperStatement = wrapper.prepareStatement("SELECT 1");
+
+    for (int round = 1; round <= ROUNDS; round++) {
+      System.out.printf(
+          "round %d  connection.getHoldability: direct %.1f ns, reflection %.1f ns, wrapper %.1f ns"
+              + "  |  statement.setLong: direct %.1f ns, reflection %.1f ns, wrapper %.1f ns%n",
+          round,
+          connectionCall(real),
+          connectionCall(reflective),
+          connectionCall(wrapper),
+          statementCall(realStatement),
+          statementCall(reflectiveStatement),
+          statementCall(wrapperStatement));
+    }
+    System.out.println(sink == 42 ? "" : "done");
+  }
+
+  private static double connectionCall(Connection connection) throws SQLException {
+    long start = System.nanoTime();
+    for (int i = 0; i < OPERATIONS; i++) {
+      sink += connection.getHoldability();
+    }
+    return (System.nanoTime() - start) / (double) OPERATIONS;
+  }
+
+  private static double statementCall(PreparedStatement statement) throws SQLException {
+    long start = System.nanoTime();
+    for (int i = 0; i < OPERATIONS; i++) {
+      statement.setLong(1, i);
+    }
+    return (System.nanoTime() - start) / (double) OPERATIONS;
+  }
+
+  /** 与原 PooledConnection 相同的分发方式：方法名比较 + Method.invoke */
+  private static <T> T reflectionProxy(Class<T> type, T target) {
+    return type.cast(
+        Proxy.newProxyInstance(
+            type.getClassLoader(),
+            new Class<?>[] {type},
+            (proxy, method, args) -> {
+              if ("close".equals(method.getName())) {
+                return null;
+              }
+              try {
+                return method.invoke(target, args);
+              } catch (InvocationTargetException e) {
+                throw e.getCause();
+              }
+            }));
+  }
+
+  /** 被调用的真实对象：返回默认值，同样经过代理分发，两种方式的开销差即为池化层的开销差 */
+  private static <T> T stub(Class<T> type) {
+    return type.cast(
+        Proxy.newProxyInstance(
+            type.getClassLoader(),
+            new Class<?>[] {type},
+            (proxy, method, args) -> {
+              if (method.getReturnType() == PreparedStatement.class) {
+                return stub(PreparedStatement.class);
+              }
+              return method.getReturnType() == int.class ? 1 : null;
+            }));
+  }
+}
@@ -0,0 +1,706 @@
+package com.doublew2w.sbs.mybatis.test.datasource;
+
+import com.doublew2w.sbs.mybatis.datasource.pooled.LeakSuspect;
+import com.doublew2w.sbs.mybatis.datasource.pooled.PoolLane;
+import com.doublew2w.sbs.mybatis.datasource.pooled.PoolLaneContext;
+import com.doublew2w.sbs.mybatis.datasource.pooled.PoolSizeController;
+import com.doublew2w.sbs.mybatis.datasource.pooled.PooledDataSource;
+import com.doublew2w.sbs.mybatis.session.AsyncExecutors;
+import com.doublew2w.sbs.mybatis.session.TransactionIsolationLevel;
+import com.doublew2w.sbs.mybatis.transaction.Transaction;
+import com.doublew2w.sbs.mybatis.transaction.jdbc.JdbcTransaction;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author: DoubleW2w
+ * @date: 2026/10/18 10:55
+ * @project: sbs-mybatis
+ */
+public class PooledDataSourceTest {
+  private PooledDataSource dataSource;
+
+  @BeforeEach
+  void setUp() {
+    MockDriver.CREATED.set(0);
+    MockDriver.VALID.set(true);
+    MockDriver.PREPARED.set(0);
+    MockDriver.CLOSED_STATEMENTS.set(0);
+    MockDriver.CALLS.clear();
+    dataSource = new PooledDataSource();
+    dataSource.setDriver(MockDriver.class.getName());
+    dataSource.setUrl(MockDriver.URL);
+    dataSource.setUsername("test");
+    dataSource.setPassword("test");
+  }
+
+  @AfterEach
+  void tearDown() {
+    dataSource.close();
+  }
+
+  @Test
+  void reusesConnectionReturnedByTheSameThread() throws SQLException {
+    Connection first = dataSource.getConnection();
+    Connection realFirst = unwrap(first);
+    first.close();
+
+    Connection second = dataSource.getConnection();
+    Assertions.assertSame(realFirst, unwrap(second));
+    Assertions.assertThrows(SQLException.class, first::createStatement);
+    second.close();
+    Assertions.assertEquals(1, MockDriver.CREATED.get());
+    Assertions.assertEquals(1, dataSource.getState().getIdleConnectionCount());
+    Assertions.assertEquals(0, dataSource.getState().getActiveConnectionCount());
+    Assertions.assertEquals(2, dataSource.getState().getBorrowHistogram().getCount());
+    Assertions.assertEquals(2, dataSource.getState().getCheckoutHistogram().getCount());
+    Assertions.assertEquals(1, dataSource.getState().getConnectionCreationHistogram().getCount());
+  }
+
+  @Test
+  void handsReturnedConnectionToWaiter() throws Exception {
+    dataSource.setPoolMaximumActiveConnections(1);
+    Connection held = dataSource.getConnection();
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<Connection> waiter = executor.submit(() -> dataSource.getConnection());
+      while (dataSource.getState().getWaitingThreadCount() == 0) {
+        Thread.yield();
+      }
+      Connection realHeld = unwrap(held);
+      held.close();
+
+      Connection handed = waiter.get(5, TimeUnit.SECONDS);
+      Assertions.assertSame(realHeld, unwrap(handed));
+      Assertions.assertEquals(1, MockDriver.CREATED.get());
+      Assertions.assertEquals(1, dataSource.getState().getHadToWaitCount());
+      handed.close();
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void claimsOverdueConnection() throws Exception {
+    dataSource.setPoolMaximumActiveConnections(1);
+    dataSource.setPoolMaximumCheckoutTime(10);
+    Connection overdue = dataSource.getConnection();
+    Connection realOverdue = unwrap(overdue);
+    TimeUnit.MILLISECONDS.sleep(30);
+
+    Connection claimed = dataSource.getConnection();
+    Assertions.assertSame(realOverdue, unwrap(claimed));
+    Assertions.assertEquals(1, dataSource.getState().getClaimedOverdueConnectionCount());
+    Assertions.assertThrows(SQLException.class, overdue::createStatement);
+
+    // 被回收的旧代理再次关闭不影响新的借用者
+    overdue.close();
+    Assertions.assertEquals(1, dataSource.getState().getActiveConnectionCount());
+    claimed.close();
+    Assertions.assertEquals(1, dataSource.getState().getIdleConnectionCount());
+  }
+
+  @Test
+  void keepsCountsConsistentUnderContention() throws Exception {
+    dataSource.setPoolMaximumActiveConnections(4);
+    dataSource.setPoolMaximumIdleConnections(4);
+    int threads = 16;
+    int loops = 200;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  for (int j = 0; j < loops; j++) {
+                    try (Connection connection = dataSource.getConnection()) {
+                      Assertions.assertNotNull(unwrap(connection));
+                    }
+                  }
+                  return null;
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get(30, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    Assertions.assertEquals((long) threads * loops, dataSource.getState().getRequestCount());
+    Assertions.assertEquals(0, dataSource.getState().getActiveConnectionCount());
+    Assertions.assertEquals(0, dataSource.getState().getBadConnectionCount());
+    Assertions.assertTrue(MockDriver.CREATED.get() <= 4);
+  }
+
+  @Test
+  void fillsMinimumIdleInBackground() throws Exception {
+    dataSource.setMinimumIdle(3);
+    dataSource.setHousekeepingPeriod(20);
+    dataSource.getConnection().close();
+
+    // 预热任务可能与首次借用并发创建连接
+    awaitTrue(() -> dataSource.getState().getIdleConnectionCount() >= 3);
+    Assertions.assertTrue(MockDriver.CREATED.get() <= 4);
+  }
+
+  @Test
+  void evictsIdleConnectionsAboveMinimumIdle() throws Exception {
+    dataSource.setMinimumIdle(1);
+    dataSource.setIdleTimeout(30);
+    dataSource.setHousekeepingPeriod(20);
+    List<Connection> connections = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      connections.add(dataSource.getConnection());
+    }
+    for (Connection connection : connections) {
+      connection.close();
+    }
+
+    awaitTrue(() -> dataSource.getState().getIdleConnectionCount() == 1);
+    TimeUnit.MILLISECONDS.sleep(100);
+    Assertions.assertEquals(1, dataSource.getState().getIdleConnectionCount());
+  }
+
+  @Test
+  void retiresConnectionsAfterMaxLifetime() throws Exception {
+    dataSource.setMaxLifetime(50);
+    dataSource.setHousekeepingPeriod(20);
+    Connection borrowed = dataSource.getConnection();
+    Connection first = unwrap(borrowed);
+    TimeUnit.MILLISECONDS.sleep(80);
+    // 借出中的连接到期后不再放回连接池
+    borrowed.close();
+    Assertions.assertEquals(0, dataSource.getState().getIdleConnectionCount());
+
+    Connection second = dataSource.getConnection();
+    Assertions.assertNotSame(first, unwrap(second));
+    second.close();
+    awaitTrue(() -> dataSource.getState().getIdleConnectionCount() == 0);
+  }
+
+  @Test
+  void stopsHousekeeperWhenUnclosedPoolIsCollected() throws Exception {
+    PooledDataSource unclosed = new PooledDataSource();
+    unclosed.setDriver(MockDriver.class.getName());
+    unclosed.setUrl(MockDriver.URL);
+    unclosed.setHousekeepingPeriod(10);
+    unclosed.getConnection().close();
+    Assertions.assertTrue(housekeeperThreadCount() > 0);
+
+    WeakReference<PooledDataSource> reference = new WeakReference<>(unclosed);
+    unclosed = null;
+    awaitTrue(
+        () -> {
+          System.gc();
+          return reference.get() == null && housekeeperThreadCount() == 0;
+        });
+  }
+
+  @Test
+  void skipsValidationWithinWindow() throws Exception {
+    dataSource.setValidationWindow(50);
+    dataSource.getConnection().close();
+    dataSource.getConnection().close();
+    Assertions.assertEquals(0, dataSource.getState().getValidationCount());
+    Assertions.assertTrue(dataSource.getState().getSkippedValidationCount() >= 4);
+
+    TimeUnit.MILLISECONDS.sleep(80);
+    dataSource.getConnection().close();
+    Assertions.assertEquals(1, dataSource.getState().getValidationCount());
+    Assertions.assertEquals(0, dataSource.getState().getFailedValidationCount());
+  }
+
+  @Test
+  void replacesConnectionFailingValidation() throws Exception {
+    dataSource.setValidationWindow(0);
+    Connection borrowed = dataSource.getConnection();
+    Connection first = unwrap(borrowed);
+    borrowed.close();
+
+    MockDriver.VALID.set(false);
+    Assertions.assertThrows(SQLException.class, () -> dataSource.getConnection());
+    Assertions.assertEquals(0, dataSource.getState().getIdleConnectionCount());
+
+    MockDriver.VALID.set(true);
+    Connection second = dataSource.getConnection();
+    Assertions.assertNotSame(first, unwrap(second));
+    Assertions.assertTrue(dataSource.getState().getFailedValidationCount() > 0);
+    Assertions.assertTrue(dataSource.getState().getBadConnectionCount() > 0);
+    second.close();
+  }
+
+  @Test
+  void reportsLeakedConnectionWithBorrowSite() throws Exception {
+    dataSource.setLeakDetectionThreshold(30);
+    dataSource.setLeakDetectionSampleRate(1);
+    Connection leaked = dataSource.getConnection();
+
+    awaitTrue(() -> dataSource.getState().getLeakedConnectionCount() == 1);
+    List<LeakSuspect> suspects = dataSource.getState().getLeakSuspects();
+    Assertions.assertEquals(1, suspects.size());
+    LeakSuspect suspect = suspects.get(0);
+    Assertions.assertEquals(Thread.currentThread().getName(), suspect.getThreadName());
+    Assertions.assertTrue(suspect.getHeldMillis() > 30);
+    Assertions.assertTrue(
+        Arrays.stream(suspect.getBorrowStackTrace())
+            .anyMatch(e -> "reportsLeakedConnectionWithBorrowSite".equals(e.getMethodName())));
+
+    // 每次借用只报告一次
+    TimeUnit.MILLISECONDS.sleep(60);
+    Assertions.assertEquals(1, dataSource.getState().getLeakedConnectionCount());
+    leaked.close();
+    Assertions.assertTrue(dataSource.getState().getLeakSuspects().isEmpty());
+  }
+
+  @Test
+  void reusesCachedStatementAcrossBorrows() throws Exception {
+    dataSource.setStatementCacheSize(2);
+    try (Connection connection = dataSource.getConnection()) {
+      PreparedStatement statement = connection.prepareStatement("SELECT 1");
+      Assertions.assertSame(connection, statement.getConnection());
+      statement.close();
+      Assertions.assertTrue(statement.isClosed());
+      Assertions.assertThrows(SQLException.class, statement::executeQuery);
+    }
+    try (Connection connection = dataSource.getConnection()) {
+      connection.prepareStatement("SELECT 1").close();
+      // 借用者忘记关闭的语句在连接归还时放回缓存
+      connection.prepareStatement("SELECT 2");
+    }
+    try (Connection connection = dataSource.getConnection()) {
+      connection.prepareStatement("SELECT 2").close();
+    }
+    Assertions.assertEquals(2, MockDriver.PREPARED.get());
+    Assertions.assertEquals(0, MockDriver.CLOSED_STATEMENTS.get());
+    Assertions.assertEquals(2, dataSource.getState().getStatementCacheHitCount());
+    Assertions.assertEquals(2, dataSource.getState().getStatementCacheMissCount());
+  }
+
+  @Test
+  void resultSetReturnsPooledStatement() throws Exception {
+    dataSource.setStatementCacheSize(2);
+    try (Connection connection = dataSource.getConnection()) {
+      PreparedStatement statement = connection.prepareStatement("SELECT 1");
+      ResultSet rs = statement.executeQuery();
+      Assertions.assertSame(statement, rs.getStatement());
+      Assertions.assertSame(connection, rs.getStatement().getConnection());
+      // 经由结果集关闭语句，同样放回语句缓存而不是关闭驱动语句
+      rs.getStatement().close();
+      Assertions.assertTrue(statement.isClosed());
+      connection.prepareStatement("SELECT 1").close();
+    }
+    Assertions.assertEquals(1, MockDriver.PREPARED.get());
+    Assertions.assertEquals(0, MockDriver.CLOSED_STATEMENTS.get());
+    Assertions.assertEquals(1, dataSource.getState().getStatementCacheHitCount());
+  }
+
+  @Test
+  void evictsCachedStatements() throws Exception {
+    dataSource.setStatementCacheSize(2);
+    dataSource.setValidationWindow(0);
+    Connection connection = dataSource.getConnection();
+    connection.prepareStatement("SELECT 1").close();
+    connection.prepareStatement("SELECT 2").close();
+    connection.prepareStatement("SELECT 3").close();
+    Assertions.assertEquals(1, dataSource.getState().getStatementCacheEvictionCount());
+    Assertions.assertEquals(1, MockDriver.CLOSED_STATEMENTS.get());
+
+    // 失效的连接被关闭时清空语句缓存
+    MockDriver.VALID.set(false);
+    connection.close();
+    Assertions.assertEquals(3, MockDriver.CLOSED_STATEMENTS.get());
+  }
+
+  @Test
+  void skipsRedundantStateChangesAndRollbacks() throws Exception {
+    try (Connection connection = dataSource.getConnection()) {
+      connection.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+      connection.setAutoCommit(false);
+      connection.prepareStatement("UPDATE activity SET id = 1").executeUpdate();
+      connection.rollback();
+    }
+    // 已回滚，归还时无需再次回滚
+    Assertions.assertEquals(1, MockDriver.calls("rollback"));
+
+    try (Connection connection = dataSource.getConnection()) {
+      connection.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+      connection.setAutoCommit(false);
+      Assertions.assertFalse(connection.getAutoCommit());
+      Assertions.assertEquals(
+          Connection.TRANSACTION_READ_COMMITTED, connection.getTransactionIsolation());
+      // 未执行语句，提交和回滚都不访问数据库
+      connection.commit();
+      connection.rollback();
+    }
+    Assertions.assertEquals(1, MockDriver.calls("setAutoCommit"));
+    Assertions.assertEquals(1, MockDriver.calls("setTransactionIsolation"));
+    Assertions.assertEquals(0, MockDriver.calls("getTransactionIsolation"));
+    Assertions.assertEquals(0, MockDriver.calls("commit"));
+    Assertions.assertEquals(1, MockDriver.calls("rollback"));
+
+    try (Connection connection = dataSource.getConnection()) {
+      connection.createStatement().execute("DELETE FROM activity");
+    }
+    // 执行过语句却未提交，归还时回滚
+    Assertions.assertEquals(2, MockDriver.calls("rollback"));
+    Assertions.assertEquals(1, MockDriver.CREATED.get());
+  }
+
+  @Test
+  void capsLanesAndKeepsReservedCapacity() throws Exception {
+    dataSource.setPoolMaximumActiveConnections(3);
+    dataSource.setPoolLanes("api:10:1, report:1:0:2");
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    List<Connection> reports = new ArrayList<>();
+    try {
+      PoolLaneContext.set("report");
+      reports.add(dataSource.getConnection());
+      reports.add(dataSource.getConnection());
+      Future<Connection> third = executor.submit(() -> borrowOnLane("report"));
+      awaitTrue(() -> lane("report").getWaitingCount() == 1);
+      Assertions.assertFalse(third.isDone());
+
+      // 报表通道已达上限，在线请求仍能借到保留的连接
+      PoolLaneContext.set("api");
+      try (Connection api = dataSource.getConnection()) {
+        Assertions.assertEquals(1, lane("api").getBorrowedCount());
+        Assertions.assertEquals(2, lane("report").getBorrowedCount());
+      }
+      reports.remove(0).close();
+      reports.add(third.get(5, TimeUnit.SECONDS));
+      Assertions.assertEquals(2, lane("report").getBorrowedCount());
+      Assertions.assertEquals(0, lane("api").getBorrowedCount());
+    } finally {
+      PoolLaneContext.clear();
+      for (Connection connection : reports) {
+        connection.close();
+      }
+      executor.shutdownNow();
+    }
+    Assertions.assertEquals(0, lane("report").getBorrowedCount());
+    Assertions.assertEquals(1, dataSource.getState().getHadToWaitCount());
+  }
+
+  @Test
+  void servesHigherPriorityLaneFirst() throws Exception {
+    dataSource.setPoolMaximumActiveConnections(1);
+    dataSource.addLane(new PoolLane("api", 10, 0, 0));
+    dataSource.addLane(new PoolLane("report", 1, 0, 0));
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Connection held = dataSource.getConnection();
+      Assertions.assertEquals(1, lane(PoolLane.DEFAULT).getBorrowedCount());
+      Future<Connection> report = executor.submit(() -> borrowOnLane("report"));
+      awaitTrue(() -> lane("report").getWaitingCount() == 1);
+      Future<Connection> api = executor.submit(() -> borrowOnLane("api"));
+      awaitTrue(() -> lane("api").getWaitingCount() == 1);
+
+      held.close();
+      Connection apiConnection = api.get(5, TimeUnit.SECONDS);
+      Assertions.assertFalse(report.isDone());
+      apiConnection.close();
+      report.get(5, TimeUnit.SECONDS).close();
+    } finally {
+      executor.shutdownNow();
+    }
+    Assertions.assertEquals(1, MockDriver.CREATED.get());
+  }
+
+  @Test
+  void growsLimitWhileBorrowersWait() throws Exception {
+    dataSource.setPoolMaximumActiveConnections(2);
+    dataSource.setAdaptiveSizingPeriod(20);
+    dataSource.setAdaptiveMaximumActiveConnections(6);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Connection first = dataSource.getConnection();
+      Connection second = dataSource.getConnection();
+      Future<Connection> third = executor.submit(() -> dataSource.getConnection());
+      // 两个连接都未归还，等待者由扩容后新建的连接满足
+      third.get(5, TimeUnit.SECONDS).close();
+      PoolSizeController controller = dataSource.getPoolSizeController();
+      Assertions.assertTrue(controller.getCurrentLimit() > 2);
+      Assertions.assertTrue(controller.getIncreaseCount() >= 1);
+      Assertions.assertEquals(3, MockDriver.CREATED.get());
+      first.close();
+      second.close();
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void shrinksLimitWhenIdle() throws Exception {
+    dataSource.setPoolMaximumActiveConnections(4);
+    dataSource.setAdaptiveSizingPeriod(10);
+    dataSource.setAdaptiveMinimumActiveConnections(2);
+    dataSource.getConnection().close();
+    PoolSizeController controller = dataSource.getPoolSizeController();
+    awaitTrue(() -> controller.getCurrentLimit() == 2);
+    // 到达下界后保持不变
+    awaitTrue(() -> controller.getLastDecision() == PoolSizeController.Decision.HOLD);
+    Assertions.assertEquals(2, controller.getCurrentLimit());
+    Assertions.assertEquals(2, controller.getDecreaseCount());
+    Assertions.assertEquals(4, controller.getMaximumLimit());
+  }
+
+  @Test
+  void replacesConnectionsGraduallyAfterPasswordChange() throws Exception {
+    Connection inFlight = dataSource.getConnection();
+    dataSource.getConnection().close();
+    Assertions.assertEquals(2, MockDriver.CREATED.get());
+
+    dataSource.setPassword("rotated");
+    // 借出中的连接不受影响，空闲的旧连接由后台线程替换
+    inFlight.createStatement().execute("SELECT 1");
+    awaitTrue(() -> MockDriver.CREATED.get() == 3);
+    awaitTrue(() -> dataSource.getState().getStaleConnectionCount() == 1);
+    Assertions.assertEquals(1, MockDriver.calls("close"));
+    Assertions.assertEquals(1, dataSource.getState().getIdleConnectionCount());
+
+    // 旧连接归还后关闭，并补充一个新连接
+    inFlight.close();
+    awaitTrue(() -> MockDriver.CREATED.get() == 4);
+    awaitTrue(() -> dataSource.getState().getIdleConnectionCount() == 2);
+    Assertions.assertEquals(0, dataSource.getState().getStaleConnectionCount());
+    Assertions.assertEquals(2, MockDriver.calls("close"));
+    Assertions.assertEquals(0, dataSource.getState().getBadConnectionCount());
+  }
+
+  @Test
+  void servesVirtualThreadSessionsWithoutPinningCarriers() throws Exception {
+    Assumptions.assumeTrue(AsyncExecutors.isVirtualThreadSupported(), "requires JDK 21+");
+    dataSource.setPoolMaximumActiveConnections(4);
+    dataSource.setPoolMaximumIdleConnections(4);
+    dataSource.setPoolTimeToWait(60000);
+    int sessions = 10_000;
+    List<Connection> held = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      held.add(dataSource.getConnection());
+    }
+    ExecutorService executor = AsyncExecutors.newExecutor(1, 1, true);
+    try {
+      List<Future<?>> futures = new ArrayList<>(sessions);
+      for (int i = 0; i < sessions; i++) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  Transaction transaction =
+                      new JdbcTransaction(
+                          dataSource, TransactionIsolationLevel.READ_COMMITTED, false);
+                  try {
+                    transaction.getConnection().prepareStatement("SELECT 1").execute();
+                    transaction.commit();
+                  } finally {
+                    transaction.close();
+                  }
+                  return null;
+                }));
+      }
+      // 远多于载体线程数的会话同时等待连接，说明等待时没有占住载体线程
+      awaitTrue(() -> dataSource.getState().getWaitingThreadCount() > 1000);
+      executor.submit(() -> null).get(5, TimeUnit.SECONDS);
+
+      for (Connection connection : held) {
+        connection.close();
+      }
+      for (Future<?> future : futures) {
+        future.get(60, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    Assertions.assertEquals(sessions + 4L, dataSource.getState().getRequestCount());
+    Assertions.assertEquals(0, dataSource.getState().getActiveConnectionCount());
+    Assertions.assertEquals(0, dataSource.getState().getBadConnectionCount());
+    Assertions.assertTrue(MockDriver.CREATED.get() <= 4);
+  }
+
+  private Connection borrowOnLane(String name) throws SQLException {
+    PoolLaneContext.set(name);
+    try {
+      return dataSource.getConnection();
+    } finally {
+      PoolLaneContext.clear();
+    }
+  }
+
+  private PoolLane lane(String name) {
+    for (PoolLane lane : dataSource.getLanes()) {
+      if (lane.getName().equals(name)) {
+        return lane;
+      }
+    }
+    throw new AssertionError("No lane " + name);
+  }
+
+  private static long housekeeperThreadCount() {
+    return Thread.getAllStackTraces().keySet().stream()
+        .filter(thread -> thread.getName().startsWith("sbs-mybatis-pool-housekeeper-"))
+        .filter(Thread::isAlive)
+        .count();
+  }
+
+  private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 5000;
+    while (!condition.getAsBoolean()) {
+      Assertions.assertTrue(System.currentTimeMillis() < deadline, "condition not met in time");
+      TimeUnit.MILLISECONDS.sleep(10);
+    }
+  }
+
+  private static Connection unwrap(Connection connection) throws SQLException {
+    return connection.getMetaData().getConnection();
+  }
+
+  /** 每次连接返回一个新的代理连接，其元数据指向连接本身，便于识别真实连接 */
+  public static class MockDriver implements Driver {
+    static final String URL = "jdbc:sbs-pool-test:pool";
+    static final AtomicInteger CREATED = new AtomicInteger();
+    static final AtomicBoolean VALID = new AtomicBoolean(true);
+    static final AtomicInteger PREPARED = new AtomicInteger();
+    static final AtomicInteger CLOSED_STATEMENTS = new AtomicInteger();
+    static final Map<String, AtomicInteger> CALLS = new ConcurrentHashMap<>();
+
+    static int calls(String methodName) {
+      AtomicInteger count = CALLS.get(methodName);
+      return count == null ? 0 : count.get();
+    }
+
+    @Override
+    public Connection connect(String url, Properties info) throws SQLException {
+      if (!acceptsURL(url)) {
+        return null;
+      }
+      CREATED.incrementAndGet();
+      Connection[] self = new Connection[1];
+      boolean[] autoCommit = {true};
+      int[] isolation = {Connection.TRANSACTION_REPEATABLE_READ};
+      DatabaseMetaData metaData =
+          (DatabaseMetaData)
+              Proxy.newProxyInstance(
+                  getClass().getClassLoader(),
+                  new Class<?>[] {DatabaseMetaData.class},
+                  (proxy, method, args) ->
+                      "getConnection".equals(method.getName()) ? self[0] : null);
+      self[0] =
+          (Connection)
+              Proxy.newProxyInstance(
+                  getClass().getClassLoader(),
+                  new Class<?>[] {Connection.class},
+                  (proxy, method, args) -> {
+                    CALLS
+                        .computeIfAbsent(method.getName(), k -> new AtomicInteger())
+                        .incrementAndGet();
+                    switch (method.getName()) {
+                      case "getMetaData":
+                        return metaData;
+                      case "getAutoCommit":
+                        return autoCommit[0];
+                      case "setAutoCommit":
+                        autoCommit[0] = (Boolean) args[0];
+                        return null;
+                      case "getTransactionIsolation":
+                        return isolation[0];
+                      case "setTransactionIsolation":
+                        isolation[0] = (Integer) args[0];
+                        return null;
+                      case "isValid":
+                        return VALID.get();
+                      case "prepareStatement":
+                      case "createStatement":
+                        return newStatement();
+                      case "equals":
+                        return proxy == args[0];
+                      case "hashCode":
+                        return System.identityHashCode(proxy);
+                      default:
+                        return defaultValue(method.getReturnType());
+                    }
+                  });
+      return self[0];
+    }
+
+    private static PreparedStatement newStatement() {
+      PREPARED.incrementAndGet();
+      return (PreparedStatement)
+          Proxy.newProxyInstance(
+              MockDriver.class.getClassLoader(),
+              new Class<?>[] {PreparedStatement.class},
+              (proxy, method, args) -> {
+                if ("close".equals(method.getName())) {
+                  CLOSED_STATEMENTS.incrementAndGet();
+                }
+                if (method.getReturnType() == ResultSet.class) {
+                  return newResultSet();
+                }
+                return defaultValue(method.getReturnType());
+              });
+    }
+
+    private static ResultSet newResultSet() {
+      return (ResultSet)
+          Proxy.newProxyInstance(
+              MockDriver.class.getClassLoader(),
+              new Class<?>[] {ResultSet.class},
+              (proxy, method, args) -> defaultValue(method.getReturnType()));
+    }
+
+    private static Object defaultValue(Class<?> type) {
+      if (type == boolean.class) {
+        return false;
+      }
+      if (type == int.class) {
+        return 0;
+      }
+      return null;
+    }
+
+    @Override
+    public boolean acceptsURL(String url) {
+      return url != null && url.startsWith("jdbc:sbs-pool-test:");
+    }
+
+    @Override
+    public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+      return new DriverPropertyInfo[0];
+    }
+
+    @Override
+    public int getMajorVersion() {
+      return 1;
+    }
+
+    @Override
+    public int getMinorVersion() {
+      return 0;
+    }
+
+    @Override
+    public boolean jdbcCompliant() {
+      return false;
+    }
+
+    @Override
+    public Logger getParentLogger() {
+      return Logger.getGlobal();
+    }
+  }
+}
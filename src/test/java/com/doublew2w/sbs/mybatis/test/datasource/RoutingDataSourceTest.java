@@ -0,0 +1,278 @@
+package com.doublew2w.sbs.mybatis.test.datasource;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import com.doublew2w.sbs.mybatis.builder.StaticSqlSource;
+import com.doublew2w.sbs.mybatis.builder.xml.XMLConfigBuilder;
+import com.doublew2w.sbs.mybatis.datasource.routing.LoadBalanceStrategy;
+import com.doublew2w.sbs.mybatis.datasource.routing.ReplicaSet;
+import com.doublew2w.sbs.mybatis.datasource.routing.RoutingConnection;
+import com.doublew2w.sbs.mybatis.datasource.routing.RoutingDataSource;
+import com.doublew2w.sbs.mybatis.executor.Executor;
+import com.doublew2w.sbs.mybatis.executor.SimpleExecutor;
+import com.doublew2w.sbs.mybatis.mapping.MappedStatement;
+import com.doublew2w.sbs.mybatis.mapping.ResultMap;
+import com.doublew2w.sbs.mybatis.mapping.SqlCommandType;
+import com.doublew2w.sbs.mybatis.session.Configuration;
+import com.doublew2w.sbs.mybatis.session.RowBounds;
+import com.doublew2w.sbs.mybatis.session.TransactionIsolationLevel;
+import com.doublew2w.sbs.mybatis.test.MockResultSets;
+import com.doublew2w.sbs.mybatis.transaction.jdbc.JdbcTransaction;
+import java.io.StringReader;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author: DoubleW2w
+ * @date: 2026/10/18 7:40
+ * @project: sbs-mybatis
+ */
+public class RoutingDataSourceTest {
+  private Configuration configuration;
+  private MappedStatement select;
+  private MappedStatement update;
+
+  @BeforeEach
+  void setUp() {
+    configuration = new Configuration();
+    ResultMap resultMap =
+        new ResultMap.Builder(configuration, "test.select-Inline", Long.class, new ArrayList<>())
+            .build();
+    select =
+        new MappedStatement.Builder(
+                configuration,
+                "test.select",
+                SqlCommandType.SELECT,
+                new StaticSqlSource(configuration, "SELECT id FROM activity", new ArrayList<>()),
+                Long.class)
+            .resultMaps(Collections.singletonList(resultMap))
+            .build();
+    update =
+        new MappedStatement.Builder(
+                configuration,
+                "test.update",
+                SqlCommandType.UPDATE,
+                new StaticSqlSource(
+                    configuration, "UPDATE activity SET status = 1", new ArrayList<>()),
+                int.class)
+            .build();
+  }
+
+  /** 模拟数据源，每次获取连接都记录下来 */
+  private static class MockDataSource {
+    final DataSource dataSource = mock(DataSource.class);
+    final List<Connection> connections = new ArrayList<>();
+    final List<PreparedStatement> statements = new ArrayList<>();
+
+    MockDataSource() throws SQLException {
+      when(dataSource.getConnection()).thenAnswer(invocation -> newConnection());
+    }
+
+    private Connection newConnection() throws SQLException {
+      Connection connection = mock(Connection.class);
+      when(connection.prepareStatement(anyString()))
+          .thenAnswer(
+              invocation -> {
+                PreparedStatement ps = mock(PreparedStatement.class);
+                ResultSet rs = MockResultSets.idRows(0);
+                when(ps.getResultSet()).thenReturn(rs);
+                when(ps.getUpdateCount()).thenReturn(1);
+                statements.add(ps);
+                return ps;
+              });
+      connections.add(connection);
+      return connection;
+    }
+  }
+
+  private SimpleExecutor openSession(DataSource dataSource) {
+    return new SimpleExecutor(
+        configuration,
+        new JdbcTransaction(dataSource, TransactionIsolationLevel.READ_COMMITTED, false));
+  }
+
+  private void query(Executor executor) throws SQLException {
+    executor.clearLocalCache();
+    executor.query(select, null, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+  }
+
+  @Test
+  void testReadsGoToReplicaUntilFirstWrite() throws Exception {
+    MockDataSource primary = new MockDataSource();
+    MockDataSource replica = new MockDataSource();
+    RoutingDataSource dataSource =
+        new RoutingDataSource(
+            primary.dataSource,
+            new ReplicaSet(List.of(replica.dataSource), LoadBalanceStrategy.ROUND_ROBIN));
+    SimpleExecutor executor = openSession(dataSource);
+
+    query(executor);
+    Assertions.assertEquals(1, replica.statements.size());
+    Assertions.assertTrue(primary.connections.isEmpty());
+    verify(replica.connections.get(0)).setAutoCommit(false);
+
+    executor.update(update, null);
+    query(executor);
+    // 写之后读自己的写：读也走主库，从库连接已释放
+    Assertions.assertEquals(2, primary.statements.size());
+    Assertions.assertEquals(1, replica.statements.size());
+    verify(replica.connections.get(0)).close();
+
+    executor.commit(true);
+    verify(primary.connections.get(0)).commit();
+    executor.close(false);
+    verify(primary.connections.get(0)).close();
+  }
+
+  @Test
+  void testRoundRobinAcrossReplicas() throws Exception {
+    MockDataSource primary = new MockDataSource();
+    MockDataSource replicaA = new MockDataSource();
+    MockDataSource replicaB = new MockDataSource();
+    RoutingDataSource dataSource =
+        new RoutingDataSource(
+            primary.dataSource,
+            new ReplicaSet(
+                List.of(replicaA.dataSource, replicaB.dataSource),
+                LoadBalanceStrategy.ROUND_ROBIN));
+    for (int i = 0; i < 4; i++) {
+      SimpleExecutor executor = openSession(dataSource);
+      query(executor);
+      executor.close(false);
+    }
+    Assertions.assertEquals(2, replicaA.connections.size());
+    Assertions.assertEquals(2, replicaB.connections.size());
+    Assertions.assertTrue(primary.connections.isEmpty());
+  }
+
+  @Test
+  void testLeastOutstandingPrefersIdleReplica() throws Exception {
+    MockDataSource primary = new MockDataSource();
+    MockDataSource replicaA = new MockDataSource();
+    MockDataSource replicaB = new MockDataSource();
+    ReplicaSet replicaSet =
+        new ReplicaSet(
+            List.of(replicaA.dataSource, replicaB.dataSource),
+            LoadBalanceStrategy.LEAST_OUTSTANDING);
+    RoutingDataSource dataSource = new RoutingDataSource(primary.dataSource, replicaSet);
+
+    // 第一个会话归还后，第三个会话应落在借出更少的从库上
+    SimpleExecutor first = openSession(dataSource);
+    query(first);
+    SimpleExecutor second = openSession(dataSource);
+    query(second);
+    first.close(false);
+    SimpleExecutor third = openSession(dataSource);
+    query(third);
+
+    Assertions.assertEquals(1, replicaSet.getReplicas().get(0).getOutstanding());
+    Assertions.assertEquals(1, replicaSet.getReplicas().get(1).getOutstanding());
+  }
+
+  @Test
+  void testUnhealthyReplicaFallsBackToPrimary() throws Exception {
+    MockDataSource primary = new MockDataSource();
+    DataSource broken = mock(DataSource.class);
+    when(broken.getConnection()).thenThrow(new SQLException("replica down"));
+    ReplicaSet replicaSet = new ReplicaSet(List.of(broken), LoadBalanceStrategy.ROUND_ROBIN);
+    RoutingDataSource dataSource = new RoutingDataSource(primary.dataSource, replicaSet);
+
+    for (int i = 0; i < 3; i++) {
+      SimpleExecutor executor = openSession(dataSource);
+      query(executor);
+      executor.close(false);
+    }
+    Assertions.assertEquals(3, primary.statements.size());
+    // 摘除后在重试间隔内不再尝试
+    verify(broken, times(1)).getConnection();
+    Assertions.assertEquals(0, replicaSet.getAvailableCount());
+  }
+
+  @Test
+  void testCallableStatementReleasesReplica() throws Exception {
+    MockDataSource primary = new MockDataSource();
+    MockDataSource replica = new MockDataSource();
+    ReplicaSet replicaSet =
+        new ReplicaSet(List.of(replica.dataSource), LoadBalanceStrategy.ROUND_ROBIN);
+    RoutingDataSource dataSource = new RoutingDataSource(primary.dataSource, replicaSet);
+
+    Connection connection = dataSource.getConnection();
+    RoutingConnection.route(connection, SqlCommandType.SELECT);
+    connection.prepareStatement("SELECT id FROM activity");
+    connection.prepareCall("{call refresh_activity()}");
+
+    Assertions.assertTrue(RoutingConnection.of(connection).isWriteMode());
+    Assertions.assertFalse(RoutingConnection.of(connection).isUsingReplica());
+    verify(replica.connections.get(0)).close();
+    Assertions.assertEquals(0, replicaSet.getReplicas().get(0).getOutstanding());
+    verify(primary.connections.get(0)).prepareCall("{call refresh_activity()}");
+  }
+
+  @Test
+  void testConnectionFailureDuringExecutionMarksReplicaDown() throws Exception {
+    MockDataSource primary = new MockDataSource();
+    MockDataSource replica = new MockDataSource();
+    ReplicaSet replicaSet =
+        new ReplicaSet(List.of(replica.dataSource), LoadBalanceStrategy.ROUND_ROBIN);
+    RoutingDataSource dataSource = new RoutingDataSource(primary.dataSource, replicaSet);
+    Connection connection = dataSource.getConnection();
+
+    // SQL 本身的错误不影响从库健康状态
+    RoutingConnection.route(connection, SqlCommandType.SELECT);
+    PreparedStatement bad = connection.prepareStatement("SELECT id FROM activity");
+    when(replica.statements.get(0).execute()).thenThrow(new SQLException("syntax", "42000"));
+    Assertions.assertThrows(SQLException.class, bad::execute);
+    Assertions.assertEquals(1, replicaSet.getAvailableCount());
+
+    RoutingConnection.route(connection, SqlCommandType.SELECT);
+    PreparedStatement lost = connection.prepareStatement("SELECT id FROM activity");
+    when(replica.statements.get(1).execute())
+        .thenThrow(new SQLException("Communications link failure", "08S01"));
+    Assertions.assertThrows(SQLException.class, lost::execute);
+    Assertions.assertEquals(0, replicaSet.getAvailableCount());
+    verify(replica.connections.get(0)).close();
+    Assertions.assertEquals(0, replicaSet.getReplicas().get(0).getOutstanding());
+
+    // 摘除后读回落到主库
+    RoutingConnection.route(connection, SqlCommandType.SELECT);
+    connection.prepareStatement("SELECT id FROM activity");
+    Assertions.assertEquals(1, primary.statements.size());
+    Assertions.assertEquals(1, replica.connections.size());
+    connection.close();
+  }
+
+  @Test
+  void testXmlConfiguresRoutingDataSource() {
+    String xml =
+        "<configuration>"
+            + "<environments default=\"development\">"
+            + "<environment id=\"development\">"
+            + "<transactionManager type=\"JDBC\"/>"
+            + "<dataSource type=\"UNPOOLED\" loadBalance=\"LEAST_OUTSTANDING\""
+            + " replicaRetryInterval=\"1000\">"
+            + "<property name=\"driver\" value=\"com.mysql.cj.jdbc.Driver\"/>"
+            + "<property name=\"url\" value=\"jdbc:mysql://primary:3306/db\"/>"
+            + "<replica><property name=\"url\" value=\"jdbc:mysql://replica1:3306/db\"/></replica>"
+            + "<replica><property name=\"url\" value=\"jdbc:mysql://replica2:3306/db\"/></replica>"
+            + "</dataSource>"
+            + "</environment>"
+            + "</environments>"
+            + "<mappers/>"
+            + "</configuration>";
+    Configuration parsed = new XMLConfigBuilder(new StringReader(xml)).parse();
+
+    DataSource dataSource = parsed.getEnvironment().getDataSource();
+    Assertions.assertInstanceOf(RoutingDataSource.class, dataSource);
+    ReplicaSet replicaSet = ((RoutingDataSource) dataSource).getReplicaSet();
+    Assertions.assertEquals(2, replicaSet.getReplicas().size());
+    Assertions.assertEquals(LoadBalanceStrategy.LEAST_OUTSTANDING, replicaSet.getStrategy());
+    Assertions.assertEquals(1000L, replicaSet.getRetryInterval());
+  }
+}
@@ -0,0 +1,117 @@
+package com.doublew2w.sbs.mybatis.test.executor;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import com.doublew2w.sbs.mybatis.builder.StaticSqlSource;
+import com.doublew2w.sbs.mybatis.executor.BatchExecutor;
+import com.doublew2w.sbs.mybatis.executor.BatchResult;
+import com.doublew2w.sbs.mybatis.executor.keygen.Jdbc3KeyGenerator;
+import com.doublew2w.sbs.mybatis.mapping.MappedStatement;
+import com.doublew2w.sbs.mybatis.mapping.SqlCommandType;
+import com.doublew2w.sbs.mybatis.session.Configuration;
+import com.doublew2w.sbs.mybatis.test.po.Activity;
+import com.doublew2w.sbs.mybatis.transaction.Transaction;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author: DoubleW2w
+ * @date: 2026/10/18 0:30
+ * @project: sbs-mybatis
+ */
+public class BatchExecutorTest {
+  private Configuration configuration;
+  private Transaction transaction;
+  private Connection connection;
+  private PreparedStatement ps;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    configuration = new Configuration();
+    transaction = mock(Transaction.class);
+    connection = mock(Connection.class);
+    ps = mock(PreparedStatement.class);
+    when(transaction.getConnection()).thenReturn(connection);
+    when(connection.prepareStatement(anyString())).thenReturn(ps);
+    when(connection.prepareStatement(anyString(), anyInt())).thenReturn(ps);
+  }
+
+  private MappedStatement.Builder insert(String id, String sql) {
+    return new MappedStatement.Builder(
+        configuration,
+        id,
+        SqlCommandType.INSERT,
+        new StaticSqlSource(configuration, sql, new ArrayList<>()),
+        int.class);
+  }
+
+  @Test
+  void testGroupConsecutiveUpdates() throws Exception {
+    when(ps.executeBatch()).thenReturn(new int[] {1, 1, 1}, new int[] {1});
+    BatchExecutor executor = new BatchExecutor(configuration, transaction);
+    MappedStatement insert = insert("test.insert", "INSERT INTO activity VALUES (1)").build();
+    MappedStatement delete = insert("test.delete", "DELETE FROM activity").build();
+    for (int i = 0; i < 3; i++) {
+      Assertions.assertEquals(
+          BatchExecutor.BATCH_UPDATE_RETURN_VALUE, executor.update(insert, new Activity()));
+    }
+    executor.update(delete, null);
+
+    List<BatchResult> results = executor.flushStatements();
+    Assertions.assertEquals(2, results.size());
+    Assertions.assertEquals(3, results.get(0).getParameterObjects().size());
+    Assertions.assertArrayEquals(new int[] {1, 1, 1}, results.get(0).getUpdateCounts());
+    Assertions.assertEquals("test.delete", results.get(1).getMappedStatement().getId());
+    verify(connection, times(2)).prepareStatement(anyString());
+    verify(ps, times(4)).addBatch();
+    verify(ps, times(2)).executeBatch();
+    // 刷新后批次清空
+    Assertions.assertTrue(executor.flushStatements().isEmpty());
+  }
+
+  @Test
+  void testRollbackDiscardsBatch() throws Exception {
+    BatchExecutor executor = new BatchExecutor(configuration, transaction);
+    MappedStatement insert = insert("test.insert", "INSERT INTO activity VALUES (1)").build();
+    executor.update(insert, new Activity());
+    executor.rollback(true);
+    verify(ps, never()).executeBatch();
+    verify(ps, times(1)).close();
+    verify(transaction).rollback();
+  }
+
+  @Test
+  void testAssignGeneratedKeysToEveryParameter() throws Exception {
+    when(ps.executeBatch()).thenReturn(new int[] {1, 1});
+    ResultSet keys = mock(ResultSet.class);
+    ResultSetMetaData rsmd = mock(ResultSetMetaData.class);
+    when(ps.getGeneratedKeys()).thenReturn(keys);
+    when(keys.getMetaData()).thenReturn(rsmd);
+    when(rsmd.getColumnCount()).thenReturn(1);
+    when(rsmd.getColumnType(1)).thenReturn(Types.BIGINT);
+    when(keys.next()).thenReturn(true, true, false);
+    when(keys.getLong(1)).thenReturn(101L, 102L);
+
+    MappedStatement insert =
+        insert("test.insert", "INSERT INTO activity VALUES (1)")
+            .keyGenerator(Jdbc3KeyGenerator.INSTANCE)
+            .keyProperty("id")
+            .build();
+    BatchExecutor executor = new BatchExecutor(configuration, transaction);
+    Activity a1 = new Activity();
+    Activity a2 = new Activity();
+    executor.update(insert, a1);
+    executor.update(insert, a2);
+    executor.flushStatements();
+
+    verify(connection, times(1)).prepareStatement(anyString(), eq(Statement.RETURN_GENERATED_KEYS));
+    Assertions.assertEquals(101L, a1.getId());
+    Assertions.assertEquals(102L, a2.getId());
+  }
+}
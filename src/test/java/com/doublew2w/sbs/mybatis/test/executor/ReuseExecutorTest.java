@@ -0,0 +1,190 @@
+package com.doublew2w.sbs.mybatis.test.executor;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import com.doublew2w.sbs.mybatis.builder.StaticSqlSource;
+import com.doublew2w.sbs.mybatis.executor.ReuseExecutor;
+import com.doublew2w.sbs.mybatis.executor.statement.StatementHandler;
+import com.doublew2w.sbs.mybatis.mapping.BoundSql;
+import com.doublew2w.sbs.mybatis.mapping.MappedStatement;
+import com.doublew2w.sbs.mybatis.mapping.ResultMap;
+import com.doublew2w.sbs.mybatis.mapping.SqlCommandType;
+import com.doublew2w.sbs.mybatis.plugin.Interceptor;
+import com.doublew2w.sbs.mybatis.plugin.Intercepts;
+import com.doublew2w.sbs.mybatis.plugin.Invocation;
+import com.doublew2w.sbs.mybatis.plugin.Plugin;
+import com.doublew2w.sbs.mybatis.plugin.Signature;
+import com.doublew2w.sbs.mybatis.reflection.MetaObject;
+import com.doublew2w.sbs.mybatis.reflection.SystemMetaObject;
+import com.doublew2w.sbs.mybatis.session.Configuration;
+import com.doublew2w.sbs.mybatis.session.SqlSession;
+import com.doublew2w.sbs.mybatis.session.defaults.DefaultSqlSession;
+import com.doublew2w.sbs.mybatis.test.MockResultSets;
+import com.doublew2w.sbs.mybatis.transaction.Transaction;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author: DoubleW2w
+ * @date: 2026/10/17 23:40
+ * @project: sbs-mybatis
+ */
+public class ReuseExecutorTest {
+  private Configuration configuration;
+  private Transaction transaction;
+  private Connection connection;
+  private PreparedStatement ps;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    configuration = new Configuration();
+    transaction = mock(Transaction.class);
+    connection = mock(Connection.class);
+    ps = mock(PreparedStatement.class);
+    when(transaction.getConnection()).thenReturn(connection);
+    when(connection.prepareStatement(anyString())).thenReturn(ps);
+    when(ps.getUpdateCount()).thenReturn(1);
+  }
+
+  private MappedStatement update(String id, String sql) {
+    return new MappedStatement.Builder(
+            configuration,
+            id,
+            SqlCommandType.UPDATE,
+            new StaticSqlSource(configuration, sql, new ArrayList<>()),
+            int.class)
+        .build();
+  }
+
+  @Test
+  void testReuseStatementWithinSession() throws Exception {
+    ReuseExecutor executor = new ReuseExecutor(configuration, transaction);
+    MappedStatement ms = update("test.update", "UPDATE activity SET status = 1");
+    for (int i = 0; i < 5; i++) {
+      executor.update(ms, null);
+    }
+    Assertions.assertEquals(1, executor.getPrepareCount());
+    Assertions.assertEquals(4, executor.getReuseCount());
+    verify(connection, times(1)).prepareStatement(anyString());
+    verify(ps, times(4)).clearParameters();
+    verify(ps, never()).close();
+  }
+
+  @Test
+  void testCloseStatementsOnCommit() throws Exception {
+    ReuseExecutor executor = new ReuseExecutor(configuration, transaction);
+    MappedStatement ms = update("test.update", "UPDATE activity SET status = 1");
+    executor.update(ms, null);
+    executor.commit(true);
+    verify(ps, times(1)).close();
+    // 提交后重新预编译
+    executor.update(ms, null);
+    Assertions.assertEquals(2, executor.getPrepareCount());
+    executor.close(false);
+    verify(ps, times(2)).close();
+  }
+
+  @Test
+  void testNewConnectionInvalidatesCache() throws Exception {
+    ReuseExecutor executor = new ReuseExecutor(configuration, transaction);
+    MappedStatement ms = update("test.update", "UPDATE activity SET status = 1");
+    executor.update(ms, null);
+    Connection other = mock(Connection.class);
+    when(other.prepareStatement(anyString())).thenReturn(ps);
+    when(transaction.getConnection()).thenReturn(other);
+    executor.update(ms, null);
+    Assertions.assertEquals(2, executor.getPrepareCount());
+    Assertions.assertEquals(0, executor.getReuseCount());
+  }
+
+  @Test
+  void testReuseStatementRewrittenByPlugin() throws Exception {
+    configuration.addInterceptor(new SuffixTablePlugin());
+    ReuseExecutor executor = new ReuseExecutor(configuration, transaction);
+    MappedStatement ms = update("test.update", "UPDATE activity SET status = 1");
+    for (int i = 0; i < 6; i++) {
+      executor.update(ms, i % 2);
+    }
+    // 两张物理表各预编译一次，其余复用
+    Assertions.assertEquals(2, executor.getPrepareCount());
+    Assertions.assertEquals(4, executor.getReuseCount());
+    verify(connection, times(1)).prepareStatement("UPDATE activity_0 SET status = 1");
+    verify(connection, times(1)).prepareStatement("UPDATE activity_1 SET status = 1");
+  }
+
+  @Test
+  void testReusedStatementResetsSelectOneRowLimit() throws Exception {
+    ResultMap resultMap =
+        new ResultMap.Builder(configuration, "test.select-Inline", Long.class, new ArrayList<>())
+            .build();
+    configuration.addMappedStatement(
+        new MappedStatement.Builder(
+                configuration,
+                "test.select",
+                SqlCommandType.SELECT,
+                new StaticSqlSource(configuration, "SELECT id FROM activity", new ArrayList<>()),
+                Long.class)
+            .resultMaps(Collections.singletonList(resultMap))
+            .build());
+    // 模拟驱动：结果集行数受 maxRows 限制，0 表示不限制
+    AtomicInteger rows = new AtomicInteger();
+    AtomicInteger maxRows = new AtomicInteger();
+    doAnswer(
+            invocation -> {
+              maxRows.set(invocation.getArgument(0));
+              return null;
+            })
+        .when(ps)
+        .setMaxRows(anyInt());
+    when(ps.getResultSet())
+        .thenAnswer(
+            invocation ->
+                MockResultSets.idRows(
+                    maxRows.get() == 0 ? rows.get() : Math.min(rows.get(), maxRows.get())));
+    SqlSession sqlSession =
+        new DefaultSqlSession(configuration, new ReuseExecutor(configuration, transaction));
+
+    rows.set(1);
+    Assertions.assertEquals(1L, (Long) sqlSession.selectOne("test.select"));
+    rows.set(5);
+    sqlSession.clearCache();
+    Assertions.assertEquals(5, sqlSession.selectList("test.select", null).size());
+    verify(connection, times(1)).prepareStatement(anyString());
+    verify(ps).setMaxRows(2);
+    verify(ps).setMaxRows(0);
+    verify(ps).setQueryTimeout(0);
+    verify(ps).setFetchSize(0);
+  }
+
+  /** 按参数把表名改写为 activity_{参数}，模拟分片插件 */
+  @Intercepts({
+    @Signature(
+        type = StatementHandler.class,
+        method = "prepare",
+        args = {Connection.class})
+  })
+  public static class SuffixTablePlugin implements Interceptor {
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      StatementHandler handler = (StatementHandler) Plugin.unwrap(invocation.getTarget());
+      BoundSql boundSql = handler.getBoundSql();
+      MetaObject metaHandler = SystemMetaObject.forObject(handler);
+      metaHandler.setValue(
+          "boundSql.sql",
+          boundSql.getSql().replace("activity", "activity_" + boundSql.getParameterObject()));
+      return invocation.proceed();
+    }
+
+    @Override
+    public void setProperties(Properties properties) {}
+  }
+}
@@ -0,0 +1,167 @@
+package com.doublew2w.sbs.mybatis.test.executor;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import com.doublew2w.sbs.mybatis.builder.StaticSqlSource;
+import com.doublew2w.sbs.mybatis.executor.Executor;
+import com.doublew2w.sbs.mybatis.executor.SimpleExecutor;
+import com.doublew2w.sbs.mybatis.mapping.MappedStatement;
+import com.doublew2w.sbs.mybatis.mapping.ResultMap;
+import com.doublew2w.sbs.mybatis.mapping.SqlCommandType;
+import com.doublew2w.sbs.mybatis.mapping.StatementStatistics;
+import com.doublew2w.sbs.mybatis.session.Configuration;
+import com.doublew2w.sbs.mybatis.session.RowBounds;
+import com.doublew2w.sbs.mybatis.session.SqlSession;
+import com.doublew2w.sbs.mybatis.session.defaults.DefaultSqlSession;
+import com.doublew2w.sbs.mybatis.test.MockResultSets;
+import com.doublew2w.sbs.mybatis.transaction.Transaction;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author: DoubleW2w
+ * @date: 2026/10/18 6:00
+ * @project: sbs-mybatis
+ */
+public class StatementOptionsTest {
+  private Configuration configuration;
+  private Transaction transaction;
+  private PreparedStatement ps;
+  private final AtomicInteger rowsPerQuery = new AtomicInteger(5);
+
+  @BeforeEach
+  void setUp() throws Exception {
+    configuration = new Configuration();
+    transaction = mock(Transaction.class);
+    Connection connection = mock(Connection.class);
+    ps = mock(PreparedStatement.class);
+    when(transaction.getConnection()).thenReturn(connection);
+    when(connection.prepareStatement(anyString())).thenReturn(ps);
+    when(ps.getResultSet()).thenAnswer(invocation -> MockResultSets.idRows(rowsPerQuery.get()));
+  }
+
+  private MappedStatement.Builder select(String id) {
+    ResultMap resultMap =
+        new ResultMap.Builder(configuration, id + "-Inline", Long.class, new ArrayList<>())
+            .build();
+    return new MappedStatement.Builder(
+            configuration,
+            id,
+            SqlCommandType.SELECT,
+            new StaticSqlSource(configuration, "SELECT id FROM activity", new ArrayList<>()),
+            Long.class)
+        .resultMaps(Collections.singletonList(resultMap));
+  }
+
+  @Test
+  void testStatementOptionsOverrideDefaults() throws Exception {
+    configuration.setDefaultStatementTimeout(30);
+    configuration.setDefaultFetchSize(100);
+    MappedStatement ms = select("test.export").timeout(600).fetchSize(5000).maxRows(3).build();
+
+    new SimpleExecutor(configuration, transaction)
+        .query(ms, null, new RowBounds(0, 10), Executor.NO_RESULT_HANDLER);
+
+    verify(ps).setQueryTimeout(600);
+    verify(ps).setFetchSize(5000);
+    // 语句的 maxRows 比 RowBounds 更小
+    verify(ps).setMaxRows(3);
+  }
+
+  @Test
+  void testGlobalDefaultsAndDriverDefaults() throws Exception {
+    MappedStatement ms = select("test.lookup").build();
+    SimpleExecutor executor = new SimpleExecutor(configuration, transaction);
+    executor.query(ms, null, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+    // 未配置时不覆盖驱动默认值
+    verify(ps, never()).setQueryTimeout(anyInt());
+    verify(ps, never()).setFetchSize(anyInt());
+    verify(ps, never()).setMaxRows(anyInt());
+
+    configuration.setDefaultStatementTimeout(30);
+    configuration.setDefaultFetchSize(100);
+    executor.clearLocalCache();
+    executor.query(ms, null, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+    verify(ps).setQueryTimeout(30);
+    verify(ps).setFetchSize(100);
+  }
+
+  @Test
+  void testAdaptiveFetchSizeLearnsRowCount() throws Exception {
+    configuration.setAdaptiveFetchSize(true);
+    configuration.setDefaultFetchSize(100);
+    MappedStatement ms = select("test.adaptive").build();
+    SimpleExecutor executor = new SimpleExecutor(configuration, transaction);
+
+    // 第一次没有样本，使用全局默认值
+    executor.query(ms, null, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+    verify(ps).setFetchSize(100);
+    for (int i = 0; i < 3; i++) {
+      executor.clearLocalCache();
+      executor.query(ms, null, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+    }
+    // 典型 5 行，多取一行即可一次往返确认结束
+    verify(ps, times(3)).setFetchSize(6);
+    Assertions.assertEquals(5, ms.getStatistics().getTypicalRows());
+
+    // 上限保护
+    configuration.setAdaptiveMaxFetchSize(4);
+    executor.clearLocalCache();
+    executor.query(ms, null, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+    verify(ps).setFetchSize(4);
+  }
+
+  @Test
+  void testStatisticsRecordedConcurrently() throws Exception {
+    StatementStatistics statistics = new StatementStatistics();
+    ExecutorService pool = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < 4; t++) {
+        futures.add(
+            pool.submit(
+                () -> {
+                  for (int i = 0; i < 10_000; i++) {
+                    statistics.record(8);
+                  }
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+    // 无锁更新不丢样本，相同行数的平均值和最大值保持不变
+    Assertions.assertEquals(40_000, statistics.getSamples());
+    Assertions.assertEquals(8, statistics.getTypicalRows());
+    Assertions.assertEquals(9, statistics.suggestFetchSize(100));
+  }
+
+  @Test
+  void testSelectOneLimitsDriverToTwoRows() throws Exception {
+    configuration.addMappedStatement(select("test.one").build());
+    SqlSession sqlSession =
+        new DefaultSqlSession(configuration, new SimpleExecutor(configuration, transaction));
+
+    rowsPerQuery.set(1);
+    Long id = sqlSession.selectOne("test.one");
+    Assertions.assertEquals(1L, id);
+    verify(ps).setMaxRows(2);
+
+    rowsPerQuery.set(100);
+    sqlSession.clearCache();
+    Assertions.assertThrows(RuntimeException.class, () -> sqlSession.selectOne("test.one"));
+  }
+}
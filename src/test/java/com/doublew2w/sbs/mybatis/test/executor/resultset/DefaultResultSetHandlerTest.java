@@ -1,8 +1,110 @@
 package com.doublew2w.sbs.mybatis.test.executor.resultset;
 
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import com.doublew2w.sbs.mybatis.builder.StaticSqlSource;
+import com.doublew2w.sbs.mybatis.executor.Executor;
+import com.doublew2w.sbs.mybatis.executor.SimpleExecutor;
+import com.doublew2w.sbs.mybatis.mapping.MappedStatement;
+import com.doublew2w.sbs.mybatis.mapping.ResultMap;
+import com.doublew2w.sbs.mybatis.mapping.SqlCommandType;
+import com.doublew2w.sbs.mybatis.session.Configuration;
+import com.doublew2w.sbs.mybatis.session.RowBounds;
+import com.doublew2w.sbs.mybatis.test.MockResultSets;
+import com.doublew2w.sbs.mybatis.transaction.Transaction;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
 /**
  * @author: DoubleW2w
  * @date: 2024/9/15 3:35
  * @project: sbs-mybatis
  */
-public class DefaultResultSetHandlerTest {}
+public class DefaultResultSetHandlerTest {
+  private Configuration configuration;
+  private Transaction transaction;
+  private PreparedStatement ps;
+  private ResultSet rs;
+  private MappedStatement ms;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    configuration = new Configuration();
+    transaction = mock(Transaction.class);
+    Connection connection = mock(Connection.class);
+    ps = mock(PreparedStatement.class);
+    when(transaction.getConnection()).thenReturn(connection);
+    when(connection.prepareStatement(anyString())).thenReturn(ps);
+    ResultMap resultMap =
+        new ResultMap.Builder(configuration, "test.select-Inline", Long.class, new ArrayList<>())
+            .build();
+    ms =
+        new MappedStatement.Builder(
+                configuration,
+                "test.select",
+                SqlCommandType.SELECT,
+                new StaticSqlSource(configuration, "SELECT id FROM activity", new ArrayList<>()),
+                Long.class)
+            .resultMaps(Collections.singletonList(resultMap))
+            .build();
+  }
+
+  /** 模拟 rows 行、单列 id 的结果集，id 从 1 开始 */
+  private void mockRows(long rows) throws SQLException {
+    rs = MockResultSets.idRows(rows);
+    when(ps.getResultSet()).thenReturn(rs);
+    when(rs.getStatement()).thenReturn(ps);
+  }
+
+  @Test
+  void testPushEveryRowToResultHandler() throws Exception {
+    mockRows(100);
+    SimpleExecutor executor = new SimpleExecutor(configuration, transaction);
+    long[] sum = new long[1];
+    List<Object> list =
+        executor.query(
+            ms, null, RowBounds.DEFAULT, context -> sum[0] += (Long) context.getResultObject());
+    Assertions.assertEquals(5050L, sum[0]);
+    // 推模式不收集结果
+    Assertions.assertTrue(list.isEmpty());
+    verify(ps, never()).cancel();
+    verify(ps).close();
+  }
+
+  @Test
+  void testStopCancelsStatement() throws Exception {
+    mockRows(50_000_000L);
+    SimpleExecutor executor = new SimpleExecutor(configuration, transaction);
+    List<Long> firstTen = new ArrayList<>();
+    executor.query(
+        ms,
+        null,
+        RowBounds.DEFAULT,
+        context -> {
+          firstTen.add((Long) context.getResultObject());
+          if (context.getResultCount() == 10) {
+            context.stop();
+          }
+        });
+    Assertions.assertEquals(10, firstTen.size());
+    verify(rs, times(10)).next();
+    verify(ps).cancel();
+    verify(rs).close();
+  }
+
+  @Test
+  void testResultHandlerQueryIsNotCachedLocally() throws Exception {
+    mockRows(3);
+    SimpleExecutor executor = new SimpleExecutor(configuration, transaction);
+    executor.query(ms, null, RowBounds.DEFAULT, context -> {});
+    mockRows(3);
+    List<Long> list = executor.query(ms, null, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+    Assertions.assertEquals(List.of(1L, 2L, 3L), list);
+  }
+}
@@ -0,0 +1,194 @@
+package com.doublew2w.sbs.mybatis.test.plugin.pagination;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import com.doublew2w.sbs.mybatis.builder.StaticSqlSource;
+import com.doublew2w.sbs.mybatis.executor.Executor;
+import com.doublew2w.sbs.mybatis.executor.SimpleExecutor;
+import com.doublew2w.sbs.mybatis.mapping.MappedStatement;
+import com.doublew2w.sbs.mybatis.mapping.ResultMap;
+import com.doublew2w.sbs.mybatis.mapping.SqlCommandType;
+import com.doublew2w.sbs.mybatis.plugin.pagination.PageRowBounds;
+import com.doublew2w.sbs.mybatis.plugin.pagination.PaginationInterceptor;
+import com.doublew2w.sbs.mybatis.session.Configuration;
+import com.doublew2w.sbs.mybatis.session.RowBounds;
+import com.doublew2w.sbs.mybatis.test.MockResultSets;
+import com.doublew2w.sbs.mybatis.transaction.Transaction;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author: DoubleW2w
+ * @date: 2026/10/18 2:50
+ * @project: sbs-mybatis
+ */
+public class PaginationInterceptorTest {
+  private static final String SQL = "SELECT id FROM activity ORDER BY id";
+
+  private Configuration configuration;
+  private Transaction transaction;
+  private Connection connection;
+  private DatabaseMetaData databaseMetaData;
+  private PreparedStatement ps;
+  private PreparedStatement countPs;
+  private ResultSet rs;
+  private MappedStatement ms;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    configuration = new Configuration();
+    transaction = mock(Transaction.class);
+    connection = mock(Connection.class);
+    databaseMetaData = mock(DatabaseMetaData.class);
+    ps = mock(PreparedStatement.class);
+    countPs = mock(PreparedStatement.class);
+    when(transaction.getConnection()).thenReturn(connection);
+    when(connection.getMetaData()).thenReturn(databaseMetaData);
+    when(connection.prepareStatement(anyString())).thenReturn(ps);
+    when(connection.prepareStatement(anyString(), anyInt(), anyInt())).thenReturn(ps);
+    when(connection.prepareStatement(startsWith("SELECT COUNT(*)"))).thenReturn(countPs);
+    ResultSet countRs = mock(ResultSet.class);
+    when(countPs.executeQuery()).thenReturn(countRs);
+    when(countRs.next()).thenReturn(true);
+    when(countRs.getLong(1)).thenReturn(42L);
+
+    ResultMap resultMap =
+        new ResultMap.Builder(configuration, "test.select-Inline", Long.class, new ArrayList<>())
+            .build();
+    ms =
+        new MappedStatement.Builder(
+                configuration,
+                "test.select",
+                SqlCommandType.SELECT,
+                new StaticSqlSource(configuration, SQL, new ArrayList<>()),
+                Long.class)
+            .resultMaps(Collections.singletonList(resultMap))
+            .build();
+  }
+
+  /** 模拟 rows 行、单列 id 的只进结果集，id 从 1 开始 */
+  private void mockRows(int rows) throws SQLException {
+    rs = MockResultSets.idRows(rows);
+    when(ps.getResultSet()).thenReturn(rs);
+    when(rs.getType()).thenReturn(ResultSet.TYPE_FORWARD_ONLY);
+  }
+
+  private void addInterceptor(Properties properties) {
+    PaginationInterceptor interceptor = new PaginationInterceptor();
+    interceptor.setProperties(properties);
+    configuration.addInterceptor(interceptor);
+  }
+
+  @Test
+  void testOffsetHonoredWithoutInterceptor() throws Exception {
+    mockRows(100);
+    SimpleExecutor executor = new SimpleExecutor(configuration, transaction);
+    List<Long> page =
+        executor.query(ms, null, new RowBounds(20, 5), Executor.NO_RESULT_HANDLER);
+    Assertions.assertEquals(List.of(21L, 22L, 23L, 24L, 25L), page);
+    verify(ps).setMaxRows(25);
+  }
+
+  @Test
+  void testRewriteMySqlLimitAndCount() throws Exception {
+    when(databaseMetaData.getDatabaseProductName()).thenReturn("MySQL");
+    addInterceptor(new Properties());
+    // 服务端已经分页，驱动只返回一页数据
+    mockRows(10);
+    SimpleExecutor executor = new SimpleExecutor(configuration, transaction);
+    PageRowBounds rowBounds = new PageRowBounds(20, 10);
+    List<Long> page = executor.query(ms, null, rowBounds, Executor.NO_RESULT_HANDLER);
+
+    Assertions.assertEquals(10, page.size());
+    Assertions.assertEquals(1L, page.get(0));
+    Assertions.assertEquals(42L, rowBounds.getTotal());
+    verify(connection).prepareStatement("SELECT id FROM activity ORDER BY id LIMIT ?, ?");
+    verify(ps).setLong(1, 20L);
+    verify(ps).setLong(2, 10L);
+    verify(connection).prepareStatement("SELECT COUNT(*) FROM (SELECT id FROM activity) tmp_count");
+    verify(ps, never()).setMaxRows(anyInt());
+  }
+
+  @Test
+  void testCountCachedWithinTtl() throws Exception {
+    when(databaseMetaData.getDatabaseProductName()).thenReturn("PostgreSQL");
+    addInterceptor(new Properties());
+    SimpleExecutor executor = new SimpleExecutor(configuration, transaction);
+    for (int i = 0; i < 3; i++) {
+      mockRows(10);
+      PageRowBounds rowBounds = new PageRowBounds(i * 10, 10);
+      executor.query(ms, null, rowBounds, Executor.NO_RESULT_HANDLER);
+      Assertions.assertEquals(42L, rowBounds.getTotal());
+    }
+    verify(countPs, times(1)).executeQuery();
+    // 每页的SQL相同，只是绑定的参数不同
+    verify(connection, times(3))
+        .prepareStatement("SELECT id FROM activity ORDER BY id LIMIT ? OFFSET ?");
+    verify(ps, times(3)).setLong(1, 10L);
+    verify(ps).setLong(2, 20L);
+    // 原始语句的参数映射不受影响
+    Assertions.assertTrue(ms.getBoundSql(null).getParameterMappings().isEmpty());
+  }
+
+  @Test
+  void testCountCacheDisabled() throws Exception {
+    Properties properties = new Properties();
+    properties.setProperty("dialect", "oracle");
+    properties.setProperty("countCacheTtl", "0");
+    addInterceptor(properties);
+    SimpleExecutor executor = new SimpleExecutor(configuration, transaction);
+    for (int i = 0; i < 2; i++) {
+      mockRows(10);
+      executor.query(ms, null, new PageRowBounds(i * 10, 10), Executor.NO_RESULT_HANDLER);
+    }
+    verify(countPs, times(2)).executeQuery();
+    verify(connection, times(2))
+        .prepareStatement(
+            "SELECT id FROM activity ORDER BY id OFFSET ? ROWS FETCH NEXT ? ROWS ONLY");
+    verify(ps).setLong(1, 10L);
+  }
+
+  @Test
+  void testUnknownDatabaseFallsBackToAbsolute() throws Exception {
+    when(databaseMetaData.getDatabaseProductName()).thenReturn("FooDB");
+    addInterceptor(new Properties());
+    mockRows(100);
+    when(rs.getType()).thenReturn(ResultSet.TYPE_SCROLL_INSENSITIVE);
+    SimpleExecutor executor = new SimpleExecutor(configuration, transaction);
+    executor.query(ms, null, new RowBounds(50, 5), Executor.NO_RESULT_HANDLER);
+    verify(connection)
+        .prepareStatement(SQL, ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+    verify(rs).absolute(50);
+    verify(ps).setMaxRows(55);
+  }
+
+  @Test
+  void testUnknownDatabaseStillCounts() throws Exception {
+    when(databaseMetaData.getDatabaseProductName()).thenReturn("FooDB");
+    addInterceptor(new Properties());
+    mockRows(100);
+    SimpleExecutor executor = new SimpleExecutor(configuration, transaction);
+    PageRowBounds rowBounds = new PageRowBounds(50, 5);
+    List<Long> page = executor.query(ms, null, rowBounds, Executor.NO_RESULT_HANDLER);
+
+    Assertions.assertEquals(List.of(51L, 52L, 53L, 54L, 55L), page);
+    Assertions.assertEquals(42L, rowBounds.getTotal());
+    verify(connection).prepareStatement("SELECT COUNT(*) FROM (SELECT id FROM activity) tmp_count");
+    verify(connection, never()).prepareStatement(contains("LIMIT"));
+  }
+
+  @Test
+  void testInvalidDialectClassFailsFast() {
+    Properties properties = new Properties();
+    properties.setProperty("dialect", "com.example.NoSuchDialect");
+    Assertions.assertThrows(RuntimeException.class, () -> addInterceptor(properties));
+  }
+}
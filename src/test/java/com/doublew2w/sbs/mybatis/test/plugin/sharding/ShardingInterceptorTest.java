@@ -0,0 +1,212 @@
+package com.doublew2w.sbs.mybatis.test.plugin.sharding;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import com.doublew2w.sbs.mybatis.builder.StaticSqlSource;
+import com.doublew2w.sbs.mybatis.datasource.sharding.ShardingDataSource;
+import com.doublew2w.sbs.mybatis.executor.BatchExecutor;
+import com.doublew2w.sbs.mybatis.mapping.MappedStatement;
+import com.doublew2w.sbs.mybatis.mapping.ParameterMapping;
+import com.doublew2w.sbs.mybatis.mapping.ResultMap;
+import com.doublew2w.sbs.mybatis.mapping.SqlCommandType;
+import com.doublew2w.sbs.mybatis.plugin.sharding.ShardingContext;
+import com.doublew2w.sbs.mybatis.plugin.sharding.ShardingInterceptor;
+import com.doublew2w.sbs.mybatis.session.Configuration;
+import com.doublew2w.sbs.mybatis.session.ExecutorType;
+import com.doublew2w.sbs.mybatis.session.SqlSession;
+import com.doublew2w.sbs.mybatis.session.TransactionIsolationLevel;
+import com.doublew2w.sbs.mybatis.session.defaults.DefaultSqlSession;
+import com.doublew2w.sbs.mybatis.test.MockResultSets;
+import com.doublew2w.sbs.mybatis.transaction.jdbc.JdbcTransaction;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author: DoubleW2w
+ * @date: 2026/10/18 8:40
+ * @project: sbs-mybatis
+ */
+public class ShardingInterceptorTest {
+  private Configuration configuration;
+  private Map<String, List<String>> preparedSql;
+  private Map<String, Connection> connections;
+  private ShardingDataSource dataSource;
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    configuration = new Configuration();
+    preparedSql = new LinkedHashMap<>();
+    connections = new LinkedHashMap<>();
+    Map<String, DataSource> shards = new LinkedHashMap<>();
+    shards.put("ds_0", mockDataSource("ds_0", 0));
+    shards.put("ds_1", mockDataSource("ds_1", 100));
+    dataSource = new ShardingDataSource(shards);
+
+    List<ParameterMapping> mappings = new ArrayList<>();
+    mappings.add(new ParameterMapping.Builder(configuration, "activityId", Long.class).build());
+    addStatement(
+        "test.select",
+        SqlCommandType.SELECT,
+        "SELECT id FROM activity WHERE activity_id = ?",
+        mappings);
+    addStatement(
+        "test.selectAll", SqlCommandType.SELECT, "SELECT id FROM activity", new ArrayList<>());
+    addStatement(
+        "test.update", SqlCommandType.UPDATE, "UPDATE activity SET status = 1", new ArrayList<>());
+    addStatement("test.dict", SqlCommandType.SELECT, "SELECT id FROM dict", new ArrayList<>());
+  }
+
+  @AfterEach
+  void tearDown() {
+    ShardingContext.clear();
+  }
+
+  private void addStatement(
+      String id, SqlCommandType type, String sql, List<ParameterMapping> mappings) {
+    MappedStatement.Builder builder =
+        new MappedStatement.Builder(
+            configuration,
+            id,
+            type,
+            new StaticSqlSource(configuration, sql, mappings),
+            Long.class);
+    if (type == SqlCommandType.SELECT) {
+      builder.resultMaps(
+          Collections.singletonList(
+              new ResultMap.Builder(configuration, id + "-Inline", Long.class, new ArrayList<>())
+                  .build()));
+    }
+    configuration.addMappedStatement(builder.build());
+  }
+
+  /** 每个分片返回一行，id = base + 1 */
+  private DataSource mockDataSource(String name, long base) throws SQLException {
+    DataSource ds = mock(DataSource.class);
+    Connection connection = mock(Connection.class);
+    List<String> sqls = new ArrayList<>();
+    preparedSql.put(name, sqls);
+    connections.put(name, connection);
+    when(ds.getConnection()).thenReturn(connection);
+    when(connection.prepareStatement(anyString()))
+        .thenAnswer(
+            invocation -> {
+              sqls.add(invocation.getArgument(0));
+              PreparedStatement ps = mock(PreparedStatement.class);
+              ResultSet rs = MockResultSets.idRows(base + 1, 1, 1);
+              when(ps.getResultSet()).thenReturn(rs);
+              when(ps.getUpdateCount()).thenReturn(2);
+              return ps;
+            });
+    return ds;
+  }
+
+  private static ShardingInterceptor newInterceptor(String missingShardKey) {
+    ShardingInterceptor interceptor = new ShardingInterceptor();
+    Properties properties = new Properties();
+    properties.setProperty("tables", "activity");
+    properties.setProperty("shardKey", "activityId");
+    properties.setProperty("dataSources", "ds_0,ds_1");
+    properties.setProperty("tablesPerDataSource", "2");
+    properties.setProperty("missingShardKey", missingShardKey);
+    interceptor.setProperties(properties);
+    return interceptor;
+  }
+
+  private SqlSession openSession(String missingShardKey) {
+    configuration.addInterceptor(newInterceptor(missingShardKey));
+    return new DefaultSqlSession(
+        configuration,
+        configuration.newExecutor(new JdbcTransaction(dataSource, TransactionIsolationLevel.READ_COMMITTED, false)));
+  }
+
+  private static Map<String, Object> param(Long activityId) {
+    Map<String, Object> param = new HashMap<>();
+    param.put("activityId", activityId);
+    return param;
+  }
+
+  @Test
+  void testRoutesToShardByKey() {
+    SqlSession sqlSession = openSession("FAIL");
+    // 4 个分片：5 % 4 = 1 -> ds_0.activity_1，6 % 4 = 2 -> ds_1.activity_2
+    Assertions.assertEquals(List.of(1L), sqlSession.selectList("test.select", param(5L)));
+    Assertions.assertEquals(
+        List.of("SELECT id FROM activity_1 WHERE activity_id = ?"), preparedSql.get("ds_0"));
+    Assertions.assertTrue(preparedSql.get("ds_1").isEmpty());
+
+    Assertions.assertEquals(List.of(101L), sqlSession.selectList("test.select", param(6L)));
+    Assertions.assertEquals(
+        List.of("SELECT id FROM activity_2 WHERE activity_id = ?"), preparedSql.get("ds_1"));
+  }
+
+  @Test
+  void testMissingShardKeyFailsFast() {
+    SqlSession sqlSession = openSession("FAIL");
+    RuntimeException e =
+        Assertions.assertThrows(
+            RuntimeException.class, () -> sqlSession.selectList("test.select", param(null)));
+    Assertions.assertTrue(e.getMessage().contains("activityId"));
+    Assertions.assertTrue(preparedSql.get("ds_0").isEmpty());
+  }
+
+  @Test
+  void testBroadcastQueryAndUpdate() throws SQLException {
+    SqlSession sqlSession = openSession("BROADCAST");
+    Assertions.assertEquals(
+        List.of(1L, 1L, 101L, 101L), sqlSession.selectList("test.selectAll", null));
+    Assertions.assertEquals(
+        List.of("SELECT id FROM activity_0", "SELECT id FROM activity_1"),
+        preparedSql.get("ds_0"));
+    Assertions.assertEquals(
+        List.of("SELECT id FROM activity_2", "SELECT id FROM activity_3"),
+        preparedSql.get("ds_1"));
+
+    Assertions.assertEquals(8, sqlSession.update("test.update", null));
+    sqlSession.commit();
+    verify(connections.get("ds_0")).commit();
+    verify(connections.get("ds_1")).commit();
+  }
+
+  @Test
+  void testBroadcastUpdateInBatch() {
+    configuration.addInterceptor(newInterceptor("BROADCAST"));
+    SqlSession sqlSession =
+        new DefaultSqlSession(
+            configuration,
+            configuration.newExecutor(
+                new JdbcTransaction(dataSource, TransactionIsolationLevel.READ_COMMITTED, false),
+                ExecutorType.BATCH));
+    // 批处理的返回值不按分片累加
+    Assertions.assertEquals(
+        BatchExecutor.BATCH_UPDATE_RETURN_VALUE, sqlSession.update("test.update", null));
+    Assertions.assertEquals(
+        List.of("UPDATE activity_0 SET status = 1", "UPDATE activity_1 SET status = 1"),
+        preparedSql.get("ds_0"));
+    Assertions.assertEquals(2, preparedSql.get("ds_1").size());
+  }
+
+  @Test
+  void testHintAndUnshardedStatements() {
+    SqlSession sqlSession = openSession("FAIL");
+    // 非分片表走默认分片，SQL 不改写
+    sqlSession.selectList("test.dict", null);
+    Assertions.assertEquals(List.of("SELECT id FROM dict"), preparedSql.get("ds_0"));
+
+    // 提示强制指定分片
+    ShardingContext.set(newInterceptor("FAIL").getRule().route(3L));
+    sqlSession.selectList("test.selectAll", null);
+    Assertions.assertEquals(List.of("SELECT id FROM activity_3"), preparedSql.get("ds_1"));
+  }
+}
@@ -0,0 +1,180 @@
+package com.doublew2w.sbs.mybatis.test.session;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import com.doublew2w.sbs.mybatis.builder.StaticSqlSource;
+import com.doublew2w.sbs.mybatis.executor.SimpleExecutor;
+import com.doublew2w.sbs.mybatis.mapping.BoundSql;
+import com.doublew2w.sbs.mybatis.mapping.MappedStatement;
+import com.doublew2w.sbs.mybatis.mapping.ParameterMapping;
+import com.doublew2w.sbs.mybatis.mapping.ResultMap;
+import com.doublew2w.sbs.mybatis.mapping.SqlCommandType;
+import com.doublew2w.sbs.mybatis.session.Configuration;
+import com.doublew2w.sbs.mybatis.session.Page;
+import com.doublew2w.sbs.mybatis.session.PageList;
+import com.doublew2w.sbs.mybatis.session.SqlSession;
+import com.doublew2w.sbs.mybatis.session.defaults.DefaultSqlSession;
+import com.doublew2w.sbs.mybatis.test.MockResultSets;
+import com.doublew2w.sbs.mybatis.transaction.Transaction;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author: DoubleW2w
+ * @date: 2026/10/18 3:40
+ * @project: sbs-mybatis
+ */
+public class KeysetPaginationTest {
+  private Configuration configuration;
+
+  @BeforeEach
+  void setUp() {
+    configuration = new Configuration();
+  }
+
+  private MappedStatement select(String id, String sql, List<ParameterMapping> mappings) {
+    return select(id, sql, mappings, "id");
+  }
+
+  private MappedStatement select(
+      String id, String sql, List<ParameterMapping> mappings, String keysetColumn) {
+    ResultMap resultMap =
+        new ResultMap.Builder(configuration, id + "-Inline", Long.class, new ArrayList<>())
+            .build();
+    MappedStatement ms =
+        new MappedStatement.Builder(
+                configuration,
+                id,
+                SqlCommandType.SELECT,
+                new StaticSqlSource(configuration, sql, mappings),
+                Long.class)
+            .resultMaps(Collections.singletonList(resultMap))
+            .keyset(keysetColumn, null)
+            .build();
+    configuration.addMappedStatement(ms);
+    return ms;
+  }
+
+  @Test
+  void testFirstPageOnlyAppendsOrderBy() {
+    MappedStatement ms = select("test.first", "SELECT id FROM activity", new ArrayList<>());
+    BoundSql boundSql = ms.getBoundSql(null, Page.first(10));
+    Assertions.assertEquals("SELECT id FROM activity ORDER BY id ASC", boundSql.getSql());
+    Assertions.assertTrue(boundSql.getParameterMappings().isEmpty());
+  }
+
+  @Test
+  void testSeekPredicateKeepsOriginalCondition() {
+    List<ParameterMapping> mappings = new ArrayList<>();
+    mappings.add(new ParameterMapping.Builder(configuration, "status", Long.class).build());
+    MappedStatement ms =
+        select(
+            "test.where",
+            "SELECT id FROM activity WHERE status = ? OR status IS NULL",
+            mappings);
+    BoundSql boundSql = ms.getBoundSql(null, Page.after(100L, 10, Page.Direction.DESC));
+    Assertions.assertEquals(
+        "SELECT id FROM activity WHERE (status = ? OR status IS NULL) AND id < ? ORDER BY id DESC",
+        boundSql.getSql());
+    Assertions.assertEquals(2, boundSql.getParameterMappings().size());
+    Assertions.assertEquals(100L, boundSql.getAdditionalParameter("_keyset"));
+  }
+
+  @Test
+  void testSeekPredicateInsertedBeforeTailClauses() {
+    MappedStatement ms =
+        select("test.group", "SELECT id FROM activity GROUP BY id;", new ArrayList<>());
+    BoundSql boundSql = ms.getBoundSql(null, Page.after(5L, 10));
+    Assertions.assertEquals(
+        "SELECT id FROM activity WHERE id > ? GROUP BY id ORDER BY id ASC", boundSql.getSql());
+  }
+
+  @Test
+  void testQualifiedColumnWithGroupByAndLimit() {
+    List<ParameterMapping> mappings = new ArrayList<>();
+    mappings.add(new ParameterMapping.Builder(configuration, "status", Long.class).build());
+    mappings.add(new ParameterMapping.Builder(configuration, "limit", Integer.class).build());
+    MappedStatement ms =
+        select(
+            "test.qualified",
+            "SELECT u.id FROM user u JOIN activity a ON a.user_id = u.id WHERE a.status = ?"
+                + " GROUP BY u.id HAVING COUNT(*) > 1 ORDER BY u.name LIMIT ?",
+            mappings,
+            "u.id");
+    BoundSql boundSql = ms.getBoundSql(null, Page.after(7L, 10));
+    Assertions.assertEquals(
+        "SELECT u.id FROM user u JOIN activity a ON a.user_id = u.id WHERE (a.status = ?)"
+            + " AND u.id > ? GROUP BY u.id HAVING COUNT(*) > 1 ORDER BY u.id ASC LIMIT ?",
+        boundSql.getSql());
+    // 定位键的占位符位于 LIMIT ? 之前
+    Assertions.assertEquals(
+        List.of("status", "_keyset", "limit"),
+        boundSql.getParameterMappings().stream()
+            .map(ParameterMapping::getProperty)
+            .collect(Collectors.toList()));
+  }
+
+  @Test
+  void testUnionUsesUnqualifiedColumnOutsideDerivedTable() {
+    MappedStatement ms =
+        select(
+            "test.union",
+            "SELECT a.id FROM activity a UNION ALL SELECT h.id FROM activity_history h",
+            new ArrayList<>(),
+            "a.id");
+    BoundSql boundSql = ms.getBoundSql(null, Page.after(5L, 10));
+    Assertions.assertEquals(
+        "SELECT * FROM (SELECT a.id FROM activity a UNION ALL SELECT h.id FROM activity_history h)"
+            + " tmp_keyset WHERE id > ? ORDER BY id ASC",
+        boundSql.getSql());
+  }
+
+  @Test
+  void testSessionReturnsNextPageToken() throws Exception {
+    List<ParameterMapping> mappings = new ArrayList<>();
+    mappings.add(new ParameterMapping.Builder(configuration, "status", Long.class).build());
+    select("test.page", "SELECT id FROM activity WHERE status = ?", mappings);
+
+    Transaction transaction = mock(Transaction.class);
+    Connection connection = mock(Connection.class);
+    PreparedStatement ps = mock(PreparedStatement.class);
+    when(transaction.getConnection()).thenReturn(connection);
+    when(connection.prepareStatement(anyString())).thenReturn(ps);
+    // 第一次返回一整页 101..110，第二次只剩 3 行
+    AtomicLong start = new AtomicLong(100);
+    AtomicLong rows = new AtomicLong(10);
+    when(ps.getResultSet())
+        .thenAnswer(invocation -> MockResultSets.idRows(start.get() + 1, 1, rows.get()));
+    SqlSession sqlSession =
+        new DefaultSqlSession(configuration, new SimpleExecutor(configuration, transaction));
+    Map<String, Object> param = new HashMap<>();
+    param.put("status", 1L);
+
+    List<Long> first = sqlSession.selectList("test.page", param, Page.first(10));
+    Assertions.assertInstanceOf(PageList.class, first);
+    PageList<Long> firstPage = (PageList<Long>) first;
+    Assertions.assertTrue(firstPage.hasNext());
+    Assertions.assertEquals(110L, firstPage.getNextPage().getKey());
+
+    start.set(110);
+    rows.set(3);
+    PageList<Long> last =
+        (PageList<Long>) sqlSession.<Long>selectList("test.page", param, firstPage.getNextPage());
+    Assertions.assertEquals(List.of(111L, 112L, 113L), last);
+    Assertions.assertFalse(last.hasNext());
+    verify(connection)
+        .prepareStatement("SELECT id FROM activity WHERE (status = ?) AND id > ? ORDER BY id ASC");
+    verify(ps, times(2)).setLong(1, 1L);
+    verify(ps).setLong(2, 110L);
+  }
+}
@@ -0,0 +1,174 @@
+package com.doublew2w.sbs.mybatis.test.session;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import com.doublew2w.sbs.mybatis.builder.StaticSqlSource;
+import com.doublew2w.sbs.mybatis.mapping.Environment;
+import com.doublew2w.sbs.mybatis.mapping.MappedStatement;
+import com.doublew2w.sbs.mybatis.mapping.ResultMap;
+import com.doublew2w.sbs.mybatis.mapping.SqlCommandType;
+import com.doublew2w.sbs.mybatis.session.Configuration;
+import com.doublew2w.sbs.mybatis.session.SqlSessionFactory;
+import com.doublew2w.sbs.mybatis.session.StatementRequest;
+import com.doublew2w.sbs.mybatis.session.defaults.DefaultSqlSessionFactory;
+import com.doublew2w.sbs.mybatis.test.MockResultSets;
+import com.doublew2w.sbs.mybatis.transaction.jdbc.JdbcTransactionFactory;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author: DoubleW2w
+ * @date: 2026/10/18 5:10
+ * @project: sbs-mybatis
+ */
+public class ParallelQueryTest {
+  private static final long QUERY_MILLIS = 200;
+
+  private Configuration configuration;
+  private SqlSessionFactory sqlSessionFactory;
+  private final AtomicInteger openConnections = new AtomicInteger();
+  private final AtomicInteger maxOpenConnections = new AtomicInteger();
+  private final AtomicInteger totalConnections = new AtomicInteger();
+
+  @BeforeEach
+  void setUp() throws Exception {
+    configuration = new Configuration();
+    DataSource dataSource = mock(DataSource.class);
+    when(dataSource.getConnection()).thenAnswer(invocation -> newConnection());
+    configuration.setEnvironment(
+        new Environment.Builder("test")
+            .transactionFactory(new JdbcTransactionFactory())
+            .dataSource(dataSource)
+            .build());
+    ResultMap resultMap =
+        new ResultMap.Builder(configuration, "test.select-Inline", Long.class, new ArrayList<>())
+            .build();
+    configuration.addMappedStatement(
+        new MappedStatement.Builder(
+                configuration,
+                "test.select",
+                SqlCommandType.SELECT,
+                new StaticSqlSource(configuration, "SELECT id FROM activity", new ArrayList<>()),
+                Long.class)
+            .resultMaps(Collections.singletonList(resultMap))
+            .build());
+    sqlSessionFactory = new DefaultSqlSessionFactory(configuration);
+  }
+
+  /** 每条连接的查询耗时 QUERY_MILLIS，返回一行，值为连接序号 */
+  private Connection newConnection() throws SQLException {
+    long connectionNo = totalConnections.incrementAndGet();
+    maxOpenConnections.accumulateAndGet(openConnections.incrementAndGet(), Math::max);
+    Connection connection = mock(Connection.class);
+    PreparedStatement ps = mock(PreparedStatement.class);
+    when(connection.prepareStatement(anyString())).thenReturn(ps);
+    doAnswer(
+            invocation -> {
+              openConnections.decrementAndGet();
+              return null;
+            })
+        .when(connection)
+        .close();
+    when(ps.execute())
+        .thenAnswer(
+            invocation -> {
+              Thread.sleep(QUERY_MILLIS);
+              return true;
+            });
+    when(ps.getResultSet()).thenAnswer(invocation -> MockResultSets.idRows(connectionNo, 1, 1));
+    return connection;
+  }
+
+  private List<StatementRequest> requests(int count) {
+    List<StatementRequest> requests = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      requests.add(StatementRequest.of("test.select", (long) i));
+    }
+    return requests;
+  }
+
+  @Test
+  void testLatencyCloseToSlowestQuery() {
+    long start = System.currentTimeMillis();
+    List<List<Object>> results = sqlSessionFactory.selectAllParallel(requests(4), 4);
+    long elapsed = System.currentTimeMillis() - start;
+
+    Assertions.assertEquals(4, results.size());
+    for (List<Object> result : results) {
+      Assertions.assertEquals(1, result.size());
+    }
+    // 串行需要 4 * QUERY_MILLIS
+    Assertions.assertTrue(elapsed < 3 * QUERY_MILLIS, "elapsed " + elapsed + "ms");
+    Assertions.assertEquals(4, totalConnections.get());
+  }
+
+  @Test
+  void testConcurrencyCapLimitsConnections() {
+    List<List<Object>> results = sqlSessionFactory.selectAllParallel(requests(10), 2);
+
+    Assertions.assertEquals(10, results.size());
+    Assertions.assertTrue(maxOpenConnections.get() <= 2, "max " + maxOpenConnections.get());
+    // 工作线程复用各自的连接
+    Assertions.assertEquals(2, totalConnections.get());
+    Assertions.assertEquals(0, openConnections.get());
+  }
+
+  @Test
+  void testFailureSurfacesToCaller() {
+    List<StatementRequest> requests = requests(3);
+    requests.add(StatementRequest.of("test.missing"));
+    Assertions.assertThrows(
+        RuntimeException.class, () -> sqlSessionFactory.selectAllParallel(requests, 2));
+    Assertions.assertEquals(0, openConnections.get());
+  }
+
+  @Test
+  void testCallFromAsyncPoolThreadDoesNotWaitForItself() throws Exception {
+    ExecutorService asyncExecutor = Executors.newFixedThreadPool(1);
+    configuration.setAsyncExecutor(asyncExecutor);
+    try {
+      // 唯一的异步线程在等待结果，提交的工作者只能排队，调用方自己完成全部查询
+      Future<List<List<Object>>> future =
+          asyncExecutor.submit(() -> sqlSessionFactory.selectAllParallel(requests(3), 3));
+      List<List<Object>> results = future.get(5, TimeUnit.SECONDS);
+      Assertions.assertEquals(3, results.size());
+      Assertions.assertEquals(1, totalConnections.get());
+      Assertions.assertEquals(0, openConnections.get());
+    } finally {
+      asyncExecutor.shutdownNow();
+    }
+  }
+
+  @Test
+  void testRejectedWorkerFailsAfterStartedWorkersFinish() {
+    // 只有一个线程且不排队：第一个工作者占用线程，第二个被拒绝
+    ThreadPoolExecutor asyncExecutor =
+        new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new SynchronousQueue<>());
+    configuration.setAsyncExecutor(asyncExecutor);
+    try {
+      RuntimeException e =
+          Assertions.assertThrows(
+              RuntimeException.class, () -> sqlSessionFactory.selectAllParallel(requests(4), 3));
+      Assertions.assertInstanceOf(RejectedExecutionException.class, e.getCause());
+      // 已经开始的工作者结束并归还了会话
+      Assertions.assertEquals(0, openConnections.get());
+    } finally {
+      asyncExecutor.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,260 @@
+package com.doublew2w.sbs.mybatis.test.session;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import com.doublew2w.sbs.mybatis.builder.StaticSqlSource;
+import com.doublew2w.sbs.mybatis.cursor.Cursor;
+import com.doublew2w.sbs.mybatis.cursor.defaults.MergingCursor;
+import com.doublew2w.sbs.mybatis.cursor.defaults.PrefetchCursor;
+import com.doublew2w.sbs.mybatis.mapping.BoundSql;
+import com.doublew2w.sbs.mybatis.mapping.Environment;
+import com.doublew2w.sbs.mybatis.mapping.MappedStatement;
+import com.doublew2w.sbs.mybatis.mapping.ParameterMapping;
+import com.doublew2w.sbs.mybatis.mapping.ResultMap;
+import com.doublew2w.sbs.mybatis.mapping.SqlCommandType;
+import com.doublew2w.sbs.mybatis.session.Configuration;
+import com.doublew2w.sbs.mybatis.session.KeyRange;
+import com.doublew2w.sbs.mybatis.session.QueryPartition;
+import com.doublew2w.sbs.mybatis.session.ScatterQuery;
+import com.doublew2w.sbs.mybatis.session.defaults.DefaultSqlSessionFactory;
+import com.doublew2w.sbs.mybatis.test.MockResultSets;
+import com.doublew2w.sbs.mybatis.transaction.jdbc.JdbcTransactionFactory;
+import java.sql.*;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author: DoubleW2w
+ * @date: 2026/10/18 9:50
+ * @project: sbs-mybatis
+ */
+public class ScatterQueryTest {
+  private Configuration configuration;
+  private ThreadPoolExecutor executor;
+  private ExecutorService asyncExecutor;
+
+  @BeforeEach
+  void setUp() {
+    configuration = new Configuration();
+    executor = (ThreadPoolExecutor) Executors.newCachedThreadPool();
+    configuration.setScatterExecutor(executor);
+    // 与异步映射器方法共用的有界线程池，分区查询不应占用它
+    asyncExecutor = Executors.newFixedThreadPool(4);
+    configuration.setAsyncExecutor(asyncExecutor);
+  }
+
+  private MappedStatement select(String id, String sql, List<ParameterMapping> mappings) {
+    ResultMap resultMap =
+        new ResultMap.Builder(configuration, id + "-Inline", Long.class, new ArrayList<>())
+            .build();
+    MappedStatement ms =
+        new MappedStatement.Builder(
+                configuration,
+                id,
+                SqlCommandType.SELECT,
+                new StaticSqlSource(configuration, sql, mappings),
+                Long.class)
+            .resultMaps(Collections.singletonList(resultMap))
+            .build();
+    configuration.addMappedStatement(ms);
+    return ms;
+  }
+
+  @Test
+  void testKeyRangeKeepsOrderByAndParameterOrder() {
+    List<ParameterMapping> mappings = new ArrayList<>();
+    mappings.add(new ParameterMapping.Builder(configuration, "status", Integer.class).build());
+    mappings.add(new ParameterMapping.Builder(configuration, "size", Integer.class).build());
+    MappedStatement ms =
+        select(
+            "test.range",
+            "SELECT id FROM activity WHERE status = ? OR status IS NULL ORDER BY id DESC LIMIT ?",
+            mappings);
+
+    BoundSql boundSql = ms.getBoundSql(null, new KeyRange("id", 100L, 200L));
+    Assertions.assertEquals(
+        "SELECT id FROM activity WHERE (status = ? OR status IS NULL) AND id >= ? AND id < ?"
+            + " ORDER BY id DESC LIMIT ?",
+        boundSql.getSql());
+    List<String> properties =
+        boundSql.getParameterMappings().stream()
+            .map(ParameterMapping::getProperty)
+            .collect(Collectors.toList());
+    Assertions.assertEquals(List.of("status", "_range_from", "_range_to", "size"), properties);
+
+    // 不限下界，没有 WHERE
+    MappedStatement plain = select("test.plain", "SELECT id FROM activity", new ArrayList<>());
+    Assertions.assertEquals(
+        "SELECT id FROM activity WHERE id < ?",
+        plain.getBoundSql(null, new KeyRange("id", null, 100L)).getSql());
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+    asyncExecutor.shutdownNow();
+  }
+
+  @Test
+  void testMergeIsStreamingAndStopsAtLimit() throws Exception {
+    AtomicInteger produced = new AtomicInteger();
+    List<Cursor<Long>> sources = new ArrayList<>();
+    for (long start = 0; start < 3; start++) {
+      long first = start;
+      sources.add(
+          PrefetchCursor.start(
+              sink ->
+                  LongStream.iterate(first, v -> v + 3)
+                      .limit(10_000)
+                      .forEach(
+                          v -> {
+                            produced.incrementAndGet();
+                            sink.accept(v);
+                          }),
+              4,
+              executor));
+    }
+    List<Long> merged = new ArrayList<>();
+    try (Cursor<Long> cursor = new MergingCursor<>(sources, Comparator.naturalOrder(), 10)) {
+      cursor.forEach(merged::add);
+      Assertions.assertTrue(cursor.isConsumed());
+    }
+    Assertions.assertEquals(
+        LongStream.range(0, 10).boxed().collect(Collectors.toList()), merged);
+    Thread.sleep(200);
+    // 每路最多缓冲几行，关闭后生产者停止，不会读完 30000 行
+    Assertions.assertTrue(produced.get() < 100, "produced " + produced.get());
+  }
+
+  @Test
+  void testSelectMergedRunsRangesOnSeparateConnections() throws Exception {
+    select("test.scan", "SELECT id FROM activity ORDER BY id DESC", new ArrayList<>());
+    List<Connection> connections = useConnections();
+    DefaultSqlSessionFactory factory = new DefaultSqlSessionFactory(configuration);
+
+    ScatterQuery query =
+        new ScatterQuery.Builder("test.scan", QueryPartition.ranges("id", List.of(100L, 200L)))
+            .limit(5)
+            .build();
+    List<Long> merged = new ArrayList<>();
+    try (Cursor<Long> cursor = factory.selectMerged(query)) {
+      cursor.forEach(merged::add);
+    }
+    // 三个分区 [,100) [100,200) [200,) 按 id DESC 归并
+    Assertions.assertEquals(List.of(290L, 280L, 270L, 260L, 250L), merged);
+    Assertions.assertEquals(3, connections.size());
+    Thread.sleep(200);
+    for (Connection connection : connections) {
+      verify(connection).close();
+    }
+    // 分区在专用的分区查询执行器上运行
+    Assertions.assertEquals(3, executor.getCompletedTaskCount());
+  }
+
+  @Test
+  void testOverlappingMergesDoNotWaitForEachOther() throws Exception {
+    select("test.scan", "SELECT id FROM activity ORDER BY id DESC", new ArrayList<>());
+    useConnections();
+    DefaultSqlSessionFactory factory = new DefaultSqlSessionFactory(configuration);
+    ScatterQuery query =
+        new ScatterQuery.Builder("test.scan", QueryPartition.ranges("id", List.of(100L, 200L)))
+            .bufferSize(1)
+            .build();
+    List<Long> expected =
+        LongStream.range(0, 30).map(i -> 290 - i * 10).boxed().collect(Collectors.toList());
+
+    // 两次归并共 6 个分区，多于异步线程池的 4 个线程；交替读取，任一分区排队都会互相等待
+    Assertions.assertTimeoutPreemptively(
+        Duration.ofSeconds(10),
+        () -> {
+          List<Long> first = new ArrayList<>();
+          List<Long> second = new ArrayList<>();
+          try (Cursor<Long> a = factory.selectMerged(query);
+              Cursor<Long> b = factory.selectMerged(query)) {
+            Iterator<Long> ia = a.iterator();
+            Iterator<Long> ib = b.iterator();
+            while (ia.hasNext() || ib.hasNext()) {
+              if (ia.hasNext()) {
+                first.add(ia.next());
+              }
+              if (ib.hasNext()) {
+                second.add(ib.next());
+              }
+            }
+          }
+          Assertions.assertEquals(expected, first);
+          Assertions.assertEquals(expected, second);
+        });
+  }
+
+  private List<Connection> useConnections() throws SQLException {
+    List<Connection> connections = new CopyOnWriteArrayList<>();
+    DataSource dataSource = mock(DataSource.class);
+    when(dataSource.getConnection())
+        .thenAnswer(
+            invocation -> {
+              Connection connection = newConnection();
+              connections.add(connection);
+              return connection;
+            });
+    configuration.setEnvironment(
+        new Environment.Builder("test")
+            .transactionFactory(new JdbcTransactionFactory())
+            .dataSource(dataSource)
+            .build());
+    return connections;
+  }
+
+  /** 按绑定的范围参数返回 [from, to) 内步长 10 的行，id 降序 */
+  private Connection newConnection() throws SQLException {
+    Connection connection = mock(Connection.class);
+    when(connection.prepareStatement(anyString()))
+        .thenAnswer(invocation -> newStatement(invocation.getArgument(0)));
+    when(connection.prepareStatement(anyString(), anyInt(), anyInt()))
+        .thenAnswer(invocation -> newStatement(invocation.getArgument(0)));
+    return connection;
+  }
+
+  private PreparedStatement newStatement(String sql) throws SQLException {
+    PreparedStatement ps = mock(PreparedStatement.class);
+    Map<Integer, Long> params = new ConcurrentHashMap<>();
+    doAnswer(
+            invocation -> {
+              params.put(invocation.getArgument(0), invocation.getArgument(1));
+              return null;
+            })
+        .when(ps)
+        .setLong(anyInt(), anyLong());
+    when(ps.getResultSet())
+        .thenAnswer(
+            invocation -> {
+              boolean hasFrom = sql.contains("id >= ?");
+              long from = hasFrom ? params.get(1) : 0;
+              long to = sql.contains("id < ?") ? params.get(hasFrom ? 2 : 1) : 300;
+              // id 从 to - 10 开始步长 10 降序，直到 from
+              return MockResultSets.idRows(to - 10, -10, (to - from) / 10);
+            });
+    return ps;
+  }
+}